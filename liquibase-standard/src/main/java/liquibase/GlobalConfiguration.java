@@ -60,6 +60,25 @@ public class GlobalConfiguration implements AutoloadedConfigurations {
 
     public static final ConfigurationDefinition<Boolean> PRESERVE_CLASSPATH_PREFIX_IN_NORMALIZED_PATHS;
 
+    public static final ConfigurationDefinition<String> HISTORY_CACHE_DIRECTORY;
+
+    public static final ConfigurationDefinition<String> CHECKSUM_CACHE_DIRECTORY;
+
+    public static final ConfigurationDefinition<Integer> CHECKSUM_PARALLELISM;
+    public static final ConfigurationDefinition<Boolean> ADVISORY_CHANGELOG_LOCK;
+    public static final ConfigurationDefinition<Long> CHANGELOGLOCK_LEASE_TIME;
+    public static final ConfigurationDefinition<Integer> LOAD_DATA_BATCH_SIZE;
+    public static final ConfigurationDefinition<Boolean> LOAD_DATA_COMMIT_BATCHES;
+    public static final ConfigurationDefinition<Boolean> LOAD_DATA_STREAMING;
+    public static final ConfigurationDefinition<Boolean> LOAD_DATA_BULK_LOAD;
+    public static final ConfigurationDefinition<Integer> LOAD_DATA_PARALLEL_THREADS;
+    public static final ConfigurationDefinition<Boolean> LOAD_UPDATE_DATA_MERGE;
+    public static final ConfigurationDefinition<Integer> PREPARED_STATEMENT_CACHE_SIZE;
+    public static final ConfigurationDefinition<Integer> DML_BATCH_SIZE;
+    public static final ConfigurationDefinition<Boolean> UPDATE_PIPELINE;
+    public static final ConfigurationDefinition<Integer> UPDATE_COMMIT_GROUP_SIZE;
+    public static final ConfigurationDefinition<Integer> UPDATE_PARALLELISM;
+
     static {
         ConfigurationDefinition.Builder builder = new ConfigurationDefinition.Builder("liquibase");
 
@@ -274,6 +293,135 @@ public class GlobalConfiguration implements AutoloadedConfigurations {
                 .setDescription("If true 'classpath:' prefix will be preserved in normalized paths, allowing to resolve hierarchical resources under a classpath-based root.")
                 .setDefaultValue(false)
                 .build();
+
+        HISTORY_CACHE_DIRECTORY = builder.define("historyCacheDirectory", String.class)
+                .setDescription("Directory to keep a local cache of the database changelog table in. When set, only rows added since the previous run are read from the database, " +
+                        "falling back to a full read whenever the table no longer matches the cache. Only used on databases that can hash the table rows " +
+                        "in SQL (PostgreSQL and MySQL), elsewhere the whole table is always read. Disabled if not set.")
+                .setHidden(true)
+                .build();
+
+        CHECKSUM_CACHE_DIRECTORY = builder.define("checksumCacheDirectory", String.class)
+                .setDescription("Directory to keep a local cache of computed changeset checksums in. Checksums are reused as long as the changelog file " +
+                        "and every file read while computing them are unchanged. Disabled if not set.")
+                .setHidden(true)
+                .build();
+
+        CHECKSUM_PARALLELISM = builder.define("checksumParallelism", Integer.class)
+                .setDescription("Number of threads used to compute the checksums of already ran changesets before a changelog is validated. " +
+                        "With 1, checksums are computed one at a time while validating.")
+                .setDefaultValue(1)
+                .setHidden(true)
+                .build();
+
+        ADVISORY_CHANGELOG_LOCK = builder.define("advisoryChangelogLock", Boolean.class)
+                .setDescription("If true, the changelog lock is taken with a session-level advisory lock on PostgreSQL, MySQL, MariaDB, SQL Server and Oracle, " +
+                        "which waits in the database and is released when the session ends. Other databases keep using the changelog lock table.")
+                .setDefaultValue(false)
+                .setHidden(true)
+                .build();
+
+        CHANGELOGLOCK_LEASE_TIME = builder.define("changelogLockLeaseTime", Long.class)
+                .setDescription("Number of seconds the changelog lock is leased for. If greater than 0, the lock holder renews its lease from a background " +
+                        "connection, and a process waiting for the lock takes it over once the lease has not been renewed for this long. " +
+                        "Waiting processes also back off with jitter up to changelogLockPollRate. With 0, locks never expire.")
+                .setDefaultValue(0L)
+                .setHidden(true)
+                .build();
+
+        LOAD_DATA_BATCH_SIZE = builder.define("loadDataBatchSize", Integer.class)
+                .setDescription("Maximum number of rows loadData sends to the database in one JDBC batch. With 0, all rows of a file are sent in a single batch, " +
+                        "except with loadDataStreaming and loadDataParallelThreads, which then use batches of 10000 rows.")
+                .setDefaultValue(0)
+                .setHidden(true)
+                .build();
+
+        LOAD_DATA_COMMIT_BATCHES = builder.define("loadDataCommitBatches", Boolean.class)
+                .setDescription("If true, loadData commits after each JDBC batch of rows in changesets with runInTransaction=false, " +
+                        "so large files are not loaded in a single transaction.")
+                .setDefaultValue(false)
+                .setHidden(true)
+                .build();
+
+        LOAD_DATA_STREAMING = builder.define("loadDataStreaming", Boolean.class)
+                .setDescription("If true, loadData reads the data file while inserting it instead of reading all rows into memory first. " +
+                        "Rows are always inserted with prepared statements and the file is read again when the changeset runs.")
+                .setDefaultValue(false)
+                .setHidden(true)
+                .build();
+
+        LOAD_DATA_BULK_LOAD = builder.define("loadDataBulkLoad", Boolean.class)
+                .setDescription("If true, loadData uses the native bulk load of the database when one is available, " +
+                        "like COPY on PostgreSQL or CSVREAD on H2. Rows that need database functions, sequences or LOB files are still inserted individually, in their place in the file. " +
+                        "The H2 and HSQLDB bulk loads cannot be rolled back with the changeset, so they are only used in changesets with runInTransaction=false.")
+                .setDefaultValue(false)
+                .setHidden(true)
+                .build();
+
+        LOAD_DATA_PARALLEL_THREADS = builder.define("loadDataParallelThreads", Integer.class)
+                .setDescription("Number of connections loadData inserts the rows of a file on at the same time in changesets with runInTransaction=false. " +
+                        "The rows are committed together once all connections succeeded. Only use it for tables without triggers or other " +
+                        "dependencies on the order of the rows. With 1, all rows are inserted on the changeset connection.")
+                .setDefaultValue(1)
+                .setHidden(true)
+                .build();
+
+        LOAD_UPDATE_DATA_MERGE = builder.define("loadUpdateDataMerge", Boolean.class)
+                .setDescription("If true, loadUpdateData loads the rows into a staging table and merges them into the table with a single statement " +
+                        "on databases that support it, instead of inserting or updating each row on its own. " +
+                        "Files with more than one row for the same primary key are still loaded row by row. " +
+                        "On databases that commit on DDL, like Oracle, H2 and HSQLDB, the staging table is only used in changesets with runInTransaction=false.")
+                .setDefaultValue(false)
+                .setHidden(true)
+                .build();
+
+        PREPARED_STATEMENT_CACHE_SIZE = builder.define("preparedStatementCacheSize", Integer.class)
+                .setDescription("Number of prepared statements kept open per connection to reuse for SQL that is run repeatedly: parameterized SQL, " +
+                        "queries like the history and lock queries, and the history rows of changesets, which are then inserted with parameters. " +
+                        "Least recently used statements are closed first, and all are closed when the connection is closed, after DDL, and on a " +
+                        "rollback of a transaction that ran DDL. Statements stay open across commits. With 0, statements are not cached.")
+                .setDefaultValue(0)
+                .setHidden(true)
+                .build();
+
+        DML_BATCH_SIZE = builder.define("dmlBatchSize", Integer.class)
+                .setDescription("Maximum number of consecutive insert, update and delete statements on the same table of a changeset " +
+                        "that are sent to the database in one JDBC batch. The statements may come from several changes. Change listeners are " +
+                        "told all changes of a batch will run before it is sent, and that they ran only after the whole batch succeeded. " +
+                        "Statements that continue on error are run on their own. " +
+                        "With 0 or 1, each statement is sent on its own.")
+                .setDefaultValue(0)
+                .setHidden(true)
+                .build();
+
+        UPDATE_PIPELINE = builder.define("updatePipeline", Boolean.class)
+                .setDescription("Should update generate the statements of the next changeset on a separate thread while the current " +
+                        "changeset executes? Only changes whose statements do not depend on the database state are generated ahead, " +
+                        "on an offline copy of the update database that does not use a database connection. The changeset filters of " +
+                        "the next changeset run before the current changeset executes. Preconditions, execution and changelog table " +
+                        "updates still happen one changeset at a time, in order.")
+                .setDefaultValue(false)
+                .setHidden(true)
+                .build();
+
+        UPDATE_COMMIT_GROUP_SIZE = builder.define("updateCommitGroupSize", Integer.class)
+                .setDescription("Maximum number of consecutive changesets that update runs and records in the changelog table in one " +
+                        "transaction. If a changeset fails, the whole group is rolled back. On databases without transactional DDL " +
+                        "only changesets made of insert, update and delete data changes are grouped. With 0 or 1, each changeset is " +
+                        "committed on its own.")
+                .setDefaultValue(0)
+                .setHidden(true)
+                .build();
+
+        UPDATE_PARALLELISM = builder.define("updateParallelism", Integer.class)
+                .setDescription("Maximum number of changesets that update runs at the same time, each on its own connection opened with " +
+                        "the same URL. Changesets that touch a common table, or whose tables cannot be determined, still run in changelog " +
+                        "order. The changelog table row of a changeset is written on its connection in the same transaction as the " +
+                        "changeset, with an ORDEREXECUTED reserved in changelog order. Change listeners are called from several threads. " +
+                        "With 0 or 1, changesets run one after the other.")
+                .setDefaultValue(0)
+                .setHidden(true)
+                .build();
     }
 
     public enum DuplicateFileMode {
@@ -273,6 +273,22 @@ public class Scope {
         scopeManager.get().setCurrentScope(currentScope.getParent());
     }
 
+    /**
+     * Runs the given code with the given scope as the current scope of this thread, restoring the thread's own scope afterwards.
+     * Used to carry a scope over to worker threads, which otherwise only see the scope that was current when they were created.
+     */
+    public static <T> T runInScope(Scope scope, ScopedRunnerWithReturn<T> runner) throws Exception {
+        ScopeManager originalScopeManager = scopeManager.get();
+        ScopeManager threadScopeManager = new SingletonScopeManager();
+        threadScopeManager.setCurrentScope(scope);
+        scopeManager.set(threadScopeManager);
+        try {
+            return runner.run();
+        } finally {
+            scopeManager.set(originalScopeManager);
+        }
+    }
+
     /**
      * Creates a new scope that is a child of this scope.
      */
@@ -0,0 +1,136 @@
+package liquibase.bulkload;
+
+import liquibase.Scope;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.listener.SqlListener;
+import liquibase.sql.SqlConfiguration;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.stream.Collectors;
+
+/**
+ * Convenience base class for {@link BulkLoader} implementations.
+ */
+public abstract class AbstractBulkLoader implements BulkLoader {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    /**
+     * Returns the JDBC connection of the database, or null if it does not have one.
+     */
+    protected JdbcConnection getJdbcConnection(Database database) {
+        if (database.getConnection() instanceof JdbcConnection) {
+            return (JdbcConnection) database.getConnection();
+        }
+        return null;
+    }
+
+    protected String escapeTableName(Database database, BulkLoadData data) {
+        return database.escapeTableName(data.getCatalogName(), data.getSchemaName(), data.getTableName());
+    }
+
+    protected String escapeColumnNames(Database database, BulkLoadData data) {
+        return data.getColumnNames().stream()
+                .map(column -> database.escapeColumnName(data.getCatalogName(), data.getSchemaName(), data.getTableName(), column))
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Executes the given SQL on the connection of the database.
+     *
+     * @return the number of updated rows
+     */
+    protected long executeUpdate(Database database, String sql) throws DatabaseException {
+        logSql(sql);
+        try (PreparedStatement statement = getJdbcConnection(database).prepareStatement(sql)) {
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new DatabaseException(e.getMessage() + " [Failed SQL: " + sql + "]", e);
+        }
+    }
+
+    protected void logSql(String sql) {
+        for (SqlListener listener : Scope.getCurrentScope().getListeners(SqlListener.class)) {
+            listener.writeSqlWillRun(sql);
+        }
+        Scope.getCurrentScope().getLog(getClass()).log(SqlConfiguration.SHOW_AT_LOG_LEVEL.getCurrentValue(), sql, null);
+    }
+
+    /**
+     * Writes the rows of the data to a new UTF-8 encoded file in the given directory, or in the temporary directory if it is null.
+     * The caller has to delete the file.
+     */
+    protected Path writeDataFile(BulkLoadData data, Path directory) throws DatabaseException {
+        Path file = null;
+        try {
+            file = (directory == null) ? Files.createTempFile("liquibase-bulkload", ".csv")
+                    : Files.createTempFile(directory, "liquibase-bulkload", ".csv");
+            try (Reader reader = data.openCsvReader();
+                 Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                reader.transferTo(writer);
+            }
+            return file;
+        } catch (IOException e) {
+            deleteDataFile(file);
+            throw toDatabaseException(e);
+        }
+    }
+
+    /**
+     * Returns true if {@link #writeDataFile(BulkLoadData, Path)} can create files in the given directory, or in the temporary
+     * directory if it is null. Checked in {@link #supports(Database)}, so the load does not fail after the rows were read.
+     */
+    protected boolean canWriteDataFile(Path directory) {
+        Path file = null;
+        try {
+            file = (directory == null) ? Files.createTempFile("liquibase-bulkload", ".csv")
+                    : Files.createTempFile(directory, "liquibase-bulkload", ".csv");
+            return true;
+        } catch (IOException | RuntimeException e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot create bulk load file: " + e.getMessage(), e);
+            return false;
+        } finally {
+            deleteDataFile(file);
+        }
+    }
+
+    protected void deleteDataFile(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            Scope.getCurrentScope().getLog(getClass()).warning("Cannot delete bulk load file " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the {@link DatabaseException} thrown while reading the rows, or wraps the given exception.
+     */
+    protected static DatabaseException toDatabaseException(IOException e) {
+        if (e.getCause() instanceof DatabaseException) {
+            return (DatabaseException) e.getCause();
+        }
+        return new DatabaseException(e);
+    }
+
+    /**
+     * Returns the given value as SQL string literal.
+     */
+    protected static String quote(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+}
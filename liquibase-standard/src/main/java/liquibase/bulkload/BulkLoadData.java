@@ -0,0 +1,224 @@
+package liquibase.bulkload;
+
+import liquibase.change.ColumnConfig;
+import liquibase.change.core.LoadDataChange;
+import liquibase.exception.DatabaseException;
+import liquibase.statement.DatabaseFunction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Rows to load with a {@link BulkLoader}, read from their source while the loader consumes them.
+ * <p>
+ * {@link #openCsvReader()} returns the rows as comma separated values without header. Every value is enclosed in double quotes,
+ * with double quotes doubled, and NULL is written as an empty field without quotes. The rows end before the first row that
+ * cannot be loaded without evaluating a database function, a sequence or a LOB file. That row is returned by
+ * {@link #getRejectedRow()} so it can be inserted individually, and the rows after it are read by a new data on the same source.
+ * This keeps the rows in the order of their source.
+ */
+public class BulkLoadData implements Closeable {
+
+    /**
+     * Source of the rows to load, read one at a time.
+     */
+    public interface RowSource extends Closeable {
+
+        /**
+         * Returns the columns and values of the next row, or null once all rows were read.
+         */
+        List<? extends ColumnConfig> next() throws DatabaseException;
+    }
+
+    private final String catalogName;
+    private final String schemaName;
+    private final String tableName;
+    private final RowSource source;
+    private final List<String> columnNames;
+
+    private List<? extends ColumnConfig> nextRow;
+    private List<? extends ColumnConfig> rejectedRow;
+    private boolean readerOpened;
+
+    public BulkLoadData(String catalogName, String schemaName, String tableName, RowSource source) throws DatabaseException {
+        this.catalogName = catalogName;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.source = source;
+
+        this.nextRow = nextLoadableRow();
+        List<String> names = new ArrayList<>();
+        if (nextRow != null) {
+            for (ColumnConfig column : nextRow) {
+                names.add(column.getName());
+            }
+        }
+        this.columnNames = Collections.unmodifiableList(names);
+    }
+
+    public String getCatalogName() {
+        return catalogName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Returns the names of the loaded columns, in the order of the values of each row.
+     */
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * Returns true if there are no rows to bulk load.
+     */
+    public boolean isEmpty() {
+        return columnNames.isEmpty();
+    }
+
+    /**
+     * Returns the row that ended these rows because it cannot be bulk loaded, or null if the source has no more rows.
+     * Only known once the reader returned by {@link #openCsvReader()} is exhausted, or if there are no rows to bulk load.
+     */
+    public List<? extends ColumnConfig> getRejectedRow() {
+        if (nextRow != null) {
+            throw new IllegalStateException("The rows of " + tableName + " were not read yet");
+        }
+        return rejectedRow;
+    }
+
+    /**
+     * Returns the rows of the same source that follow the {@link #getRejectedRow() rejected row}.
+     * Closing either data closes the source.
+     */
+    public BulkLoadData nextData() throws DatabaseException {
+        return new BulkLoadData(catalogName, schemaName, tableName, source);
+    }
+
+    /**
+     * Returns the rows as comma separated values. Can only be called once, since the rows are read from their source.
+     */
+    public Reader openCsvReader() {
+        if (readerOpened) {
+            throw new IllegalStateException("The rows of " + tableName + " were already read");
+        }
+        readerOpened = true;
+        return new CsvRowReader();
+    }
+
+    /**
+     * Returns true if the value of the given column can be written to a data file for the database to convert it.
+     */
+    public static boolean canBulkLoad(ColumnConfig column) {
+        if (LoadDataChange.LOAD_DATA_TYPE.BLOB.name().equalsIgnoreCase(column.getType())
+                || LoadDataChange.LOAD_DATA_TYPE.CLOB.name().equalsIgnoreCase(column.getType())) {
+            return false;
+        }
+        return (column.getValueComputed() == null)
+                && (column.getValueSequenceNext() == null)
+                && (column.getValueSequenceCurrent() == null)
+                && (column.getValueBlobFile() == null)
+                && (column.getValueClobFile() == null)
+                && !(column.getValueObject() instanceof DatabaseFunction);
+    }
+
+    /**
+     * Returns true if all values of the given row can be bulk loaded.
+     */
+    public static boolean canBulkLoad(List<? extends ColumnConfig> row) {
+        return row.stream().allMatch(BulkLoadData::canBulkLoad);
+    }
+
+    protected static String toCsvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String string;
+        if (value instanceof BigDecimal) {
+            string = ((BigDecimal) value).toPlainString();
+        } else if ((value instanceof Date) && !(value instanceof java.sql.Date) && !(value instanceof java.sql.Time)
+                && !(value instanceof Timestamp)) {
+            string = new Timestamp(((Date) value).getTime()).toString();
+        } else {
+            string = value.toString();
+        }
+        return "\"" + string.replace("\"", "\"\"") + "\"";
+    }
+
+    private List<? extends ColumnConfig> nextLoadableRow() throws DatabaseException {
+        List<? extends ColumnConfig> row = source.next();
+        if ((row != null) && !canBulkLoad(row)) {
+            rejectedRow = row;
+            return null;
+        }
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private class CsvRowReader extends Reader {
+
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if ((position >= line.length()) && !readLine()) {
+                return -1;
+            }
+            int count = Math.min(length, line.length() - position);
+            line.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        private boolean readLine() throws IOException {
+            if (nextRow == null) {
+                return false;
+            }
+            line.setLength(0);
+            position = 0;
+            if (nextRow.size() != columnNames.size()) {
+                throw new IOException("Row of " + tableName + " has " + nextRow.size() + " values, expected " + columnNames.size());
+            }
+            for (int i = 0; i < nextRow.size(); i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                line.append(toCsvValue(nextRow.get(i).getValueObject()));
+            }
+            line.append('\n');
+
+            try {
+                nextRow = nextLoadableRow();
+            } catch (DatabaseException e) {
+                throw new IOException(e);
+            }
+            return true;
+        }
+
+        @Override
+        public void close() {
+            //the source is closed with the data
+        }
+    }
+}
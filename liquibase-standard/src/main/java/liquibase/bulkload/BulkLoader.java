@@ -0,0 +1,36 @@
+package liquibase.bulkload;
+
+import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
+import liquibase.plugin.Plugin;
+
+/**
+ * Loads the rows of a data file into a table with the native bulk load mechanism of a database instead of individual inserts.
+ * Used by {@link liquibase.change.core.LoadDataChange} when {@link liquibase.GlobalConfiguration#LOAD_DATA_BULK_LOAD} is enabled.
+ * <p>
+ * Implementations are found with the {@link liquibase.servicelocator.ServiceLocator} and chosen by {@link BulkLoaderFactory}.
+ */
+public interface BulkLoader extends Plugin {
+
+    int getPriority();
+
+    /**
+     * Returns true if this loader can load data into the given database with its current connection.
+     */
+    boolean supports(Database database);
+
+    /**
+     * Returns false if loading commits the current transaction or cannot be rolled back with it.
+     * Such loaders are only used for changesets with runInTransaction=false.
+     */
+    default boolean isTransactional() {
+        return true;
+    }
+
+    /**
+     * Loads the rows of the given data into its table, using the connection and transaction of the given database.
+     *
+     * @return the number of loaded rows
+     */
+    long load(Database database, BulkLoadData data) throws DatabaseException;
+}
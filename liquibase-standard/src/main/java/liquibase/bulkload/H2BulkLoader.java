@@ -0,0 +1,75 @@
+package liquibase.bulkload;
+
+import liquibase.Scope;
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads data into embedded H2 databases with INSERT ... SELECT FROM CSVREAD. The rows are written to a temporary file first,
+ * so the database has to run in the same process and CSVREAD requires admin rights. Both and the temporary file are checked
+ * in {@link #supports(Database)}.
+ * <p>
+ * The data file is outside of the database transaction, so like {@link HsqlBulkLoader} this loader is only used for
+ * changesets with runInTransaction=false.
+ */
+public class H2BulkLoader extends AbstractBulkLoader {
+
+    @Override
+    public boolean supports(Database database) {
+        if (!(database instanceof H2Database)) {
+            return false;
+        }
+        JdbcConnection connection = getJdbcConnection(database);
+        if ((connection == null) || (connection.getURL() == null)) {
+            return false;
+        }
+        String url = connection.getURL();
+        if (!url.startsWith("jdbc:h2:") || url.startsWith("jdbc:h2:tcp:") || url.startsWith("jdbc:h2:ssl:")) {
+            return false;
+        }
+        return isAdmin(connection) && canWriteDataFile(null);
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return false;
+    }
+
+    private boolean isAdmin(JdbcConnection connection) {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT IS_ADMIN FROM INFORMATION_SCHEMA.USERS WHERE USER_NAME = CURRENT_USER");
+             ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() && resultSet.getBoolean(1);
+        } catch (SQLException | DatabaseException e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot check H2 admin rights: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public long load(Database database, BulkLoadData data) throws DatabaseException {
+        Path file = writeDataFile(data, null);
+        try {
+            List<String> fileColumns = new ArrayList<>();
+            for (int i = 1; i <= data.getColumnNames().size(); i++) {
+                fileColumns.add("C" + i);
+            }
+            String sql = "INSERT INTO " + escapeTableName(database, data) + " (" + escapeColumnNames(database, data) + ") "
+                    + "SELECT " + String.join(", ", fileColumns)
+                    + " FROM CSVREAD(" + quote(file.toAbsolutePath().toString()) + ", " + quote(String.join(",", fileColumns))
+                    + ", 'charset=UTF-8 fieldSeparator=, nullString=')";
+            return executeUpdate(database, sql);
+        } finally {
+            deleteDataFile(file);
+        }
+    }
+}
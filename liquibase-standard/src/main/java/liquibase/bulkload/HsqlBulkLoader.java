@@ -0,0 +1,79 @@
+package liquibase.bulkload;
+
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Loads data into HSQLDB file databases through a TEXT table. The rows are written to a file in the database directory,
+ * which is attached as source of a temporary TEXT table and copied into the target table with INSERT ... SELECT.
+ * <p>
+ * HSQLDB commits the current transaction when the TEXT table is created and dropped, so this loader is only used for
+ * changesets with runInTransaction=false.
+ */
+public class HsqlBulkLoader extends AbstractBulkLoader {
+
+    private static final String FILE_URL_PREFIX = "jdbc:hsqldb:file:";
+
+    @Override
+    public boolean supports(Database database) {
+        if (!(database instanceof HsqlDatabase)) {
+            return false;
+        }
+        Path directory = getDatabaseDirectory(database);
+        return (directory != null) && canWriteDataFile(directory);
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return false;
+    }
+
+    /**
+     * Returns the directory of the database files, or null if the database is not a file database.
+     * The source files of TEXT tables have to be in this directory.
+     */
+    protected Path getDatabaseDirectory(Database database) {
+        JdbcConnection connection = getJdbcConnection(database);
+        if ((connection == null) || (connection.getURL() == null) || !connection.getURL().startsWith(FILE_URL_PREFIX)) {
+            return null;
+        }
+        String path = connection.getURL().substring(FILE_URL_PREFIX.length());
+        if (path.contains(";")) {
+            path = path.substring(0, path.indexOf(';'));
+        }
+        return Paths.get(path).toAbsolutePath().getParent();
+    }
+
+    @Override
+    public long load(Database database, BulkLoadData data) throws DatabaseException {
+        Path file = writeDataFile(data, getDatabaseDirectory(database));
+        String textTable = "LIQUIBASE_BULKLOAD_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
+        try {
+            List<String> fileColumns = new ArrayList<>();
+            List<String> fileColumnDefinitions = new ArrayList<>();
+            for (int i = 1; i <= data.getColumnNames().size(); i++) {
+                fileColumns.add("C" + i);
+                fileColumnDefinitions.add("C" + i + " LONGVARCHAR");
+            }
+            executeUpdate(database, "CREATE TEXT TABLE " + textTable + " (" + String.join(", ", fileColumnDefinitions) + ")");
+            try {
+                executeUpdate(database, "SET TABLE " + textTable + " SOURCE "
+                        + quote(file.getFileName() + ";encoding=UTF-8;quoted=true"));
+                return executeUpdate(database, "INSERT INTO " + escapeTableName(database, data)
+                        + " (" + escapeColumnNames(database, data) + ") SELECT " + String.join(", ", fileColumns) + " FROM " + textTable);
+            } finally {
+                executeUpdate(database, "DROP TABLE " + textTable);
+            }
+        } finally {
+            deleteDataFile(file);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package liquibase.bulkload;
+
+import liquibase.database.Database;
+import liquibase.database.core.CockroachDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Loads data into PostgreSQL with COPY FROM STDIN, streaming the rows to the server while they are read.
+ * The PostgreSQL JDBC driver is accessed through reflection, so it is only needed at runtime.
+ */
+public class PostgresBulkLoader extends AbstractBulkLoader {
+
+    private static final String PG_CONNECTION_CLASS = "org.postgresql.PGConnection";
+
+    @Override
+    public boolean supports(Database database) {
+        if (!(database instanceof PostgresDatabase) || (database instanceof CockroachDatabase)) {
+            return false;
+        }
+        JdbcConnection connection = getJdbcConnection(database);
+        if ((connection == null) || (connection.getWrappedConnection() == null)) {
+            return false;
+        }
+        try {
+            return connection.getWrappedConnection().isWrapperFor(getPgConnectionClass(connection.getWrappedConnection()));
+        } catch (ClassNotFoundException | SQLException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public long load(Database database, BulkLoadData data) throws DatabaseException {
+        String sql = "COPY " + escapeTableName(database, data) + " (" + escapeColumnNames(database, data) + ") FROM STDIN WITH (FORMAT csv)";
+        logSql(sql);
+
+        Connection connection = getJdbcConnection(database).getWrappedConnection();
+        try (Reader reader = data.openCsvReader()) {
+            Object pgConnection = connection.unwrap(getPgConnectionClass(connection));
+            Object copyManager = pgConnection.getClass().getMethod("getCopyAPI").invoke(pgConnection);
+            Object rows = copyManager.getClass().getMethod("copyIn", String.class, Reader.class).invoke(copyManager, sql, reader);
+            return ((Number) rows).longValue();
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException) {
+                throw toDatabaseException((IOException) e.getCause());
+            }
+            throw new DatabaseException(e.getCause().getMessage() + " [Failed SQL: " + sql + "]", e.getCause());
+        } catch (IOException e) {
+            throw toDatabaseException(e);
+        } catch (ReflectiveOperationException | SQLException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    private static Class<?> getPgConnectionClass(Connection connection) throws ClassNotFoundException {
+        return Class.forName(PG_CONNECTION_CLASS, false, connection.getClass().getClassLoader());
+    }
+}
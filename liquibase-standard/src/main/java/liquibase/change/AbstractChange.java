@@ -546,7 +546,7 @@ public abstract class AbstractChange extends AbstractPlugin implements Change {
                 }
                 return super.include(obj, field, value);
             }
-        }).serialize(this, false));
+        }), this);
     }
 
     public String[] getExcludedFieldFilters(ChecksumVersion version) {
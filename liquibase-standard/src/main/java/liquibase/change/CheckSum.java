@@ -2,6 +2,9 @@ package liquibase.change;
 
 import liquibase.ChecksumVersion;
 import liquibase.Scope;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.serializer.LiquibaseSerializable;
+import liquibase.serializer.core.string.StringChangeLogSerializer;
 import liquibase.util.MD5Util;
 import liquibase.util.StringUtil;
 import lombok.Getter;
@@ -90,6 +93,21 @@ public final class CheckSum {
         ), Scope.getCurrentScope().getChecksumVersion().getVersion());
     }
 
+    /**
+     * Compute a storedCheckSum of the given object as serialized by the given serializer.
+     * Returns the same value as {@code compute(serializer.serialize(object, false))} but streams the serialized text
+     * through a {@link CheckSumWriter} instead of building and normalizing it as a whole.
+     */
+    public static CheckSum compute(StringChangeLogSerializer serializer, LiquibaseSerializable object) {
+        CheckSumWriter writer = new CheckSumWriter();
+        try {
+            serializer.serialize(object, writer);
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+        return writer.getCheckSum();
+    }
+
     /**
      * Compute a CheckSum of the given data stream (no normalization of line endings!)
      */
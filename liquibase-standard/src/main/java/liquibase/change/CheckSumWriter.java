@@ -0,0 +1,224 @@
+package liquibase.change;
+
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.util.MD5Util;
+
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+
+/**
+ * Computes a {@link CheckSum} from text written to it, producing the same value as {@link CheckSum#compute(String)}
+ * on the concatenation of everything written without ever holding that concatenation in memory.
+ * <p>
+ * Line endings are standardized, "unknown" unicode characters are removed and the text is NFC normalized while it is written.
+ * Normalization is applied to each ASCII character together with the non-ASCII characters following it, since combining
+ * characters can compose with the character before them but no ASCII character composes with anything before it.
+ * Long runs of non-ASCII text are also cut before characters that nothing before them composes with, so only an unbroken run
+ * of combining characters grows the text held for normalization past {@link #PENDING_LIMIT} characters.
+ * The normalized text is then encoded and fed into the digest in fixed-size chunks.
+ */
+public class CheckSumWriter extends Writer {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int LOG_PREVIEW_LENGTH = 500;
+    static final int PENDING_LIMIT = 1024;
+
+    private final MessageDigest digest;
+    private final CharsetEncoder encoder;
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private final ByteBuffer bytes;
+    private final StringBuilder pending = new StringBuilder();
+    private final StringBuilder logPreview = new StringBuilder();
+
+    private boolean previousWasCarriageReturn;
+    private CheckSum checkSum;
+
+    public CheckSumWriter() {
+        try {
+            this.digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+        this.encoder = Charset.forName(GlobalConfiguration.OUTPUT_FILE_ENCODING.getCurrentValue()).newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.bytes = ByteBuffer.allocate((int) Math.ceil(BUFFER_SIZE * encoder.maxBytesPerChar()));
+    }
+
+    @Override
+    public void write(int c) {
+        append((char) c);
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            append(buffer[i]);
+        }
+    }
+
+    @Override
+    public void write(String str, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            append(str.charAt(i));
+        }
+    }
+
+    @Override
+    public CheckSumWriter append(CharSequence csq) {
+        CharSequence value = (csq == null) ? "null" : csq;
+        for (int i = 0; i < value.length(); i++) {
+            append(value.charAt(i));
+        }
+        return this;
+    }
+
+    @Override
+    public CheckSumWriter append(char c) {
+        if (checkSum != null) {
+            throw new IllegalStateException("CheckSum already computed");
+        }
+        if (logPreview.length() < LOG_PREVIEW_LENGTH) {
+            logPreview.append(c);
+        }
+
+        if (c == '\r') {
+            previousWasCarriageReturn = true;
+            appendStandardized('\n');
+            return this;
+        }
+        if (c == '\n' && previousWasCarriageReturn) {
+            previousWasCarriageReturn = false;
+            return this;
+        }
+        previousWasCarriageReturn = false;
+        if (c == '\uFFFD') { //remove "Unknown" unicode char 65533
+            return this;
+        }
+        appendStandardized(c);
+        return this;
+    }
+
+    private void appendStandardized(char c) {
+        if (c < 0x80) {
+            flushPending();
+        }
+        pending.append(c);
+        if (pending.length() >= PENDING_LIMIT) {
+            flushPendingBeforeLastStarter();
+        }
+    }
+
+    /**
+     * Normalizes the pending text up to its last character that cannot compose with what is before it, keeping that
+     * character and the ones after it pending.
+     */
+    private void flushPendingBeforeLastStarter() {
+        for (int i = pending.length() - 1; i > 0; i--) {
+            if (isStarter(i)) {
+                String normalized = Normalizer.normalize(pending.subSequence(0, i), Normalizer.Form.NFC);
+                for (int j = 0; j < normalized.length(); j++) {
+                    appendNormalized(normalized.charAt(j));
+                }
+                pending.delete(0, i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns true if NFC never composes the code point at the given index of the pending text with the characters before it.
+     * Combining marks and the Hangul vowel and trailing consonant jamo compose with what comes before them.
+     */
+    private boolean isStarter(int index) {
+        char c = pending.charAt(index);
+        if (Character.isLowSurrogate(c) || (Character.isHighSurrogate(c) && (index + 1 >= pending.length()))) {
+            return false;
+        }
+        int codePoint = Character.codePointAt(pending, index);
+        if ((codePoint >= 0x1160 && codePoint <= 0x11FF) || (codePoint >= 0xD7B0 && codePoint <= 0xD7FF)) {
+            return false;
+        }
+        int type = Character.getType(codePoint);
+        return (type != Character.NON_SPACING_MARK) && (type != Character.COMBINING_SPACING_MARK) && (type != Character.ENCLOSING_MARK);
+    }
+
+    private void flushPending() {
+        if (pending.length() == 1 && pending.charAt(0) < 0x80) {
+            appendNormalized(pending.charAt(0));
+        } else if (pending.length() > 0) {
+            String normalized = Normalizer.normalize(pending, Normalizer.Form.NFC);
+            for (int i = 0; i < normalized.length(); i++) {
+                appendNormalized(normalized.charAt(i));
+            }
+        }
+        pending.setLength(0);
+    }
+
+    private void appendNormalized(char c) {
+        if (!chars.hasRemaining()) {
+            encode(false);
+        }
+        chars.put(c);
+    }
+
+    private void encode(boolean endOfInput) {
+        chars.flip();
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, bytes, endOfInput);
+            drainBytes();
+        } while (result.isOverflow());
+        if (endOfInput) {
+            while (encoder.flush(bytes).isOverflow()) {
+                drainBytes();
+            }
+            drainBytes();
+        }
+        chars.compact();
+    }
+
+    private void drainBytes() {
+        bytes.flip();
+        digest.update(bytes);
+        bytes.clear();
+    }
+
+    /**
+     * Completes the digest and returns the checksum of everything written, using the current scope's checksum version.
+     * No more text can be written once this has been called.
+     */
+    public CheckSum getCheckSum() {
+        if (checkSum == null) {
+            flushPending();
+            encode(true);
+            String md5 = MD5Util.encodeHexString(digest.digest());
+            if (logPreview.length() >= LOG_PREVIEW_LENGTH) {
+                logPreview.append("... [truncated in log]");
+            }
+            Scope.getCurrentScope().getLog(getClass()).fine("Computed checksum for " + logPreview + " as " + md5);
+            checkSum = CheckSum.parse(Scope.getCurrentScope().getChecksumVersion().getVersion() + ":" + md5);
+        }
+        return checkSum;
+    }
+
+    @Override
+    public void flush() {
+        //nothing is written anywhere until the checksum is computed
+    }
+
+    @Override
+    public void close() {
+        //nothing to release
+    }
+}
@@ -397,6 +397,14 @@ public class ColumnConfig extends AbstractLiquibaseSerializable {
      * @throws DateParseException if the columnType isn't supported for "now" or "today" values.
      */
     public ColumnConfig setValueDate(String valueDate) throws DateParseException {
+        return setValueDate(valueDate, null);
+    }
+
+    /**
+     * Same as {@link #setValueDate(String)}, but parses with the given format so callers setting many values can re-use it.
+     * A new format is used if it is null.
+     */
+    public ColumnConfig setValueDate(String valueDate, ISODateFormat dateFormat) throws DateParseException {
         this.rawDateValue = valueDate;
         if ((valueDate == null) || "null".equalsIgnoreCase(valueDate)) {
             this.valueDate = null;
@@ -404,7 +412,7 @@ public class ColumnConfig extends AbstractLiquibaseSerializable {
             this.valueDate = NowAndTodayUtil.doNowOrToday(valueDate, this.getType());
         } else {
             try {
-                this.valueDate = new ISODateFormat().parse(valueDate);
+                this.valueDate = (dateFormat == null ? new ISODateFormat() : dateFormat).parse(valueDate);
             } catch (ParseException e) {
                 //probably a function
                 this.valueComputed = new DatabaseFunction(valueDate);
@@ -4,6 +4,9 @@ import com.opencsv.exceptions.CsvMalformedLineException;
 import liquibase.CatalogAndSchema;
 import liquibase.GlobalConfiguration;
 import liquibase.Scope;
+import liquibase.bulkload.BulkLoadData;
+import liquibase.bulkload.BulkLoader;
+import liquibase.bulkload.BulkLoaderFactory;
 import liquibase.change.*;
 import liquibase.changelog.ChangeSet;
 import liquibase.database.AbstractJdbcDatabase;
@@ -11,6 +14,7 @@ import liquibase.database.Database;
 import liquibase.database.core.MSSQLDatabase;
 import liquibase.database.core.MySQLDatabase;
 import liquibase.database.core.PostgresDatabase;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.datatype.DataTypeFactory;
 import liquibase.datatype.LiquibaseDataType;
 import liquibase.exception.*;
@@ -24,9 +28,12 @@ import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotControl;
 import liquibase.snapshot.SnapshotGeneratorFactory;
 import liquibase.statement.BatchDmlExecutablePreparedStatement;
+import liquibase.statement.BulkLoadExecutablePreparedStatement;
 import liquibase.statement.ExecutablePreparedStatementBase;
 import liquibase.statement.InsertExecutablePreparedStatement;
+import liquibase.statement.ParallelDmlExecutablePreparedStatement;
 import liquibase.statement.SqlStatement;
+import liquibase.statement.StreamingDmlExecutablePreparedStatement;
 import liquibase.statement.core.InsertOrUpdateStatement;
 import liquibase.statement.core.InsertSetStatement;
 import liquibase.statement.core.InsertStatement;
@@ -34,6 +41,7 @@ import liquibase.structure.core.Column;
 import liquibase.structure.core.DataType;
 import liquibase.structure.core.Table;
 import liquibase.util.BooleanUtil;
+import liquibase.util.ISODateFormat;
 import liquibase.util.ObjectUtil;
 import liquibase.util.StreamUtil;
 import liquibase.util.StringUtil;
@@ -42,6 +50,7 @@ import lombok.Setter;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.nio.file.InvalidPathException;
@@ -259,220 +268,32 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
                 throw new UnexpectedLiquibaseException(e);
             }
 
+            BulkLoader bulkLoader = getBulkLoader(database);
+            if (bulkLoader != null) {
+                return new SqlStatement[]{createBulkLoadStatement(database, headers, bulkLoader)};
+            }
+
+            int parallelThreads = getParallelThreads(database);
+            if (parallelThreads > 1) {
+                return new SqlStatement[]{createParallelStatement(database, headers, parallelThreads)};
+            }
+
+            if (isStreaming(database)) {
+                return new SqlStatement[]{createStreamingStatement(database, headers)};
+            }
+
             String[] line;
             // Start at '1' to take into account the header (already processed):
             int lineNumber = 1;
 
-            boolean isCommentingEnabled = StringUtils.isNotEmpty(commentLineStartsWith);
-
+            RowConverter rowConverter = createRowConverter(headers, database);
             List<LoadDataRowConfig> rows = new ArrayList<>();
             while ((line = reader.readNext()) != null) {
                 lineNumber++;
-                if
-                ((line.length == 0) || ((line.length == 1) && (StringUtils.trimToNull(line[0]) == null)) ||
-                        (isCommentingEnabled && isLineCommented(line))
-                ) {
-                    //nothing interesting on this line
-                    continue;
+                LoadDataRowConfig row = rowConverter.convert(line, lineNumber);
+                if (row != null) {
+                    rows.add(row);
                 }
-
-                // Ensure each line has the same number of columns defined as does the header.
-                // (Failure could indicate unquoted strings with commas, for example).
-                if (line.length != headers.length) {
-                    throw new UnexpectedLiquibaseException(
-                            "CSV file " + getFile() + " Line " + lineNumber + " has " + line.length +
-                            " values defined, Header has " + headers.length +
-                            ". Numbers MUST be equal (check for unquoted string with embedded commas)"
-                    );
-                }
-
-                boolean needsPreparedStatement = false;
-
-                List<LoadDataColumnConfig> columnsFromCsv = new ArrayList<>();
-                for (int i = 0; i < headers.length; i++) {
-                    String value = line[i];
-                    String columnName = headers[i].trim();
-
-                    LoadDataColumnConfig valueConfig = new LoadDataColumnConfig();
-
-                    LoadDataColumnConfig columnConfig = getColumnConfig(i, columnName);
-                    if (columnConfig != null) {
-                        if ("skip".equalsIgnoreCase(columnConfig.getType())) {
-                            continue;
-                        }
-
-                        // don't overwrite header name unless there is actually a value to override it with
-                        if (columnConfig.getName() != null) {
-                            columnName = columnConfig.getName();
-                        }
-                        final boolean isNull = isNullValue(value, columnConfig);
-                        //
-                        // Always set the type for the valueConfig if the value is NULL
-                        //
-                        if (isNull) {
-                            valueConfig.setType(columnConfig.getType());
-                        }
-                        valueConfig.setName(columnName);
-                        valueConfig.setAllowUpdate(columnConfig.getAllowUpdate());
-
-                        if (StringUtils.isEmpty(value)) {
-                            value = columnConfig.getDefaultValue();
-                        }
-                        if (isNull) {
-                            valueConfig.setValue(null);
-                        } else if (columnConfig.getType() == null) {
-                            // columnConfig did not specify a type
-                            valueConfig.setValue(value);
-                        } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.BOOLEAN) {
-                            if (value == null) { // TODO getDefaultValueBoolean should use BooleanUtil.parseBoolean also for consistent behaviour
-                                valueConfig.setValueBoolean(columnConfig.getDefaultValueBoolean());
-                            } else {
-                                valueConfig.setValueBoolean(BooleanUtil.parseBoolean(value));
-                            }
-                        } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.NUMERIC) {
-                            if (value != null) {
-                                valueConfig.setValueNumeric(value);
-                            } else {
-                                valueConfig.setValueNumeric(columnConfig.getDefaultValueNumeric());
-                            }
-                        } else if (columnConfig.getType().equalsIgnoreCase("date")
-                                   || columnConfig.getType().equalsIgnoreCase("datetime")
-                                   || columnConfig.getType().equalsIgnoreCase("time")) {
-                            try {
-                                // Need the column type for handling 'NOW' or 'TODAY' type column value
-                                valueConfig.setType(columnConfig.getType());
-                                if (StringUtil.equalsWordNull(value) || StringUtils.isEmpty(value)) {
-                                    valueConfig.setValue(null);
-                                    valueConfig.setValueDate(columnConfig.getDefaultValueDate());
-                                } else {
-                                    valueConfig.setValueDate(value);
-                                }
-                            } catch (DateParseException e) {
-                                throw new UnexpectedLiquibaseException(e);
-                            }
-                        } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.STRING) {
-                            valueConfig.setType(columnConfig.getType());
-                            valueConfig.setValue(value == null ? "" : value);
-                        } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.COMPUTED) {
-                            if (null != value) {
-                                liquibase.statement.DatabaseFunction function =
-                                        new liquibase.statement.DatabaseFunction(value);
-                                valueConfig.setValueComputed(function);
-                            } else {
-                                valueConfig.setValueComputed(columnConfig.getDefaultValueComputed());
-                            }
-                        } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.SEQUENCE) {
-                            if (value == null) {
-                                throw new UnexpectedLiquibaseException(
-                                        "Must set a sequence name in the loadData column defaultValue attribute"
-                                );
-                            }
-                            liquibase.statement.SequenceNextValueFunction function =
-                                    new liquibase.statement.SequenceNextValueFunction(getSchemaName(), value);
-                            valueConfig.setValueComputed(function);
-
-                        } else if (columnConfig.getType().equalsIgnoreCase(LOAD_DATA_TYPE.BLOB.toString())) {
-                            if (StringUtil.equalsWordNull(value)) {
-                                valueConfig.setValue(null);
-                            } else if (BASE64_PATTERN.matcher(value).matches()) {
-                                valueConfig.setType(columnConfig.getType());
-                                valueConfig.setValue(value);
-                                needsPreparedStatement = true;
-                            } else {
-                                // If the value is not base64 encoded we are expecting the value to be a
-                                // valid path to another file which holds the entire value we are expecting
-                                // to load into the db.
-                                valueConfig.setValueBlobFile(value);
-                                needsPreparedStatement = true;
-                            }
-                        } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.CLOB) {
-                            // Previously, we expected all clobs found using loadData to be a valid path to a file.
-                            // To maintain backwards compatibility, we will first try to find the file.
-                            // If found, we then load the entire file into the value when executing the statement.
-                            // If not found, we load the value as a string.
-
-                            boolean resourceExists = false;
-                            // If the value is null we set the value directly to avoid Exceptions while loading
-                            // resources e.g. with SpringResourceAccessor.
-                            if (value != null) {
-                                Resource r = null;
-                                try {
-                                    if (getRelativeTo() != null) {
-                                            r = Scope.getCurrentScope().getResourceAccessor().get(getRelativeTo()).resolveSibling(value);
-                                    } else {
-                                        r = Scope.getCurrentScope().getResourceAccessor().get(value);
-                                    }
-                                } catch (InvalidPathException e) {
-                                    Scope.getCurrentScope().getLog(LoadDataChange.class).fine(String.format("Could not find file [%s] in [%s]: %s", value, getRelativeTo(), e.getMessage()));
-                                }
-                                resourceExists = r != null && r.exists();
-                            }
-
-                            if (resourceExists) {
-                                valueConfig.setValueClobFile(value);
-                            } else {
-                                Logger log = Scope.getCurrentScope().getLog(LoadDataChange.class);
-                                log.fine(String.format("File %s not found. Inserting the value as a string. See https://docs.liquibase.com for more information.", value));
-                                valueConfig.setValue(value);
-                            }
-                            needsPreparedStatement = true;
-                        } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.UUID) {
-                            valueConfig.setType(columnConfig.getType());
-                            if (StringUtil.equalsWordNull(value)) {
-                                valueConfig.setValue(null);
-                            } else {
-                                valueConfig.setValue(value);
-                            }
-                        } else if (columnConfig.getType().equalsIgnoreCase(LOAD_DATA_TYPE.OTHER.toString())) {
-                            valueConfig.setType(columnConfig.getType());
-                            if (StringUtil.equalsWordNull(value)) {
-                                valueConfig.setValue(null);
-                            } else {
-                                valueConfig.setValue(value);
-                            }
-                        } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.UNKNOWN) {
-                            // columnConfig did not match a specific type
-                            valueConfig.setValue(value);
-                        } else {
-                            throw new UnexpectedLiquibaseException(
-                                    String.format(coreBundle.getString("loaddata.type.is.not.supported"),
-                                            columnConfig.getType()
-                                    )
-                            );
-                        }
-                    } else {
-                        // No columnConfig found. Assume header column name to be the table column name.
-                        if (columnName.contains("(") || (columnName.contains(")") && (database instanceof
-                                AbstractJdbcDatabase))) {
-                            columnName = ((AbstractJdbcDatabase) database).quoteObject(columnName, Column.class);
-                        }
-
-                        valueConfig.setName(columnName);
-
-                        valueConfig.setValue(getValueToWrite(value));
-                    }
-                    columnsFromCsv.add(valueConfig);
-                }
-                // end of: iterate through all the columns of a CSV line
-
-                // Try to use prepared statements if any of the following conditions apply:
-                // 1. There is no other option than using a prepared statement (e.g. in cases of LOBs) regardless
-                //     of whether the 'usePreparedStatement' is set to false
-                // 2. The database supports batched statements (for improved performance) AND we are not in an
-                //    "SQL" mode (i.e. we generate an SQL file instead of actually modifying the database).
-                // BUT: if the user specifically requests usePreparedStatement=false, then respect that
-                boolean actuallyUsePreparedStatements = false;
-                if (hasPreparedStatementsImplemented()) {
-                    if (usePreparedStatements != null) {
-                        if (!usePreparedStatements && needsPreparedStatement) {
-                            throw new UnexpectedLiquibaseException("loadData is requesting usePreparedStatements=false but prepared statements are required");
-                        }
-                        actuallyUsePreparedStatements = usePreparedStatements;
-                    } else {
-                        actuallyUsePreparedStatements = needsPreparedStatement || (!isLoggingExecutor(database) && preferPreparedStatements(database));
-                    }
-                }
-                rows.add(new LoadDataRowConfig(actuallyUsePreparedStatements, columnsFromCsv));
             }
             return generateStatementsFromRows(database, rows);
         } catch (CsvMalformedLineException e) {
@@ -495,6 +316,552 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
         // Do nothing
     }
 
+    /**
+     * Returns true if the data file should be read while the statements are executed instead of up front,
+     * see {@link GlobalConfiguration#LOAD_DATA_STREAMING}.
+     */
+    protected boolean isStreaming(Database database) {
+        return GlobalConfiguration.LOAD_DATA_STREAMING.getCurrentValue()
+                && hasPreparedStatementsImplemented()
+                && !Boolean.FALSE.equals(usePreparedStatements)
+                && !isLoggingExecutor(database);
+    }
+
+    /**
+     * Creates a statement that reads the data file again when executed and inserts each row with a prepared statement.
+     */
+    protected StreamingDmlExecutablePreparedStatement createStreamingStatement(Database database, String[] headers) {
+        // postgres and mysql do not use batches, see generateStatementsFromRows
+        boolean batch = supportsBatchUpdates(database)
+                && !(database instanceof PostgresDatabase) && !(database instanceof MySQLDatabase);
+        return new StreamingDmlExecutablePreparedStatement(
+                database, getCatalogName(), getSchemaName(), getTableName(), columns,
+                getChangeSet(), Scope.getCurrentScope().getResourceAccessor(),
+                () -> openStatementSource(database, headers), batch);
+    }
+
+    /**
+     * Returns the number of connections to insert the rows on at the same time, see {@link GlobalConfiguration#LOAD_DATA_PARALLEL_THREADS}.
+     * The rows are committed by these connections, so only changesets that do not run in a transaction are loaded in parallel.
+     *
+     * @return 1 if the rows should be inserted on the changeset connection
+     */
+    protected int getParallelThreads(Database database) {
+        int threads = GlobalConfiguration.LOAD_DATA_PARALLEL_THREADS.getCurrentValue();
+        if ((threads <= 1)
+                || !hasPreparedStatementsImplemented()
+                || Boolean.FALSE.equals(usePreparedStatements)
+                || isLoggingExecutor(database)
+                || !(database.getConnection() instanceof JdbcConnection)
+                || (getChangeSet() == null) || getChangeSet().isRunInTransaction()) {
+            return 1;
+        }
+        return threads;
+    }
+
+    /**
+     * Creates a statement that reads the data file again when executed and inserts the rows on the given number of connections.
+     */
+    protected ParallelDmlExecutablePreparedStatement createParallelStatement(Database database, String[] headers, int threads) {
+        // postgres and mysql do not use batches, see generateStatementsFromRows
+        boolean batch = supportsBatchUpdates(database)
+                && !(database instanceof PostgresDatabase) && !(database instanceof MySQLDatabase);
+        return new ParallelDmlExecutablePreparedStatement(
+                database, getCatalogName(), getSchemaName(), getTableName(), columns,
+                getChangeSet(), Scope.getCurrentScope().getResourceAccessor(),
+                this::openLineSource,
+                () -> {
+                    RowConverter rowConverter = createRowConverter(headers, database);
+                    return (line, lineNumber) -> {
+                        LoadDataRowConfig row = rowConverter.convert(line, lineNumber);
+                        if (row == null) {
+                            return null;
+                        }
+                        return createPreparedStatement(database, getCatalogName(), getSchemaName(), getTableName(),
+                                row.getColumns(), getChangeSet(), Scope.getCurrentScope().getResourceAccessor());
+                    };
+                },
+                batch, threads);
+    }
+
+    /**
+     * Returns the {@link BulkLoader} to load the data file with, or null if the rows should be inserted individually,
+     * see {@link GlobalConfiguration#LOAD_DATA_BULK_LOAD}.
+     * Loaders that are not {@link BulkLoader#isTransactional() transactional} are only used for changesets that do not run in a transaction.
+     */
+    protected BulkLoader getBulkLoader(Database database) {
+        if (!GlobalConfiguration.LOAD_DATA_BULK_LOAD.getCurrentValue()
+                || !hasPreparedStatementsImplemented()
+                || Boolean.FALSE.equals(usePreparedStatements)
+                || isLoggingExecutor(database)
+                || ((getChangeSet() != null) && !getChangeSet().getSqlVisitors().isEmpty())) {
+            return null;
+        }
+        for (LoadDataColumnConfig column : columns) {
+            LOAD_DATA_TYPE type = column.getTypeEnum();
+            if ((type == LOAD_DATA_TYPE.COMPUTED) || (type == LOAD_DATA_TYPE.SEQUENCE)
+                    || (type == LOAD_DATA_TYPE.BLOB) || (type == LOAD_DATA_TYPE.CLOB)) {
+                return null;
+            }
+        }
+        BulkLoader bulkLoader = Scope.getCurrentScope().getSingleton(BulkLoaderFactory.class).getBulkLoader(database);
+        if ((bulkLoader != null) && !bulkLoader.isTransactional()
+                && ((getChangeSet() == null) || getChangeSet().isRunInTransaction())) {
+            return null;
+        }
+        return bulkLoader;
+    }
+
+    /**
+     * Creates a statement that reads the data file again when executed and loads it with the given bulk loader.
+     * Rows the bulk loader cannot load are inserted individually, in their place in the file.
+     */
+    protected BulkLoadExecutablePreparedStatement createBulkLoadStatement(Database database, String[] headers, BulkLoader bulkLoader) {
+        return new BulkLoadExecutablePreparedStatement(
+                database, getCatalogName(), getSchemaName(), getTableName(), columns,
+                getChangeSet(), Scope.getCurrentScope().getResourceAccessor(), bulkLoader,
+                () -> openRowSource(database, headers),
+                row -> createRowStatement(database, row));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ExecutablePreparedStatementBase createRowStatement(Database database, List<? extends ColumnConfig> row) {
+        // the rows are read from a CsvRowSource
+        return createPreparedStatement(database, getCatalogName(), getSchemaName(), getTableName(),
+                (List<LoadDataColumnConfig>) row, getChangeSet(), Scope.getCurrentScope().getResourceAccessor());
+    }
+
+    private StreamingDmlExecutablePreparedStatement.StatementSource openStatementSource(Database database, String[] headers)
+            throws DatabaseException {
+        final CsvRowSource rows = openRowSource(database, headers);
+        return new StreamingDmlExecutablePreparedStatement.StatementSource() {
+            @Override
+            public ExecutablePreparedStatementBase next() throws DatabaseException {
+                List<LoadDataColumnConfig> row = rows.next();
+                if (row == null) {
+                    return null;
+                }
+                return createPreparedStatement(database, getCatalogName(), getSchemaName(), getTableName(),
+                        row, getChangeSet(), Scope.getCurrentScope().getResourceAccessor());
+            }
+
+            @Override
+            public void close() throws IOException {
+                rows.close();
+            }
+        };
+    }
+
+    private CsvRowSource openRowSource(Database database, String[] headers) throws DatabaseException {
+        return new CsvRowSource(openDataReader(), createRowConverter(headers, database));
+    }
+
+    private ParallelDmlExecutablePreparedStatement.LineSource openLineSource() throws DatabaseException {
+        final CSVReader reader = openDataReader();
+        return new ParallelDmlExecutablePreparedStatement.LineSource() {
+            @Override
+            public String[] next() throws DatabaseException {
+                try {
+                    return reader.readNext();
+                } catch (CsvMalformedLineException e) {
+                    throw new DatabaseException("Error parsing " + getRelativeTo() + " on line " + e.getLineNumber() + ": " + e.getMessage(), e);
+                } catch (IOException e) {
+                    throw new DatabaseException(e);
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    reader.close();
+                } catch (Exception e) {
+                    throw new IOException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Opens the data file and skips the header, it was already read when the statements were generated.
+     */
+    private CSVReader openDataReader() throws DatabaseException {
+        CSVReader reader = null;
+        try {
+            reader = getCSVReader();
+            if (reader == null) {
+                throw new DatabaseException("Unable to read file " + this.getFile());
+            }
+            reader.readNext();
+        } catch (IOException | LiquibaseException e) {
+            closeQuietly(reader);
+            throw (e instanceof DatabaseException) ? (DatabaseException) e : new DatabaseException(e);
+        }
+        return reader;
+    }
+
+    /**
+     * Reads the rows of the data file after the header.
+     */
+    private class CsvRowSource implements BulkLoadData.RowSource {
+
+        private final CSVReader reader;
+        private final RowConverter rowConverter;
+        // Start at '1' to take into account the header (already processed):
+        private int lineNumber = 1;
+
+        private CsvRowSource(CSVReader reader, RowConverter rowConverter) {
+            this.reader = reader;
+            this.rowConverter = rowConverter;
+        }
+
+        @Override
+        public List<LoadDataColumnConfig> next() throws DatabaseException {
+            try {
+                String[] line;
+                while ((line = reader.readNext()) != null) {
+                    lineNumber++;
+                    LoadDataRowConfig row = rowConverter.convert(line, lineNumber);
+                    if (row != null) {
+                        return row.getColumns();
+                    }
+                }
+                return null;
+            } catch (CsvMalformedLineException e) {
+                throw new DatabaseException("Error parsing " + getRelativeTo() + " on line " + e.getLineNumber() + ": " + e.getMessage(), e);
+            } catch (IOException e) {
+                throw new DatabaseException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                reader.close();
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private static void closeQuietly(CSVReader reader) {
+        if (reader == null) {
+            return;
+        }
+        try {
+            reader.close();
+        } catch (Exception ignore) {
+            // Do nothing
+        }
+    }
+
+    /**
+     * Creates the {@link RowConverter} for a data file with the given header.
+     */
+    protected RowConverter createRowConverter(String[] headers, Database database) {
+        return new RowConverter(headers, database);
+    }
+
+    /**
+     * Converts the lines of a data file to the values to load. The column config and conversion of each column are chosen once
+     * for the header, so converting a line only runs the conversions of its values.
+     */
+    protected class RowConverter {
+
+        private final String[] headers;
+        private final ColumnConverter[] columnConverters;
+        private final boolean isCommentingEnabled;
+        private final boolean preferPreparedStatements;
+
+        protected RowConverter(String[] headers, Database database) {
+            this.headers = headers;
+            this.isCommentingEnabled = StringUtils.isNotEmpty(commentLineStartsWith);
+            this.preferPreparedStatements = hasPreparedStatementsImplemented() && (usePreparedStatements == null)
+                    && !isLoggingExecutor(database) && preferPreparedStatements(database);
+
+            List<ColumnConverter> converters = new ArrayList<>();
+            for (int i = 0; i < headers.length; i++) {
+                String columnName = headers[i].trim();
+                LoadDataColumnConfig columnConfig = getColumnConfig(i, columnName);
+                if (columnConfig != null) {
+                    if ("skip".equalsIgnoreCase(columnConfig.getType())) {
+                        continue;
+                    }
+                    // don't overwrite header name unless there is actually a value to override it with
+                    if (columnConfig.getName() != null) {
+                        columnName = columnConfig.getName();
+                    }
+                    converters.add(new ColumnConverter(i, columnName, columnConfig, createValueConverter(columnConfig)));
+                } else {
+                    // No columnConfig found. Assume header column name to be the table column name.
+                    if (columnName.contains("(") || (columnName.contains(")") && (database instanceof
+                            AbstractJdbcDatabase))) {
+                        columnName = ((AbstractJdbcDatabase) database).quoteObject(columnName, Column.class);
+                    }
+                    converters.add(new ColumnConverter(i, columnName, null, null));
+                }
+            }
+            this.columnConverters = converters.toArray(new ColumnConverter[0]);
+        }
+
+        /**
+         * Converts a line of the data file to the values to load.
+         *
+         * @param lineNumber the line number in the data file, starting with 1 for the header
+         * @return null if the line is empty or commented out
+         */
+        public LoadDataRowConfig convert(String[] line, int lineNumber) {
+            if
+            ((line.length == 0) || ((line.length == 1) && (StringUtils.trimToNull(line[0]) == null)) ||
+                    (isCommentingEnabled && isLineCommented(line))
+            ) {
+                //nothing interesting on this line
+                return null;
+            }
+
+            // Ensure each line has the same number of columns defined as does the header.
+            // (Failure could indicate unquoted strings with commas, for example).
+            if (line.length != headers.length) {
+                throw new UnexpectedLiquibaseException(
+                        "CSV file " + getFile() + " Line " + lineNumber + " has " + line.length +
+                        " values defined, Header has " + headers.length +
+                        ". Numbers MUST be equal (check for unquoted string with embedded commas)"
+                );
+            }
+
+            boolean needsPreparedStatement = false;
+
+            List<LoadDataColumnConfig> columnsFromCsv = new ArrayList<>(columnConverters.length);
+            for (ColumnConverter columnConverter : columnConverters) {
+                LoadDataColumnConfig valueConfig = new LoadDataColumnConfig();
+                needsPreparedStatement |= columnConverter.convert(line[columnConverter.index], valueConfig);
+                columnsFromCsv.add(valueConfig);
+            }
+
+            // Try to use prepared statements if any of the following conditions apply:
+            // 1. There is no other option than using a prepared statement (e.g. in cases of LOBs) regardless
+            //     of whether the 'usePreparedStatement' is set to false
+            // 2. The database supports batched statements (for improved performance) AND we are not in an
+            //    "SQL" mode (i.e. we generate an SQL file instead of actually modifying the database).
+            // BUT: if the user specifically requests usePreparedStatement=false, then respect that
+            boolean actuallyUsePreparedStatements = false;
+            if (hasPreparedStatementsImplemented()) {
+                if (usePreparedStatements != null) {
+                    if (!usePreparedStatements && needsPreparedStatement) {
+                        throw new UnexpectedLiquibaseException("loadData is requesting usePreparedStatements=false but prepared statements are required");
+                    }
+                    actuallyUsePreparedStatements = usePreparedStatements;
+                } else {
+                    actuallyUsePreparedStatements = needsPreparedStatement || preferPreparedStatements;
+                }
+            }
+            return new LoadDataRowConfig(actuallyUsePreparedStatements, columnsFromCsv);
+        }
+    }
+
+    /**
+     * Sets the value of a column that has a column config.
+     */
+    @FunctionalInterface
+    private interface ValueConverter {
+
+        /**
+         * @return true if the value can only be loaded with a prepared statement
+         */
+        boolean convert(String value, LoadDataColumnConfig valueConfig);
+    }
+
+    private class ColumnConverter {
+
+        private final int index;
+        private final String columnName;
+        private final LoadDataColumnConfig columnConfig;
+        private final ValueConverter valueConverter;
+
+        private ColumnConverter(int index, String columnName, LoadDataColumnConfig columnConfig, ValueConverter valueConverter) {
+            this.index = index;
+            this.columnName = columnName;
+            this.columnConfig = columnConfig;
+            this.valueConverter = valueConverter;
+        }
+
+        private boolean convert(String value, LoadDataColumnConfig valueConfig) {
+            valueConfig.setName(columnName);
+            if (columnConfig == null) {
+                valueConfig.setValue(getValueToWrite(value));
+                return false;
+            }
+
+            final boolean isNull = isNullValue(value, columnConfig);
+            //
+            // Always set the type for the valueConfig if the value is NULL
+            //
+            if (isNull) {
+                valueConfig.setType(columnConfig.getType());
+            }
+            valueConfig.setAllowUpdate(columnConfig.getAllowUpdate());
+
+            if (StringUtils.isEmpty(value)) {
+                value = columnConfig.getDefaultValue();
+            }
+            if (isNull) {
+                valueConfig.setValue(null);
+                return false;
+            }
+            return valueConverter.convert(value, valueConfig);
+        }
+    }
+
+    private ValueConverter createValueConverter(LoadDataColumnConfig columnConfig) {
+        final String type = columnConfig.getType();
+        final LOAD_DATA_TYPE typeEnum = columnConfig.getTypeEnum();
+        if (type == null) {
+            // columnConfig did not specify a type
+            return (value, valueConfig) -> {
+                valueConfig.setValue(value);
+                return false;
+            };
+        } else if (typeEnum == LOAD_DATA_TYPE.BOOLEAN) {
+            return (value, valueConfig) -> {
+                if (value == null) { // TODO getDefaultValueBoolean should use BooleanUtil.parseBoolean also for consistent behaviour
+                    valueConfig.setValueBoolean(columnConfig.getDefaultValueBoolean());
+                } else {
+                    valueConfig.setValueBoolean(BooleanUtil.parseBoolean(value));
+                }
+                return false;
+            };
+        } else if (typeEnum == LOAD_DATA_TYPE.NUMERIC) {
+            return (value, valueConfig) -> {
+                if (value != null) {
+                    valueConfig.setValueNumeric(value);
+                } else {
+                    valueConfig.setValueNumeric(columnConfig.getDefaultValueNumeric());
+                }
+                return false;
+            };
+        } else if (type.equalsIgnoreCase("date")
+                   || type.equalsIgnoreCase("datetime")
+                   || type.equalsIgnoreCase("time")) {
+            final ISODateFormat dateFormat = new ISODateFormat();
+            return (value, valueConfig) -> {
+                try {
+                    // Need the column type for handling 'NOW' or 'TODAY' type column value
+                    valueConfig.setType(type);
+                    if (StringUtil.equalsWordNull(value) || StringUtils.isEmpty(value)) {
+                        valueConfig.setValue(null);
+                        valueConfig.setValueDate(columnConfig.getDefaultValueDate());
+                    } else {
+                        valueConfig.setValueDate(value, dateFormat);
+                    }
+                } catch (DateParseException e) {
+                    throw new UnexpectedLiquibaseException(e);
+                }
+                return false;
+            };
+        } else if (typeEnum == LOAD_DATA_TYPE.STRING) {
+            return (value, valueConfig) -> {
+                valueConfig.setType(type);
+                valueConfig.setValue(value == null ? "" : value);
+                return false;
+            };
+        } else if (typeEnum == LOAD_DATA_TYPE.COMPUTED) {
+            return (value, valueConfig) -> {
+                if (null != value) {
+                    liquibase.statement.DatabaseFunction function =
+                            new liquibase.statement.DatabaseFunction(value);
+                    valueConfig.setValueComputed(function);
+                } else {
+                    valueConfig.setValueComputed(columnConfig.getDefaultValueComputed());
+                }
+                return false;
+            };
+        } else if (typeEnum == LOAD_DATA_TYPE.SEQUENCE) {
+            return (value, valueConfig) -> {
+                if (value == null) {
+                    throw new UnexpectedLiquibaseException(
+                            "Must set a sequence name in the loadData column defaultValue attribute"
+                    );
+                }
+                liquibase.statement.SequenceNextValueFunction function =
+                        new liquibase.statement.SequenceNextValueFunction(getSchemaName(), value);
+                valueConfig.setValueComputed(function);
+                return false;
+            };
+        } else if (type.equalsIgnoreCase(LOAD_DATA_TYPE.BLOB.toString())) {
+            return (value, valueConfig) -> {
+                if (StringUtil.equalsWordNull(value)) {
+                    valueConfig.setValue(null);
+                    return false;
+                } else if (BASE64_PATTERN.matcher(value).matches()) {
+                    valueConfig.setType(type);
+                    valueConfig.setValue(value);
+                } else {
+                    // If the value is not base64 encoded we are expecting the value to be a
+                    // valid path to another file which holds the entire value we are expecting
+                    // to load into the db.
+                    valueConfig.setValueBlobFile(value);
+                }
+                return true;
+            };
+        } else if (typeEnum == LOAD_DATA_TYPE.CLOB) {
+            return (value, valueConfig) -> {
+                // Previously, we expected all clobs found using loadData to be a valid path to a file.
+                // To maintain backwards compatibility, we will first try to find the file.
+                // If found, we then load the entire file into the value when executing the statement.
+                // If not found, we load the value as a string.
+
+                boolean resourceExists = false;
+                // If the value is null we set the value directly to avoid Exceptions while loading
+                // resources e.g. with SpringResourceAccessor.
+                if (value != null) {
+                    Resource r = null;
+                    try {
+                        if (getRelativeTo() != null) {
+                                r = Scope.getCurrentScope().getResourceAccessor().get(getRelativeTo()).resolveSibling(value);
+                        } else {
+                            r = Scope.getCurrentScope().getResourceAccessor().get(value);
+                        }
+                    } catch (InvalidPathException e) {
+                        Scope.getCurrentScope().getLog(LoadDataChange.class).fine(String.format("Could not find file [%s] in [%s]: %s", value, getRelativeTo(), e.getMessage()));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    resourceExists = r != null && r.exists();
+                }
+
+                if (resourceExists) {
+                    valueConfig.setValueClobFile(value);
+                } else {
+                    Logger log = Scope.getCurrentScope().getLog(LoadDataChange.class);
+                    log.fine(String.format("File %s not found. Inserting the value as a string. See https://docs.liquibase.com for more information.", value));
+                    valueConfig.setValue(value);
+                }
+                return true;
+            };
+        } else if ((typeEnum == LOAD_DATA_TYPE.UUID) || type.equalsIgnoreCase(LOAD_DATA_TYPE.OTHER.toString())) {
+            return (value, valueConfig) -> {
+                valueConfig.setType(type);
+                if (StringUtil.equalsWordNull(value)) {
+                    valueConfig.setValue(null);
+                } else {
+                    valueConfig.setValue(value);
+                }
+                return false;
+            };
+        } else if (typeEnum == LOAD_DATA_TYPE.UNKNOWN) {
+            // columnConfig did not match a specific type
+            return (value, valueConfig) -> {
+                valueConfig.setValue(value);
+                return false;
+            };
+        } else {
+            return (value, valueConfig) -> {
+                throw new UnexpectedLiquibaseException(
+                        String.format(coreBundle.getString("loaddata.type.is.not.supported"), type)
+                );
+            };
+        }
+    }
+
     /**
      * If the loaded data does not require a prepared statement, and the user did not specify whether to use them or not,
      * should we use prepared statements as a default?
@@ -516,7 +883,7 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
         return databaseSupportsBatchUpdates;
     }
 
-    private boolean isLoggingExecutor(Database database) {
+    protected boolean isLoggingExecutor(Database database) {
         final ExecutorService executorService = Scope.getCurrentScope().getSingleton(ExecutorService.class);
 
         return executorService.executorExists("logging", database) &&
@@ -1,25 +1,44 @@
 package liquibase.change.core;
 
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
 import liquibase.change.ChangeMetaData;
 import liquibase.change.ChangeStatus;
+import liquibase.change.ColumnConfig;
 import liquibase.change.DatabaseChange;
 import liquibase.change.DatabaseChangeProperty;
 import liquibase.changelog.ChangeSet;
 import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.OracleDatabase;
+import liquibase.database.core.PostgresDatabase;
 import liquibase.datatype.DataTypeFactory;
 import liquibase.exception.RollbackImpossibleException;
 import liquibase.resource.ResourceAccessor;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
 import liquibase.statement.BatchDmlExecutablePreparedStatement;
 import liquibase.statement.ExecutablePreparedStatementBase;
 import liquibase.statement.SqlStatement;
+import liquibase.statement.core.CreateStagingTableStatement;
 import liquibase.statement.core.DeleteStatement;
+import liquibase.statement.core.DropTableStatement;
 import liquibase.statement.core.InsertOrUpdateStatement;
+import liquibase.statement.core.InsertSetStatement;
 import liquibase.statement.core.InsertStatement;
+import liquibase.statement.core.MergeFromTableStatement;
 import liquibase.util.StringUtil;
 import lombok.Setter;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 import static liquibase.change.ChangeParameterMetaData.ALL;
 
@@ -84,6 +103,124 @@ public class LoadUpdateDataChange extends LoadDataChange {
                 "LoadUpdateDataChange yet. Very sorry.");
     }
 
+    /**
+     * Merges the rows into the table with a single statement if {@link GlobalConfiguration#LOAD_UPDATE_DATA_MERGE} is enabled
+     * and the database supports it: the rows are loaded into a staging table, merged with a {@link MergeFromTableStatement}
+     * and the staging table is dropped. Otherwise, each row is inserted or updated on its own.
+     */
+    @Override
+    protected SqlStatement[] generateStatementsFromRows(Database database, List<LoadDataRowConfig> rows) {
+        if (!canUseStagingTable(database)) {
+            return super.generateStatementsFromRows(database, rows);
+        }
+        String stagingTableName = getStagingTableName();
+        MergeFromTableStatement merge = createMergeStatement(database, stagingTableName, rows);
+        if (merge == null) {
+            return super.generateStatementsFromRows(database, rows);
+        }
+
+        List<SqlStatement> statements = new ArrayList<>();
+        statements.add(new CreateStagingTableStatement(getCatalogName(), getSchemaName(), stagingTableName, getTableName(),
+                merge.getColumnNames()));
+        statements.addAll(Arrays.asList(generateStagingStatements(database, stagingTableName, rows)));
+        statements.add(merge);
+        statements.add(new DropTableStatement(getCatalogName(), getSchemaName(), stagingTableName, false));
+        return statements.toArray(SqlStatement.EMPTY_SQL_STATEMENT);
+    }
+
+    /**
+     * Returns true if creating and dropping the staging table does not commit the changeset early: the database runs DDL in
+     * the transaction, or the changeset does not run in a transaction.
+     */
+    protected boolean canUseStagingTable(Database database) {
+        if ((getChangeSet() != null) && !getChangeSet().isRunInTransaction()) {
+            return true;
+        }
+        // these commit the transaction on DDL, but do not override supportsDDLInTransaction
+        return database.supportsDDLInTransaction()
+                && !(database instanceof OracleDatabase)
+                && !(database instanceof H2Database)
+                && !(database instanceof HsqlDatabase)
+                && !(database instanceof MySQLDatabase);
+    }
+
+    /**
+     * Returns a new name for the staging table to merge the rows from, so concurrent and failed runs do not collide.
+     * Short enough for the 30 character limit of older Oracle versions.
+     */
+    protected String getStagingTableName() {
+        return "LB_STAGE_" + UUID.randomUUID().toString().replace("-", "").substring(0, 16).toUpperCase();
+    }
+
+    /**
+     * Creates the statement that merges the staging table into the table, or returns null if the rows should be inserted or
+     * updated one by one.
+     */
+    private MergeFromTableStatement createMergeStatement(Database database, String stagingTableName, List<LoadDataRowConfig> rows) {
+        if (!GlobalConfiguration.LOAD_UPDATE_DATA_MERGE.getCurrentValue() || rows.isEmpty() || StringUtil.isEmpty(primaryKey)) {
+            return null;
+        }
+
+        List<String> columnNames = new ArrayList<>();
+        for (LoadDataColumnConfig column : rows.get(0).getColumns()) {
+            columnNames.add(column.getName());
+        }
+        List<Integer> primaryKeyIndexes = new ArrayList<>();
+        for (String primaryKeyColumn : primaryKey.split(",")) {
+            int index = columnNames.indexOf(primaryKeyColumn.trim());
+            if (index < 0) {
+                return null;
+            }
+            primaryKeyIndexes.add(index);
+        }
+
+        MergeFromTableStatement merge = new MergeFromTableStatement(getCatalogName(), getSchemaName(), getTableName(),
+                stagingTableName, columnNames, primaryKey, getOnlyUpdate());
+        if (!SqlGeneratorFactory.getInstance().supports(merge, database)) {
+            return null;
+        }
+
+        // a merge cannot apply several rows to the same row, while inserting or updating row by row lets the last one win
+        Set<List<Object>> keys = new HashSet<>();
+        for (LoadDataRowConfig row : rows) {
+            List<Object> key = new ArrayList<>(primaryKeyIndexes.size());
+            for (int index : primaryKeyIndexes) {
+                key.add(row.getColumns().get(index).getValueObject());
+            }
+            if (!keys.add(key)) {
+                Scope.getCurrentScope().getLog(getClass()).info("Data file " + getFile() + " contains more than one row for "
+                        + primaryKey + " " + key + ", inserting or updating the rows of " + getTableName() + " one by one");
+                return null;
+            }
+        }
+
+        for (LoadDataColumnConfig column : rows.get(0).getColumns()) {
+            merge.setAllowColumnUpdate(column.getName(), (column.getAllowUpdate() == null) || column.getAllowUpdate());
+        }
+        return merge;
+    }
+
+    /**
+     * Inserts the rows into the staging table like loadData does, so they are sent in JDBC batches where possible.
+     */
+    private SqlStatement[] generateStagingStatements(Database database, String stagingTableName, List<LoadDataRowConfig> rows) {
+        LoadDataChange stagingLoad = new LoadDataChange();
+        stagingLoad.setCatalogName(getCatalogName());
+        stagingLoad.setSchemaName(getSchemaName());
+        stagingLoad.setTableName(stagingTableName);
+        stagingLoad.setColumns(getColumns());
+        stagingLoad.setChangeSet(getChangeSet());
+
+        // postgres and mysql insert plain statements in a single multi-row insert, see LoadDataChange.generateStatementsFromRows
+        boolean usePreparedStatements = !Boolean.FALSE.equals(getUsePreparedStatements()) && !isLoggingExecutor(database)
+                && supportsBatchUpdates(database) && !(database instanceof PostgresDatabase) && !(database instanceof MySQLDatabase);
+        List<LoadDataRowConfig> stagingRows = new ArrayList<>(rows.size());
+        for (LoadDataRowConfig row : rows) {
+            stagingRows.add(new LoadDataRowConfig(usePreparedStatements, row.getColumns()));
+        }
+        return stagingLoad.generateStatementsFromRows(database, stagingRows);
+    }
+
     @Override
     public SqlStatement[] generateRollbackStatements(Database database) throws RollbackImpossibleException {
         List<SqlStatement> statements = new ArrayList<>();
@@ -95,32 +232,44 @@ public class LoadUpdateDataChange extends LoadDataChange {
                 finalForwardList.addAll(
                         ((BatchDmlExecutablePreparedStatement)thisForward).getIndividualStatements()
                 );
+            } else if (thisForward instanceof InsertSetStatement) {
+                // rows inserted into the staging table before they are merged
+                finalForwardList.addAll(((InsertSetStatement) thisForward).getStatements());
             } else {
                 finalForwardList.add(thisForward);
             }
         }
 
         for (SqlStatement thisForward : finalForwardList) {
-            InsertOrUpdateStatement thisInsert = (InsertOrUpdateStatement) thisForward;
+            Map<String, Object> columnValues;
+            if (thisForward instanceof InsertStatement) {
+                columnValues = ((InsertStatement) thisForward).getColumnValues();
+            } else if (thisForward instanceof ExecutablePreparedStatementBase) {
+                columnValues = new HashMap<>();
+                for (ColumnConfig column : ((ExecutablePreparedStatementBase) thisForward).getColumns()) {
+                    columnValues.put(column.getName(), column.getValueObject());
+                }
+            } else {
+                // creating, merging and dropping the staging table
+                continue;
+            }
             DeleteStatement delete = new DeleteStatement(getCatalogName(), getSchemaName(), getTableName());
-            delete.setWhere(getWhere(thisInsert, database));
+            delete.setWhere(getWhere(columnValues, database));
             statements.add(delete);
         }
 
         return statements.toArray(SqlStatement.EMPTY_SQL_STATEMENT);
     }
 
-    private String getWhere(InsertOrUpdateStatement insertOrUpdateStatement, Database database) {
+    private String getWhere(Map<String, Object> columnValues, Database database) {
         StringBuilder where = new StringBuilder();
 
-        String[] pkColumns = insertOrUpdateStatement.getPrimaryKey().split(",");
+        String[] pkColumns = primaryKey.split(",");
 
         for (String thisPkColumn : pkColumns) {
-            Object newValue = insertOrUpdateStatement.getColumnValues().get(thisPkColumn);
-            where.append(database.escapeColumnName(insertOrUpdateStatement.getCatalogName(),
-                    insertOrUpdateStatement.getSchemaName(),
-                    insertOrUpdateStatement.getTableName(),
-                    thisPkColumn)).append(((newValue == null) || StringUtil.equalsWordNull(newValue.toString())) ? " is " : " = ");
+            Object newValue = columnValues.get(thisPkColumn);
+            where.append(database.escapeColumnName(getCatalogName(), getSchemaName(), getTableName(), thisPkColumn))
+                    .append(((newValue == null) || StringUtil.equalsWordNull(newValue.toString())) ? " is " : " = ");
 
             if ((newValue == null) || StringUtil.equalsWordNull(newValue.toString())) {
                 where.append("NULL");
@@ -87,6 +87,10 @@ public class ChangeLogIterator {
 
     public void run(ChangeSetVisitor visitor, RuntimeEnvironment env) throws LiquibaseException {
         databaseChangeLog.setRuntimeEnvironment(env);
+        UpdatePipeline pipeline = createPipeline(visitor, env);
+        ParallelUpdate parallelUpdate = ParallelUpdate.create(visitor, databaseChangeLog, env.getTargetDatabase());
+        // changesets running in parallel commit on their own connections
+        ChangeSetCommitGroup commitGroup = (parallelUpdate == null) ? ChangeSetCommitGroup.create(visitor, env.getTargetDatabase()) : null;
         try {
             Scope.child(Scope.Attr.databaseChangeLog, databaseChangeLog, () -> {
 
@@ -94,29 +98,37 @@ public class ChangeLogIterator {
                 if (visitor.getDirection().equals(ChangeSetVisitor.Direction.REVERSE)) {
                     Collections.reverse(changeSetList);
                 }
+                FilterResults nextFilterResults = null;
                 for (int i = 0; i < changeSetList.size(); i++) {
                     ChangeSet changeSet = changeSetList.get(i);
-                    boolean shouldVisit = true;
-                    Set<ChangeSetFilterResult> reasonsAccepted = new HashSet<>();
-                    Set<ChangeSetFilterResult> reasonsDenied = new HashSet<>();
-                    if (changeSetFilters != null) {
-                        for (ChangeSetFilter filter : changeSetFilters) {
-                            ChangeSetFilterResult acceptsResult = filter.accepts(changeSet);
-                            if (acceptsResult.isAccepted()) {
-                                reasonsAccepted.add(acceptsResult);
-                            } else {
-                                shouldVisit = false;
-                                reasonsDenied.add(acceptsResult);
-                                break;
+                    FilterResults filterResults = (nextFilterResults == null) ? applyFilters(changeSet) : nextFilterResults;
+                    nextFilterResults = null;
+                    Set<ChangeSetFilterResult> reasonsAccepted = filterResults.reasonsAccepted;
+                    Set<ChangeSetFilterResult> reasonsDenied = filterResults.reasonsDenied;
+
+                    boolean finalShouldVisit = filterResults.shouldVisit;
+
+                    if (pipeline != null) {
+                        pipeline.attach(changeSet);
+                        if (finalShouldVisit && ((i + 1) < changeSetList.size())) {
+                            // the filters of the next changeset run once, before this one executes, so only changesets that will run are prepared
+                            ChangeSet next = changeSetList.get(i + 1);
+                            nextFilterResults = applyFilters(next);
+                            if (nextFilterResults.shouldVisit) {
+                                pipeline.prepare(next, changeSet);
                             }
                         }
                     }
 
-                    boolean finalShouldVisit = shouldVisit;
-
                     Map<String, Object> scopeValues = new HashMap<>();
                     scopeValues.put(Scope.Attr.changeSet.name(), changeSet);
                     scopeValues.put(Scope.Attr.database.name(), env.getTargetDatabase());
+                    if (commitGroup != null) {
+                        scopeValues.put(ChangeSetCommitGroup.SCOPE_KEY, commitGroup);
+                    }
+                    if (parallelUpdate != null) {
+                        scopeValues.put(ParallelUpdate.SCOPE_KEY, parallelUpdate);
+                    }
 
                     int finalI = i;
                     Scope.child(scopeValues, () -> {
@@ -129,6 +141,9 @@ public class ChangeLogIterator {
                                 validateChangeSetExecutor(changeSet, env);
                             }
 
+                            if (commitGroup != null) {
+                                commitGroup.beforeVisit(changeSet);
+                            }
                             try {
                                 visitor.visit(changeSet, databaseChangeLog, env.getTargetDatabase(), reasonsAccepted);
                                 if (visitor instanceof UpdateVisitor &&
@@ -137,10 +152,26 @@ public class ChangeLogIterator {
                                     exceptionChangeSets.add(changeSet);
                                 }
                             } catch (Exception e) {
-                                exceptionChangeSets.add(changeSet);
-                                skippedDueToExceptionChangeSets.addAll(changeSetList.subList(finalI + 1, changeSetList.size()));
+                                if (commitGroup != null) {
+                                    commitGroup.rollback();
+                                }
+                                if ((parallelUpdate != null) && (parallelUpdate.getFailedChangeSet() != null)) {
+                                    // a changeset started before failed, this one did not run
+                                    exceptionChangeSets.add(parallelUpdate.getFailedChangeSet());
+                                    skippedDueToExceptionChangeSets.addAll(changeSetList.subList(finalI, changeSetList.size()));
+                                } else {
+                                    exceptionChangeSets.add(changeSet);
+                                    skippedDueToExceptionChangeSets.addAll(changeSetList.subList(finalI + 1, changeSetList.size()));
+                                }
 
                                 throw e;
+                            } finally {
+                                if (pipeline != null) {
+                                    pipeline.detach(changeSet);
+                                }
+                            }
+                            if (commitGroup != null) {
+                                commitGroup.afterVisit();
                             }
                             markSeen(changeSet);
                         } else {
@@ -150,14 +181,83 @@ public class ChangeLogIterator {
                         }
                     });
                 }
+                if (parallelUpdate != null) {
+                    try {
+                        parallelUpdate.awaitAll();
+                    } catch (LiquibaseException e) {
+                        exceptionChangeSets.add(parallelUpdate.getFailedChangeSet());
+                        throw e;
+                    }
+                }
+                if (commitGroup != null) {
+                    commitGroup.commit();
+                }
             });
         } catch (Exception e) {
+            if ((parallelUpdate != null) && (parallelUpdate.getFailedChangeSet() == null)) {
+                // the changesets still running when something else failed are recorded, as they are applied
+                try {
+                    parallelUpdate.awaitAll();
+                } catch (Exception parallelException) {
+                    e.addSuppressed(parallelException);
+                }
+            }
+            if (commitGroup != null) {
+                // the changesets that completed before the failure stay applied, as they would without grouping
+                try {
+                    commitGroup.commit();
+                } catch (Exception commitException) {
+                    e.addSuppressed(commitException);
+                }
+            }
             throw new LiquibaseException(e);
         } finally {
+            if (pipeline != null) {
+                pipeline.close();
+            }
+            if (parallelUpdate != null) {
+                parallelUpdate.close();
+            }
             databaseChangeLog.setRuntimeEnvironment(null);
         }
     }
 
+    private FilterResults applyFilters(ChangeSet changeSet) {
+        FilterResults results = new FilterResults();
+        if (changeSetFilters != null) {
+            for (ChangeSetFilter filter : changeSetFilters) {
+                ChangeSetFilterResult acceptsResult = filter.accepts(changeSet);
+                if (acceptsResult.isAccepted()) {
+                    results.reasonsAccepted.add(acceptsResult);
+                } else {
+                    results.shouldVisit = false;
+                    results.reasonsDenied.add(acceptsResult);
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the pipeline preparing changesets ahead of an update, or null if {@link GlobalConfiguration#UPDATE_PIPELINE} is disabled
+     * or no database can be created to prepare the changesets.
+     */
+    private UpdatePipeline createPipeline(ChangeSetVisitor visitor, RuntimeEnvironment env) {
+        if (!(visitor instanceof UpdateVisitor) || !visitor.getDirection().equals(ChangeSetVisitor.Direction.FORWARD)
+                || (env.getTargetDatabase() == null) || !GlobalConfiguration.UPDATE_PIPELINE.getCurrentValue()) {
+            return null;
+        }
+        return UpdatePipeline.open(env.getTargetDatabase(), databaseChangeLog);
+    }
+
+    private static class FilterResults {
+
+        private boolean shouldVisit = true;
+        private final Set<ChangeSetFilterResult> reasonsAccepted = new HashSet<>();
+        private final Set<ChangeSetFilterResult> reasonsDenied = new HashSet<>();
+    }
+
     /**
      *
      * Make sure that any changeset which has a runWith=<executor> setting
@@ -19,6 +19,7 @@ import liquibase.exception.*;
 import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
 import liquibase.executor.LoggingExecutor;
+import liquibase.executor.jvm.JdbcExecutor;
 import liquibase.logging.Logger;
 import liquibase.logging.mdc.MdcKey;
 import liquibase.logging.mdc.customobjects.RollbackSqlFile;
@@ -113,6 +114,13 @@ public class ChangeSet implements Conditional, ChangeLogChild {
      */
     private final List<Change> changes;
 
+    /**
+     * Change nodes not turned into {@link #changes} yet, see {@link ChangeLogParserConfiguration#LAZY_CHANGE_LOADING}.
+     * Changed under the changeset's lock but also read without it.
+     */
+    private volatile List<ParsedNode> unloadedChangeNodes;
+    private ResourceAccessor unloadedChangesResourceAccessor;
+
     /**
      * "id" specified in changeLog file.  Combination of id+author+filePath must be unique
      */
@@ -268,6 +276,11 @@ public class ChangeSet implements Conditional, ChangeLogChild {
     @Setter
     private List<String> generatedSql = new ArrayList<>();
 
+    /**
+     * Statements and SQL of the changes generated ahead of execution by the {@link UpdatePipeline}.
+     */
+    private volatile UpdatePipeline.PreparedChanges preparedChanges;
+
     @Getter
     @Setter
     private ExecType execType;
@@ -397,21 +410,7 @@ public class ChangeSet implements Conditional, ChangeLogChild {
         try {
             return Scope.child(Collections.singletonMap(Scope.Attr.checksumVersion.name(), version), () -> {
                 if (checkSum == null) {
-                    StringBuilder stringToMD5 = new StringBuilder();
-                    for (Change change : this.getChanges()) {
-                        // checksum v8 requires changes that are applied even to other databases to be calculated
-                        // checksum v9 excludes them from calculation
-                        if (!(change instanceof DbmsTargetedChange) ||
-                                getCurrentScope().getChecksumVersion().lowerOrEqualThan(ChecksumVersion.V8) ||
-                                DatabaseList.definitionMatches(((DbmsTargetedChange) change).getDbms(), getCurrentScope().getDatabase(), true)) {
-                            stringToMD5.append(change.generateCheckSum()).append(":");
-                        }
-                    }
-
-                    for (SqlVisitor visitor : this.getSqlVisitors()) {
-                        stringToMD5.append(visitor.generateCheckSum()).append(";");
-                    }
-                    checkSum = CheckSum.compute(stringToMD5.toString());
+                    checkSum = getCurrentScope().getSingleton(CheckSumCache.class).getCheckSum(this, this::computeCheckSum);
                 }
 
                 return checkSum;
@@ -421,6 +420,24 @@ public class ChangeSet implements Conditional, ChangeLogChild {
         }
     }
 
+    private CheckSum computeCheckSum() {
+        CheckSumWriter stringToMD5 = new CheckSumWriter();
+        for (Change change : this.getChanges()) {
+            // checksum v8 requires changes that are applied even to other databases to be calculated
+            // checksum v9 excludes them from calculation
+            if (!(change instanceof DbmsTargetedChange) ||
+                    getCurrentScope().getChecksumVersion().lowerOrEqualThan(ChecksumVersion.V8) ||
+                    DatabaseList.definitionMatches(((DbmsTargetedChange) change).getDbms(), getCurrentScope().getDatabase(), true)) {
+                stringToMD5.append(String.valueOf(change.generateCheckSum())).append(":");
+            }
+        }
+
+        for (SqlVisitor visitor : this.getSqlVisitors()) {
+            stringToMD5.append(String.valueOf(visitor.generateCheckSum())).append(";");
+        }
+        return stringToMD5.getCheckSum();
+    }
+
     @Override
     public void load(ParsedNode node, ResourceAccessor resourceAccessor) throws ParsedNodeException {
         this.id = node.getChildValue(null, "id", String.class);
@@ -477,9 +494,17 @@ public class ChangeSet implements Conditional, ChangeLogChild {
         String onValidationFailString = node.getChildValue(null, "onValidationFail", "HALT");
         this.setOnValidationFail(ValidationFailOption.valueOf(onValidationFailString));
 
+        if (ChangeLogParserConfiguration.LAZY_CHANGE_LOADING.getCurrentValue()) {
+            this.unloadedChangeNodes = new ArrayList<>();
+            this.unloadedChangesResourceAccessor = resourceAccessor;
+        }
         for (ParsedNode child : node.getChildren()) {
             handleChildNode(child, resourceAccessor);
         }
+        if (unloadedChangeNodes != null && unloadedChangeNodes.isEmpty()) {
+            this.unloadedChangeNodes = null;
+            this.unloadedChangesResourceAccessor = null;
+        }
     }
 
     protected void handleChildNode(ParsedNode child, ResourceAccessor resourceAccessor) throws ParsedNodeException {
@@ -555,6 +580,10 @@ public class ChangeSet implements Conditional, ChangeLogChild {
                 }
                 break;
             default:
+                if (unloadedChangeNodes != null && getCurrentScope().getSingleton(ChangeFactory.class).getDefinedChanges().contains(child.getName())) {
+                    unloadedChangeNodes.add(child);
+                    break;
+                }
                 Change change = toChange(child, resourceAccessor);
                 if ((change == null) && (child.getValue() instanceof String)) {
                     this.setAttribute(child.getName(), child.getValue());
@@ -655,7 +684,7 @@ public class ChangeSet implements Conditional, ChangeLogChild {
     }
 
     private void addSkippedChangesToSummary(DatabaseChangeLog databaseChangeLog, Database database) {
-        for (Change change : changes) {
+        for (Change change : getChanges()) {
             if (isSkipExecChange(change) && ! databaseChangeLog.getSkippedBecauseOfOsMismatchChangeSets().contains(this)) {
                 databaseChangeLog.getSkippedBecauseOfOsMismatchChangeSets().add(this);
             }
@@ -688,6 +717,40 @@ public class ChangeSet implements Conditional, ChangeLogChild {
                 ChangeLogParserConfiguration.CHANGELOG_PARSE_MODE.getCurrentValue().equals(ChangeLogParserConfiguration.ChangelogParseMode.STRICT));
     }
 
+    /**
+     * Logs and reports the change as ran once it is committed, see {@link ChangeSetCommitGroup#afterCommit(Database, Runnable)}.
+     */
+    private void fireChangeRan(Change change, ChangeExecListener listener, Database database) {
+        ChangeSetCommitGroup.afterCommit(database, () -> {
+            getCurrentScope().getLog(getClass()).info(change.getConfirmationMessage());
+            if (listener != null) {
+                listener.ran(change, this, changeLog, database);
+            }
+        });
+    }
+
+    /**
+     * Executes the statements of the collected changes. All of them are reported as about to run before the statements are sent,
+     * and as ran once all of them succeeded, in the order they were collected.
+     */
+    private void executeBatchedChanges(JdbcExecutor executor, List<Change> changes, List<SqlStatement> statements,
+                                       ChangeExecListener listener, Database database) throws DatabaseException {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (listener != null) {
+            for (Change change : changes) {
+                listener.willRun(change, this, changeLog, database);
+            }
+        }
+        executor.execute(statements.toArray(new SqlStatement[0]), sqlVisitors);
+        for (Change change : changes) {
+            fireChangeRan(change, listener, database);
+        }
+        changes.clear();
+        statements.clear();
+    }
+
     private ExecType isChangeToSkip(Change change, Database database, Logger log) {
         boolean skipChangeForDbms = isSkipChangeForDbms(change, database);
         boolean skipExecChange = isSkipExecChange(change);
@@ -703,6 +766,19 @@ public class ChangeSet implements Conditional, ChangeLogChild {
         return null;
     }
 
+    /**
+     * Returns true if a change of this changeset does not run on the database or on this OS. Executing such a changeset may add it
+     * to the skipped changesets of its changelog.
+     */
+    boolean hasChangesToSkip(Database database) {
+        for (Change change : getChanges()) {
+            if (isSkipChangeForDbms(change, database) || isSkipExecChange(change)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static boolean isSkipExecChange(Change change) {
         return !change.shouldRunOnOs();
     }
@@ -830,10 +906,14 @@ public class ChangeSet implements Conditional, ChangeLogChild {
 
                 database.rollback();
             } finally {
-                database.rollback();
+                // a commit group only takes changesets without preconditions, and must not lose the changesets before this one
+                if (!ChangeSetCommitGroup.isCommitDeferred(database)) {
+                    database.rollback();
+                }
             }
 
             if (!skipChange) {
+                List<Change> changes = getChanges();
                 for (Change change : changes) {
                     try {
                         change.finishInitialization();
@@ -844,28 +924,39 @@ public class ChangeSet implements Conditional, ChangeLogChild {
 
                 log.fine("Reading ChangeSet: " + this);
                 boolean skippedAllChanges = !changes.isEmpty();
+                // consecutive insert, update and delete changes are collected and sent together, so they can share JDBC batches
+                JdbcExecutor batchExecutor = ((executor instanceof JdbcExecutor) && database.supportsBatchingAcrossChanges()) ? (JdbcExecutor) executor : null;
+                List<Change> batchedChanges = new ArrayList<>();
+                List<SqlStatement> batchedStatements = new ArrayList<>();
                 for (Change change : changes) {
                     if (isChangeToSkip(change, database, log) != ExecType.SKIPPED) {
                         skippedAllChanges = false;
-                        if (listener != null) {
-                            listener.willRun(change, this, changeLog, database);
+                        SqlStatement[] batchableStatements = (batchExecutor == null) ? null : batchExecutor.getBatchableStatements(change, sqlVisitors);
+                        if (batchableStatements == null) {
+                            executeBatchedChanges(batchExecutor, batchedChanges, batchedStatements, listener, database);
+                            if (listener != null) {
+                                listener.willRun(change, this, changeLog, database);
+                            }
                         }
-                        if (change.generateStatementsVolatile(database)) {
+                        if ((getPreparedStatements(change, database) == null) && change.generateStatementsVolatile(database)) {
                             executor.comment("WARNING The following SQL may change each run and therefore is possibly incorrect and/or invalid:");
                         }
 
                         String sql = addSqlMdc(change, database, false);
                         this.getGeneratedSql().add(sql);
 
-                        database.executeStatements(change, databaseChangeLog, sqlVisitors);
-                        log.info(change.getConfirmationMessage());
-                        if (listener != null) {
-                            listener.ran(change, this, changeLog, database);
+                        if (batchableStatements != null) {
+                            batchedChanges.add(change);
+                            batchedStatements.addAll(Arrays.asList(batchableStatements));
+                            continue;
                         }
+                        database.executeStatements(change, databaseChangeLog, sqlVisitors);
+                        fireChangeRan(change, listener, database);
                     }
                 }
+                executeBatchedChanges(batchExecutor, batchedChanges, batchedStatements, listener, database);
 
-                if (runInTransaction) {
+                if (runInTransaction && !ChangeSetCommitGroup.isCommitDeferred(database)) {
                     database.commit();
                 }
                 if (skippedAllChanges) {
@@ -881,7 +972,8 @@ public class ChangeSet implements Conditional, ChangeLogChild {
                 getCurrentScope().addMdcValue(MdcKey.CHANGESET_OPERATION_STOP_TIME, stopInstant.toString());
                 getCurrentScope().addMdcValue(MdcKey.CHANGESET_OUTCOME, execType.value.toLowerCase());
                 if (execType != ExecType.SKIPPED) {
-                    log.info("ChangeSet " + toString(false) + " ran successfully in " + getExecutionMilliseconds() + "ms");
+                    String message = "ChangeSet " + toString(false) + " ran successfully in " + getExecutionMilliseconds() + "ms";
+                    ChangeSetCommitGroup.afterCommit(database, () -> log.info(message));
                 } else {
                     log.fine("Skipping ChangeSet: " + this);
                 }
@@ -1120,6 +1212,7 @@ public class ChangeSet implements Conditional, ChangeLogChild {
      * Returns an unmodifiable list of changes.  To add one, use the addRefactoring method.
      */
     public List<Change> getChanges() {
+        loadChanges();
         return Collections.unmodifiableList(changes);
     }
 
@@ -1128,6 +1221,7 @@ public class ChangeSet implements Conditional, ChangeLogChild {
      * @param collection
      */
     public void removeAllChanges(Collection<?> collection) {
+        loadChanges();
         this.changes.removeAll(collection);
     }
 
@@ -1135,10 +1229,58 @@ public class ChangeSet implements Conditional, ChangeLogChild {
         if (change == null) {
             return;
         }
+        loadChanges();
         changes.add(change);
         change.setChangeSet(this);
     }
 
+    /**
+     * Returns false while the changes of this changeset are only kept as parsed nodes, see {@link ChangeLogParserConfiguration#LAZY_CHANGE_LOADING}.
+     * They are created on first use of {@link #getChanges()}, which throws an {@link UnexpectedLiquibaseException} if a change node is invalid.
+     * Until then such errors are not reported, so validation does not find them in changesets that already ran and are not re-validated.
+     */
+    public boolean isChangesLoaded() {
+        return unloadedChangeNodes == null;
+    }
+
+    /**
+     * Returns the names of the changes not created yet.
+     */
+    synchronized List<String> getUnloadedChangeNames() {
+        if (unloadedChangeNodes == null) {
+            return Collections.emptyList();
+        }
+        return unloadedChangeNodes.stream().map(ParsedNode::getName).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the parsed nodes of the changes not created yet, without creating them.
+     */
+    synchronized List<ParsedNode> getUnloadedChangeNodes() {
+        return (unloadedChangeNodes == null) ? Collections.emptyList() : new ArrayList<>(unloadedChangeNodes);
+    }
+
+    private synchronized void loadChanges() {
+        if (unloadedChangeNodes == null) {
+            return;
+        }
+        int loadedSize = changes.size();
+        try {
+            for (ParsedNode changeNode : unloadedChangeNodes) {
+                Change change = toChange(changeNode, unloadedChangesResourceAccessor);
+                if (change != null) {
+                    changes.add(change);
+                    change.setChangeSet(this);
+                }
+            }
+        } catch (ParsedNodeException | RuntimeException e) {
+            changes.subList(loadedSize, changes.size()).clear();
+            throw new UnexpectedLiquibaseException("Error loading changes of " + this + ": " + e.getMessage(), e);
+        }
+        this.unloadedChangeNodes = null;
+        this.unloadedChangesResourceAccessor = null;
+    }
+
     public String getId() {
         return id;
     }
@@ -1713,6 +1855,23 @@ public class ChangeSet implements Conditional, ChangeLogChild {
      *
      */
     private String addSqlMdc(Change change, Database database, boolean generateRollbackStatements) throws Exception {
+        UpdatePipeline.PreparedChanges prepared = generateRollbackStatements ? null : preparedChanges;
+        String result = (prepared == null) ? null : prepared.getSql(change, database);
+        if (result == null) {
+            result = generateSqlMdc(change, database, generateRollbackStatements);
+            if (result == null) {
+                return null;
+            }
+        }
+        Scope.getCurrentScope().addMdcValue(MdcKey.CHANGESET_SQL, result);
+
+        return result;
+    }
+
+    /**
+     * Returns the SQL of the change as logged in the MDC, without executing anything, or null if the change does not support the database.
+     */
+    String generateSqlMdc(Change change, Database database, boolean generateRollbackStatements) throws Exception {
         //
         // If the change is for this Database
         // add a Boolean flag to Scope to indicate that the Change should not be executed when adding MDC context
@@ -1738,10 +1897,20 @@ public class ChangeSet implements Conditional, ChangeLogChild {
             commandsMdc.append(formattedStatements);
         });
 
-        String result = commandsMdc.toString();
-        Scope.getCurrentScope().addMdcValue(MdcKey.CHANGESET_SQL, result);
+        return commandsMdc.toString();
+    }
 
-        return result;
+    /**
+     * Returns the statements of the change that were generated ahead of execution for the given database by an update with
+     * {@link liquibase.GlobalConfiguration#UPDATE_PIPELINE} enabled, or null if they have to be generated now.
+     */
+    public SqlStatement[] getPreparedStatements(Change change, Database database) {
+        UpdatePipeline.PreparedChanges prepared = preparedChanges;
+        return (prepared == null) ? null : prepared.getStatements(change, database);
+    }
+
+    void setPreparedChanges(UpdatePipeline.PreparedChanges preparedChanges) {
+        this.preparedChanges = preparedChanges;
     }
 
     private List<ChangeVisitor> getChangeVisitors(){
@@ -0,0 +1,175 @@
+package liquibase.changelog;
+
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.change.Change;
+import liquibase.change.core.AbstractModifyDataChange;
+import liquibase.change.core.EmptyChange;
+import liquibase.change.core.InsertDataChange;
+import liquibase.changelog.visitor.ChangeSetVisitor;
+import liquibase.changelog.visitor.UpdateVisitor;
+import liquibase.database.Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.LoggingExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs consecutive changesets of an update and their changelog table rows in one transaction, committing once per group of
+ * up to {@link GlobalConfiguration#UPDATE_COMMIT_GROUP_SIZE} changesets instead of after each one.
+ * <p>
+ * While a changeset of the group is visited, {@link ChangeSet}, {@link UpdateVisitor} and {@link StandardChangeLogHistoryService}
+ * leave their commits to the group, see {@link #isCommitDeferred(Database)}. A changeset joins the group only if it runs in a
+ * transaction, has no preconditions, does not continue on error and uses the default executor. On databases whose DDL is not
+ * transactional, it must also only insert, update or delete data, since DDL would commit the group implicitly.
+ * If a changeset of the group fails, the changesets run before it in the group are rolled back with it and run again by the
+ * next update.
+ * <p>
+ * What reports a changeset as ran, such as {@link liquibase.changelog.visitor.ChangeExecListener#ran} events, which the update
+ * summary is built from, and the success log, is held back with {@link #afterCommit(Database, Runnable)} until the group commits,
+ * and dropped if the group is rolled back.
+ */
+public class ChangeSetCommitGroup {
+
+    public static final String SCOPE_KEY = "changeSetCommitGroup";
+
+    private final Database database;
+    private final int size;
+    private int pending;
+    private boolean open;
+    private final List<Runnable> afterCommitActions = new ArrayList<>();
+
+    private ChangeSetCommitGroup(Database database, int size) {
+        this.database = database;
+        this.size = size;
+    }
+
+    /**
+     * Returns the commit group for the visitor, or null if {@link GlobalConfiguration#UPDATE_COMMIT_GROUP_SIZE} is 1 or less,
+     * the visitor does not update the database or the database cannot run changesets in a shared transaction.
+     */
+    static ChangeSetCommitGroup create(ChangeSetVisitor visitor, Database database) {
+        Integer size = GlobalConfiguration.UPDATE_COMMIT_GROUP_SIZE.getCurrentValue();
+        if ((size == null) || (size < 2) || !(visitor instanceof UpdateVisitor) || (database == null) || !database.supportsDDLInTransaction()
+                || (Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database) instanceof LoggingExecutor)) {
+            return null;
+        }
+        return new ChangeSetCommitGroup(database, size);
+    }
+
+    /**
+     * Returns a group that holds back the commits of a single changeset run on the given connection of a {@link ParallelUpdate},
+     * so that its changelog table row is written in the same transaction and committed with {@link #afterVisit()}. Returns null
+     * if the changeset cannot share its transaction, for the same reasons it could not join a group.
+     */
+    static ChangeSetCommitGroup forChangeSet(Database database, ChangeSet changeSet) {
+        if (!database.supportsDDLInTransaction()) {
+            return null;
+        }
+        ChangeSetCommitGroup group = new ChangeSetCommitGroup(database, 1);
+        group.open = group.canJoin(changeSet);
+        return group.open ? group : null;
+    }
+
+    /**
+     * Returns true if commits of the database are left to the commit group of the changeset currently being visited.
+     */
+    public static boolean isCommitDeferred(Database database) {
+        ChangeSetCommitGroup group = Scope.getCurrentScope().get(SCOPE_KEY, ChangeSetCommitGroup.class);
+        return (group != null) && group.open && (group.database == database);
+    }
+
+    /**
+     * Runs the action once the changeset being visited is committed. That is right away unless commits of the database are left to
+     * a commit group, see {@link #isCommitDeferred(Database)}. In that case the action runs when the group commits, and never
+     * runs if the group is rolled back.
+     */
+    public static void afterCommit(Database database, Runnable action) {
+        if (isCommitDeferred(database)) {
+            Scope.getCurrentScope().get(SCOPE_KEY, ChangeSetCommitGroup.class).afterCommitActions.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Called before the changeset is visited. Commits the group first if the changeset cannot join it.
+     */
+    void beforeVisit(ChangeSet changeSet) throws DatabaseException {
+        open = canJoin(changeSet);
+        if (!open) {
+            commit();
+        }
+    }
+
+    /**
+     * Called after the changeset was visited successfully. Commits the group once it is full.
+     */
+    void afterVisit() throws DatabaseException {
+        if (open) {
+            open = false;
+            pending++;
+            if (pending >= size) {
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Commits the changesets run since the last commit.
+     */
+    void commit() throws DatabaseException {
+        if (pending > 0) {
+            database.commit();
+            Scope.getCurrentScope().getLog(getClass()).fine("Committed a group of " + pending + " changesets");
+            pending = 0;
+        }
+        List<Runnable> actions = new ArrayList<>(afterCommitActions);
+        afterCommitActions.clear();
+        for (Runnable action : actions) {
+            action.run();
+        }
+    }
+
+    /**
+     * Called when visiting a changeset failed. Rolls back the changesets run since the last commit together with the failed one.
+     */
+    void rollback() {
+        boolean rolledBackGroup = open || (pending > 0);
+        open = false;
+        afterCommitActions.clear();
+        try {
+            database.rollback();
+        } catch (DatabaseException e) {
+            Scope.getCurrentScope().getLog(getClass()).warning("Cannot roll back the changeset commit group: " + e.getMessage(), e);
+        }
+        if (rolledBackGroup) {
+            if (pending > 0) {
+                Scope.getCurrentScope().getLog(getClass()).warning("Rolled back the " + pending +
+                        " changesets run in the same transaction as the failed changeset. They will run again on the next update.");
+            }
+            pending = 0;
+            Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(database).reset();
+        }
+    }
+
+    private boolean canJoin(ChangeSet changeSet) {
+        if (!changeSet.isRunInTransaction() || (changeSet.getPreconditions() != null) || Boolean.FALSE.equals(changeSet.getFailOnError())
+                || (changeSet.getRunWith() != null)) {
+            return false;
+        }
+        if ((database instanceof PostgresDatabase) || (database instanceof MSSQLDatabase)) {
+            return true;
+        }
+        for (Change change : changeSet.getChanges()) {
+            if (!(change instanceof InsertDataChange) && !(change instanceof AbstractModifyDataChange) && !(change instanceof EmptyChange)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
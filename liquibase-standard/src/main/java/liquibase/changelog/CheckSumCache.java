@@ -0,0 +1,528 @@
+package liquibase.changelog;
+
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.SingletonObject;
+import liquibase.change.Change;
+import liquibase.change.CheckSum;
+import liquibase.change.custom.CustomChangeWrapper;
+import liquibase.database.Database;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.resource.OpenOptions;
+import liquibase.resource.Resource;
+import liquibase.resource.ResourceAccessor;
+import liquibase.util.CacheFileUtil;
+import liquibase.util.MD5Util;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Local file store of computed changeset checksums, used by {@link ChangeSet#generateCheckSum(liquibase.ChecksumVersion)}
+ * when {@link GlobalConfiguration#CHECKSUM_CACHE_DIRECTORY} is set.
+ * <p>
+ * There is one cache file per changelog file, which is only trusted while the changelog file has the same size, last-modified time
+ * and content hash as when the cache file was started. Each entry also records the size and last-modified time of every resource read
+ * while computing the checksum, such as sqlFile and loadData files, and is only reused while those are unchanged too.
+ * Changelogs and resources that are not plain files, or that contain "${" and so may depend on changelog parameters, are never cached.
+ */
+public class CheckSumCache implements SingletonObject {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_EXTENSION = ".lbchecksums";
+
+    private final Map<String, ChangeLogCache> changeLogCaches = new ConcurrentHashMap<>();
+
+    private CheckSumCache() {
+    }
+
+    /**
+     * Returns the cached checksum of the given changeset for the current scope, or computes it with the given generator and caches the result.
+     * The generator is called directly if no cache directory is configured or the changeset cannot be cached.
+     */
+    public CheckSum getCheckSum(ChangeSet changeSet, Supplier<CheckSum> generator) {
+        String directory = GlobalConfiguration.CHECKSUM_CACHE_DIRECTORY.getCurrentValue();
+        if (directory == null || !isCacheable(changeSet)) {
+            return generator.get();
+        }
+        String physicalFilePath = changeSet.getChangeLog().getPhysicalFilePath();
+        ChangeLogCache changeLogCache = changeLogCaches.computeIfAbsent(new File(directory).getAbsolutePath() + "|" + physicalFilePath,
+                key -> new ChangeLogCache(new File(directory, MD5Util.computeMD5(physicalFilePath) + FILE_EXTENSION), resolveFile(physicalFilePath)));
+        if (!changeLogCache.refresh()) {
+            return generator.get();
+        }
+
+        String key = toKey(changeSet);
+        CheckSum cached = changeLogCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        RecordingResourceAccessor recorder = new RecordingResourceAccessor(Scope.getCurrentScope().getResourceAccessor());
+        CheckSum checkSum;
+        try {
+            checkSum = Scope.child(Collections.singletonMap(Scope.Attr.resourceAccessor.name(), recorder), generator::get);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+        if (checkSum != null && recorder.isCacheable()) {
+            changeLogCache.put(key, checkSum.toString(), recorder.getResources());
+        }
+        return checkSum;
+    }
+
+    /**
+     * Forgets everything loaded from cache files, so they are re-read on next use.
+     */
+    public void clearCache() {
+        changeLogCaches.clear();
+    }
+
+    private static boolean isCacheable(ChangeSet changeSet) {
+        if (changeSet.getChangeLog() == null || changeSet.getChangeLog().getPhysicalFilePath() == null) {
+            return false;
+        }
+        if (!changeSet.isChangesLoaded()) {
+            return !changeSet.getUnloadedChangeNames().contains("customChange");
+        }
+        for (Change change : changeSet.getChanges()) {
+            if (change instanceof CustomChangeWrapper) {
+                //custom changes can compute their checksum from anything
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String toKey(ChangeSet changeSet) {
+        Database database = Scope.getCurrentScope().getDatabase();
+        return Scope.getCurrentScope().getChecksumVersion().getVersion()
+                + "|" + (database == null ? null : database.getShortName())
+                + "|" + GlobalConfiguration.OUTPUT_FILE_ENCODING.getCurrentValue()
+                + "|" + GlobalConfiguration.FILE_ENCODING.getCurrentValue()
+                + "|" + changeSet.getId()
+                + "|" + changeSet.getAuthor()
+                + "|" + (changeSet.getDbmsSet() == null ? null : new TreeSet<>(changeSet.getDbmsSet()))
+                + "|" + changeSet.getContextFilter()
+                + "|" + changeSet.getLabels();
+    }
+
+    private static Path resolveFile(String physicalFilePath) {
+        try {
+            Resource resource = Scope.getCurrentScope().getResourceAccessor().get(physicalFilePath);
+            return toFile(resource.getUri());
+        } catch (IOException | RuntimeException e) {
+            Scope.getCurrentScope().getLog(CheckSumCache.class).fine("Not caching checksums of " + physicalFilePath + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static Path toFile(URI uri) {
+        if (uri == null || !"file".equals(uri.getScheme())) {
+            return null;
+        }
+        return Paths.get(uri);
+    }
+
+    /**
+     * Cached checksums of the changesets in one changelog file.
+     */
+    private static class ChangeLogCache {
+        private final File cacheFile;
+        private final Path changeLogFile;
+        private final Map<String, Entry> entries = new HashMap<>();
+
+        private long size = -1;
+        private long lastModified = -1;
+        private boolean cacheable;
+
+        private ChangeLogCache(File cacheFile, Path changeLogFile) {
+            this.cacheFile = cacheFile;
+            this.changeLogFile = changeLogFile;
+        }
+
+        /**
+         * Re-checks the changelog file, reloading the cache file if the changelog file changed since it was last checked.
+         *
+         * @return false if checksums of this changelog file cannot be cached
+         */
+        private synchronized boolean refresh() {
+            if (changeLogFile == null) {
+                return false;
+            }
+            FileStamp stamp = FileStamp.of(changeLogFile.toUri().toString());
+            if (stamp == null) {
+                cacheable = false;
+                return false;
+            }
+            if (stamp.size == size && stamp.lastModified == lastModified) {
+                return cacheable;
+            }
+            size = stamp.size;
+            lastModified = stamp.lastModified;
+            entries.clear();
+
+            String contentHash;
+            try {
+                MessageDigest digest = MessageDigest.getInstance("MD5");
+                ParameterScanningInputStream in = new ParameterScanningInputStream(new DigestInputStream(Files.newInputStream(changeLogFile), digest), null);
+                try (InputStream ignored = in) {
+                    byte[] buffer = new byte[8192];
+                    while (in.read(buffer) != -1) {
+                        //digest and scan are updating
+                    }
+                }
+                if (in.isParameterReferenced()) {
+                    Scope.getCurrentScope().getLog(getClass()).fine("Not caching checksums of " + changeLogFile + " since it references changelog parameters");
+                    cacheable = false;
+                    return false;
+                }
+                contentHash = MD5Util.encodeHexString(digest.digest());
+            } catch (Exception e) {
+                Scope.getCurrentScope().getLog(getClass()).warning("Not caching checksums of " + changeLogFile + ": " + e.getMessage(), e);
+                cacheable = false;
+                return false;
+            }
+
+            cacheable = true;
+            if (!load(contentHash)) {
+                rewrite(contentHash);
+            }
+            return true;
+        }
+
+        private boolean load(String contentHash) {
+            if (!cacheFile.exists()) {
+                return false;
+            }
+            try {
+                return CacheFileUtil.readLocked(cacheFile, in -> {
+                    if (in.readInt() != FORMAT_VERSION || in.readLong() != size || in.readLong() != lastModified || !in.readUTF().equals(contentHash)) {
+                        return false;
+                    }
+                    while (true) {
+                        String key;
+                        try {
+                            key = in.readUTF();
+                        } catch (EOFException e) {
+                            return true;
+                        }
+                        String checkSum = CacheFileUtil.readString(in);
+                        int resourceCount = in.readInt();
+                        List<FileStamp> resources = new ArrayList<>(resourceCount);
+                        for (int i = 0; i < resourceCount; i++) {
+                            resources.add(new FileStamp(in.readUTF(), in.readLong(), in.readLong()));
+                        }
+                        entries.put(key, new Entry(checkSum, resources));
+                    }
+                });
+            } catch (IOException | RuntimeException e) {
+                Scope.getCurrentScope().getLog(getClass()).fine("Ignoring unreadable checksum cache " + cacheFile.getAbsolutePath() + ": " + e.getMessage());
+                entries.clear();
+                return false;
+            }
+        }
+
+        private void rewrite(String contentHash) {
+            try {
+                CacheFileUtil.writeAtomically(cacheFile, out -> {
+                    out.writeInt(FORMAT_VERSION);
+                    out.writeLong(size);
+                    out.writeLong(lastModified);
+                    out.writeUTF(contentHash);
+                    for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                        writeEntry(out, entry.getKey(), entry.getValue());
+                    }
+                });
+            } catch (IOException e) {
+                Scope.getCurrentScope().getLog(getClass()).warning("Cannot write checksum cache " + cacheFile.getAbsolutePath() + ": " + e.getMessage(), e);
+                cacheable = false;
+            }
+        }
+
+        private synchronized CheckSum get(String key) {
+            Entry entry = entries.get(key);
+            if (entry == null || entry.checkSum == null || !entry.isCurrent()) {
+                return null;
+            }
+            return CheckSum.parse(entry.checkSum);
+        }
+
+        private synchronized void put(String key, String checkSum, List<FileStamp> resources) {
+            if (!cacheable) {
+                return;
+            }
+            Entry existing = entries.get(key);
+            Entry entry;
+            if (existing != null && existing.isCurrent() && !Objects.equals(existing.checkSum, checkSum)) {
+                //two changesets share the same key, so neither can be served from the cache
+                entry = new Entry(null, Collections.emptyList());
+            } else {
+                entry = new Entry(checkSum, resources);
+            }
+            entries.put(key, entry);
+            try {
+                //other processes may append to the same file
+                CacheFileUtil.appendLocked(cacheFile, out -> writeEntry(out, key, entry));
+            } catch (IOException e) {
+                Scope.getCurrentScope().getLog(getClass()).warning("Cannot write checksum cache " + cacheFile.getAbsolutePath() + ": " + e.getMessage(), e);
+                cacheable = false;
+            }
+        }
+
+        private static void writeEntry(DataOutputStream out, String key, Entry entry) throws IOException {
+            out.writeUTF(key);
+            CacheFileUtil.writeString(out, entry.checkSum);
+            out.writeInt(entry.resources.size());
+            for (FileStamp resource : entry.resources) {
+                out.writeUTF(resource.uri);
+                out.writeLong(resource.size);
+                out.writeLong(resource.lastModified);
+            }
+        }
+    }
+
+    private static class Entry {
+        private final String checkSum;
+        private final List<FileStamp> resources;
+
+        private Entry(String checkSum, List<FileStamp> resources) {
+            this.checkSum = checkSum;
+            this.resources = resources;
+        }
+
+        private boolean isCurrent() {
+            for (FileStamp resource : resources) {
+                if (!resource.isCurrent()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Size and last-modified time of a file, identified by its URI.
+     */
+    private static class FileStamp {
+        private final String uri;
+        private final long size;
+        private final long lastModified;
+
+        private FileStamp(String uri, long size, long lastModified) {
+            this.uri = uri;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        private static FileStamp of(String uri) {
+            try {
+                Path path = Paths.get(URI.create(uri));
+                return new FileStamp(uri, Files.size(path), Files.getLastModifiedTime(path).toMillis());
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException | RuntimeException e) {
+                Scope.getCurrentScope().getLog(CheckSumCache.class).fine("Cannot check " + uri + ": " + e.getMessage());
+                return null;
+            }
+        }
+
+        private boolean isCurrent() {
+            FileStamp current = of(uri);
+            return current != null && current.size == size && current.lastModified == lastModified;
+        }
+    }
+
+    /**
+     * Wraps the scope's resource accessor while a checksum is computed, to find out which files it was computed from.
+     */
+    private static class RecordingResourceAccessor implements ResourceAccessor {
+        private final ResourceAccessor delegate;
+        private final Map<String, FileStamp> resources = new LinkedHashMap<>();
+        private boolean cacheable = true;
+
+        private RecordingResourceAccessor(ResourceAccessor delegate) {
+            this.delegate = delegate;
+        }
+
+        private synchronized boolean isCacheable() {
+            return cacheable;
+        }
+
+        private synchronized List<FileStamp> getResources() {
+            return new ArrayList<>(resources.values());
+        }
+
+        private synchronized void opened(URI uri) {
+            Path file = toFile(uri);
+            FileStamp stamp = (file == null) ? null : FileStamp.of(file.toUri().toString());
+            if (stamp == null) {
+                cacheable = false;
+            } else {
+                resources.put(stamp.uri, stamp);
+            }
+        }
+
+        private synchronized void parameterReferenced() {
+            cacheable = false;
+        }
+
+        private List<Resource> wrap(List<Resource> resources) {
+            if (resources == null) {
+                return null;
+            }
+            return resources.stream().map(this::wrap).collect(Collectors.toList());
+        }
+
+        private Resource wrap(Resource resource) {
+            return (resource == null) ? null : new RecordingResource(resource, this);
+        }
+
+        @Override
+        public List<Resource> search(String path, boolean recursive) throws IOException {
+            return wrap(delegate.search(path, recursive));
+        }
+
+        @Override
+        public List<Resource> getAll(String path) throws IOException {
+            return wrap(delegate.getAll(path));
+        }
+
+        @Override
+        public List<String> describeLocations() {
+            return delegate.describeLocations();
+        }
+
+        @Override
+        public void close() {
+            //the wrapped accessor is owned by the enclosing scope
+        }
+    }
+
+    private static class RecordingResource implements Resource {
+        private final Resource delegate;
+        private final RecordingResourceAccessor recorder;
+
+        private RecordingResource(Resource delegate, RecordingResourceAccessor recorder) {
+            this.delegate = delegate;
+            this.recorder = recorder;
+        }
+
+        @Override
+        public String getPath() {
+            return delegate.getPath();
+        }
+
+        @Override
+        public InputStream openInputStream() throws IOException {
+            recorder.opened(delegate.getUri());
+            return new ParameterScanningInputStream(delegate.openInputStream(), recorder::parameterReferenced);
+        }
+
+        @Override
+        public boolean isWritable() {
+            return delegate.isWritable();
+        }
+
+        @Override
+        public boolean exists() {
+            return delegate.exists();
+        }
+
+        @Override
+        public Resource resolve(String other) {
+            return recorder.wrap(delegate.resolve(other));
+        }
+
+        @Override
+        public Resource resolveSibling(String other) {
+            return recorder.wrap(delegate.resolveSibling(other));
+        }
+
+        @Override
+        public OutputStream openOutputStream(OpenOptions openOptions) throws IOException {
+            return delegate.openOutputStream(openOptions);
+        }
+
+        @Override
+        public URI getUri() {
+            return delegate.getUri();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return (obj instanceof RecordingResource) ? delegate.equals(((RecordingResource) obj).delegate) : delegate.equals(obj);
+        }
+
+        @Override
+        public int hashCode() {
+            return delegate.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+
+    /**
+     * Passes bytes through unchanged while looking for "${", ignoring zero bytes so UTF-16 content is covered as well.
+     */
+    private static class ParameterScanningInputStream extends FilterInputStream {
+        private final Runnable onParameterReference;
+        private boolean previousWasDollar;
+        private boolean parameterReferenced;
+
+        private ParameterScanningInputStream(InputStream in, Runnable onParameterReference) {
+            super(in);
+            this.onParameterReference = onParameterReference;
+        }
+
+        boolean isParameterReferenced() {
+            return parameterReferenced;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read != -1) {
+                scan((byte) read);
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            for (int i = off; i < off + read; i++) {
+                scan(b[i]);
+            }
+            return read;
+        }
+
+        private void scan(byte b) {
+            if (b == 0) {
+                return;
+            }
+            if (b == '{' && previousWasDollar && !parameterReferenced) {
+                parameterReferenced = true;
+                if (onParameterReference != null) {
+                    onParameterReference.run();
+                }
+            }
+            previousWasDollar = (b == '$');
+        }
+    }
+}
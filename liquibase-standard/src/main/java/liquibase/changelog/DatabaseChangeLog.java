@@ -27,6 +27,7 @@ import liquibase.parser.core.ParsedNode;
 import liquibase.parser.core.ParsedNodeException;
 import liquibase.parser.core.ParserSupportedFileExtension;
 import liquibase.parser.core.sql.SqlChangeLogParser;
+import liquibase.parser.core.xml.AbstractChangeLogParser;
 import liquibase.precondition.Conditional;
 import liquibase.precondition.core.PreconditionContainer;
 import liquibase.resource.Resource;
@@ -48,6 +49,9 @@ import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -107,6 +111,12 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
 
     @Getter
     private final List<ChangeSet> changeSets = new ArrayList<>();
+    /**
+     * Lazily built index of {@link #changeSets} keyed by normalized, lower-cased path/author/id.
+     * Reset whenever changesets are added; the size check also catches direct modification of {@link #getChangeSets()}.
+     */
+    private Map<String, List<ChangeSet>> changeSetIndex;
+    private int changeSetIndexSize;
     @Getter
     private final List<ChangeSet> skippedChangeSets = new ArrayList<>();
     @Getter
@@ -289,12 +299,16 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
     public List<ChangeSet> getChangeSets(String path, String author, String id) {
         final ArrayList<ChangeSet> changeSetsToReturn = new ArrayList<>();
         final String normalizedPath = normalizePath(path);
-        if (normalizedPath != null) {
-            for (ChangeSet changeSet : this.changeSets) {
-                if (changeSet.getAuthor().equalsIgnoreCase(author) && changeSet.getId().equalsIgnoreCase(id) && isDbmsMatch(changeSet.getDbmsSet())) {
-                    final String changesetNormalizedPath = normalizePath(changeSet.getFilePath());
-                    if (changesetNormalizedPath != null && changesetNormalizedPath.equalsIgnoreCase(normalizedPath)) {
-                        changeSetsToReturn.add(changeSet);
+        if (normalizedPath != null && author != null && id != null) {
+            List<ChangeSet> candidates = getChangeSetIndex().get(toChangeSetKey(normalizedPath, author, id));
+            if (candidates != null) {
+                for (ChangeSet changeSet : candidates) {
+                    //re-check against the current values: file paths can be updated after indexing and dbms depends on the current parameters
+                    if (changeSet.getAuthor().equalsIgnoreCase(author) && changeSet.getId().equalsIgnoreCase(id) && isDbmsMatch(changeSet.getDbmsSet())) {
+                        final String changesetNormalizedPath = normalizePath(changeSet.getFilePath());
+                        if (changesetNormalizedPath != null && changesetNormalizedPath.equalsIgnoreCase(normalizedPath)) {
+                            changeSetsToReturn.add(changeSet);
+                        }
                     }
                 }
             }
@@ -302,7 +316,28 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         return changeSetsToReturn;
     }
 
+    private Map<String, List<ChangeSet>> getChangeSetIndex() {
+        if (changeSetIndex == null || changeSetIndexSize != this.changeSets.size()) {
+            Map<String, List<ChangeSet>> index = new HashMap<>();
+            for (ChangeSet changeSet : this.changeSets) {
+                String normalizedPath = normalizePath(changeSet.getFilePath());
+                if (normalizedPath != null && changeSet.getAuthor() != null && changeSet.getId() != null) {
+                    index.computeIfAbsent(toChangeSetKey(normalizedPath, changeSet.getAuthor(), changeSet.getId()), key -> new ArrayList<>(1))
+                            .add(changeSet);
+                }
+            }
+            changeSetIndex = index;
+            changeSetIndexSize = this.changeSets.size();
+        }
+        return changeSetIndex;
+    }
+
+    private static String toChangeSetKey(String normalizedPath, String author, String id) {
+        return normalizedPath.toLowerCase(Locale.US) + "::" + author.toLowerCase(Locale.US) + "::" + id.toLowerCase(Locale.US);
+    }
+
     public void addChangeSet(ChangeSet changeSet) {
+        changeSetIndex = null;
         if (changeSet.getRunOrder() == null) {
             ListIterator<ChangeSet> it = this.changeSets.listIterator(this.changeSets.size());
             boolean added = false;
@@ -363,6 +398,14 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
 
     public void validate(Database database, Contexts contexts, LabelExpression labelExpression)
             throws LiquibaseException {
+        this.validate(database, contexts, labelExpression, database.getRanChangeSetList());
+    }
+
+    /**
+     * Validates this changelog against the given ran changesets instead of reading them from the database changelog table.
+     */
+    public void validate(Database database, Contexts contexts, LabelExpression labelExpression, List<RanChangeSet> ranChangeSets)
+            throws LiquibaseException {
 
         database.setObjectQuotingStrategy(objectQuotingStrategy);
 
@@ -372,12 +415,14 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
                 new ContextChangeSetFilter(contexts),
                 new LabelChangeSetFilter(labelExpression)
         );
+        RuntimeEnvironment env = new RuntimeEnvironment(database, contexts, labelExpression);
 
         ValidatingVisitorGeneratorFactory validatingVisitorGeneratorFactory = Scope.getCurrentScope().getSingleton(ValidatingVisitorGeneratorFactory.class);
         ValidatingVisitorGenerator generator = validatingVisitorGeneratorFactory.getValidatingVisitorGenerator();
-        ValidatingVisitor validatingVisitor = generator.generateValidatingVisitor(database.getRanChangeSetList());
+        ValidatingVisitor validatingVisitor = generator.generateValidatingVisitor(ranChangeSets);
         validatingVisitor.validate(database, this);
-        logIterator.run(validatingVisitor, new RuntimeEnvironment(database, contexts, labelExpression));
+        validatingVisitor.precomputeCheckSums(this, logIterator.getChangeSetFilters(), env);
+        logIterator.run(validatingVisitor, env);
 
         final Logger log = Scope.getCurrentScope().getLog(getClass());
         for (String message : validatingVisitor.getWarnings().getMessages()) {
@@ -846,7 +891,13 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         }
         try {
             Set<String> seenChangelogPaths = Scope.getCurrentScope().get(SEEN_CHANGELOGS_PATHS_SCOPE_KEY, new HashSet<>());
-            Scope.child(Collections.singletonMap(SEEN_CHANGELOGS_PATHS_SCOPE_KEY, seenChangelogPaths), () -> {
+            Map<String, Object> scopeValues = new HashMap<>();
+            scopeValues.put(SEEN_CHANGELOGS_PATHS_SCOPE_KEY, seenChangelogPaths);
+            Map<String, ParsedNode> parsedNodes = readIncludedNodes(resources, resourceAccessor);
+            if (!parsedNodes.isEmpty()) {
+                scopeValues.put(AbstractChangeLogParser.PARSED_NODES_SCOPE_KEY, parsedNodes);
+            }
+            Scope.child(scopeValues, () -> {
                 for (Resource resource : resources) {
                     Scope.getCurrentScope().getLog(getClass()).info("Reading resource: " + resource);
                     include(resource.getPath(), false, errorIfMissingOrEmpty, resourceAccessor, includeContextFilter,
@@ -858,6 +909,52 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         }
     }
 
+    /**
+     * Reads the files found by an includeAll on {@link ChangeLogParserConfiguration#INCLUDE_ALL_PARSE_PARALLELISM} threads,
+     * so the includes that follow only have to load the trees in order.
+     * Files that cannot be read ahead are left out, so they are read again by their include and fail or warn just like without reading ahead.
+     *
+     * @return the trees by physical path, empty if reading ahead is disabled
+     */
+    private Map<String, ParsedNode> readIncludedNodes(SortedSet<Resource> resources, ResourceAccessor resourceAccessor) {
+        int parallelism = ChangeLogParserConfiguration.INCLUDE_ALL_PARSE_PARALLELISM.getCurrentValue();
+        if (parallelism <= 1 || resources.size() < 2) {
+            return Collections.emptyMap();
+        }
+
+        Scope scope = Scope.getCurrentScope();
+        Map<String, ParsedNode> parsedNodes = new ConcurrentHashMap<>();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (Resource resource : resources) {
+            String path = resource.getPath();
+            tasks.add(() -> {
+                try {
+                    Scope.runInScope(scope, () -> {
+                        ChangeLogParser parser = ChangeLogParserFactory.getInstance().getParser(path, resourceAccessor);
+                        if (parser instanceof AbstractChangeLogParser) {
+                            ParsedNode node = ((AbstractChangeLogParser) parser).readNode(path, resourceAccessor);
+                            if (node != null) {
+                                parsedNodes.put(path, node);
+                            }
+                        }
+                        return null;
+                    });
+                } catch (Exception e) {
+                    Scope.getCurrentScope().getLog(getClass()).fine("Cannot read " + path + " ahead of including it: " + e.getMessage(), e);
+                }
+                return null;
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, tasks.size()));
+        try {
+            pool.invokeAll(tasks);
+        } finally {
+            pool.shutdown();
+        }
+        return parsedNodes;
+    }
+
     /**
      *
      * @deprecated use {@link DatabaseChangeLog#include(String, boolean, boolean, ResourceAccessor, ContextExpression, Labels, Boolean, String, OnUnknownFileFormat)}
@@ -0,0 +1,107 @@
+package liquibase.changelog;
+
+import liquibase.exception.UnexpectedLiquibaseException;
+import lombok.Data;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Cheap summary of a database changelog table, read with a single aggregate query by
+ * {@link StandardChangeLogHistoryService#queryDatabaseChangeLogFingerprint(liquibase.database.Database)}.
+ * <p>
+ * The row hash is the sum of {@link #computeRowHash(String, String, String, String)} over all rows and identifies which
+ * changesets ran with which checksums. The row state hash is the sum of
+ * {@link #computeRowStateHash(String, String, String, String, String, String)} and also covers the tag and exec type of each row,
+ * so a re-tag or a MARK_RAN row rewritten as EXECUTED changes the fingerprint too.
+ * Both are only available on databases whose {@link liquibase.statement.core.SelectDatabaseChangeLogFingerprintStatement}
+ * generator can compute them and are null otherwise. Without them, a row rewritten in place by another process does not
+ * change the fingerprint.
+ */
+@Data
+public class DatabaseChangeLogFingerprint {
+
+    /**
+     * Number of hex digits of the MD5 of each row used for the row hash. 15 digits keep every value positive in a signed 64 bit integer.
+     */
+    public static final int ROW_HASH_HEX_DIGITS = 15;
+
+    private final int rowCount;
+    private final Integer maxOrderExecuted;
+    private final String maxDeploymentId;
+    private final int checkSumCount;
+    private final int tagCount;
+    private final BigInteger rowHash;
+    private final BigInteger rowStateHash;
+
+    /**
+     * Computes the fingerprint the given rows would produce.
+     *
+     * @param includeRowHash whether to compute the row hashes, which should match whether the database returned them
+     */
+    public static DatabaseChangeLogFingerprint of(List<RanChangeSet> ranChangeSets, boolean includeRowHash) {
+        Integer maxOrderExecuted = null;
+        String maxDeploymentId = null;
+        int checkSumCount = 0;
+        int tagCount = 0;
+        BigInteger rowHash = includeRowHash ? BigInteger.ZERO : null;
+        BigInteger rowStateHash = includeRowHash ? BigInteger.ZERO : null;
+        for (RanChangeSet ranChangeSet : ranChangeSets) {
+            Integer orderExecuted = ranChangeSet.getOrderExecuted();
+            if (orderExecuted != null && (maxOrderExecuted == null || orderExecuted > maxOrderExecuted)) {
+                maxOrderExecuted = orderExecuted;
+            }
+            String deploymentId = ranChangeSet.getDeploymentId();
+            if (deploymentId != null && (maxDeploymentId == null || deploymentId.compareTo(maxDeploymentId) > 0)) {
+                maxDeploymentId = deploymentId;
+            }
+            if (ranChangeSet.getLastCheckSum() != null) {
+                checkSumCount++;
+            }
+            if (ranChangeSet.getTag() != null) {
+                tagCount++;
+            }
+            if (includeRowHash) {
+                String fileName = ranChangeSet.getStoredChangeLog() == null ? ranChangeSet.getChangeLog() : ranChangeSet.getStoredChangeLog();
+                String md5sum = ranChangeSet.getLastCheckSum() == null ? null : ranChangeSet.getLastCheckSum().toString();
+                String execType = ranChangeSet.getExecType() == null ? null : ranChangeSet.getExecType().value;
+                rowHash = rowHash.add(computeRowHash(ranChangeSet.getId(), ranChangeSet.getAuthor(), fileName, md5sum));
+                rowStateHash = rowStateHash.add(computeRowStateHash(ranChangeSet.getId(), ranChangeSet.getAuthor(), fileName, md5sum,
+                        ranChangeSet.getTag(), execType));
+            }
+        }
+        return new DatabaseChangeLogFingerprint(ranChangeSets.size(), maxOrderExecuted, maxDeploymentId, checkSumCount, tagCount, rowHash, rowStateHash);
+    }
+
+    /**
+     * Hash of a single changelog table row: the first {@link #ROW_HASH_HEX_DIGITS} hex digits of the MD5 of
+     * {@code ID:AUTHOR:FILENAME:MD5SUM} in UTF-8, with a null MD5SUM treated as an empty string.
+     * Database specific generators must compute exactly the same value.
+     */
+    public static BigInteger computeRowHash(String id, String author, String fileName, String md5sum) {
+        return hash(id + ":" + author + ":" + fileName + ":" + (md5sum == null ? "" : md5sum));
+    }
+
+    /**
+     * Hash of a single changelog table row including its state: the first {@link #ROW_HASH_HEX_DIGITS} hex digits of the MD5 of
+     * {@code ID:AUTHOR:FILENAME:MD5SUM:TAG:EXECTYPE} in UTF-8, with a null MD5SUM, TAG or EXECTYPE treated as an empty string.
+     * Database specific generators must compute exactly the same value.
+     */
+    public static BigInteger computeRowStateHash(String id, String author, String fileName, String md5sum, String tag, String execType) {
+        return hash(id + ":" + author + ":" + fileName + ":" + (md5sum == null ? "" : md5sum)
+                + ":" + (tag == null ? "" : tag) + ":" + (execType == null ? "" : execType));
+    }
+
+    private static BigInteger hash(String row) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("MD5").digest(row.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+        return new BigInteger(1, digest).shiftRight(128 - (ROW_HASH_HEX_DIGITS * 4));
+    }
+}
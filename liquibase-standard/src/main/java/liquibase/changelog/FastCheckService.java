@@ -1,6 +1,7 @@
 package liquibase.changelog;
 
 import liquibase.*;
+import liquibase.change.CheckSum;
 import liquibase.changelog.filter.*;
 import liquibase.changelog.visitor.ListVisitor;
 import liquibase.database.Database;
@@ -8,6 +9,7 @@ import liquibase.exception.DatabaseException;
 import liquibase.exception.LiquibaseException;
 import org.apache.commons.lang3.BooleanUtils;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -23,6 +25,7 @@ public class FastCheckService implements SingletonObject {
     }
 
     private final Map<String, Boolean> upToDateFastCheck = new ConcurrentHashMap<>();
+    private final Map<String, List<RanChangeSet>> fingerprintRanChangeSets = new ConcurrentHashMap<>();
 
     /**
      * Performs check of the historyService to determine if there is no unrun changesets without obtaining an exclusive write lock.
@@ -35,11 +38,23 @@ public class FastCheckService implements SingletonObject {
      * NOTE: to reduce the number of queries to the databasehistory table, this method will cache the "fast check" results within this instance under the assumption that the total changesets will not change within this instance.
      */
     public boolean isUpToDateFastCheck(List<ChangeSetFilter> changesetFilters, Database database, DatabaseChangeLog databaseChangeLog, Contexts contexts, LabelExpression labelExpression) throws LiquibaseException {
-        String cacheKey = String.format("%s/%s/%s/%s/%s/%s", contexts, labelExpression, database.getDefaultSchemaName(), database.getDefaultCatalogName(), database.getConnection().getURL(), databaseChangeLog.getLogicalFilePath());
+        String cacheKey = getCacheKey(database, databaseChangeLog, contexts, labelExpression);
         if (!upToDateFastCheck.containsKey(cacheKey) || BooleanUtils.isFalse(upToDateFastCheck.get(cacheKey))) {
             ChangeLogHistoryService changeLogService = Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(database);
+            fingerprintRanChangeSets.remove(cacheKey);
             try {
-                if (changeLogService.isDatabaseChecksumsCompatible() && listUnrunChangeSets(changesetFilters, database, databaseChangeLog, contexts, labelExpression).isEmpty()) {
+                boolean upToDate = false;
+                if (changeLogService.isDatabaseChecksumsCompatible()) {
+                    List<RanChangeSet> ranChangeSets = listRanChangeSetsByFingerprint(changesetFilters, changeLogService, database, databaseChangeLog, contexts, labelExpression);
+                    if (ranChangeSets != null) {
+                        databaseChangeLog.validate(database, contexts, labelExpression, ranChangeSets);
+                        fingerprintRanChangeSets.put(cacheKey, ranChangeSets);
+                        upToDate = true;
+                    } else {
+                        upToDate = listUnrunChangeSets(changesetFilters, database, databaseChangeLog, contexts, labelExpression).isEmpty();
+                    }
+                }
+                if (upToDate) {
                     Scope.getCurrentScope().getLog(getClass()).fine("Fast check found no un-run changesets");
                     upToDateFastCheck.put(cacheKey, true);
                 } else {
@@ -57,6 +72,73 @@ public class FastCheckService implements SingletonObject {
         return upToDateFastCheck.get(cacheKey);
     }
 
+    /**
+     * Returns the ran changesets the history table was shown to hold by the fingerprint when {@link #isUpToDateFastCheck} last
+     * returned true for the same arguments, or null if that result did not come from the fingerprint.
+     * Callers can use them to build the up-to-date summary without reading the history rows. They carry the id, author, file path
+     * and checksum of each row but no execution date, tag or exec type.
+     */
+    public List<RanChangeSet> getFingerprintRanChangeSets(Database database, DatabaseChangeLog databaseChangeLog, Contexts contexts, LabelExpression labelExpression) {
+        return fingerprintRanChangeSets.get(getCacheKey(database, databaseChangeLog, contexts, labelExpression));
+    }
+
+    private String getCacheKey(Database database, DatabaseChangeLog databaseChangeLog, Contexts contexts, LabelExpression labelExpression) {
+        return String.format("%s/%s/%s/%s/%s/%s", contexts, labelExpression, database.getDefaultSchemaName(), database.getDefaultCatalogName(), database.getConnection().getURL(), databaseChangeLog.getLogicalFilePath());
+    }
+
+    /**
+     * Compares a {@link DatabaseChangeLogFingerprint} of the history table, read with a single aggregate query, with the one
+     * the changesets selected by the filters would produce once applied. A match means the history table holds exactly
+     * those changesets with their current checksums, so nothing needs to run and no history rows have to be read.
+     * Only the row hash is compared: tags and exec types cannot be derived from the changelog and do not decide whether a
+     * changeset has to run.
+     * <p>
+     * Returns the ran changesets the history table holds on a match, and null whenever that cannot be established, including on
+     * databases that cannot compute the row hash, in which case the caller must fall back to {@link #listUnrunChangeSets}.
+     */
+    private List<RanChangeSet> listRanChangeSetsByFingerprint(List<ChangeSetFilter> changesetFilters, ChangeLogHistoryService changeLogService, Database database, DatabaseChangeLog databaseChangeLog, Contexts contexts, LabelExpression labels) throws LiquibaseException {
+        if (!(changeLogService instanceof StandardChangeLogHistoryService) || !((StandardChangeLogHistoryService) changeLogService).hasDatabaseChangeLogTable()) {
+            return null;
+        }
+        DatabaseChangeLogFingerprint fingerprint = ((StandardChangeLogHistoryService) changeLogService).queryDatabaseChangeLogFingerprint(database);
+        if (fingerprint.getRowHash() == null || fingerprint.getCheckSumCount() != fingerprint.getRowCount()) {
+            return null;
+        }
+        if (changesetFilters == null) {
+            changesetFilters = getStandardChangelogIteratorFilters(database, contexts, labels);
+        }
+
+        List<RanChangeSet> ranChangeSets = new ArrayList<>();
+        BigInteger rowHash = BigInteger.ZERO;
+        for (ChangeSet changeSet : databaseChangeLog.getChangeSets()) {
+            if (!isAccepted(changeSet, changesetFilters)) {
+                continue;
+            }
+            if (changeSet.isAlwaysRun() || ranChangeSets.size() >= fingerprint.getRowCount()) {
+                return null;
+            }
+            CheckSum checkSum = changeSet.generateCheckSum(ChecksumVersion.latest());
+            rowHash = rowHash.add(DatabaseChangeLogFingerprint.computeRowHash(changeSet.getId(), changeSet.getAuthor(),
+                    changeSet.getFilePath(), checkSum.toString()));
+            ranChangeSets.add(new RanChangeSet(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor(), checkSum, null, null, null,
+                    changeSet.getDescription(), changeSet.getComments(), null, null, null, changeSet.getFilePath()));
+        }
+        if (ranChangeSets.size() == fingerprint.getRowCount() && rowHash.equals(fingerprint.getRowHash())) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Fast check fingerprint matches all " + ranChangeSets.size() + " changesets");
+            return ranChangeSets;
+        }
+        return null;
+    }
+
+    private boolean isAccepted(ChangeSet changeSet, List<ChangeSetFilter> changesetFilters) {
+        for (ChangeSetFilter filter : changesetFilters) {
+            if (!filter.accepts(changeSet).isAccepted()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Get list of ChangeSet which have not been applied
      *
@@ -91,6 +173,7 @@ public class FastCheckService implements SingletonObject {
      */
     public void clearCache() {
         this.upToDateFastCheck.clear();
+        this.fingerprintRanChangeSets.clear();
     }
 
 }
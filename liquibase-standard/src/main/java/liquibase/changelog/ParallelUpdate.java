@@ -0,0 +1,536 @@
+package liquibase.changelog;
+
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.change.AbstractSQLChange;
+import liquibase.change.Change;
+import liquibase.change.ChangeFactory;
+import liquibase.change.ChangeParameterMetaData;
+import liquibase.change.ChangeWithColumns;
+import liquibase.change.ColumnConfig;
+import liquibase.change.ConstraintsConfig;
+import liquibase.change.core.AbstractModifyDataChange;
+import liquibase.change.core.DropAllForeignKeyConstraintsChange;
+import liquibase.change.custom.CustomChangeWrapper;
+import liquibase.changelog.ChangeSet.ExecType;
+import liquibase.changelog.visitor.ChangeSetVisitor;
+import liquibase.changelog.visitor.UpdateVisitor;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.core.DatabaseUtils;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.LiquibaseException;
+import liquibase.exception.MigrationFailedException;
+import liquibase.executor.LoggingExecutor;
+import liquibase.parser.core.ParsedNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs changesets of an update that touch different tables at the same time, each on one of up to
+ * {@link GlobalConfiguration#UPDATE_PARALLELISM} connections opened with the URL of the update connection.
+ * <p>
+ * The tables of a changeset are read from the table name properties of its changes and from the tables its columns reference.
+ * Tables that any change of the changelog touches together, like both sides of a foreign key or the old and new name of a
+ * renamed table, count as one table. A changeset waits for the running changesets it shares a table with. Changesets whose
+ * tables cannot be told, like SQL, custom and view changes, data changes with a where clause or computed values, and changesets
+ * with preconditions, a custom executor, failOnError=false or changes skipped for the database or OS, run on the update connection
+ * after all changesets before them finished. Foreign keys that were not created by the changelog are not known, so tables related only by them are not ordered.
+ * <p>
+ * The changelog table row of a changeset is written on its worker connection and committed in the same transaction as the
+ * changeset wherever a serial update would, see {@link ChangeSetCommitGroup#forChangeSet(Database, ChangeSet)}, and right after
+ * it otherwise. ORDEREXECUTED is reserved when the changeset is submitted, in changelog order, so the rows are ordered like in a
+ * serial update whichever connection commits first, with gaps for changesets that were submitted but not marked. Listeners and
+ * the ran changesets of the update database only learn about a changeset on the update thread, in changelog order, once it and
+ * all changesets before it finished. Once a changeset fails, no more changesets are started, the running ones are awaited and
+ * recorded, and the failure is thrown.
+ * <p>
+ * The tables of changesets whose changes were not created yet, see {@link ChangeSet#isChangesLoaded()}, are read from their
+ * parsed nodes, so changesets that do not run are not loaded.
+ */
+public class ParallelUpdate implements AutoCloseable {
+
+    public static final String SCOPE_KEY = "parallelUpdate";
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private final Database database;
+    private final int parallelism;
+    private final Map<String, String> tableGroups = new HashMap<>();
+    private final Map<ChangeSet, Set<String>> changeSetTables = new IdentityHashMap<>();
+    private final List<Database> workerDatabases = new ArrayList<>();
+    private final BlockingQueue<Database> idleDatabases = new LinkedBlockingQueue<>();
+    private final Deque<RunningChangeSet> running = new ArrayDeque<>();
+    private ExecutorService workers;
+    private boolean unavailable;
+
+    private ChangeSet failedChangeSet;
+    private LiquibaseException failure;
+
+    /**
+     * Executes a changeset on a worker connection and returns the exec type to mark it with.
+     */
+    public interface ChangeSetRun {
+
+        ExecType execute(Database database) throws MigrationFailedException;
+    }
+
+    /**
+     * Reports a changeset on the update thread once it and all changesets started before it finished. Its changelog table row was
+     * written with it on the worker connection.
+     */
+    public interface ChangeSetCompletion {
+
+        void ran(ExecType execType) throws LiquibaseException;
+
+        void failed(MigrationFailedException e);
+    }
+
+    private ParallelUpdate(Database database, int parallelism) {
+        this.database = database;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the parallel update for the visitor, or null if {@link GlobalConfiguration#UPDATE_PARALLELISM} is 1 or less,
+     * the visitor does not update the database, or the database is not updated through a JDBC connection or does not keep its
+     * history with the {@link StandardChangeLogHistoryService}.
+     */
+    static ParallelUpdate create(ChangeSetVisitor visitor, DatabaseChangeLog changeLog, Database database) {
+        Integer parallelism = GlobalConfiguration.UPDATE_PARALLELISM.getCurrentValue();
+        if ((parallelism == null) || (parallelism < 2) || !(visitor instanceof UpdateVisitor)
+                || !visitor.getDirection().equals(ChangeSetVisitor.Direction.FORWARD) || (database == null)
+                || !(database.getConnection() instanceof JdbcConnection)
+                || (Scope.getCurrentScope().getSingleton(liquibase.executor.ExecutorService.class).getExecutor("jdbc", database) instanceof LoggingExecutor)
+                || !(Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(database) instanceof StandardChangeLogHistoryService)) {
+            return null;
+        }
+        ParallelUpdate update = new ParallelUpdate(database, parallelism);
+        for (ChangeSet changeSet : changeLog.getChangeSets()) {
+            if (!changeSet.isChangesLoaded()) {
+                // changesets that do not run are not loaded just to read their tables
+                for (ParsedNode changeNode : changeSet.getUnloadedChangeNodes()) {
+                    Set<String> tables = new HashSet<>();
+                    addTables(tables, changeNode);
+                    update.joinGroups(tables);
+                }
+                continue;
+            }
+            for (Change change : changeSet.getChanges()) {
+                Set<String> tables = getTables(change);
+                if (tables != null) {
+                    update.joinGroups(tables);
+                }
+            }
+        }
+        return update;
+    }
+
+    /**
+     * Returns the parallel update of the current scope if it runs the changesets of the given database, otherwise null.
+     */
+    public static ParallelUpdate get(Database database) {
+        ParallelUpdate update = Scope.getCurrentScope().get(SCOPE_KEY, ParallelUpdate.class);
+        return ((update != null) && (update.database == database)) ? update : null;
+    }
+
+    /**
+     * Returns true if the changeset can run on a worker connection. Opens the worker connections the first time.
+     */
+    public boolean canRunInParallel(ChangeSet changeSet) throws DatabaseException {
+        return (getTableGroups(changeSet) != null) && openWorkerDatabases();
+    }
+
+    /**
+     * Starts the changeset on a worker connection once the running changesets it shares a table with finished, and reserves its
+     * ORDEREXECUTED. The completion is called on this thread, in changelog order, by a later call of this method or {@link #awaitAll()}.
+     *
+     * @throws LiquibaseException the failure of a changeset started before, after waiting for all running changesets
+     */
+    public void submit(ChangeSet changeSet, ChangeSetRun run, ChangeSetCompletion completion) throws LiquibaseException {
+        Set<String> groups = getTableGroups(changeSet);
+        for (RunningChangeSet earlier : running) {
+            if (!Collections.disjoint(groups, earlier.tableGroups)) {
+                await(earlier.result);
+            }
+        }
+        recordFinished();
+
+        int orderExecuted = getChangeLogService().getNextSequenceValue();
+        Scope scope = Scope.getCurrentScope();
+        Future<ExecType> result = workers.submit(() -> {
+            Database workerDatabase = idleDatabases.take();
+            try {
+                return Scope.runInScope(scope, () -> execute(changeSet, run, workerDatabase, orderExecuted));
+            } finally {
+                idleDatabases.add(workerDatabase);
+            }
+        });
+        running.add(new RunningChangeSet(changeSet, groups, result, completion));
+    }
+
+    /**
+     * Runs the changeset on the worker connection, then writes its changelog table row there and commits both.
+     */
+    private ExecType execute(ChangeSet changeSet, ChangeSetRun run, Database workerDatabase, int orderExecuted) throws Exception {
+        ChangeSetCommitGroup transaction = ChangeSetCommitGroup.forChangeSet(workerDatabase, changeSet);
+        Map<String, Object> scopeValues = new HashMap<>();
+        scopeValues.put(Scope.Attr.database.name(), workerDatabase);
+        if (transaction != null) {
+            scopeValues.put(ChangeSetCommitGroup.SCOPE_KEY, transaction);
+        }
+        Scope.ScopedRunnerWithReturn<ExecType> execution = () -> {
+            ExecType execType = run.execute(workerDatabase);
+            try {
+                if (isMarked(execType)) {
+                    getChangeLogService().setExecType(workerDatabase, changeSet, execType, orderExecuted);
+                }
+                if (transaction == null) {
+                    workerDatabase.commit();
+                } else {
+                    transaction.afterVisit();
+                }
+            } catch (DatabaseException e) {
+                workerDatabase.rollback();
+                throw new MigrationFailedException(changeSet, e);
+            }
+            return execType;
+        };
+        return Scope.child(null, scopeValues, execution);
+    }
+
+    private static boolean isMarked(ExecType execType) {
+        return (execType != ExecType.SKIPPED) && (execType != ExecType.FAILED);
+    }
+
+    private StandardChangeLogHistoryService getChangeLogService() {
+        return (StandardChangeLogHistoryService) Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(database);
+    }
+
+    /**
+     * Waits for all running changesets and records them.
+     *
+     * @throws LiquibaseException the first failure of a changeset
+     */
+    public void awaitAll() throws LiquibaseException {
+        while (!running.isEmpty()) {
+            await(running.peekFirst().result);
+            record(running.removeFirst());
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Returns the changeset whose failure was thrown, or null if none failed.
+     */
+    ChangeSet getFailedChangeSet() {
+        return failedChangeSet;
+    }
+
+    /**
+     * Records the changesets that finished in changelog order, up to the first one that is still running.
+     * Once a changeset failed, waits for all running changesets instead and throws the failure.
+     */
+    private void recordFinished() throws LiquibaseException {
+        while (!running.isEmpty() && running.peekFirst().result.isDone()) {
+            record(running.removeFirst());
+        }
+        boolean failed = (failure != null);
+        for (RunningChangeSet changeSet : running) {
+            failed |= changeSet.result.isDone() && isFailed(changeSet.result);
+        }
+        if (failed) {
+            awaitAll();
+        }
+    }
+
+    private void record(RunningChangeSet changeSet) {
+        try {
+            ExecType execType;
+            try {
+                execType = changeSet.result.get();
+            } catch (ExecutionException e) {
+                MigrationFailedException migrationFailed = (e.getCause() instanceof MigrationFailedException) ?
+                        (MigrationFailedException) e.getCause() : new MigrationFailedException(changeSet.changeSet, e.getCause());
+                changeSet.completion.failed(migrationFailed);
+                throw migrationFailed;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MigrationFailedException(changeSet.changeSet, e);
+            }
+            if (isMarked(execType)) {
+                getChangeLogService().addRanChangeSet(changeSet.changeSet, execType);
+            }
+            changeSet.completion.ran(execType);
+        } catch (LiquibaseException e) {
+            if (failure == null) {
+                failure = e;
+                failedChangeSet = changeSet.changeSet;
+            }
+        }
+    }
+
+    private static boolean isFailed(Future<ExecType> result) {
+        try {
+            result.get();
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+
+    private static void await(Future<ExecType> result) {
+        try {
+            result.get();
+        } catch (ExecutionException e) {
+            // recorded in changelog order
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the groups of the tables the changeset touches, or null if they cannot be told.
+     */
+    private Set<String> getTableGroups(ChangeSet changeSet) {
+        if (changeSetTables.containsKey(changeSet)) {
+            return changeSetTables.get(changeSet);
+        }
+        Set<String> groups = null;
+        // skipped changes add the changeset to the skipped changesets of the changelog, which only the update thread may do
+        if ((changeSet.getPreconditions() == null) && (changeSet.getRunWith() == null) && !Boolean.FALSE.equals(changeSet.getFailOnError())
+                && !changeSet.getChanges().isEmpty() && !changeSet.hasChangesToSkip(database)) {
+            groups = new HashSet<>();
+            for (Change change : changeSet.getChanges()) {
+                Set<String> tables = getTables(change);
+                if ((tables == null) || tables.contains(normalize(database.getDatabaseChangeLogTableName()))
+                        || tables.contains(normalize(database.getDatabaseChangeLogLockTableName()))) {
+                    groups = null;
+                    break;
+                }
+                for (String table : tables) {
+                    groups.add(findGroup(table));
+                }
+            }
+        }
+        changeSetTables.put(changeSet, groups);
+        return groups;
+    }
+
+    /**
+     * Returns the tables the change touches, or null if they cannot be told.
+     */
+    private static Set<String> getTables(Change change) {
+        if ((change instanceof AbstractSQLChange) || (change instanceof CustomChangeWrapper) || (change instanceof DropAllForeignKeyConstraintsChange)
+                || ((change instanceof AbstractModifyDataChange) && (((AbstractModifyDataChange) change).getWhere() != null))) {
+            return null;
+        }
+        Set<String> tables = new HashSet<>();
+        for (ChangeParameterMetaData parameter : Scope.getCurrentScope().getSingleton(ChangeFactory.class).getChangeMetaData(change).getParameters().values()) {
+            if (parameter.getParameterName().toLowerCase(Locale.US).endsWith("tablename")) {
+                addTable(tables, parameter.getCurrentValue(change));
+            }
+        }
+        if (change instanceof ChangeWithColumns) {
+            List<? extends ColumnConfig> columns = ((ChangeWithColumns<?>) change).getColumns();
+            for (ColumnConfig column : (columns == null) ? Collections.<ColumnConfig>emptyList() : columns) {
+                if (column.getValueComputed() != null) {
+                    return null;
+                }
+                ConstraintsConfig constraints = column.getConstraints();
+                if (constraints != null) {
+                    addTable(tables, constraints.getReferencedTableName());
+                    addReferencedTable(tables, constraints.getReferences());
+                }
+            }
+        }
+        return tables.isEmpty() ? null : tables;
+    }
+
+    /**
+     * Adds the tables named anywhere in the parsed node of a change that was not created yet. Reading more tables than the change
+     * touches only joins more tables into one group, so changesets wait for each other more often.
+     */
+    private static void addTables(Set<String> tables, ParsedNode node) {
+        String name = (node.getName() == null) ? "" : node.getName().toLowerCase(Locale.US);
+        if (name.endsWith("tablename")) {
+            addTable(tables, node.getValue());
+        } else if (name.equals("references")) {
+            addReferencedTable(tables, node.getValue());
+        }
+        for (ParsedNode child : node.getChildren()) {
+            addTables(tables, child);
+        }
+    }
+
+    /**
+     * Adds the table of a foreign key reference like {@code table(column)}.
+     */
+    private static void addReferencedTable(Set<String> tables, Object references) {
+        if (references instanceof String) {
+            String table = (String) references;
+            addTable(tables, table.contains("(") ? table.substring(0, table.indexOf('(')) : table);
+        }
+    }
+
+    private static void addTable(Set<String> tables, Object tableName) {
+        if ((tableName instanceof String) && !((String) tableName).trim().isEmpty()) {
+            tables.add(normalize((String) tableName));
+        }
+    }
+
+    /**
+     * Drops the catalog and schema, which a table name of a foreign key reference may contain.
+     */
+    private static String normalize(String tableName) {
+        String name = tableName.trim().toLowerCase(Locale.US);
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    private void joinGroups(Set<String> tables) {
+        String joined = null;
+        for (String table : tables) {
+            String group = findGroup(table);
+            if (joined == null) {
+                joined = group;
+            } else if (!group.equals(joined)) {
+                tableGroups.put(group, joined);
+            }
+        }
+    }
+
+    private String findGroup(String table) {
+        String parent = tableGroups.get(table);
+        if ((parent == null) || parent.equals(table)) {
+            return table;
+        }
+        String group = findGroup(parent);
+        tableGroups.put(table, group);
+        return group;
+    }
+
+    /**
+     * Opens the worker connections unless they were opened before.
+     *
+     * @return false if the update connection cannot open more connections, in which case all changesets run on it
+     */
+    private boolean openWorkerDatabases() throws DatabaseException {
+        if (workers != null) {
+            return true;
+        }
+        if (unavailable) {
+            return false;
+        }
+        for (int i = 0; i < parallelism; i++) {
+            Database workerDatabase = openWorkerDatabase(database);
+            if (workerDatabase == null) {
+                break;
+            }
+            workerDatabases.add(workerDatabase);
+            idleDatabases.add(workerDatabase);
+        }
+        if (workerDatabases.isEmpty()) {
+            unavailable = true;
+            Scope.getCurrentScope().getLog(getClass()).warning("Changesets are run one after the other because the database connection " +
+                    "has no connection factory, so no connections can be opened to run them in parallel");
+            return false;
+        }
+        workers = Executors.newFixedThreadPool(workerDatabases.size(), runnable -> {
+            Thread thread = new Thread(runnable, "liquibase-parallel-update-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Scope.getCurrentScope().getLog(getClass()).fine("Running changesets on up to " + workerDatabases.size() + " connections in parallel");
+        return true;
+    }
+
+    /**
+     * Opens a connection like the update connection and sets it up like {@link liquibase.integration.commandline.CommandLineUtils}
+     * sets up the update database.
+     *
+     * @return the new database, or null if the update connection cannot open more connections
+     */
+    private static Database openWorkerDatabase(Database database) throws DatabaseException {
+        if (!(database.getConnection() instanceof JdbcConnection)) {
+            return null;
+        }
+        JdbcConnection connection = ((JdbcConnection) database.getConnection()).openNewConnection();
+        if (connection == null) {
+            return null;
+        }
+        Database workerDatabase = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(connection);
+        workerDatabase.setDefaultCatalogName(database.getDefaultCatalogName());
+        workerDatabase.setDefaultSchemaName(database.getDefaultSchemaName());
+        workerDatabase.setOutputDefaultCatalog(database.getOutputDefaultCatalog());
+        workerDatabase.setOutputDefaultSchema(database.getOutputDefaultSchema());
+        workerDatabase.setLiquibaseCatalogName(database.getLiquibaseCatalogName());
+        workerDatabase.setLiquibaseSchemaName(database.getLiquibaseSchemaName());
+        workerDatabase.setLiquibaseTablespaceName(database.getLiquibaseTablespaceName());
+        workerDatabase.setDatabaseChangeLogTableName(database.getDatabaseChangeLogTableName());
+        workerDatabase.setDatabaseChangeLogLockTableName(database.getDatabaseChangeLogLockTableName());
+        DatabaseUtils.initializeDatabase(workerDatabase.getDefaultCatalogName(), workerDatabase.getDefaultSchemaName(), workerDatabase);
+        return workerDatabase;
+    }
+
+    /**
+     * Waits for the running changesets without recording them, stops the worker threads and closes the worker connections.
+     */
+    @Override
+    public void close() {
+        for (RunningChangeSet changeSet : running) {
+            await(changeSet.result);
+        }
+        running.clear();
+        if (workers != null) {
+            workers.shutdown();
+        }
+        for (Database workerDatabase : workerDatabases) {
+            try {
+                workerDatabase.rollback();
+                workerDatabase.close();
+            } catch (DatabaseException e) {
+                Scope.getCurrentScope().getLog(getClass()).warning("Cannot close a parallel update connection: " + e.getMessage(), e);
+            }
+        }
+        workerDatabases.clear();
+        idleDatabases.clear();
+    }
+
+    private static class RunningChangeSet {
+
+        private final ChangeSet changeSet;
+        private final Set<String> tableGroups;
+        private final Future<ExecType> result;
+        private final ChangeSetCompletion completion;
+
+        private RunningChangeSet(ChangeSet changeSet, Set<String> tableGroups, Future<ExecType> result, ChangeSetCompletion completion) {
+            this.changeSet = changeSet;
+            this.tableGroups = tableGroups;
+            this.result = result;
+            this.completion = completion;
+        }
+    }
+}
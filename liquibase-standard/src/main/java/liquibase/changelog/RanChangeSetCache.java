@@ -0,0 +1,180 @@
+package liquibase.changelog;
+
+import liquibase.ContextExpression;
+import liquibase.Labels;
+import liquibase.Scope;
+import liquibase.change.CheckSum;
+import liquibase.database.Database;
+import liquibase.util.CacheFileUtil;
+import liquibase.util.MD5Util;
+import lombok.Getter;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+import static liquibase.util.CacheFileUtil.readString;
+import static liquibase.util.CacheFileUtil.writeString;
+
+/**
+ * Local file copy of the {@link RanChangeSet}s stored in a database changelog table, used by
+ * {@link StandardChangeLogHistoryService} when {@link liquibase.GlobalConfiguration#HISTORY_CACHE_DIRECTORY} is set.
+ * <p>
+ * Each cache file is keyed by connection URL, catalog, schema and table name. Whether the cached rows still match the
+ * table is decided by comparing a {@link DatabaseChangeLogFingerprint} computed from the cached rows with one queried from the database.
+ */
+public class RanChangeSetCache {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_EXTENSION = ".lbhistory";
+
+    @Getter
+    private final File file;
+
+    public RanChangeSetCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the cache for the changelog table of the given database, stored in the given directory.
+     */
+    public static RanChangeSetCache forDatabase(Database database, File directory) {
+        String key = database.getConnection().getURL()
+                + "|" + database.getLiquibaseCatalogName()
+                + "|" + database.getLiquibaseSchemaName()
+                + "|" + database.getDatabaseChangeLogTableName();
+        return new RanChangeSetCache(new File(directory, MD5Util.computeMD5(key) + FILE_EXTENSION));
+    }
+
+    /**
+     * Reads the cached changesets.
+     *
+     * @return the cached changesets, or null if there is no usable cache file
+     */
+    public List<RanChangeSet> read() {
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            int size = in.readInt();
+            List<RanChangeSet> ranChangeSets = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                ranChangeSets.add(readRanChangeSet(in));
+            }
+            return ranChangeSets;
+        } catch (IOException | RuntimeException e) {
+            Scope.getCurrentScope().getLog(getClass()).warning("Ignoring unreadable history cache " + file.getAbsolutePath() + ": " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the cache contents with the given changesets. Failures are logged and otherwise ignored, since the cache can always be rebuilt.
+     */
+    public void write(List<RanChangeSet> ranChangeSets) {
+        try {
+            CacheFileUtil.writeAtomically(file, out -> {
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(ranChangeSets.size());
+                for (RanChangeSet ranChangeSet : ranChangeSets) {
+                    writeRanChangeSet(out, ranChangeSet);
+                }
+            });
+        } catch (IOException e) {
+            Scope.getCurrentScope().getLog(getClass()).warning("Cannot write history cache " + file.getAbsolutePath() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Removes the cache file so the next read goes to the database.
+     */
+    public void invalidate() {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            Scope.getCurrentScope().getLog(getClass()).warning("Cannot delete history cache " + file.getAbsolutePath() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void writeRanChangeSet(DataOutputStream out, RanChangeSet ranChangeSet) throws IOException {
+        writeString(out, ranChangeSet.getChangeLog());
+        writeString(out, ranChangeSet.getStoredChangeLog());
+        writeString(out, ranChangeSet.getId());
+        writeString(out, ranChangeSet.getAuthor());
+        writeString(out, ranChangeSet.getLastCheckSum() == null ? null : ranChangeSet.getLastCheckSum().toString());
+        Date dateExecuted = ranChangeSet.getDateExecuted();
+        out.writeBoolean(dateExecuted != null);
+        if (dateExecuted != null) {
+            out.writeLong(dateExecuted.getTime());
+        }
+        writeString(out, ranChangeSet.getTag());
+        writeString(out, ranChangeSet.getExecType() == null ? null : ranChangeSet.getExecType().name());
+        writeString(out, ranChangeSet.getDescription());
+        writeString(out, ranChangeSet.getComments());
+        out.writeBoolean(ranChangeSet.getOrderExecuted() != null);
+        if (ranChangeSet.getOrderExecuted() != null) {
+            out.writeInt(ranChangeSet.getOrderExecuted());
+        }
+        ContextExpression contexts = ranChangeSet.getContextExpression();
+        writeString(out, (contexts == null || contexts.isEmpty()) ? null : contexts.toString());
+        Labels labels = ranChangeSet.getLabels();
+        writeString(out, (labels == null || labels.isEmpty()) ? null : labels.toString());
+        writeString(out, ranChangeSet.getDeploymentId());
+        writeString(out, ranChangeSet.getLiquibaseVersion());
+    }
+
+    private static RanChangeSet readRanChangeSet(DataInputStream in) throws IOException {
+        String changeLog = readString(in);
+        String storedChangeLog = readString(in);
+        String id = readString(in);
+        String author = readString(in);
+        String checkSum = readString(in);
+        Date dateExecuted = in.readBoolean() ? new Date(in.readLong()) : null;
+        String tag = readString(in);
+        String execType = readString(in);
+        String description = readString(in);
+        String comments = readString(in);
+        Integer orderExecuted = in.readBoolean() ? in.readInt() : null;
+        String contexts = readString(in);
+        String labels = readString(in);
+        String deploymentId = readString(in);
+        String liquibaseVersion = readString(in);
+
+        RanChangeSet ranChangeSet = new RanChangeSet(changeLog, id, author, CheckSum.parse(checkSum), dateExecuted, tag,
+                execType == null ? null : ChangeSet.ExecType.valueOf(execType), description, comments,
+                new ContextExpression(contexts), new Labels(labels), deploymentId, storedChangeLog);
+        ranChangeSet.setOrderExecuted(orderExecuted);
+        ranChangeSet.setLiquibaseVersion(liquibaseVersion);
+        return ranChangeSet;
+    }
+
+    /**
+     * Returns the cached changesets with rows read since the cache was written merged in.
+     * Rows that were re-run replace their earlier entry, and new rows are appended in the order they were read.
+     */
+    public static List<RanChangeSet> merge(List<RanChangeSet> cached, List<RanChangeSet> newRows) {
+        if (newRows.isEmpty()) {
+            return cached;
+        }
+        Set<String> newKeys = new HashSet<>();
+        for (RanChangeSet ranChangeSet : newRows) {
+            newKeys.add(toKey(ranChangeSet));
+        }
+        List<RanChangeSet> merged = new ArrayList<>(cached.size() + newRows.size());
+        for (RanChangeSet ranChangeSet : cached) {
+            if (!newKeys.contains(toKey(ranChangeSet))) {
+                merged.add(ranChangeSet);
+            }
+        }
+        merged.addAll(newRows);
+        return merged;
+    }
+
+    private static String toKey(RanChangeSet ranChangeSet) {
+        String fileName = ranChangeSet.getStoredChangeLog() == null ? ranChangeSet.getChangeLog() : ranChangeSet.getStoredChangeLog();
+        return ranChangeSet.getId() + "::" + ranChangeSet.getAuthor() + "::" + fileName;
+    }
+}
@@ -9,6 +9,7 @@ import liquibase.database.Database;
 import liquibase.database.core.DB2Database;
 import liquibase.database.core.MSSQLDatabase;
 import liquibase.database.core.SQLiteDatabase;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.diff.output.DiffOutputControl;
 import liquibase.diff.output.changelog.ChangeGeneratorFactory;
 import liquibase.exception.DatabaseException;
@@ -18,29 +19,46 @@ import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
 import liquibase.executor.jvm.ChangelogJdbcMdcListener;
+import liquibase.executor.jvm.JdbcExecutor;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotControl;
 import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGenerator;
 import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.sqlgenerator.core.MarkChangeSetRanGenerator;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.*;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.Column;
 import liquibase.structure.core.DataType;
 import liquibase.structure.core.Table;
+import liquibase.util.StringUtil;
 
+import java.io.File;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static liquibase.executor.jvm.JdbcExecutor.SHOULD_UPDATE_ROWS_AFFECTED_SCOPE_KEY;
 
 public class StandardChangeLogHistoryService extends AbstractChangeLogHistoryService {
 
     private List<RanChangeSet> ranChangeSetList;
+    /**
+     * Index over {@link #ranChangeSetList} keyed by {@link #toRanChangeSetKey(String, String, String)} so lookups
+     * do not need to scan the whole history. Kept in sync with the list and rebuilt alongside it.
+     */
+    private Map<String, RanChangeSet> ranChangeSetIndex;
     private boolean serviceInitialized;
     private Boolean hasDatabaseChangeLogTable;
     private boolean databaseChecksumsCompatible = true;
@@ -78,6 +96,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
     @Override
     public void reset() {
         this.ranChangeSetList = null;
+        this.ranChangeSetIndex = null;
         this.serviceInitialized = false;
         this.hasDatabaseChangeLogTable = null;
     }
@@ -297,11 +316,24 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
             //reset the cache if there was a change to the table. Especially catches things like md5 changes
             // which might have been updated but would still be wrong in the cache
             this.ranChangeSetList = null;
+            this.ranChangeSetIndex = null;
             Scope.getCurrentScope().getSingleton(FastCheckService.class).clearCache();
         }
         serviceInitialized = true;
     }
 
+    @Override
+    public void replaceChecksum(ChangeSet changeSet) throws DatabaseException {
+        super.replaceChecksum(changeSet);
+        invalidateRanChangeSetCache();
+    }
+
+    @Override
+    public void replaceFilePath(ChangeSet changeSet, String oldPath) throws DatabaseException {
+        super.replaceFilePath(changeSet, oldPath);
+        invalidateRanChangeSetCache();
+    }
+
     @Override
     public void upgradeChecksums(final DatabaseChangeLog databaseChangeLog, final Contexts contexts, LabelExpression
         labels) throws DatabaseException {
@@ -321,46 +353,168 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
             List<RanChangeSet> ranChangeSets = new ArrayList<>();
             if (hasDatabaseChangeLogTable()) {
                 Scope.getCurrentScope().getLog(getClass()).info("Reading from " + databaseChangeLogTableName);
-                List<Map<String, ?>> results = queryDatabaseChangeLogTable(database);
-                for (Map rs : results) {
-                    String storedFileName = rs.get("FILENAME").toString();
-                    String fileName = DatabaseChangeLog.normalizePath(storedFileName);
-                    String author = rs.get("AUTHOR").toString();
-                    String id = rs.get("ID").toString();
-                    String md5sum = ((rs.get("MD5SUM") == null)) ? null : rs.get("MD5SUM").toString();
-                    String description = (rs.get("DESCRIPTION") == null) ? null : rs.get("DESCRIPTION").toString();
-                    String comments = (rs.get("COMMENTS") == null) ? null : rs.get("COMMENTS").toString();
-                    Object tmpDateExecuted = rs.get("DATEEXECUTED");
-                    Date dateExecuted = convertDate(tmpDateExecuted);
-                    String tmpOrderExecuted = rs.get("ORDEREXECUTED").toString();
-                    Integer orderExecuted = ((tmpOrderExecuted == null) ? null : Integer.valueOf(tmpOrderExecuted));
-                    String tag = (rs.get("TAG") == null) ? null : rs.get("TAG").toString();
-                    String execType = (rs.get("EXECTYPE") == null) ? null : rs.get("EXECTYPE").toString();
-                    ContextExpression contexts = new ContextExpression((String) rs.get("CONTEXTS"));
-                    Labels labels = new Labels((String) rs.get("LABELS"));
-                    String deploymentId = (String) rs.get("DEPLOYMENT_ID");
-                    String liquibaseVersion =  (rs.get("LIQUIBASE") == null) ? null : rs.get("LIQUIBASE").toString();
-
-                    try {
-                        RanChangeSet ranChangeSet = new RanChangeSet(fileName, id, author, CheckSum.parse(md5sum),
-                            dateExecuted, tag, ChangeSet.ExecType.valueOf(execType), description, comments, contexts,
-                            labels, deploymentId, storedFileName);
-                        ranChangeSet.setOrderExecuted(orderExecuted);
-                        ranChangeSet.setLiquibaseVersion(liquibaseVersion);
-                        ranChangeSets.add(ranChangeSet);
-                    } catch (IllegalArgumentException e) {
-                        Scope.getCurrentScope().getLog(getClass()).severe("Unknown EXECTYPE from database: " +
-                            execType);
-                        throw e;
-                    }
+                RanChangeSetCache cache = getRanChangeSetCache();
+                if (cache == null) {
+                    ranChangeSets = queryRanChangeSets(database, null);
+                } else {
+                    ranChangeSets = readRanChangeSets(database, cache);
                 }
             }
 
             this.ranChangeSetList = ranChangeSets;
+            this.ranChangeSetIndex = null;
         }
         return Collections.unmodifiableList(ranChangeSetList);
     }
 
+    /**
+     * Reads the changelog table through the local history cache: the cached rows are used as-is if they still match the
+     * table, rows past the cached ORDEREXECUTED watermark are read and merged in if that is enough to match it again,
+     * and the whole table is read otherwise.
+     * <p>
+     * The cache is only trusted on databases that compute the row hash of the fingerprint, since the other aggregates do not
+     * change when another process rewrites a checksum in place. Elsewhere the whole table is always read.
+     */
+    private List<RanChangeSet> readRanChangeSets(Database database, RanChangeSetCache cache) throws DatabaseException {
+        DatabaseChangeLogFingerprint fingerprint = queryDatabaseChangeLogFingerprint(database);
+        if (fingerprint.getRowHash() == null) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Not using the history cache because " + database.getShortName() +
+                    " cannot compute the changelog table row hash");
+            return queryRanChangeSets(database, null);
+        }
+        List<RanChangeSet> cached = cache.read();
+        if (cached != null) {
+            DatabaseChangeLogFingerprint cachedFingerprint = DatabaseChangeLogFingerprint.of(cached, true);
+            if (cachedFingerprint.equals(fingerprint)) {
+                Scope.getCurrentScope().getLog(getClass()).fine("Using cached history from " + cache.getFile().getAbsolutePath());
+                return cached;
+            }
+            Integer watermark = cachedFingerprint.getMaxOrderExecuted();
+            if (watermark != null && fingerprint.getMaxOrderExecuted() != null && fingerprint.getMaxOrderExecuted() > watermark) {
+                List<RanChangeSet> newRows = queryRanChangeSets(database, watermark);
+                List<RanChangeSet> merged = RanChangeSetCache.merge(cached, newRows);
+                if (DatabaseChangeLogFingerprint.of(merged, true).equals(fingerprint)) {
+                    Scope.getCurrentScope().getLog(getClass()).fine("Read " + newRows.size() + " rows past ORDEREXECUTED " +
+                            watermark + " into cached history");
+                    cache.write(merged);
+                    return merged;
+                }
+            }
+            Scope.getCurrentScope().getLog(getClass()).fine("Cached history does not match the database, reading all rows");
+        }
+        List<RanChangeSet> ranChangeSets = queryRanChangeSets(database, null);
+        cache.write(ranChangeSets);
+        return ranChangeSets;
+    }
+
+    /**
+     * Returns the ran changesets in the same order as {@link #getRanChangeSets()}, reading them from the changelog table
+     * as the stream is consumed if they are not loaded already. The stream must be closed.
+     */
+    public Stream<RanChangeSet> streamRanChangeSets() throws DatabaseException {
+        if ((this.ranChangeSetList != null) || (getRanChangeSetCache() != null)) {
+            return getRanChangeSets().stream();
+        }
+        if (!hasDatabaseChangeLogTable()) {
+            return Stream.empty();
+        }
+        return streamDatabaseChangeLogTable(getDatabase(), null).map(this::toRanChangeSet);
+    }
+
+    /**
+     * Reads the changelog table row by row into ran changesets, so only the converted rows are kept in memory.
+     */
+    private List<RanChangeSet> queryRanChangeSets(Database database, Integer afterOrderExecuted) throws DatabaseException {
+        try (Stream<Map<String, ?>> rows = streamDatabaseChangeLogTable(database, afterOrderExecuted)) {
+            return rows.map(this::toRanChangeSet).collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    private RanChangeSet toRanChangeSet(Map<String, ?> rs) {
+        String storedFileName = rs.get("FILENAME").toString();
+        String fileName = DatabaseChangeLog.normalizePath(storedFileName);
+        String author = rs.get("AUTHOR").toString();
+        String id = rs.get("ID").toString();
+        String md5sum = ((rs.get("MD5SUM") == null)) ? null : rs.get("MD5SUM").toString();
+        String description = (rs.get("DESCRIPTION") == null) ? null : rs.get("DESCRIPTION").toString();
+        String comments = (rs.get("COMMENTS") == null) ? null : rs.get("COMMENTS").toString();
+        Object tmpDateExecuted = rs.get("DATEEXECUTED");
+        Date dateExecuted = convertDate(tmpDateExecuted);
+        String tmpOrderExecuted = rs.get("ORDEREXECUTED").toString();
+        Integer orderExecuted = ((tmpOrderExecuted == null) ? null : Integer.valueOf(tmpOrderExecuted));
+        String tag = (rs.get("TAG") == null) ? null : rs.get("TAG").toString();
+        String execType = (rs.get("EXECTYPE") == null) ? null : rs.get("EXECTYPE").toString();
+        ContextExpression contexts = new ContextExpression((String) rs.get("CONTEXTS"));
+        Labels labels = new Labels((String) rs.get("LABELS"));
+        String deploymentId = (String) rs.get("DEPLOYMENT_ID");
+        String liquibaseVersion =  (rs.get("LIQUIBASE") == null) ? null : rs.get("LIQUIBASE").toString();
+
+        try {
+            RanChangeSet ranChangeSet = new RanChangeSet(fileName, id, author, CheckSum.parse(md5sum),
+                dateExecuted, tag, ChangeSet.ExecType.valueOf(execType), description, comments, contexts,
+                labels, deploymentId, storedFileName);
+            ranChangeSet.setOrderExecuted(orderExecuted);
+            ranChangeSet.setLiquibaseVersion(liquibaseVersion);
+            return ranChangeSet;
+        } catch (IllegalArgumentException e) {
+            Scope.getCurrentScope().getLog(getClass()).severe("Unknown EXECTYPE from database: " +
+                execType);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the local history cache to use, or null if {@link GlobalConfiguration#HISTORY_CACHE_DIRECTORY} is not set.
+     */
+    protected RanChangeSetCache getRanChangeSetCache() {
+        String directory = GlobalConfiguration.HISTORY_CACHE_DIRECTORY.getCurrentValue();
+        if (StringUtil.isEmpty(directory) || getDatabase().getConnection() == null) {
+            return null;
+        }
+        return RanChangeSetCache.forDatabase(getDatabase(), new File(directory));
+    }
+
+    private void invalidateRanChangeSetCache() {
+        RanChangeSetCache cache = getRanChangeSetCache();
+        if (cache != null) {
+            cache.invalidate();
+        }
+    }
+
+    private Map<String, RanChangeSet> getRanChangeSetIndex() throws DatabaseException {
+        if (this.ranChangeSetIndex == null) {
+            List<RanChangeSet> ranChangeSets = getRanChangeSets();
+            Map<String, RanChangeSet> index = new HashMap<>(ranChangeSets.size() * 2);
+            for (RanChangeSet ranChangeSet : ranChangeSets) {
+                addToIndex(index, ranChangeSet);
+            }
+            this.ranChangeSetIndex = index;
+        }
+        return this.ranChangeSetIndex;
+    }
+
+    private static void addToIndex(Map<String, RanChangeSet> index, RanChangeSet ranChangeSet) {
+        String key = toRanChangeSetKey(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor());
+        if (key != null) {
+            //keep the first match to behave the same as a scan over the ordered history
+            index.putIfAbsent(key, ranChangeSet);
+        }
+    }
+
+    /**
+     * Builds the lookup key used to match a {@link ChangeSet} to its {@link RanChangeSet}.
+     * Matches the semantics of {@link RanChangeSet#isSameAs(ChangeSet)}: normalized path, id and author compared case-insensitively.
+     *
+     * @return the key, or null if any part is missing and therefore cannot match
+     */
+    static String toRanChangeSetKey(String filePath, String id, String author) {
+        String normalizedPath = DatabaseChangeLog.normalizePath(filePath);
+        if (normalizedPath == null || id == null || author == null) {
+            return null;
+        }
+        return normalizedPath.toLowerCase(Locale.US) + "::" + id.toLowerCase(Locale.US) + "::" + author.toLowerCase(Locale.US);
+    }
+
     public static Date convertDate(Object tmpDateExecuted) {
         Date dateExecuted = null;
         if (tmpDateExecuted instanceof Date) {
@@ -379,9 +533,92 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
     }
 
     public List<Map<String, ?>> queryDatabaseChangeLogTable(Database database) throws DatabaseException {
-        SelectFromDatabaseChangeLogStatement select = new SelectFromDatabaseChangeLogStatement(new ColumnConfig()
-            .setName("*").setComputed(true)).setOrderBy("DATEEXECUTED ASC", "ORDEREXECUTED ASC");
-        return ChangelogJdbcMdcListener.query(getDatabase(), executor -> executor.queryForList(select));
+        return collectDatabaseChangeLogTable(database, null);
+    }
+
+    /**
+     * Returns the rows with an ORDEREXECUTED greater than the given value, in the same order as {@link #queryDatabaseChangeLogTable(Database)}.
+     */
+    public List<Map<String, ?>> queryDatabaseChangeLogTable(Database database, int afterOrderExecuted) throws DatabaseException {
+        return collectDatabaseChangeLogTable(database, afterOrderExecuted);
+    }
+
+    private List<Map<String, ?>> collectDatabaseChangeLogTable(Database database, Integer afterOrderExecuted) throws DatabaseException {
+        try (Stream<Map<String, ?>> rows = streamDatabaseChangeLogTable(database, afterOrderExecuted)) {
+            return rows.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Returns the rows of the changelog table as they are read, ordered by DATEEXECUTED and ORDEREXECUTED.
+     * All reads of the changelog table rows go through this method, including {@link #getRanChangeSets()}, {@link #streamRanChangeSets()}
+     * and the queryDatabaseChangeLogTable methods, so a subclass reading the rows differently only needs to override it.
+     * The stream must be closed.
+     *
+     * @param afterOrderExecuted only return the rows with an ORDEREXECUTED greater than this value, or all rows if null
+     */
+    protected Stream<Map<String, ?>> streamDatabaseChangeLogTable(Database database, Integer afterOrderExecuted) throws DatabaseException {
+        SelectFromDatabaseChangeLogStatement select = createSelectFromDatabaseChangeLogStatement(afterOrderExecuted);
+        return ChangelogJdbcMdcListener.query(getDatabase(), executor -> executor.queryForStream(select));
+    }
+
+    private static SelectFromDatabaseChangeLogStatement createSelectFromDatabaseChangeLogStatement(Integer afterOrderExecuted) {
+        ColumnConfig allColumns = new ColumnConfig().setName("*").setComputed(true);
+        SelectFromDatabaseChangeLogStatement select = (afterOrderExecuted == null) ? new SelectFromDatabaseChangeLogStatement(allColumns)
+                : new SelectFromDatabaseChangeLogStatement(new SelectFromDatabaseChangeLogStatement.ByOrderExecutedGreaterThan(afterOrderExecuted), allColumns);
+        return select.setOrderBy("DATEEXECUTED ASC", "ORDEREXECUTED ASC");
+    }
+
+    /**
+     * Returns the {@link DatabaseChangeLogFingerprint} of the changelog table using a single aggregate query.
+     */
+    public DatabaseChangeLogFingerprint queryDatabaseChangeLogFingerprint(Database database) throws DatabaseException {
+        SqlStatement select = new SelectDatabaseChangeLogFingerprintStatement();
+        List<Map<String, ?>> rows = ChangelogJdbcMdcListener.query(getDatabase(), executor -> executor.queryForList(select));
+        Map<String, ?> row = rows.isEmpty() ? Collections.emptyMap() : rows.get(0);
+        Number maxOrderExecuted = (Number) getIgnoreCase(row, SelectDatabaseChangeLogFingerprintStatement.MAX_ORDER_EXECUTED);
+        Object maxDeploymentId = getIgnoreCase(row, SelectDatabaseChangeLogFingerprintStatement.MAX_DEPLOYMENT_ID);
+        BigInteger rowHash = getHash(row, SelectDatabaseChangeLogFingerprintStatement.ROW_HASH);
+        BigInteger rowStateHash = getHash(row, SelectDatabaseChangeLogFingerprintStatement.ROW_STATE_HASH);
+        return new DatabaseChangeLogFingerprint(
+                toInt(getIgnoreCase(row, SelectDatabaseChangeLogFingerprintStatement.ROW_COUNT)),
+                maxOrderExecuted == null ? null : maxOrderExecuted.intValue(),
+                maxDeploymentId == null ? null : maxDeploymentId.toString(),
+                toInt(getIgnoreCase(row, SelectDatabaseChangeLogFingerprintStatement.CHECKSUM_COUNT)),
+                toInt(getIgnoreCase(row, SelectDatabaseChangeLogFingerprintStatement.TAG_COUNT)),
+                rowHash,
+                rowStateHash);
+    }
+
+    private static BigInteger getHash(Map<String, ?> row, String column) {
+        if (!containsKeyIgnoreCase(row, column)) {
+            return null;
+        }
+        Object value = getIgnoreCase(row, column);
+        //SUM over an empty table is NULL
+        return value == null ? BigInteger.ZERO : new BigDecimal(value.toString()).toBigInteger();
+    }
+
+    private static boolean containsKeyIgnoreCase(Map<String, ?> row, String key) {
+        for (String rowKey : row.keySet()) {
+            if (key.equalsIgnoreCase(rowKey)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Object getIgnoreCase(Map<String, ?> row, String key) {
+        for (Map.Entry<String, ?> entry : row.entrySet()) {
+            if (key.equalsIgnoreCase(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static int toInt(Object value) {
+        return value == null ? 0 : ((Number) value).intValue();
     }
 
     @Override
@@ -390,24 +627,93 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
             return null;
         }
 
-        return super.getRanChangeSet(changeSet);
+        String key = toRanChangeSetKey(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor());
+        if (key == null) {
+            return null;
+        }
+        RanChangeSet ranChangeSet = getRanChangeSetIndex().get(key);
+        if (ranChangeSet != null && !ranChangeSet.isSameAs(changeSet)) {
+            //lower-casing is not a perfect match for equalsIgnoreCase, so fall back to the full scan on any disagreement
+            return super.getRanChangeSet(changeSet);
+        }
+        return ranChangeSet;
     }
 
     @Override
     public void setExecType(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException {
-        SqlStatement markChangeSetRanStatement = new MarkChangeSetRanStatement(changeSet, execType);
+        markChangeSetRan(getDatabase(), changeSet, execType, null);
+        if (!ChangeSetCommitGroup.isCommitDeferred(getDatabase())) {
+            getDatabase().commit();
+        }
+        addRanChangeSet(changeSet, execType);
+    }
+
+    /**
+     * Writes the changelog table row of a changeset that ran on another connection of the update, see {@link ParallelUpdate},
+     * on that connection and without committing, so that the row is committed in the transaction of the changeset.
+     * The order executed must be reserved with {@link #getNextSequenceValue()} in changelog order beforehand, so that the rows
+     * are ordered like the changelog whichever connection commits first. Once the row is committed,
+     * {@link #addRanChangeSet(ChangeSet, ChangeSet.ExecType)} adds the changeset to the ran changesets of this service.
+     */
+    public void setExecType(Database connectionDatabase, ChangeSet changeSet, ChangeSet.ExecType execType, int orderExecuted)
+            throws DatabaseException {
+        markChangeSetRan(connectionDatabase, changeSet, execType, orderExecuted);
+    }
+
+    /**
+     * Adds a changeset whose row was written, see {@link #setExecType(Database, ChangeSet, ChangeSet.ExecType, int)}, to the ran
+     * changesets if they were read already.
+     */
+    public void addRanChangeSet(ChangeSet changeSet, ChangeSet.ExecType execType) {
+        if (this.ranChangeSetList != null) {
+            RanChangeSet ranChangeSet = new RanChangeSet(changeSet, execType, null, null);
+            this.ranChangeSetList.add(ranChangeSet);
+            if (this.ranChangeSetIndex != null) {
+                addToIndex(this.ranChangeSetIndex, ranChangeSet);
+            }
+        }
+    }
+
+    private void markChangeSetRan(Database database, ChangeSet changeSet, ChangeSet.ExecType execType, Integer orderExecuted)
+            throws DatabaseException {
         try {
             Scope.child(Collections.singletonMap(SHOULD_UPDATE_ROWS_AFFECTED_SCOPE_KEY, false), () -> {
-                ChangelogJdbcMdcListener.execute(getDatabase(), executor -> executor.execute(markChangeSetRanStatement));
-                getDatabase().commit();
+                ChangelogJdbcMdcListener.execute(database, executor -> {
+                    SqlStatement markChangeSetRanStatement = createMarkChangeSetRanStatement(executor, database, changeSet, execType, orderExecuted);
+                    if (markChangeSetRanStatement instanceof RawParameterizedSqlStatement) {
+                        // the executor sends parameterized statements without generating them, so record their SQL for the MDC here
+                        AtomicReference<Sql[]> generatedSql = Scope.getCurrentScope().get(SqlGeneratorFactory.GENERATED_SQL_ARRAY_SCOPE_KEY, AtomicReference.class);
+                        if (generatedSql != null) {
+                            RawParameterizedSqlStatement parameterized = (RawParameterizedSqlStatement) markChangeSetRanStatement;
+                            generatedSql.set(new Sql[]{new UnparsedSql(parameterized.getSql(), parameterized.getEndDelimiter())});
+                        }
+                    }
+                    executor.execute(markChangeSetRanStatement);
+                });
             });
         } catch (Exception e) {
             throw new DatabaseException(e);
         }
-        if (this.ranChangeSetList != null) {
-            this.ranChangeSetList.add(new RanChangeSet(changeSet, execType, null, null));
-        }
+    }
 
+    /**
+     * Returns the statement that marks the changeset. If the connection caches prepared statements, the standard
+     * {@link MarkChangeSetRanGenerator} statement is sent with parameters, so all changesets share one prepared statement.
+     */
+    private static SqlStatement createMarkChangeSetRanStatement(Executor executor, Database database, ChangeSet changeSet,
+                                                                ChangeSet.ExecType execType, Integer orderExecuted) {
+        MarkChangeSetRanStatement statement = new MarkChangeSetRanStatement(changeSet, execType, orderExecuted);
+        if (!(executor instanceof JdbcExecutor) || !(database.getConnection() instanceof JdbcConnection)
+                || (((JdbcConnection) database.getConnection()).getPreparedStatementCache() == null)) {
+            return statement;
+        }
+        SortedSet<SqlGenerator> generators = SqlGeneratorFactory.getInstance().getGenerators(statement, database);
+        if (generators.isEmpty() || (generators.first().getClass() != MarkChangeSetRanGenerator.class)) {
+            return statement;
+        }
+        RawParameterizedSqlStatement parameterized = ((MarkChangeSetRanGenerator) generators.first())
+                .generateParameterizedStatement(statement, database);
+        return (parameterized == null) ? statement : parameterized;
     }
 
     @Override
@@ -415,9 +721,22 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
         SqlStatement removeChangeSetRanStatusStatement = new RemoveChangeSetRanStatusStatement(changeSet);
         ChangelogJdbcMdcListener.execute(getDatabase(), executor -> executor.execute(removeChangeSetRanStatusStatement));
         getDatabase().commit();
+        invalidateRanChangeSetCache();
 
         if (this.ranChangeSetList != null) {
             this.ranChangeSetList.remove(new RanChangeSet(changeSet));
+            if (this.ranChangeSetIndex != null) {
+                String key = toRanChangeSetKey(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor());
+                if (key != null) {
+                    this.ranChangeSetIndex.remove(key);
+                    for (RanChangeSet remaining : this.ranChangeSetList) {
+                        if (remaining.isSameAs(changeSet)) {
+                            this.ranChangeSetIndex.put(key, remaining);
+                            break;
+                        }
+                    }
+                }
+            }
         }
     }
 
@@ -449,6 +768,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
         SqlStatement tagStatement = new TagDatabaseStatement(tagString);
         ChangelogJdbcMdcListener.execute(getDatabase(), executor -> executor.execute(tagStatement));
         getDatabase().commit();
+        invalidateRanChangeSetCache();
 
         if (this.ranChangeSetList != null) {
             ranChangeSetList.get(ranChangeSetList.size() - 1).setTag(tagString);
@@ -471,6 +791,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
         updateStatement.addNewColumnValue("MD5SUM", null);
         ChangelogJdbcMdcListener.execute(getDatabase(), executor -> executor.execute(updateStatement));
         database.commit();
+        invalidateRanChangeSetCache();
     }
 
     @Override
@@ -498,6 +819,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
                 SqlStatement[] sqlStatement = change[0].generateStatements(database);
                 ChangelogJdbcMdcListener.execute(getDatabase(), executor -> executor.execute(sqlStatement[0]));
             }
+            invalidateRanChangeSetCache();
             reset();
         } catch (InvalidExampleException e) {
             throw new UnexpectedLiquibaseException(e);
@@ -0,0 +1,256 @@
+package liquibase.changelog;
+
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.change.Change;
+import liquibase.database.AbstractJdbcDatabase;
+import liquibase.database.Database;
+import liquibase.database.OfflineConnection;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.statement.SqlStatement;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates the statements of the next changeset of an update on a worker thread while the current changeset executes,
+ * when {@link GlobalConfiguration#UPDATE_PIPELINE} is enabled.
+ * <p>
+ * Only client side work is done ahead: the statements of the changes whose statements do not depend on the database state
+ * (see {@link Change#generateStatementsVolatile(Database)}) and the SQL logged for them. The worker generates them with its own
+ * {@link Database} of the same type and settings as the update database, on an offline connection that only repeats what the update
+ * connection reported when the pipeline was opened. It never uses the update database or any database session, and needs no
+ * connection factory.
+ * The changeset filters of the next changeset run on the calling thread before the current changeset executes, so that only
+ * changesets that will run are prepared. Preconditions, execution and changelog table updates still happen in changelog order on
+ * the calling thread, and what was prepared for a changeset that ends up not running is discarded. The calling thread waits for
+ * a changeset to be prepared before it touches it.
+ */
+class UpdatePipeline implements AutoCloseable {
+
+    private final Database database;
+    private final Database pipelineDatabase;
+    private final DatabaseChangeLog changeLog;
+    private final Scope scope;
+    private final ExecutorService worker;
+
+    private ChangeSet preparingChangeSet;
+    private Future<PreparedChanges> preparing;
+
+    private UpdatePipeline(Database database, Database pipelineDatabase, DatabaseChangeLog changeLog) {
+        this.database = database;
+        this.pipelineDatabase = pipelineDatabase;
+        this.changeLog = changeLog;
+        this.scope = Scope.getCurrentScope();
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "liquibase-update-pipeline");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens a pipeline for an update of the given database.
+     *
+     * @return the pipeline, or null if no database can be created to prepare the changesets of the update
+     */
+    static UpdatePipeline open(Database database, DatabaseChangeLog changeLog) {
+        Database pipelineDatabase;
+        try {
+            pipelineDatabase = database.getClass().getConstructor().newInstance();
+            pipelineDatabase.setConnection(new PipelineConnection(database));
+            pipelineDatabase.setDefaultCatalogName(database.getDefaultCatalogName());
+            pipelineDatabase.setDefaultSchemaName(database.getDefaultSchemaName());
+        } catch (ReflectiveOperationException | DatabaseException e) {
+            Scope.getCurrentScope().getLog(UpdatePipeline.class).warning("Changesets are not prepared ahead of execution because no " +
+                    database.getShortName() + " database can be created to prepare them: " + e.getMessage(), e);
+            return null;
+        }
+        pipelineDatabase.setOutputDefaultCatalog(database.getOutputDefaultCatalog());
+        pipelineDatabase.setOutputDefaultSchema(database.getOutputDefaultSchema());
+        pipelineDatabase.setLiquibaseCatalogName(database.getLiquibaseCatalogName());
+        pipelineDatabase.setLiquibaseSchemaName(database.getLiquibaseSchemaName());
+        pipelineDatabase.setLiquibaseTablespaceName(database.getLiquibaseTablespaceName());
+        pipelineDatabase.setDatabaseChangeLogTableName(database.getDatabaseChangeLogTableName());
+        pipelineDatabase.setDatabaseChangeLogLockTableName(database.getDatabaseChangeLogLockTableName());
+        return new UpdatePipeline(database, pipelineDatabase, changeLog);
+    }
+
+    /**
+     * Starts preparing the changeset that is visited after the current one, if that can be done while the current one executes.
+     * The quoting strategy of the database must not change between them, and neither may use a custom executor.
+     */
+    void prepare(ChangeSet next, ChangeSet current) {
+        if ((next.getRunWith() != null) || (current.getRunWith() != null)
+                || (next.getObjectQuotingStrategy() != current.getObjectQuotingStrategy())
+                || (next.getObjectQuotingStrategy() != database.getObjectQuotingStrategy())) {
+            return;
+        }
+
+        // the worker is idle here, the previous changeset was attached before this one is prepared
+        pipelineDatabase.setObjectQuotingStrategy(next.getObjectQuotingStrategy());
+        Map<String, Object> scopeValues = new HashMap<>();
+        scopeValues.put(Scope.Attr.databaseChangeLog.name(), changeLog);
+        scopeValues.put(Scope.Attr.changeSet.name(), next);
+        scopeValues.put(Scope.Attr.database.name(), pipelineDatabase);
+        preparingChangeSet = next;
+        preparing = worker.submit(() -> Scope.runInScope(scope, () -> {
+            PreparedChanges prepared = new PreparedChanges(database);
+            Scope.child(scopeValues, () -> prepareChanges(next, prepared));
+            return prepared;
+        }));
+    }
+
+    private void prepareChanges(ChangeSet changeSet, PreparedChanges prepared) {
+        PipelineConnection connection = (PipelineConnection) pipelineDatabase.getConnection();
+        for (Change change : changeSet.getChanges()) {
+            try {
+                if (!change.supports(pipelineDatabase) || change.generateStatementsVolatile(pipelineDatabase)) {
+                    continue;
+                }
+                connection.nativeSqlRequired = false;
+                SqlStatement[] statements = change.generateStatements(pipelineDatabase);
+                if (connection.nativeSqlRequired) {
+                    continue;
+                }
+                prepared.statements.put(change, statements);
+                prepared.sql.put(change, changeSet.generateSqlMdc(change, pipelineDatabase, false));
+            } catch (Exception e) {
+                // left for the execution of the changeset to run into and report
+                prepared.statements.remove(change);
+                Scope.getCurrentScope().getLog(getClass()).fine("Cannot prepare " + change.getSerializedObjectName() + " of " + changeSet +
+                        " ahead of execution: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Waits for the changeset being prepared, and hands the result to the given changeset if it is that one.
+     */
+    void attach(ChangeSet changeSet) {
+        PreparedChanges prepared = awaitPrepared();
+        if ((prepared != null) && (prepared.changeSet == changeSet)) {
+            changeSet.setPreparedChanges(prepared);
+        }
+    }
+
+    /**
+     * Drops what was prepared for the changeset once it has been visited.
+     */
+    void detach(ChangeSet changeSet) {
+        changeSet.setPreparedChanges(null);
+    }
+
+    private PreparedChanges awaitPrepared() {
+        if (preparing == null) {
+            return null;
+        }
+        ChangeSet changeSet = preparingChangeSet;
+        Future<PreparedChanges> result = preparing;
+        preparingChangeSet = null;
+        preparing = null;
+        try {
+            PreparedChanges prepared = result.get();
+            prepared.changeSet = changeSet;
+            return prepared;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot prepare " + changeSet + " ahead of execution: " + e.getCause().getMessage(), e.getCause());
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        awaitPrepared();
+        worker.shutdown();
+        Scope.getCurrentScope().getSingleton(liquibase.executor.ExecutorService.class).clearExecutor("jdbc", pipelineDatabase);
+    }
+
+    /**
+     * The connection of the database the pipeline generates on. It reports what the update connection reported when the pipeline
+     * was opened, and the reserved words of its driver, but never talks to a database.
+     */
+    private static class PipelineConnection extends OfflineConnection {
+
+        private final Boolean caseSensitive;
+        private final List<String> reservedWords;
+        private boolean nativeSqlRequired;
+
+        private PipelineConnection(Database database) throws DatabaseException {
+            setProductName(database.getDatabaseProductName());
+            setProductVersion(database.getDatabaseProductVersion());
+            setDatabaseMajorVersion(database.getDatabaseMajorVersion());
+            setDatabaseMinorVersion(database.getDatabaseMinorVersion());
+            setConnectionUserName(database.getConnection().getConnectionUserName());
+            this.caseSensitive = database.isCaseSensitive();
+            this.reservedWords = getReservedWords(database);
+        }
+
+        private static List<String> getReservedWords(Database database) throws DatabaseException {
+            if (!(database.getConnection() instanceof JdbcConnection)) {
+                return Collections.emptyList();
+            }
+            try {
+                return Arrays.asList(((JdbcConnection) database.getConnection()).getWrappedConnection().getMetaData().getSQLKeywords()
+                        .toUpperCase().split(",\\s*"));
+            } catch (SQLException e) {
+                throw new DatabaseException(e);
+            }
+        }
+
+        @Override
+        public void attached(Database database) {
+            // no snapshot and no offline history service, the pipeline only generates statements
+            if (database instanceof AbstractJdbcDatabase) {
+                ((AbstractJdbcDatabase) database).setCaseSensitive(caseSensitive);
+            }
+            database.addReservedWords(reservedWords);
+        }
+
+        /**
+         * Escape processing is done by the driver of the update connection, so statements with JDBC escapes are left for execution.
+         */
+        @Override
+        public String nativeSQL(String sql) {
+            if (sql.indexOf('{') >= 0) {
+                nativeSqlRequired = true;
+            }
+            return sql;
+        }
+    }
+
+    /**
+     * What was generated ahead of execution for the changes of a changeset.
+     */
+    static class PreparedChanges {
+
+        private final Database database;
+        private final Map<Change, SqlStatement[]> statements = new IdentityHashMap<>();
+        private final Map<Change, String> sql = new IdentityHashMap<>();
+        private ChangeSet changeSet;
+
+        private PreparedChanges(Database database) {
+            this.database = database;
+        }
+
+        SqlStatement[] getStatements(Change change, Database database) {
+            return (database == this.database) ? statements.get(change) : null;
+        }
+
+        String getSql(Change change, Database database) {
+            return ((database == this.database) && statements.containsKey(change)) ? sql.get(change) : null;
+        }
+    }
+}
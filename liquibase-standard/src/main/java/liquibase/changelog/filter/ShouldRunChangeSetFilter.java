@@ -8,6 +8,7 @@ import liquibase.exception.DatabaseException;
 
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class ShouldRunChangeSetFilter implements ChangeSetFilter {
@@ -18,11 +19,18 @@ public class ShouldRunChangeSetFilter implements ChangeSetFilter {
 
 
     public ShouldRunChangeSetFilter(Database database, boolean ignoreClasspathPrefix) throws DatabaseException {
+        this(database.getRanChangeSetList(), ignoreClasspathPrefix);
+    }
+
+    /**
+     * Creates a filter for the given ran changesets instead of reading them from the database changelog table.
+     */
+    public ShouldRunChangeSetFilter(List<RanChangeSet> ranChangeSetList, boolean ignoreClasspathPrefix) {
         this.ignoreClasspathPrefix = ignoreClasspathPrefix;
         this.ranChangeSets = new HashMap<>();
 
         //ensure we have only the latest version of each ranChangeset in case multiple versions ended up in the databasechangelog table
-        for (RanChangeSet ranChangeSet : database.getRanChangeSetList()) {
+        for (RanChangeSet ranChangeSet : ranChangeSetList) {
             RanChangeSet existingChangeSet = ranChangeSets.get(ranChangeSet.toString());
             boolean addToSet = false;
             if (existingChangeSet == null) {
@@ -19,8 +19,14 @@ public class StatusVisitor implements ChangeSetVisitor, SkippedChangeSetVisitor
     private final List<RanChangeSet> ranChangeSets;
 
     public StatusVisitor(Database database) throws LiquibaseException {
-        ranChangeSets = new ArrayList<>(
-            Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(database).getRanChangeSets());
+        this(Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(database).getRanChangeSets());
+    }
+
+    /**
+     * Creates a visitor for the given ran changesets instead of reading them from the database changelog table.
+     */
+    public StatusVisitor(List<RanChangeSet> ranChangeSets) {
+        this.ranChangeSets = new ArrayList<>(ranChangeSets);
     }
 
     @Override
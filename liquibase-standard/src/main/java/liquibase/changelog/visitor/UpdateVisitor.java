@@ -7,20 +7,25 @@ import liquibase.change.CheckSum;
 import liquibase.changelog.ChangeLogHistoryService;
 import liquibase.changelog.ChangeLogHistoryServiceFactory;
 import liquibase.changelog.ChangeSet;
+import liquibase.changelog.ChangeSetCommitGroup;
 import liquibase.changelog.ChangeSet.ExecType;
 import liquibase.changelog.ChangeSet.RunStatus;
 import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.ParallelUpdate;
 import liquibase.changelog.filter.ChangeSetFilterResult;
 import liquibase.changelog.filter.ShouldRunChangeSetFilter;
 import liquibase.database.Database;
 import liquibase.database.ObjectQuotingStrategy;
 import liquibase.exception.DatabaseException;
-import liquibase.exception.DatabaseHistoryException;
 import liquibase.exception.LiquibaseException;
+import liquibase.exception.LockException;
 import liquibase.exception.MigrationFailedException;
 import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
 import liquibase.executor.LoggingExecutor;
+import liquibase.lockservice.LockService;
+import liquibase.lockservice.LockServiceFactory;
+import liquibase.lockservice.StandardLockService;
 
 import java.util.List;
 import java.util.Objects;
@@ -68,14 +73,31 @@ public class UpdateVisitor implements ChangeSetVisitor {
                 (this.shouldRunChangeSetFilter == null || this.shouldRunChangeSetFilter.accepts(changeSet).isAccepted());
         CheckSum oldChecksum = updateCheckSumIfRequired(changeSet);
         if (isAccepted) {
+            checkChangeLogLock(database);
             executeAcceptedChange(changeSet, databaseChangeLog, database);
-            this.database.commit();
+            commit();
         } else if ((oldChecksum == null || oldChecksum.getVersion() < ChecksumVersion.latest().getVersion())) {
             upgradeCheckSumVersionForAlreadyExecutedOrNullChange(changeSet, database, oldChecksum);
+            commit();
+        }
+    }
+
+    private void commit() throws DatabaseException {
+        if (!ChangeSetCommitGroup.isCommitDeferred(this.database)) {
             this.database.commit();
         }
     }
 
+    /**
+     * Stops the update before the next changeset once the changelog lock lease was lost.
+     */
+    private static void checkChangeLogLock(Database database) throws LockException {
+        LockService lockService = LockServiceFactory.getInstance().getLockService(database);
+        if (lockService instanceof StandardLockService) {
+            ((StandardLockService) lockService).checkLease();
+        }
+    }
+
     private static boolean changeSetInSkippedBecauseOfLicenseList(ChangeSet changeSet) {
         List<ChangeSet> skippedChangeSets = changeSet.getChangeLog().getSkippedBecauseOfLicenseChangeSets();
         return skippedChangeSets.stream().anyMatch(c -> c == changeSet);
@@ -113,13 +135,38 @@ public class UpdateVisitor implements ChangeSetVisitor {
      * Executes the given changeset marking it as executed/reran/etc at the database
      */
     private void executeAcceptedChange(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database)
-            throws DatabaseException, DatabaseHistoryException, MigrationFailedException {
+            throws LiquibaseException {
         Executor executor = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
         if (!(executor instanceof LoggingExecutor) && allChangeSetsShouldRun(changeSet)) {
             Scope.getCurrentScope().getUI().sendMessage("Running Changeset: " + changeSet);
         }
         RunStatus runStatus = this.database.getRunStatus(changeSet);
         Scope.getCurrentScope().getLog(getClass()).fine("Running Changeset: " + changeSet);
+        ParallelUpdate parallelUpdate = ParallelUpdate.get(this.database);
+        if ((parallelUpdate != null) && parallelUpdate.canRunInParallel(changeSet)) {
+            fireWillRun(changeSet, databaseChangeLog, database, runStatus);
+            parallelUpdate.submit(changeSet, workerDatabase -> getExecTypeToMark(runStatus, changeSet.execute(databaseChangeLog, execListener, workerDatabase)),
+                    new ParallelUpdate.ChangeSetCompletion() {
+                        @Override
+                        public void ran(ExecType execType) {
+                            // the changelog table row was written and committed with the changeset on the worker connection
+                            addAttributesForMdc(changeSet, execType);
+                            if (execType != ExecType.SKIPPED) {
+                                fireRan(changeSet, databaseChangeLog, database, execType);
+                            }
+                        }
+
+                        @Override
+                        public void failed(MigrationFailedException e) {
+                            fireRunFailed(changeSet, databaseChangeLog, database, e);
+                        }
+                    });
+            return;
+        }
+        if (parallelUpdate != null) {
+            // runs on the update connection after all changesets before it
+            parallelUpdate.awaitAll();
+        }
         fireWillRun(changeSet, databaseChangeLog, database, runStatus);
         ExecType execType;
         ObjectQuotingStrategy previousStr = this.database.getObjectQuotingStrategy();
@@ -130,17 +177,35 @@ public class UpdateVisitor implements ChangeSetVisitor {
             fireRunFailed(changeSet, databaseChangeLog, database, e);
             throw e;
         }
-        if (!Objects.equals(runStatus, RunStatus.NOT_RAN)
-                && (Objects.equals(execType, ExecType.EXECUTED) || Objects.equals(execType, ExecType.MARK_RAN))) {
-            execType = ExecType.RERAN;
-        }
-        addAttributesForMdc(changeSet, execType);
         // reset object quoting strategy after running changeset
         this.database.setObjectQuotingStrategy(previousStr);
+        changeSetExecuted(changeSet, databaseChangeLog, database, runStatus, execType);
+    }
+
+    /**
+     * Marks the executed changeset as executed/reran/etc at the database
+     */
+    private void changeSetExecuted(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, RunStatus runStatus,
+                                   ExecType execType) throws DatabaseException {
+        execType = getExecTypeToMark(runStatus, execType);
+        addAttributesForMdc(changeSet, execType);
         if (execType != ExecType.SKIPPED) {
             this.database.markChangeSetExecStatus(changeSet, execType);
-            fireRan(changeSet, databaseChangeLog, database, execType);
+            ExecType ranExecType = execType;
+            // listeners, and so the update summary, only learn about changesets of a commit group once the group is committed
+            ChangeSetCommitGroup.afterCommit(this.database, () -> fireRan(changeSet, databaseChangeLog, database, ranExecType));
+        }
+    }
+
+    /**
+     * Returns the exec type a changeset is marked with after it executed, RERAN if it ran before.
+     */
+    private static ExecType getExecTypeToMark(RunStatus runStatus, ExecType execType) {
+        if (!Objects.equals(runStatus, RunStatus.NOT_RAN)
+                && (Objects.equals(execType, ExecType.EXECUTED) || Objects.equals(execType, ExecType.MARK_RAN))) {
+            return ExecType.RERAN;
         }
+        return execType;
     }
 
     private boolean allChangeSetsShouldRun(ChangeSet changeSet) {
@@ -2,9 +2,11 @@ package liquibase.changelog.visitor;
 
 import liquibase.ChecksumVersion;
 import liquibase.GlobalConfiguration;
+import liquibase.RuntimeEnvironment;
 import liquibase.Scope;
 import liquibase.change.Change;
 import liquibase.changelog.*;
+import liquibase.changelog.filter.ChangeSetFilter;
 import liquibase.changelog.filter.ChangeSetFilterResult;
 import liquibase.database.Database;
 import liquibase.database.DatabaseList;
@@ -18,10 +20,33 @@ import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Getter
 public class ValidatingVisitor implements ChangeSetVisitor {
 
+    /**
+     * Threads computing checksums ahead of validation, shared by all validations and stopped when idle.
+     */
+    private static final ExecutorService CHECKSUM_WORKERS;
+
+    static {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor workers = (ThreadPoolExecutor) Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "liquibase-checksum-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        workers.setKeepAliveTime(10, TimeUnit.SECONDS);
+        CHECKSUM_WORKERS = workers;
+    }
+
     private final List<String> invalidMD5Sums = new ArrayList<>();
     private String failedPreconditionsMessage = null;
     private String errorPreconditionsMessage = null;
@@ -88,6 +113,75 @@ public class ValidatingVisitor implements ChangeSetVisitor {
         return ChangeSetVisitor.Direction.FORWARD;
     }
 
+    /**
+     * Computes the checksums of already ran changesets ahead of the {@link ChangeLogIterator}, using up to
+     * {@link GlobalConfiguration#CHECKSUM_PARALLELISM} threads. Does nothing if that is 1 or less.
+     * <p>
+     * Each checksum is computed for the checksum version stored in the database and in the same scope the iterator visits the
+     * changeset in, so {@link #visit} finds exactly the values it would have computed itself.
+     * Failures are left for {@link #visit} to run into and report.
+     */
+    public void precomputeCheckSums(DatabaseChangeLog changeLog, List<ChangeSetFilter> changeSetFilters, RuntimeEnvironment env) {
+        int parallelism = GlobalConfiguration.CHECKSUM_PARALLELISM.getCurrentValue();
+        if (parallelism <= 1 || ranIndex == null || ranIndex.isEmpty()) {
+            return;
+        }
+
+        Scope scope = Scope.getCurrentScope();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (ChangeSet changeSet : changeLog.getChangeSets()) {
+            RanChangeSet ranChangeSet = ranIndex.get(changeSet.toNormalizedString());
+            if (changeSet.isIgnore() || ranChangeSet == null || ranChangeSet.getLastCheckSum() == null || !isAccepted(changeSet, changeSetFilters)) {
+                continue;
+            }
+            Map<String, Object> scopeValues = new HashMap<>();
+            scopeValues.put(Scope.Attr.databaseChangeLog.name(), changeLog);
+            scopeValues.put(Scope.Attr.changeSet.name(), changeSet);
+            scopeValues.put(Scope.Attr.database.name(), env.getTargetDatabase());
+            ChecksumVersion version = ChecksumVersion.enumFromChecksumVersion(ranChangeSet.getLastCheckSum().getVersion());
+            tasks.add(() -> {
+                try {
+                    Scope.runInScope(scope, () -> Scope.child(scopeValues, () -> changeSet.generateCheckSum(version)));
+                } catch (Exception e) {
+                    Scope.getCurrentScope().getLog(getClass()).fine("Cannot compute checksum of " + changeSet + " ahead of validation: " + e.getMessage(), e);
+                }
+                return null;
+            });
+        }
+        if (tasks.size() < 2) {
+            return;
+        }
+
+        //the thread pool is shared by all validations, so only as many workers as configured take tasks from the queue
+        Queue<Callable<Void>> queue = new ConcurrentLinkedQueue<>(tasks);
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(parallelism, tasks.size()); i++) {
+            workers.add(() -> {
+                Callable<Void> task;
+                while ((task = queue.poll()) != null) {
+                    task.call();
+                }
+                return null;
+            });
+        }
+        try {
+            CHECKSUM_WORKERS.invokeAll(workers);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean isAccepted(ChangeSet changeSet, List<ChangeSetFilter> changeSetFilters) {
+        if (changeSetFilters != null) {
+            for (ChangeSetFilter filter : changeSetFilters) {
+                if (!filter.accepts(changeSet).isAccepted()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     private RanChangeSet findChangeSet(ChangeSet changeSet) throws LiquibaseException {
         String key = changeSet.toNormalizedString();
         RanChangeSet ranChangeSet =  ranIndex.get(key);
@@ -115,8 +209,10 @@ public class ValidatingVisitor implements ChangeSetVisitor {
             shouldValidate = false;
         }
 
-        for (Change change : changeSet.getChanges()) {
-            validateChange(changeSet, database, change, shouldValidate);
+        if (shouldValidate || changeSet.isChangesLoaded()) {
+            for (Change change : changeSet.getChanges()) {
+                validateChange(changeSet, database, change, shouldValidate);
+            }
         }
 
         additionalValidations(changeSet, database, shouldValidate, ran);
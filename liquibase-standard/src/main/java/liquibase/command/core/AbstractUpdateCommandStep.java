@@ -164,6 +164,15 @@ public abstract class AbstractUpdateCommandStep extends AbstractCommandStep impl
         return statusVisitor;
     }
 
+    private StatusVisitor getStatusVisitor(Database database, Contexts contexts, LabelExpression labelExpression, DatabaseChangeLog databaseChangeLog, List<RanChangeSet> ranChangeSets) throws LiquibaseException {
+        StatusVisitor statusVisitor = new StatusVisitor(ranChangeSets);
+        List<ChangeSetFilter> changesetFilters = this.getStandardChangelogIteratorFilters(database, contexts, labelExpression);
+        changesetFilters.add(new ShouldRunChangeSetFilter(ranChangeSets, true));
+        new StatusChangeLogIterator(databaseChangeLog, changesetFilters.toArray(new ChangeSetFilter[0]))
+                .run(statusVisitor, new RuntimeEnvironment(database, contexts, labelExpression));
+        return statusVisitor;
+    }
+
     private ChangeExecListener getChangeExecListener(CommandResultsBuilder resultsBuilder, CommandScope commandScope) {
         //
         // Create and add the listener to the resultsBuilder so that it is available
@@ -299,7 +308,10 @@ public abstract class AbstractUpdateCommandStep extends AbstractCommandStep impl
 
         if (fastCheck.isUpToDateFastCheck(filters, database, databaseChangeLog, contexts, labelExpression)) {
             Scope.getCurrentScope().getUI().sendMessage(DATABASE_UP_TO_DATE_MESSAGE);
-            StatusVisitor statusVisitor = getStatusVisitor(commandScope, database, contexts, labelExpression, databaseChangeLog);
+            List<RanChangeSet> ranChangeSets = fastCheck.getFingerprintRanChangeSets(database, databaseChangeLog, contexts, labelExpression);
+            // on a fingerprint match, build the summary from the changesets it showed ran instead of reading the history rows
+            StatusVisitor statusVisitor = ranChangeSets == null ? getStatusVisitor(commandScope, database, contexts, labelExpression, databaseChangeLog)
+                    : getStatusVisitor(database, contexts, labelExpression, databaseChangeLog, ranChangeSets);
             UpdateSummaryEnum showSummary = getShowSummary(commandScope);
             UpdateSummaryOutputEnum showSummaryOutput = getShowSummaryOutput(commandScope);
             ShowSummaryUtil.showUpdateSummary(databaseChangeLog, showSummary, showSummaryOutput, statusVisitor, outputStream, null);
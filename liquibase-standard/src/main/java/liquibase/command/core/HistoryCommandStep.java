@@ -4,8 +4,10 @@ import liquibase.Scope;
 import liquibase.changelog.ChangeLogHistoryService;
 import liquibase.changelog.ChangeLogHistoryServiceFactory;
 import liquibase.changelog.RanChangeSet;
+import liquibase.changelog.StandardChangeLogHistoryService;
 import liquibase.command.*;
 import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
 import liquibase.exception.LiquibaseException;
 import liquibase.logging.mdc.MdcKey;
 import liquibase.logging.mdc.MdcObject;
@@ -18,6 +20,7 @@ import java.io.PrintWriter;
 import java.text.DateFormat;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 public class HistoryCommandStep extends AbstractCommandStep {
@@ -82,19 +85,24 @@ public class HistoryCommandStep extends AbstractCommandStep {
             output.println("");
 
             ReportPrinter deployment = null;
-            List<RanChangeSet> ranChangeSets = historyService.getRanChangeSets();
-            List<History.Changeset> mdcChangesets = new ArrayList<>(ranChangeSets.size());
+            int ranChangeSetCount = 0;
+            List<History.Changeset> mdcChangesets = new ArrayList<>();
             boolean onlyTags = BooleanUtils.isTrue(commandScope.getArgumentValue(SHOW_TAGS_ARG));
             List<String> filterTag = commandScope.getArgumentValue(TAG_FILTER_ARG) != null ?
                             Arrays.stream(commandScope.getArgumentValue(TAG_FILTER_ARG).trim().split(","))
                                 .map(String::trim).collect(Collectors.toList()) : null;
-            for (RanChangeSet ranChangeSet : ranChangeSets) {
-                if ((onlyTags && StringUtils.isBlank(ranChangeSet.getTag()))
-                    || (filterTag != null && !filterTag.contains(ranChangeSet.getTag()))) {
-                    continue;
+            try (Stream<RanChangeSet> ranChangeSets = streamRanChangeSets(historyService)) {
+                Iterator<RanChangeSet> iterator = ranChangeSets.iterator();
+                while (iterator.hasNext()) {
+                    RanChangeSet ranChangeSet = iterator.next();
+                    ranChangeSetCount++;
+                    if ((onlyTags && StringUtils.isBlank(ranChangeSet.getTag()))
+                        || (filterTag != null && !filterTag.contains(ranChangeSet.getTag()))) {
+                        continue;
+                    }
+                    deployment = getOrUpdateReportPrinter(ranChangeSet, deployment, output, commandScope, deploymentHistory);
+                    mdcChangesets.add(new History.Changeset(ranChangeSet));
                 }
-                deployment = getOrUpdateReportPrinter(ranChangeSet, deployment, output, commandScope, deploymentHistory);
-                mdcChangesets.add(new History.Changeset(ranChangeSet));
             }
 
             if (deployment == null) {
@@ -109,7 +117,7 @@ public class HistoryCommandStep extends AbstractCommandStep {
                 deployment.printReport(output);
             }
 
-            try (MdcObject historyMdcObject = Scope.getCurrentScope().addMdcValue(MdcKey.HISTORY, new History(database.getConnection().getURL(), ranChangeSets.size(), mdcChangesets))) {
+            try (MdcObject historyMdcObject = Scope.getCurrentScope().addMdcValue(MdcKey.HISTORY, new History(database.getConnection().getURL(), ranChangeSetCount, mdcChangesets))) {
                 Scope.getCurrentScope().getLog(getClass()).fine(headerMsg);
             }
 
@@ -118,6 +126,16 @@ public class HistoryCommandStep extends AbstractCommandStep {
         }
     }
 
+    /**
+     * Reads the ran changesets from the changelog table as they are printed, if the history service supports it.
+     */
+    private static Stream<RanChangeSet> streamRanChangeSets(ChangeLogHistoryService historyService) throws DatabaseException {
+        if (historyService instanceof StandardChangeLogHistoryService) {
+            return ((StandardChangeLogHistoryService) historyService).streamRanChangeSets();
+        }
+        return historyService.getRanChangeSets().stream();
+    }
+
     private static ReportPrinter getOrUpdateReportPrinter(RanChangeSet ranChangeSet, ReportPrinter deployment, PrintWriter output, CommandScope commandScope, DeploymentHistory deploymentHistory) throws LiquibaseException {
         final String thisDeploymentId = ranChangeSet.getDeploymentId();
         if (deployment == null || !Objects.equals(thisDeploymentId, deployment.getDeploymentId())) {
@@ -82,6 +82,13 @@ public abstract class AbstractDatabaseConnectionCommandStep extends AbstractHelp
 
             database = DatabaseFactory.getInstance().openDatabase(url, username, password, driver,
                     databaseClassName, driverPropertiesFile, propertyProviderClass, resourceAccessor);
+            if (database.getConnection() instanceof JdbcConnection) {
+                //lets the changelog lock lease and parallel updates open more connections until cleanUp closes this one
+                String connectionDatabaseClassName = databaseClassName;
+                String connectionPropertyProviderClass = propertyProviderClass;
+                ((JdbcConnection) database.getConnection()).setConnectionFactory(() -> DatabaseFactory.getInstance().openConnection(url, username,
+                        password, driver, connectionDatabaseClassName, driverPropertiesFile, connectionPropertyProviderClass, resourceAccessor));
+            }
 
             if (!database.supports(Schema.class)) {
                 if ((defaultSchemaName != null) && (defaultCatalogName == null)) {
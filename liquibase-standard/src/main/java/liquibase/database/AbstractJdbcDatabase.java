@@ -10,7 +10,9 @@ import liquibase.database.core.*;
 import liquibase.database.jvm.JdbcConnection;
 import liquibase.diff.compare.DatabaseObjectComparatorFactory;
 import liquibase.exception.*;
+import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
+import liquibase.executor.jvm.JdbcExecutor;
 import liquibase.lockservice.LockServiceFactory;
 import liquibase.sql.Sql;
 import liquibase.sql.visitor.SqlVisitor;
@@ -1198,6 +1200,15 @@ public abstract class AbstractJdbcDatabase implements Database {
         Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", this).execute(change, sqlVisitors);
     }
 
+    /**
+     * Returns true since {@link #executeStatements(Change, DatabaseChangeLog, List)} only passes the change to the executor.
+     * Subclasses overriding that method should return false.
+     */
+    @Override
+    public boolean supportsBatchingAcrossChanges() {
+        return true;
+    }
+
     /*
      * Executes the statements passed
      *
@@ -1207,13 +1218,18 @@ public abstract class AbstractJdbcDatabase implements Database {
      */
     @Override
     public void execute(final SqlStatement[] statements, final List<SqlVisitor> sqlVisitors) throws LiquibaseException {
+        Executor executor = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", this);
+        if (executor instanceof JdbcExecutor) {
+            ((JdbcExecutor) executor).execute(statements, sqlVisitors);
+            return;
+        }
         for (SqlStatement statement : statements) {
             if (statement.skipOnUnsupported() && !SqlGeneratorFactory.getInstance().supports(statement, this)) {
                 continue;
             }
             Scope.getCurrentScope().getLog(getClass()).fine("Executing Statement: " + statement);
             try {
-                Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", this).execute(statement, sqlVisitors);
+                executor.execute(statement, sqlVisitors);
             } catch (DatabaseException e) {
                 if (statement.continueOnError()) {
                     Scope.getCurrentScope().getLog(getClass()).severe("Error executing statement '" + statement + "', but continuing", e);
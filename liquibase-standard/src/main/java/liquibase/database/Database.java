@@ -472,6 +472,16 @@ public interface Database extends PrioritizedService, AutoCloseable {
 
     void executeStatements(Change change, DatabaseChangeLog changeLog, List<SqlVisitor> sqlVisitors) throws LiquibaseException;
 
+    /**
+     * Returns true if the statements of consecutive changes in a changeset may be collected and sent to the database together,
+     * so they can share JDBC batches when {@link liquibase.GlobalConfiguration#DML_BATCH_SIZE} is set. Those changes are then executed
+     * without calling {@link #executeStatements(Change, DatabaseChangeLog, List)}, so databases that change how the statements
+     * of a change are executed there must return false.
+     */
+    default boolean supportsBatchingAcrossChanges() {
+        return false;
+    }
+
     /*
      * Executes the statements passed as argument to a target {@link Database}
      *
@@ -133,6 +133,14 @@ public class MSSQLDatabase extends AbstractJdbcDatabase {
             }
     }
 
+    /**
+     * Returns false since {@link #executeStatements(Change, DatabaseChangeLog, List)} adds an SQL visitor to the statements of each change.
+     */
+    @Override
+    public boolean supportsBatchingAcrossChanges() {
+        return false;
+    }
+
     //
     //  Setup up an appending SQL visitor if this is not an AbstractSQLChange or
     //  if there is no end delimiter
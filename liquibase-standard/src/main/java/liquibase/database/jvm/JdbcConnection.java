@@ -1,10 +1,12 @@
 package liquibase.database.jvm;
 
+import liquibase.GlobalConfiguration;
 import liquibase.Scope;
 import liquibase.database.Database;
 import liquibase.database.DatabaseConnection;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.util.JdbcUtil;
 
 import java.sql.*;
 import java.util.Arrays;
@@ -22,6 +24,9 @@ public class JdbcConnection implements DatabaseConnection {
     private java.sql.Connection con;
     private static final Pattern PROXY_USER = Pattern.compile(".*(?:thin|oci)\\:(.+)/@.*");
     private String originalUrl; // Store the original URL for OAuth validation
+    private ConnectionFactory connectionFactory;
+    private PreparedStatementCache preparedStatementCache;
+    private boolean ddlSinceCommit;
 
     private static final List<ConnectionPatterns> JDBC_CONNECTION_PATTERNS = Scope.getCurrentScope().getServiceLocator().findInstances(ConnectionPatterns.class);
 
@@ -57,6 +62,41 @@ public class JdbcConnection implements DatabaseConnection {
         }
     }
 
+    /**
+     * Opens more connections to the same database, see {@link #setConnectionFactory(ConnectionFactory)}.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+
+        DatabaseConnection openConnection() throws DatabaseException;
+    }
+
+    /**
+     * Sets how {@link #openNewConnection()} opens more connections to the same database. It is set by whoever opened this connection
+     * and holds its credentials, and is dropped when this connection is closed, so this connection does not keep credentials itself.
+     */
+    public void setConnectionFactory(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * Opens another connection to the same database with the {@link ConnectionFactory} set for this connection.
+     *
+     * @return the new connection, or null if no connection factory is set
+     */
+    public JdbcConnection openNewConnection() throws DatabaseException {
+        ConnectionFactory factory = connectionFactory;
+        if (factory == null) {
+            return null;
+        }
+        DatabaseConnection connection = factory.openConnection();
+        if (!(connection instanceof JdbcConnection)) {
+            connection.close();
+            throw new DatabaseException("Expected a JDBC connection but the connection factory opened " + connection.getClass().getName());
+        }
+        return (JdbcConnection) connection;
+    }
+
     @Override
     public void attached(Database database) {
         try {
@@ -271,7 +311,12 @@ public class JdbcConnection implements DatabaseConnection {
 
     @Override
     public void close() throws DatabaseException {
+        connectionFactory = null;
         rollback();
+        if (preparedStatementCache != null) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Closing connection with " + preparedStatementCache);
+            clearPreparedStatementCache();
+        }
         try {
             con.close();
         } catch (SQLException e) {
@@ -281,6 +326,7 @@ public class JdbcConnection implements DatabaseConnection {
 
     @Override
     public void commit() throws DatabaseException {
+        ddlSinceCommit = false;
         try {
             if (!con.getAutoCommit()) {
                 con.commit();
@@ -485,6 +531,72 @@ public class JdbcConnection implements DatabaseConnection {
         }
     }
 
+    /**
+     * Returns the prepared statement cache of this connection, or null if {@link GlobalConfiguration#PREPARED_STATEMENT_CACHE_SIZE} is 0.
+     */
+    public synchronized PreparedStatementCache getPreparedStatementCache() {
+        if (preparedStatementCache == null) {
+            Integer size = GlobalConfiguration.PREPARED_STATEMENT_CACHE_SIZE.getCurrentValue();
+            if ((size == null) || (size <= 0)) {
+                return null;
+            }
+            preparedStatementCache = new PreparedStatementCache(this, size);
+        }
+        return preparedStatementCache;
+    }
+
+    /**
+     * Returns a prepared statement for the given SQL from the prepared statement cache of this connection, or a new one if caching is disabled.
+     * The statement must be given back with {@link #releaseCachedStatement(PreparedStatement)} instead of being closed.
+     */
+    public PreparedStatement prepareCachedStatement(String sql) throws DatabaseException {
+        PreparedStatementCache cache = getPreparedStatementCache();
+        if (cache == null) {
+            return prepareStatement(sql);
+        }
+        return cache.prepare(sql);
+    }
+
+    /**
+     * Gives back a statement returned by {@link #prepareCachedStatement(String)}, closing it unless it stays cached.
+     */
+    public void releaseCachedStatement(PreparedStatement statement) {
+        PreparedStatementCache cache = preparedStatementCache;
+        if (cache == null) {
+            JdbcUtil.closeStatement(statement);
+        } else {
+            cache.release(statement);
+        }
+    }
+
+    /**
+     * Closes all statements in the prepared statement cache of this connection.
+     * Called on close and after DDL, so no statement outlives the connection or the tables it was prepared for.
+     * Statements stay cached across commits, which is what lets each changeset reuse the history and lock statements.
+     */
+    public void clearPreparedStatementCache() {
+        PreparedStatementCache cache = preparedStatementCache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Closes all statements in the prepared statement cache after DDL ran, and again on a rollback before the next commit,
+     * since the statements prepared after the DDL may refer to tables the rollback removes.
+     */
+    public void clearPreparedStatementCacheAfterDdl() {
+        ddlSinceCommit = true;
+        clearPreparedStatementCache();
+    }
+
+    private void clearPreparedStatementCacheAfterRollback() {
+        if (ddlSinceCommit) {
+            ddlSinceCommit = false;
+            clearPreparedStatementCache();
+        }
+    }
+
     public void releaseSavepoint(Savepoint savepoint) throws DatabaseException {
         try {
             con.releaseSavepoint(savepoint);
@@ -495,6 +607,7 @@ public class JdbcConnection implements DatabaseConnection {
 
     @Override
     public void rollback() throws DatabaseException {
+        clearPreparedStatementCacheAfterRollback();
         try {
             if (!con.isClosed() && !con.getAutoCommit()) {
                 con.rollback();
@@ -505,6 +618,7 @@ public class JdbcConnection implements DatabaseConnection {
     }
 
     public void rollback(Savepoint savepoint) throws DatabaseException {
+        clearPreparedStatementCacheAfterRollback();
         try {
             if (!con.getAutoCommit()) {
                 con.rollback(savepoint);
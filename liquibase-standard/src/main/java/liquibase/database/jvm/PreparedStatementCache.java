@@ -0,0 +1,194 @@
+package liquibase.database.jvm;
+
+import liquibase.exception.DatabaseException;
+import liquibase.util.JdbcUtil;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Least recently used cache of the prepared statements of a {@link JdbcConnection}, keyed by their SQL.
+ * Statements taken with {@link #prepare(String)} must be given back with {@link #release(PreparedStatement)} instead of being closed.
+ * A statement that is still in use when the same SQL is prepared again is not shared: a new, uncached statement is prepared instead.
+ * Released statements get back the fetch size, maximum rows and query timeout they were prepared with, and are closed if that fails.
+ */
+public class PreparedStatementCache {
+
+    private final JdbcConnection connection;
+    private final int maxSize;
+    private final LinkedHashMap<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<PreparedStatement> inUse = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<PreparedStatement> evictedInUse = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<PreparedStatement, int[]> initialSettings = new IdentityHashMap<>();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public PreparedStatementCache(JdbcConnection connection, int maxSize) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of statements currently cached.
+     */
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    /**
+     * Returns the number of times a cached statement was returned by {@link #prepare(String)}.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of times {@link #prepare(String)} had to prepare a new statement.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of statements closed because the cache was full.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns a prepared statement for the given SQL, reusing a cached one with its parameters cleared if possible.
+     */
+    public synchronized PreparedStatement prepare(String sql) throws DatabaseException {
+        PreparedStatement statement = statements.get(sql);
+        if ((statement != null) && !inUse.contains(statement)) {
+            try {
+                if (!statement.isClosed()) {
+                    statement.clearParameters();
+                    hits++;
+                    inUse.add(statement);
+                    return statement;
+                }
+            } catch (SQLException e) {
+                JdbcUtil.closeStatement(statement);
+            }
+            statements.remove(sql);
+            initialSettings.remove(statement);
+            statement = null;
+        }
+
+        misses++;
+        PreparedStatement prepared = connection.prepareStatement(sql);
+        if (statement == null) {
+            try {
+                initialSettings.put(prepared, new int[]{prepared.getFetchSize(), prepared.getMaxRows(), prepared.getQueryTimeout()});
+            } catch (SQLException e) {
+                // not cached, so the settings do not have to be restored
+                evictedInUse.add(prepared);
+                inUse.add(prepared);
+                return prepared;
+            }
+            statements.put(sql, prepared);
+            evictEldest();
+        } else {
+            // the cached statement is in use, so this one is closed when it is released
+            evictedInUse.add(prepared);
+        }
+        inUse.add(prepared);
+        return prepared;
+    }
+
+    /**
+     * Gives back a statement returned by {@link #prepare(String)}. It is closed if it is no longer cached, or was not prepared by this cache.
+     */
+    public synchronized void release(PreparedStatement statement) {
+        if (statement == null) {
+            return;
+        }
+        if (!inUse.remove(statement) || evictedInUse.remove(statement)) {
+            initialSettings.remove(statement);
+            JdbcUtil.closeStatement(statement);
+        } else if (!resetSettings(statement)) {
+            statements.values().remove(statement);
+            initialSettings.remove(statement);
+            JdbcUtil.closeStatement(statement);
+        }
+    }
+
+    /**
+     * Restores the settings the statement was prepared with, so the next user does not inherit them.
+     *
+     * @return false if the statement could not be reset
+     */
+    private boolean resetSettings(PreparedStatement statement) {
+        int[] settings = initialSettings.get(statement);
+        if (settings == null) {
+            return false;
+        }
+        try {
+            // some drivers reject a fetch size above the maximum rows, so that is restored first
+            if (statement.getMaxRows() != settings[1]) {
+                statement.setMaxRows(settings[1]);
+            }
+            if (statement.getFetchSize() != settings[0]) {
+                statement.setFetchSize(settings[0]);
+            }
+            if (statement.getQueryTimeout() != settings[2]) {
+                statement.setQueryTimeout(settings[2]);
+            }
+            statement.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Closes all cached statements. Statements still in use are closed when they are released.
+     */
+    public synchronized void clear() {
+        List<PreparedStatement> closing = new ArrayList<>(statements.values());
+        statements.clear();
+        for (PreparedStatement statement : closing) {
+            close(statement);
+        }
+    }
+
+    private void evictEldest() {
+        Iterator<Map.Entry<String, PreparedStatement>> iterator = statements.entrySet().iterator();
+        while ((statements.size() > maxSize) && iterator.hasNext()) {
+            PreparedStatement statement = iterator.next().getValue();
+            iterator.remove();
+            evictions++;
+            close(statement);
+        }
+    }
+
+    private void close(PreparedStatement statement) {
+        if (inUse.contains(statement)) {
+            evictedInUse.add(statement);
+        } else {
+            initialSettings.remove(statement);
+            JdbcUtil.closeStatement(statement);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d cached prepared statements, %d hits, %d misses, %d evictions", statements.size(), hits, misses, evictions);
+    }
+}
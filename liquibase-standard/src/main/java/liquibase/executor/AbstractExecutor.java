@@ -131,7 +131,7 @@ public abstract class AbstractExecutor implements Executor {
 
     @Override
     public void execute(Change change, List<SqlVisitor> sqlVisitors) throws DatabaseException {
-        SqlStatement[] sqlStatements = change.generateStatements(database);
+        SqlStatement[] sqlStatements = generateStatements(change);
         if (sqlStatements != null) {
             for (SqlStatement statement : sqlStatements) {
                 if (statement.skipOnUnsupported() && !SqlGeneratorFactory.getInstance().supports(statement, database)) {
@@ -157,4 +157,12 @@ public abstract class AbstractExecutor implements Executor {
         }
     }
 
+    /**
+     * Returns the statements of the change, using the ones its changeset prepared ahead of execution if there are any.
+     */
+    protected SqlStatement[] generateStatements(Change change) {
+        ChangeSet changeSet = change.getChangeSet();
+        SqlStatement[] statements = (changeSet == null) ? null : changeSet.getPreparedStatements(change, database);
+        return (statements == null) ? change.generateStatements(database) : statements;
+    }
 }
@@ -10,8 +10,10 @@ import liquibase.resource.ResourceAccessor;
 import liquibase.sql.visitor.SqlVisitor;
 import liquibase.statement.SqlStatement;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Interface for a class that is capable of executing statements/queries against a DBMS.
@@ -151,6 +153,57 @@ public interface Executor extends Plugin {
      */
     List<Map<String, ?>> queryForList(SqlStatement sql, List<SqlVisitor> sqlVisitors) throws DatabaseException;
 
+    /**
+     * Executes the SQL query and passes each row to the given handler as it is read, represented the same way as in
+     * {@link #queryForList(SqlStatement)}. Rows are not kept after the handler returns.
+     *
+     * @param sql     the SQL query to execute
+     * @param handler the handler to pass each row to
+     * @throws DatabaseException if an error occurs during SQL processing or in the handler
+     */
+    default void queryForEach(SqlStatement sql, RowHandler handler) throws DatabaseException {
+        queryForEach(sql, new ArrayList<>(), handler);
+    }
+
+    /**
+     * Applies a list of SqlVisitors to the SQL query, then executes the (possibly modified) SQL query and passes each row
+     * to the given handler as it is read. The default implementation reads all rows with {@link #queryForList(SqlStatement, List)} first.
+     *
+     * @param sql     the SQL query to execute
+     * @param handler the handler to pass each row to
+     * @throws DatabaseException if an error occurs during SQL processing or in the handler
+     */
+    default void queryForEach(SqlStatement sql, List<SqlVisitor> sqlVisitors, RowHandler handler) throws DatabaseException {
+        for (Map<String, ?> row : queryForList(sql, sqlVisitors)) {
+            handler.handleRow(row);
+        }
+    }
+
+    /**
+     * Executes the SQL query and returns its rows as a stream that reads them as it is consumed, represented the same way as in
+     * {@link #queryForList(SqlStatement)}. The stream must be closed to release the underlying result set.
+     *
+     * @param sql the SQL query to execute
+     * @return a stream of [Column name] -> [column value]-mapped rows.
+     * @throws DatabaseException if an error occurs during SQL processing (e.g. the SQL is not valid for the database)
+     */
+    default Stream<Map<String, ?>> queryForStream(SqlStatement sql) throws DatabaseException {
+        return queryForStream(sql, new ArrayList<>());
+    }
+
+    /**
+     * Applies a list of SqlVisitors to the SQL query, then executes the (possibly modified) SQL query and returns its rows
+     * as a stream that must be closed. The default implementation reads all rows with {@link #queryForList(SqlStatement, List)} first.
+     * Errors while reading rows are thrown as {@link liquibase.exception.UnexpectedLiquibaseException}.
+     *
+     * @param sql the SQL query to execute
+     * @return a stream of [Column name] -> [column value]-mapped rows.
+     * @throws DatabaseException if an error occurs during SQL processing (e.g. the SQL is not valid for the database)
+     */
+    default Stream<Map<String, ?>> queryForStream(SqlStatement sql, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        return queryForList(sql, sqlVisitors).stream();
+    }
+
 
     /**
      * Write methods
@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
+import java.util.stream.Stream;
 
 /**
  * A variant of the Executor service that does not actually modify the target database(s). Instead, it creates
@@ -306,6 +307,16 @@ public class LoggingExecutor extends AbstractExecutor {
         return delegatedReadExecutor.queryForList(sql, sqlVisitors);
     }
 
+    @Override
+    public void queryForEach(SqlStatement sql, List<SqlVisitor> sqlVisitors, RowHandler handler) throws DatabaseException {
+        delegatedReadExecutor.queryForEach(sql, sqlVisitors, handler);
+    }
+
+    @Override
+    public Stream<Map<String, ?>> queryForStream(SqlStatement sql, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        return delegatedReadExecutor.queryForStream(sql, sqlVisitors);
+    }
+
     @Override
     public boolean updatesDatabase() {
         return false;
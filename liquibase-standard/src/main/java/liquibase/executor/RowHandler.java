@@ -0,0 +1,20 @@
+package liquibase.executor;
+
+import liquibase.exception.DatabaseException;
+
+import java.util.Map;
+
+/**
+ * Handles the rows of a query one at a time, as they are read by {@link Executor#queryForEach(liquibase.statement.SqlStatement, RowHandler)}.
+ */
+@FunctionalInterface
+public interface RowHandler {
+
+    /**
+     * Handles one row of the query result.
+     *
+     * @param row the [Column name] -> [column value]-mapped row
+     * @throws DatabaseException to stop reading the query result
+     */
+    void handleRow(Map<String, ?> row) throws DatabaseException;
+}
@@ -1,6 +1,9 @@
 package liquibase.executor.jvm;
 
+import liquibase.GlobalConfiguration;
 import liquibase.Scope;
+import liquibase.change.Change;
+import liquibase.change.core.RawSQLChange;
 import liquibase.database.DatabaseConnection;
 import liquibase.database.OfflineConnection;
 import liquibase.database.PreparedStatementFactory;
@@ -8,7 +11,9 @@ import liquibase.database.core.Db2zDatabase;
 import liquibase.database.core.OracleDatabase;
 import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.executor.AbstractExecutor;
+import liquibase.executor.RowHandler;
 import liquibase.listener.SqlListener;
 import liquibase.logging.Logger;
 import liquibase.servicelocator.PrioritizedService;
@@ -21,18 +26,29 @@ import liquibase.statement.CallableSqlStatement;
 import liquibase.statement.CompoundStatement;
 import liquibase.statement.ExecutablePreparedStatement;
 import liquibase.statement.SqlStatement;
+import liquibase.statement.core.DeleteStatement;
+import liquibase.statement.core.InsertSetStatement;
+import liquibase.statement.core.InsertStatement;
 import liquibase.statement.core.RawParameterizedSqlStatement;
+import liquibase.statement.core.UpdateStatement;
 import liquibase.util.JdbcUtil;
 import liquibase.util.StringUtil;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Class to simplify execution of SqlStatements.  Based heavily on <a href="http://static.springframework.org/spring/docs/2.0.x/reference/jdbc.html">Spring's JdbcTemplate</a>.
@@ -44,6 +60,15 @@ public class JdbcExecutor extends AbstractExecutor {
     public static final String SHOULD_UPDATE_ROWS_AFFECTED_SCOPE_KEY = "shouldUpdateRowsAffected";
     public static final String ROWS_AFFECTED_SCOPE_KEY = "rowsAffected";
 
+    private static final Pattern DML_PATTERN = Pattern.compile("^\\s*?(SELECT\\s|INSERT\\s|UPDATE\\s|DELETE\\s|MERGE\\s)(.*)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    /**
+     * DDL statements, and anonymous blocks that may run DDL.
+     */
+    private static final Pattern DDL_PATTERN = Pattern.compile("^\\s*(CREATE|ALTER|DROP|RENAME|TRUNCATE|COMMENT|GRANT|REVOKE|BEGIN|DECLARE|DO)\\b",
+            Pattern.CASE_INSENSITIVE);
+
     /**
      * Return the name of the Executor
      *
@@ -156,20 +181,218 @@ public class JdbcExecutor extends AbstractExecutor {
         execute(sql, new ArrayList<>());
     }
 
+    @Override
+    public void execute(Change change, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        if ((getDmlBatchSize() < 2) || (change instanceof RawSQLChange)) {
+            super.execute(change, sqlVisitors);
+            return;
+        }
+        SqlStatement[] sqlStatements = generateStatements(change);
+        if (sqlStatements != null) {
+            execute(sqlStatements, sqlVisitors);
+        }
+    }
+
+    /**
+     * Returns the statements of the change if {@link GlobalConfiguration#DML_BATCH_SIZE} is greater than 1 and all of them are
+     * insert, update and delete statements that can be sent in a batch, or null otherwise.
+     * Callers can join the statements of consecutive changes and pass them to {@link #execute(SqlStatement[], List)} to batch them together.
+     */
+    public SqlStatement[] getBatchableStatements(Change change, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        if ((getDmlBatchSize() < 2) || (change instanceof RawSQLChange)) {
+            return null;
+        }
+        SqlStatement[] statements = generateStatements(change);
+        if (statements == null) {
+            return null;
+        }
+        for (SqlStatement statement : statements) {
+            if ((statement.skipOnUnsupported() && !SqlGeneratorFactory.getInstance().supports(statement, database))
+                    || (getBatchableSql(statement, sqlVisitors) == null)) {
+                return null;
+            }
+        }
+        return statements;
+    }
+
+    /**
+     * Executes the statements in order, skipping unsupported statements and logging the errors of statements that continue on error.
+     * If {@link GlobalConfiguration#DML_BATCH_SIZE} is greater than 1, consecutive insert, update and delete statements on the same table
+     * are sent to the database in JDBC batches of their generated SQL instead of one at a time.
+     */
+    public void execute(SqlStatement[] statements, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        int batchSize = getDmlBatchSize();
+        List<SqlStatement> batchStatements = new ArrayList<>();
+        List<String> batchSql = new ArrayList<>();
+        for (SqlStatement statement : statements) {
+            if (statement.skipOnUnsupported() && !SqlGeneratorFactory.getInstance().supports(statement, database)) {
+                continue;
+            }
+            String[] sql = (batchSize > 1) ? getBatchableSql(statement, sqlVisitors) : null;
+            if ((sql != null) && !batchStatements.isEmpty() && ((batchSql.size() + sql.length) <= batchSize)
+                    && isSameBatch(batchStatements.get(0), statement)) {
+                batchStatements.add(statement);
+                batchSql.addAll(Arrays.asList(sql));
+                continue;
+            }
+            executeBatch(batchStatements, batchSql, sqlVisitors);
+            if (sql == null) {
+                executeContinuingOnError(statement, sqlVisitors);
+            } else {
+                batchStatements.add(statement);
+                batchSql.addAll(Arrays.asList(sql));
+            }
+        }
+        executeBatch(batchStatements, batchSql, sqlVisitors);
+    }
+
+    private int getDmlBatchSize() throws DatabaseException {
+        Integer batchSize = GlobalConfiguration.DML_BATCH_SIZE.getCurrentValue();
+        if ((batchSize == null) || (batchSize < 2) || !(database.getConnection() instanceof JdbcConnection)) {
+            return 0;
+        }
+        return ((JdbcConnection) database.getConnection()).supportsBatchUpdates() ? batchSize : 0;
+    }
+
+    /**
+     * Returns the SQL the statement executes if it can be sent in a batch, or null if it must be executed on its own.
+     * Subclasses of the supported statements, such as {@link liquibase.statement.core.InsertOrUpdateStatement}, generate
+     * other kinds of SQL and are not batched.
+     */
+    private String[] getBatchableSql(SqlStatement statement, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        Class<?> type = statement.getClass();
+        if (((type != InsertStatement.class) && (type != InsertSetStatement.class) && (type != UpdateStatement.class)
+                && (type != DeleteStatement.class)) || statement.continueOnError()) {
+            return null;
+        }
+        String[] sql = applyVisitors(statement, sqlVisitors);
+        if (sql.length == 0) {
+            return null;
+        }
+        for (int i = 0; i < sql.length; i++) {
+            if ((sql[i] == null) || sql[i].contains("?")) {
+                return null;
+            }
+            sql[i] = stripTrailingSlashes(sql[i]);
+        }
+        return sql;
+    }
+
+    private boolean isSameBatch(SqlStatement first, SqlStatement statement) {
+        return (getBatchType(first) == getBatchType(statement)) && getTable(first).equals(getTable(statement));
+    }
+
+    /**
+     * Inserts of single rows and of row sets go in the same batch.
+     */
+    private static Class<?> getBatchType(SqlStatement statement) {
+        return (statement instanceof InsertSetStatement) ? InsertStatement.class : statement.getClass();
+    }
+
+    private static List<String> getTable(SqlStatement statement) {
+        if (statement instanceof InsertStatement) {
+            InsertStatement insert = (InsertStatement) statement;
+            return Arrays.asList(insert.getCatalogName(), insert.getSchemaName(), insert.getTableName());
+        }
+        if (statement instanceof InsertSetStatement) {
+            InsertSetStatement insertSet = (InsertSetStatement) statement;
+            return Arrays.asList(insertSet.getCatalogName(), insertSet.getSchemaName(), insertSet.getTableName());
+        }
+        if (statement instanceof UpdateStatement) {
+            UpdateStatement update = (UpdateStatement) statement;
+            return Arrays.asList(update.getCatalogName(), update.getSchemaName(), update.getTableName());
+        }
+        DeleteStatement delete = (DeleteStatement) statement;
+        return Arrays.asList(delete.getCatalogName(), delete.getSchemaName(), delete.getTableName());
+    }
+
+    private void executeContinuingOnError(SqlStatement statement, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        Scope.getCurrentScope().getLog(getClass()).fine("Executing Statement: " + System.lineSeparator() + statement);
+        try {
+            execute(statement, sqlVisitors);
+        } catch (DatabaseException e) {
+            if (statement.continueOnError()) {
+                Scope.getCurrentScope().getLog(getClass()).severe("Error executing statement '" + statement + "', but continuing", e);
+            } else {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Sends the collected statements in one JDBC batch and clears the lists. A single statement is executed normally.
+     */
+    private void executeBatch(List<SqlStatement> statements, List<String> sqls, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        if (statements.size() == 1) {
+            executeContinuingOnError(statements.get(0), sqlVisitors);
+        } else if (!statements.isEmpty()) {
+            Logger log = Scope.getCurrentScope().getLog(getClass());
+            Level sqlLogLevel = SqlConfiguration.SHOW_AT_LOG_LEVEL.getCurrentValue();
+            log.fine("Executing " + statements.size() + " statements in one batch");
+            Statement stmt = null;
+            try {
+                stmt = ((JdbcConnection) database.getConnection()).createStatement();
+                for (String sql : sqls) {
+                    for (SqlListener listener : Scope.getCurrentScope().getListeners(SqlListener.class)) {
+                        listener.writeSqlWillRun(String.format("%s", sql));
+                    }
+                    log.log(sqlLogLevel, System.lineSeparator() + sql, null);
+                    stmt.addBatch(sql);
+                }
+                int[] updateCounts = stmt.executeBatch();
+                for (int i = 0; i < updateCounts.length; i++) {
+                    addUpdateCountToScope(updateCounts[i]);
+                    if (updateCounts[i] > -1 && isDML(sqls.get(i))) {
+                        log.log(sqlLogLevel, updateCounts[i] + " row(s) affected", null);
+                    }
+                }
+            } catch (BatchUpdateException e) {
+                throw new DatabaseException(e.getMessage() + " [Failed SQL: " + getErrorCode(e) + sqls.get(getFailedIndex(e, sqls.size())) + "]", e);
+            } catch (SQLException e) {
+                throw new DatabaseException(e.getMessage() + " [Failed SQL: " + getErrorCode(e) + String.join(";" + System.lineSeparator(), sqls) + "]", e);
+            } finally {
+                JdbcUtil.closeStatement(stmt);
+            }
+        }
+        statements.clear();
+        sqls.clear();
+    }
+
+    /**
+     * Drivers either stop at the first failing statement and report the counts of the statements before it,
+     * or run all statements and mark the failed ones with {@link Statement#EXECUTE_FAILED}.
+     */
+    private static int getFailedIndex(BatchUpdateException e, int batchSize) {
+        int[] updateCounts = e.getUpdateCounts();
+        if (updateCounts == null) {
+            return 0;
+        }
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                return i;
+            }
+        }
+        return Math.min(updateCounts.length, batchSize - 1);
+    }
+
     @Override
     public void execute(final SqlStatement sql, final List<SqlVisitor> sqlVisitors) throws DatabaseException {
         if (sql instanceof RawParameterizedSqlStatement) {
-            PreparedStatementFactory factory = new PreparedStatementFactory((JdbcConnection) database.getConnection());
+            JdbcConnection con = (JdbcConnection) database.getConnection();
 
             String finalSql = applyVisitors((RawParameterizedSqlStatement) sql, sqlVisitors);
 
-            try (PreparedStatement pstmt = factory.create(finalSql)) {
+            PreparedStatement pstmt = con.prepareCachedStatement(finalSql);
+            try {
                 setParameters(pstmt, (RawParameterizedSqlStatement) sql);
                 pstmt.execute();
+                clearStatementCacheAfterDdl(finalSql);
 
                 return;
             } catch (SQLException e) {
                 throw new DatabaseException(e);
+            } finally {
+                con.releaseCachedStatement(pstmt);
             }
         }
 
@@ -234,18 +457,50 @@ public class JdbcExecutor extends AbstractExecutor {
     }
 
     public Object query(final SqlStatement sql, final ResultSetExtractor rse, final List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        return query(sql, rse, sqlVisitors, false);
+    }
+
+    /**
+     * Passes each row of the query result to the given handler as it is read, without keeping the rows in memory.
+     * The fetch size of the statement is set to {@link liquibase.database.Database#getFetchSize()}.
+     */
+    public void queryForEachRow(final SqlStatement sql, final RowCallbackHandler rch) throws DatabaseException {
+        queryForEachRow(sql, rch, new ArrayList<>());
+    }
+
+    /**
+     * Applies the SqlVisitors to the query, then passes each row of the query result to the given handler as it is read,
+     * without keeping the rows in memory.
+     * The fetch size of the statement is set to {@link liquibase.database.Database#getFetchSize()}.
+     */
+    public void queryForEachRow(final SqlStatement sql, final RowCallbackHandler rch, final List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        query(sql, rs -> {
+            while (rs.next()) {
+                rch.processRow(rs);
+            }
+            return null;
+        }, sqlVisitors, true);
+    }
+
+    private Object query(final SqlStatement sql, final ResultSetExtractor rse, final List<SqlVisitor> sqlVisitors, boolean streaming) throws DatabaseException {
         if (sql instanceof RawParameterizedSqlStatement) {
-            PreparedStatementFactory factory = new PreparedStatementFactory((JdbcConnection) database.getConnection());
+            JdbcConnection con = (JdbcConnection) database.getConnection();
 
             String finalSql = applyVisitors((RawParameterizedSqlStatement) sql, sqlVisitors);
 
-            try (PreparedStatement pstmt = factory.create(finalSql)) {
+            PreparedStatement pstmt = con.prepareCachedStatement(finalSql);
+            try {
+                if (streaming) {
+                    setStreamingFetchSize(pstmt);
+                }
                 setParameters(pstmt, (RawParameterizedSqlStatement) sql);
                 try (ResultSet rs = pstmt.executeQuery()) {
                     return rse.extractData(rs);
                 }
             } catch (SQLException e) {
                 throw new DatabaseException(e);
+            } finally {
+                con.releaseCachedStatement(pstmt);
             }
         }
 
@@ -253,7 +508,55 @@ public class JdbcExecutor extends AbstractExecutor {
             return execute(new QueryCallableStatementCallback(sql, rse), sqlVisitors);
         }
 
-        return execute(new QueryStatementCallback(sql, rse, sqlVisitors), sqlVisitors);
+        if ((database.getConnection() instanceof JdbcConnection)
+                && (((JdbcConnection) database.getConnection()).getPreparedStatementCache() != null)) {
+            String[] sqlToExecute = applyVisitors(sql, sqlVisitors);
+            if ((sqlToExecute.length == 1) && !sqlToExecute[0].contains("?")) {
+                return queryCached(sqlToExecute[0], rse, streaming);
+            }
+        }
+
+        return execute(new QueryStatementCallback(sql, rse, sqlVisitors, streaming), sqlVisitors);
+    }
+
+    /**
+     * Runs a generated query with a statement of the prepared statement cache, so queries that repeat their SQL,
+     * like the history and lock queries, are only prepared once.
+     */
+    private Object queryCached(String sql, ResultSetExtractor rse, boolean streaming) throws DatabaseException {
+        JdbcConnection con = (JdbcConnection) database.getConnection();
+        PreparedStatement pstmt = con.prepareCachedStatement(sql);
+        try {
+            if (streaming || (database instanceof OracleDatabase && Boolean.TRUE.equals(SqlConfiguration.ALWAYS_SET_FETCH_SIZE.getCurrentValue()))) {
+                setStreamingFetchSize(pstmt);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rse.extractData(rs);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error executing SQL " + sql + " on " + con.getURL() + ": " + e.getMessage(), e);
+        } finally {
+            for (SqlListener listener : Scope.getCurrentScope().getListeners(SqlListener.class)) {
+                listener.readSqlWillRun(sql);
+            }
+            con.releaseCachedStatement(pstmt);
+        }
+    }
+
+    /**
+     * Closes the cached prepared statements after DDL, since their plans may no longer match the changed tables.
+     */
+    private void clearStatementCacheAfterDdl(String sql) {
+        if ((sql != null) && DDL_PATTERN.matcher(sql).find() && (database.getConnection() instanceof JdbcConnection)) {
+            ((JdbcConnection) database.getConnection()).clearPreparedStatementCacheAfterDdl();
+        }
+    }
+
+    private void setStreamingFetchSize(Statement stmt) throws SQLException {
+        Integer fetchSize = database.getFetchSize();
+        if ((fetchSize != null) && (fetchSize > 0)) {
+            stmt.setFetchSize(fetchSize);
+        }
     }
 
     public List query(SqlStatement sql, RowMapper rowMapper) throws DatabaseException {
@@ -329,6 +632,66 @@ public class JdbcExecutor extends AbstractExecutor {
         return (List<Map<String, ?>>) query(sql, getColumnMapRowMapper(), sqlVisitors);
     }
 
+    @Override
+    public void queryForEach(SqlStatement sql, List<SqlVisitor> sqlVisitors, RowHandler handler) throws DatabaseException {
+        RowMapper rowMapper = getColumnMapRowMapper();
+        AtomicInteger rowNum = new AtomicInteger();
+        queryForEachRow(sql, rs -> handler.handleRow((Map<String, ?>) rowMapper.mapRow(rs, rowNum.getAndIncrement())), sqlVisitors);
+    }
+
+    /**
+     * Returns the rows of the query result as a stream that reads them from the open result set as it is consumed.
+     * The fetch size of the statement is set to {@link liquibase.database.Database#getFetchSize()}. Closing the stream
+     * closes the result set and its statement; they are also closed once the last row was read.
+     */
+    @Override
+    public Stream<Map<String, ?>> queryForStream(SqlStatement sql, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        DatabaseConnection con = database.getConnection();
+        if ((con instanceof OfflineConnection) || !(con instanceof JdbcConnection) || (sql instanceof CallableSqlStatement)) {
+            return super.queryForStream(sql, sqlVisitors);
+        }
+
+        String sqlToExecute;
+        if (sql instanceof RawParameterizedSqlStatement) {
+            sqlToExecute = applyVisitors((RawParameterizedSqlStatement) sql, sqlVisitors);
+        } else {
+            String[] sqls = applyVisitors(sql, sqlVisitors);
+            if (sqls.length != 1) {
+                throw new DatabaseException("Can only query with statements that return one sql statement");
+            }
+            sqlToExecute = sqls[0];
+        }
+
+        Statement stmt = null;
+        ResultSet rs = null;
+        try {
+            if (sql instanceof RawParameterizedSqlStatement) {
+                // not taken from the statement cache since it stays open while the stream is consumed
+                PreparedStatement pstmt = ((JdbcConnection) con).prepareStatement(sqlToExecute);
+                stmt = pstmt;
+                setStreamingFetchSize(pstmt);
+                setParameters(pstmt, (RawParameterizedSqlStatement) sql);
+                rs = pstmt.executeQuery();
+            } else {
+                stmt = ((JdbcConnection) con).getUnderlyingConnection().createStatement();
+                setStreamingFetchSize(stmt);
+                rs = stmt.executeQuery(sqlToExecute);
+            }
+        } catch (SQLException e) {
+            JdbcUtil.closeResultSet(rs);
+            JdbcUtil.closeStatement(stmt);
+            throw new DatabaseException("Error executing SQL " + sqlToExecute + ": " + e.getMessage(), e);
+        } finally {
+            for (SqlListener listener : Scope.getCurrentScope().getListeners(SqlListener.class)) {
+                listener.readSqlWillRun(sqlToExecute);
+            }
+        }
+
+        ResultSetIterator iterator = new ResultSetIterator(stmt, rs, getColumnMapRowMapper());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
     @Override
     public int update(final SqlStatement sql) throws DatabaseException {
         return update(sql, new ArrayList<>());
@@ -354,7 +717,9 @@ public class JdbcExecutor extends AbstractExecutor {
                 for (SqlListener listener : Scope.getCurrentScope().getListeners(SqlListener.class)) {
                     listener.writeSqlWillRun(sqlToExecute[0]);
                 }
-                return stmt.executeUpdate(sqlToExecute[0]);
+                int updateCount = stmt.executeUpdate(sqlToExecute[0]);
+                clearStatementCacheAfterDdl(sqlToExecute[0]);
+                return updateCount;
             }
 
 
@@ -459,6 +824,30 @@ public class JdbcExecutor extends AbstractExecutor {
         return "";
     }
 
+    private String stripTrailingSlashes(String statement) {
+        if (database instanceof OracleDatabase) {
+            while (statement.matches("(?s).*[\\s\\r\\n]*[^*]/[\\s\\r\\n]*$")) { //all trailing /'s
+                statement = statement.replaceFirst("[\\s\\r\\n]*[^*]/[\\s\\r\\n]*$", "");
+            }
+        }
+        return statement;
+    }
+
+    private void addUpdateCountToScope(int updateCount) {
+        if (updateCount > -1) {
+            AtomicInteger scopeRowsAffected = Scope.getCurrentScope().get(ROWS_AFFECTED_SCOPE_KEY, AtomicInteger.class);
+            Boolean shouldUpdateRowsAffected = Scope.getCurrentScope().get(SHOULD_UPDATE_ROWS_AFFECTED_SCOPE_KEY, true);
+            if (scopeRowsAffected != null && Boolean.TRUE.equals(shouldUpdateRowsAffected)) {
+                scopeRowsAffected.addAndGet(updateCount);
+            }
+        }
+    }
+
+    private boolean isDML(String statement) {
+        Matcher m = DML_PATTERN.matcher(statement);
+        return m.matches();
+    }
+
     private class ExecuteStatementCallback implements StatementCallback {
 
         private final SqlStatement sql;
@@ -469,32 +858,12 @@ public class JdbcExecutor extends AbstractExecutor {
             this.sqlVisitors = sqlVisitors;
         }
 
-        private void addUpdateCountToScope(int updateCount) {
-            if (updateCount > -1) {
-                AtomicInteger scopeRowsAffected = Scope.getCurrentScope().get(ROWS_AFFECTED_SCOPE_KEY, AtomicInteger.class);
-                Boolean shouldUpdateRowsAffected = Scope.getCurrentScope().get(SHOULD_UPDATE_ROWS_AFFECTED_SCOPE_KEY, true);
-                if (scopeRowsAffected != null && Boolean.TRUE.equals(shouldUpdateRowsAffected)) {
-                    scopeRowsAffected.addAndGet(updateCount);
-                }
-            }
-        }
-
-        private boolean isDML(String statement) {
-            Pattern dmlPattern = Pattern.compile("^\\s*?(SELECT\\s|INSERT\\s|UPDATE\\s|DELETE\\s|MERGE\\s)(.*)");
-            Matcher m = dmlPattern.matcher(statement);
-            return m.matches();
-        }
-
         @Override
         public Object doInStatement(Statement stmt) throws SQLException, DatabaseException {
             Logger log = Scope.getCurrentScope().getLog(getClass());
 
             for (String statement : applyVisitors(sql, sqlVisitors)) {
-                if (database instanceof OracleDatabase) {
-                    while (statement.matches("(?s).*[\\s\\r\\n]*[^*]/[\\s\\r\\n]*$")) { //all trailing /'s
-                        statement = statement.replaceFirst("[\\s\\r\\n]*[^*]/[\\s\\r\\n]*$", "");
-                    }
-                }
+                statement = stripTrailingSlashes(statement);
 
                 for (SqlListener listener : Scope.getCurrentScope().getListeners(SqlListener.class)) {
                     listener.writeSqlWillRun(String.format("%s", statement));
@@ -519,6 +888,7 @@ public class JdbcExecutor extends AbstractExecutor {
                 } catch (Throwable e) {
                     throw new DatabaseException(e.getMessage() + " [Failed SQL: " + getErrorCode(e) + statement + "]", e);
                 }
+                clearStatementCacheAfterDdl(statement);
                 try {
                     int updateCount = 0;
                     //cycle for retrieving row counts from all statements
@@ -550,11 +920,17 @@ public class JdbcExecutor extends AbstractExecutor {
         private final SqlStatement sql;
         private final List<SqlVisitor> sqlVisitors;
         private final ResultSetExtractor rse;
+        private final boolean streaming;
 
         private QueryStatementCallback(SqlStatement sql, ResultSetExtractor rse, List<SqlVisitor> sqlVisitors) {
+            this(sql, rse, sqlVisitors, false);
+        }
+
+        private QueryStatementCallback(SqlStatement sql, ResultSetExtractor rse, List<SqlVisitor> sqlVisitors, boolean streaming) {
             this.sql = sql;
             this.rse = rse;
             this.sqlVisitors = sqlVisitors;
+            this.streaming = streaming;
         }
 
 
@@ -583,6 +959,9 @@ public class JdbcExecutor extends AbstractExecutor {
                 }
 
                 try {
+                    if (streaming) {
+                        setStreamingFetchSize(stmt);
+                    }
                     rs = stmt.executeQuery(sqlToExecute[0]);
                     ResultSet rsToUse = rs;
                     return rse.extractData(rsToUse);
@@ -632,4 +1011,58 @@ public class JdbcExecutor extends AbstractExecutor {
             return sql;
         }
     }
+
+    /**
+     * Iterates over the rows of an open result set, closing it and its statement after the last row.
+     */
+    private static class ResultSetIterator implements Iterator<Map<String, ?>> {
+
+        private final Statement stmt;
+        private final ResultSet rs;
+        private final RowMapper rowMapper;
+        private int rowNum;
+        private Boolean hasNext;
+
+        private ResultSetIterator(Statement stmt, ResultSet rs, RowMapper rowMapper) {
+            this.stmt = stmt;
+            this.rs = rs;
+            this.rowMapper = rowMapper;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (hasNext == null) {
+                try {
+                    hasNext = rs.next();
+                } catch (SQLException e) {
+                    close();
+                    throw new UnexpectedLiquibaseException(e);
+                }
+                if (!hasNext) {
+                    close();
+                }
+            }
+            return hasNext;
+        }
+
+        @Override
+        public Map<String, ?> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            hasNext = null;
+            try {
+                return (Map<String, ?>) rowMapper.mapRow(rs, rowNum++);
+            } catch (SQLException e) {
+                close();
+                throw new UnexpectedLiquibaseException(e);
+            }
+        }
+
+        private void close() {
+            hasNext = false;
+            JdbcUtil.closeResultSet(rs);
+            JdbcUtil.closeStatement(stmt);
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package liquibase.executor.jvm;
 
+import liquibase.exception.DatabaseException;
+
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
@@ -29,6 +31,6 @@ interface ResultSetExtractor {
      *                               values or navigating (that is, there's no need to catch SQLException)
      * @throws liquibase.exception.DatabaseException         in case of custom exceptions
      */
-    Object extractData(ResultSet rs) throws SQLException;
+    Object extractData(ResultSet rs) throws SQLException, DatabaseException;
 
 }
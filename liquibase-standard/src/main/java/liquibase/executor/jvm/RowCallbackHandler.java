@@ -1,6 +1,9 @@
 package liquibase.executor.jvm;
 
+import liquibase.exception.DatabaseException;
+
 import java.sql.ResultSet;
+import java.sql.SQLException;
 
 /**
  * An interface used by {@link liquibase.executor.Executor} for processing rows of a
@@ -22,7 +25,7 @@ import java.sql.ResultSet;
  * @see RowMapper
  * @see ResultSetExtractor
  */
-interface RowCallbackHandler {
+public interface RowCallbackHandler {
 
     /**
      * Implementations must implement this method to process each row of data
@@ -33,7 +36,9 @@ interface RowCallbackHandler {
      * implementation might build an XML document.
      *
      * @param rs the ResultSet to process (pre-initialized for the current row)
+     * @throws SQLException      if a SQLException is encountered getting column values
+     * @throws DatabaseException to stop processing rows
      */
-    void processRow(ResultSet rs);
+    void processRow(ResultSet rs) throws SQLException, DatabaseException;
 
 }
@@ -0,0 +1,341 @@
+package liquibase.lockservice;
+
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.database.Database;
+import liquibase.database.OfflineConnection;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.OracleDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.LockException;
+import liquibase.executor.jvm.ChangelogJdbcMdcListener;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.RawParameterizedSqlStatement;
+import liquibase.statement.core.UnlockDatabaseChangeLogStatement;
+import liquibase.util.MD5Util;
+
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.text.DateFormat;
+
+/**
+ * {@link LockService} used when {@link GlobalConfiguration#ADVISORY_CHANGELOG_LOCK} is enabled.
+ * <p>
+ * On databases with session-level advisory locks, the changelog lock is one of those: pg_advisory_lock on PostgreSQL, GET_LOCK on MySQL and MariaDB,
+ * sp_getapplock on SQL Server and DBMS_LOCK on Oracle. {@link #waitForLock()} waits for it inside the database instead of polling,
+ * and the database releases it when the session holding it ends, so a crashed process cannot leave a stale lock behind.
+ * The changelog lock table row is still set while the lock is held so {@link #listLocks()} keeps showing who holds it.
+ * Its LOCKEDBY value starts with {@link #LOCKED_BY_MARKER}. A row carrying that marker left locked by a process that no longer holds
+ * the advisory lock is taken over. A row without it was locked by a process only using the lock table, which is waited for
+ * like {@link StandardLockService} does.
+ * <p>
+ * Other databases fall back to the changelog lock table handling of {@link StandardLockService}.
+ * Processes that only use the lock table do not see the advisory lock, so all processes updating a database should use the same setting.
+ */
+public class AdvisoryLockService extends StandardLockService {
+
+    /**
+     * Error code raised by the Oracle lock request block when the lock was not granted in time.
+     */
+    private static final int LOCK_NOT_GRANTED_ERROR = 20001;
+    private static final String POSTGRES_LOCK_NOT_AVAILABLE = "55P03";
+    private static final int ORACLE_MAX_WAIT_SECONDS = 32767;
+
+    /**
+     * Prefix of the LOCKEDBY value written by this service on databases with advisory locks.
+     */
+    public static final String LOCKED_BY_MARKER = "advisory:";
+
+    private boolean hasAdvisoryLock;
+    private boolean lockedInTable;
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DEFAULT + 1;
+    }
+
+    @Override
+    public boolean supports(Database database) {
+        return GlobalConfiguration.ADVISORY_CHANGELOG_LOCK.getCurrentValue()
+                && database.getConnection() != null
+                && !(database.getConnection() instanceof OfflineConnection);
+    }
+
+    /**
+     * Returns true if the database has session-level advisory locks, false if the changelog lock table is used instead.
+     */
+    public boolean supportsAdvisoryLock() {
+        return database instanceof PostgresDatabase
+                || database instanceof MySQLDatabase
+                || database instanceof MSSQLDatabase
+                || database instanceof OracleDatabase;
+    }
+
+    @Override
+    public void waitForLock() throws LockException {
+        if (!supportsAdvisoryLock()) {
+            super.waitForLock();
+            return;
+        }
+        if (hasChangeLogLock) {
+            return;
+        }
+
+        long waitSeconds = getChangeLogLockWaitTime() * 60;
+        Scope.getCurrentScope().getLog(getClass()).info("Waiting up to " + waitSeconds + " seconds for changelog lock");
+        if (!acquireLock(waitSeconds)) {
+            if (lockedInTable) {
+                Scope.getCurrentScope().getLog(getClass()).info("Changelog lock is held by a process not using advisory locks, waiting for the lock table");
+                super.waitForLock();
+                return;
+            }
+            DatabaseChangeLogLock[] locks = listLocks();
+            String lockedBy;
+            if (locks.length > 0) {
+                DatabaseChangeLogLock lock = locks[0];
+                lockedBy = lock.getLockedBy() + " since " +
+                        DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT).format(lock.getLockGranted());
+            } else {
+                lockedBy = "UNKNOWN";
+            }
+            throw new LockException("Could not acquire change log lock.  Currently locked by " + lockedBy);
+        }
+    }
+
+    @Override
+    public boolean acquireLock() throws LockException {
+        if (!supportsAdvisoryLock()) {
+            return super.acquireLock();
+        }
+        return acquireLock(0);
+    }
+
+    /**
+     * Takes the advisory lock, waiting up to the given number of seconds for it, and then marks the changelog lock table row as locked.
+     */
+    protected boolean acquireLock(long waitSeconds) throws LockException {
+        if (hasChangeLogLock) {
+            return true;
+        }
+        lockedInTable = false;
+        try {
+            if (!hasAdvisoryLock) {
+                database.rollback();
+                hasAdvisoryLock = requestAdvisoryLock(waitSeconds);
+                if (!hasAdvisoryLock) {
+                    return false;
+                }
+            }
+
+            init();
+            DatabaseChangeLogLock[] locks = listLocks();
+            if (locks.length > 0) {
+                String lockedBy = locks[0].getLockedBy();
+                if ((lockedBy == null) || !lockedBy.startsWith(LOCKED_BY_MARKER)) {
+                    //a process only using the lock table does not see the advisory lock, so the row may still be in use
+                    lockedInTable = true;
+                    releaseAdvisoryLockQuietly();
+                    return false;
+                }
+                Scope.getCurrentScope().getLog(getClass()).info("Taking over changelog lock left by " + lockedBy
+                        + ", which no longer holds the advisory lock");
+                SqlStatement unlockStatement = new UnlockDatabaseChangeLogStatement();
+                ChangelogJdbcMdcListener.execute(database, executor -> executor.update(unlockStatement));
+                database.commit();
+            }
+        } catch (LockException e) {
+            releaseAdvisoryLockQuietly();
+            throw e;
+        } catch (Exception e) {
+            releaseAdvisoryLockQuietly();
+            throw new LockException(e);
+        }
+
+        if (!super.acquireLock()) {
+            //a process only using the lock table got it first
+            releaseAdvisoryLockQuietly();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Only takes over an expired lease while holding the advisory lock, so the lock is never held without it.
+     */
+    @Override
+    boolean takeOverExpiredLease() throws LockException {
+        if (!supportsAdvisoryLock()) {
+            return super.takeOverExpiredLease();
+        }
+        try {
+            if (!hasAdvisoryLock) {
+                database.rollback();
+                hasAdvisoryLock = requestAdvisoryLock(0);
+                if (!hasAdvisoryLock) {
+                    return false;
+                }
+            }
+        } catch (DatabaseException e) {
+            releaseAdvisoryLockQuietly();
+            throw new LockException(e);
+        }
+        boolean tookOver = false;
+        try {
+            tookOver = super.takeOverExpiredLease();
+        } finally {
+            if (!tookOver) {
+                releaseAdvisoryLockQuietly();
+            }
+        }
+        return tookOver;
+    }
+
+    @Override
+    protected String getLockedBy() {
+        return supportsAdvisoryLock() ? LOCKED_BY_MARKER + super.getLockedBy() : super.getLockedBy();
+    }
+
+    @Override
+    public void releaseLock() throws LockException {
+        try {
+            super.releaseLock();
+        } finally {
+            if (hasAdvisoryLock) {
+                try {
+                    releaseAdvisoryLock();
+                } catch (DatabaseException e) {
+                    throw new LockException(e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws DatabaseException {
+        try {
+            super.destroy();
+        } finally {
+            if (hasAdvisoryLock) {
+                releaseAdvisoryLock();
+            }
+        }
+    }
+
+    private void releaseAdvisoryLockQuietly() {
+        if (!hasAdvisoryLock) {
+            return;
+        }
+        try {
+            releaseAdvisoryLock();
+        } catch (DatabaseException e) {
+            Scope.getCurrentScope().getLog(getClass()).warning("Failed to release advisory changelog lock", e);
+        }
+    }
+
+    /**
+     * Requests the advisory lock, waiting up to the given number of seconds.
+     *
+     * @return false if the lock is held by another session after waiting
+     */
+    protected boolean requestAdvisoryLock(long waitSeconds) throws DatabaseException, LockException {
+        try {
+            if (database instanceof PostgresDatabase) {
+                if (waitSeconds <= 0) {
+                    return ChangelogJdbcMdcListener.query(database, executor -> executor.queryForObject(
+                            new RawParameterizedSqlStatement("SELECT pg_try_advisory_lock(?)", getLockId()), Boolean.class));
+                }
+                //lock_timeout is only set for this transaction, the session-level advisory lock outlives it
+                ChangelogJdbcMdcListener.execute(database, executor -> executor.execute(new RawParameterizedSqlStatement(
+                        "SELECT pg_advisory_lock(?) FROM (SELECT set_config('lock_timeout', ?, true)) AS timeout",
+                        getLockId(), (waitSeconds * 1000) + "ms")));
+                database.commit();
+                return true;
+            } else if (database instanceof MySQLDatabase) {
+                Integer result = ChangelogJdbcMdcListener.query(database, executor -> executor.queryForObject(
+                        new RawParameterizedSqlStatement("SELECT GET_LOCK(?, ?)", getLockName(), waitSeconds), Integer.class));
+                if (result == null) {
+                    throw new LockException("GET_LOCK failed for " + getLockName());
+                }
+                return result == 1;
+            } else if (database instanceof MSSQLDatabase) {
+                int result = ChangelogJdbcMdcListener.query(database, executor -> executor.queryForInt(new RawParameterizedSqlStatement(
+                        "SET NOCOUNT ON; DECLARE @result INT; " +
+                                "EXEC @result = sp_getapplock @Resource = ?, @LockMode = 'Exclusive', @LockOwner = 'Session', @LockTimeout = ?; " +
+                                "SELECT @result", getLockName(), waitSeconds * 1000)));
+                if (result == -1) {
+                    return false;
+                }
+                if (result < 0) {
+                    throw new LockException("sp_getapplock failed for " + getLockName() + " with result " + result);
+                }
+                return true;
+            } else if (database instanceof OracleDatabase) {
+                //0 is granted and 4 is already held by this session
+                ChangelogJdbcMdcListener.execute(database, executor -> executor.execute(new RawParameterizedSqlStatement(
+                        "DECLARE result INTEGER; BEGIN " +
+                                "result := DBMS_LOCK.REQUEST(?, DBMS_LOCK.X_MODE, ?, FALSE); " +
+                                "IF result NOT IN (0, 4) THEN RAISE_APPLICATION_ERROR(-" + LOCK_NOT_GRANTED_ERROR + ", 'DBMS_LOCK.REQUEST returned ' || result); END IF; " +
+                                "END;", getLockId() % 1073741824L, Math.min(waitSeconds, ORACLE_MAX_WAIT_SECONDS))));
+                return true;
+            }
+        } catch (DatabaseException e) {
+            SQLException sqlException = findSqlException(e);
+            if (sqlException != null && (POSTGRES_LOCK_NOT_AVAILABLE.equals(sqlException.getSQLState())
+                    || (database instanceof OracleDatabase && sqlException.getErrorCode() == LOCK_NOT_GRANTED_ERROR))) {
+                database.rollback();
+                return false;
+            }
+            throw e;
+        }
+        throw new LockException("No advisory lock available for " + database.getShortName());
+    }
+
+    /**
+     * Releases the advisory lock held by this session.
+     */
+    protected void releaseAdvisoryLock() throws DatabaseException {
+        hasAdvisoryLock = false;
+        if (database instanceof PostgresDatabase) {
+            ChangelogJdbcMdcListener.execute(database, executor -> executor.execute(
+                    new RawParameterizedSqlStatement("SELECT pg_advisory_unlock(?)", getLockId())));
+        } else if (database instanceof MySQLDatabase) {
+            ChangelogJdbcMdcListener.execute(database, executor -> executor.execute(
+                    new RawParameterizedSqlStatement("SELECT RELEASE_LOCK(?)", getLockName())));
+        } else if (database instanceof MSSQLDatabase) {
+            ChangelogJdbcMdcListener.execute(database, executor -> executor.execute(
+                    new RawParameterizedSqlStatement("EXEC sp_releaseapplock @Resource = ?, @LockOwner = 'Session'", getLockName())));
+        } else if (database instanceof OracleDatabase) {
+            ChangelogJdbcMdcListener.execute(database, executor -> executor.execute(new RawParameterizedSqlStatement(
+                    "DECLARE result INTEGER; BEGIN result := DBMS_LOCK.RELEASE(?); END;", getLockId() % 1073741824L)));
+        }
+        database.commit();
+    }
+
+    /**
+     * Returns the name of the advisory lock, which is the same for all processes using the same changelog lock table.
+     */
+    protected String getLockName() {
+        return "liquibase_" + MD5Util.computeMD5(database.getLiquibaseCatalogName()
+                + "." + database.getLiquibaseSchemaName()
+                + "." + database.getDatabaseChangeLogLockTableName());
+    }
+
+    /**
+     * Returns the numeric id of the advisory lock, derived from {@link #getLockName()}.
+     */
+    protected long getLockId() {
+        return new BigInteger(getLockName().substring("liquibase_".length(), "liquibase_".length() + 15), 16).longValue();
+    }
+
+    private static SQLException findSqlException(Throwable e) {
+        while (e != null) {
+            if (e instanceof SQLException) {
+                return (SQLException) e;
+            }
+            e = e.getCause();
+        }
+        return null;
+    }
+}
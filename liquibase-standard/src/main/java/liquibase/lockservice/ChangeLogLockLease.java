@@ -0,0 +1,153 @@
+package liquibase.lockservice;
+
+import liquibase.Scope;
+import liquibase.database.Database;
+import liquibase.database.ObjectQuotingStrategy;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lease on the changelog lock row, used by {@link StandardLockService} when
+ * {@link liquibase.GlobalConfiguration#CHANGELOGLOCK_LEASE_TIME} is set.
+ * <p>
+ * The lease is renewed by setting LOCKGRANTED to the current database time from a background thread. That thread uses its own
+ * auto-committed connection, so renewals neither wait for nor commit the transactions of the connection running the changesets.
+ */
+class ChangeLogLockLease implements AutoCloseable {
+
+    private final JdbcConnection connection;
+    private final String owner;
+    private final long renewMillis;
+    private final long leaseNanos;
+    private final String renewSql;
+    private final String takeOverSql;
+
+    private ScheduledExecutorService renewer;
+    private volatile boolean lost;
+    private volatile long renewStarted;
+
+    ChangeLogLockLease(Database database, JdbcConnection connection, String owner, long renewMillis, long leaseMillis) throws DatabaseException {
+        this.connection = connection;
+        this.owner = owner;
+        this.renewMillis = renewMillis;
+        this.leaseNanos = TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+
+        // use LEGACY quoting since we're dealing with system objects, like the lock statement generators
+        ObjectQuotingStrategy currentStrategy = database.getObjectQuotingStrategy();
+        database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
+        try {
+            String catalog = database.getLiquibaseCatalogName();
+            String schema = database.getLiquibaseSchemaName();
+            String table = database.getDatabaseChangeLogLockTableName();
+            String lockTable = database.escapeTableName(catalog, schema, table);
+            String id = database.escapeColumnName(catalog, schema, table, "ID");
+            String lockGranted = database.escapeColumnName(catalog, schema, table, "LOCKGRANTED");
+            String lockedBy = database.escapeColumnName(catalog, schema, table, "LOCKEDBY");
+            String now = database.getCurrentDateTimeFunction();
+
+            this.renewSql = "UPDATE " + lockTable + " SET " + lockGranted + " = " + now
+                    + " WHERE " + id + " = 1 AND " + lockedBy + " = ?";
+            this.takeOverSql = "UPDATE " + lockTable + " SET " + lockedBy + " = ?, " + lockGranted + " = " + now
+                    + " WHERE " + id + " = 1 AND " + lockedBy + " = ? AND " + lockGranted + " = ?";
+        } finally {
+            database.setObjectQuotingStrategy(currentStrategy);
+        }
+        connection.setAutoCommit(true);
+    }
+
+    /**
+     * Returns the LOCKEDBY value of this lease.
+     */
+    String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Returns true once a renewal found the lock row no longer held by this lease, or once the lease was not renewed for the lease time,
+     * after which another process may take it over.
+     */
+    boolean isLost() {
+        return lost || ((renewer != null) && (System.nanoTime() - renewStarted > leaseNanos));
+    }
+
+    /**
+     * Takes the lock row over from the given expired lease, if it has not changed since it was read.
+     *
+     * @return false if the row no longer holds the given lease
+     */
+    boolean takeOver(String expiredOwner, Object expiredLockGranted) throws DatabaseException {
+        try (PreparedStatement statement = connection.prepareStatement(takeOverSql)) {
+            statement.setString(1, owner);
+            statement.setString(2, expiredOwner);
+            statement.setObject(3, expiredLockGranted);
+            return statement.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    /**
+     * Starts renewing the lease in the background.
+     */
+    synchronized void start() {
+        Scope scope = Scope.getCurrentScope();
+        renewStarted = System.nanoTime();
+        renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "liquibase-changelog-lock-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        renewer.scheduleWithFixedDelay(() -> {
+            try {
+                Scope.runInScope(scope, () -> {
+                    renew();
+                    return null;
+                });
+            } catch (Exception e) {
+                Scope.getCurrentScope().getLog(getClass()).warning("Failed to renew change log lock lease of " + owner + ": " + e.getMessage(), e);
+            }
+        }, renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void renew() throws DatabaseException, SQLException {
+        //other processes see the renewal after it started, so the lease is counted from before the update runs
+        long started = System.nanoTime();
+        try (PreparedStatement statement = connection.prepareStatement(renewSql)) {
+            statement.setString(1, owner);
+            if (statement.executeUpdate() == 0) {
+                lost = true;
+                Scope.getCurrentScope().getLog(getClass()).severe("Change log lock lease of " + owner + " was taken over by another process");
+                renewer.shutdown();
+            } else {
+                renewStarted = started;
+            }
+        }
+    }
+
+    /**
+     * Stops renewing the lease and closes its connection. The lock row is not changed.
+     */
+    @Override
+    public synchronized void close() {
+        if (renewer != null) {
+            renewer.shutdownNow();
+            try {
+                renewer.awaitTermination(renewMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            //not JdbcConnection.close(), which rolls back and fails on auto-committed connections with some drivers
+            connection.getWrappedConnection().close();
+        } catch (SQLException e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Failed to close change log lock lease connection", e);
+        }
+    }
+}
@@ -11,6 +11,7 @@ import liquibase.database.core.DB2Database;
 import liquibase.database.core.DerbyDatabase;
 import liquibase.database.core.MSSQLDatabase;
 import liquibase.database.core.MySQLDatabase;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.diff.output.DiffOutputControl;
 import liquibase.diff.output.changelog.ChangeGeneratorFactory;
 import liquibase.exception.DatabaseException;
@@ -28,6 +29,7 @@ import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotGeneratorFactory;
 import liquibase.sql.Sql;
 import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.sqlgenerator.core.LockDatabaseChangeLogGenerator;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.*;
 import liquibase.structure.DatabaseObject;
@@ -35,10 +37,12 @@ import liquibase.structure.core.Table;
 import liquibase.ui.ConsoleUIService;
 
 import java.security.SecureRandom;
+import java.sql.SQLException;
 import java.text.DateFormat;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import static java.util.ResourceBundle.getBundle;
@@ -55,6 +59,20 @@ public class StandardLockService implements LockService {
     protected boolean isDatabaseChangeLogLockTableInitialized;
     protected ObjectQuotingStrategy quotingStrategy;
     protected final SecureRandom random = new SecureRandom();
+    protected Long changeLogLockLeaseTime;
+
+    private static final String LEASE_MARKER = " lease:";
+    private static final int MAX_LOCKED_BY_LENGTH = 255;
+    private static final long MIN_LEASE_RENEW_MILLIS = 1000;
+    private static final long MIN_LEASE_RETRY_MILLIS = 50;
+
+    private ChangeLogLockLease lease;
+    private boolean warnedLeaseUnavailable;
+    private String observedLeaseOwner;
+    private Object observedLeaseGranted;
+    private long observedLeaseSince;
+    private long lockWaitTime;
+    private int lockTakeovers;
 
 
     public StandardLockService() {
@@ -100,6 +118,31 @@ public class StandardLockService implements LockService {
         this.changeLogLockRecheckTime = changeLogLockRecheckTime;
     }
 
+    protected Long getChangeLogLockLeaseTime() {
+        if (changeLogLockLeaseTime != null) {
+            return changeLogLockLeaseTime;
+        }
+        return GlobalConfiguration.CHANGELOGLOCK_LEASE_TIME.getCurrentValue();
+    }
+
+    public void setChangeLogLockLeaseTime(long changeLogLockLeaseTime) {
+        this.changeLogLockLeaseTime = changeLogLockLeaseTime;
+    }
+
+    /**
+     * Returns the total number of milliseconds {@link #waitForLock()} has spent waiting for the lock.
+     */
+    public long getLockWaitTime() {
+        return lockWaitTime;
+    }
+
+    /**
+     * Returns how many times {@link #waitForLock()} took over a lock whose lease had expired.
+     */
+    public int getLockTakeovers() {
+        return lockTakeovers;
+    }
+
     @Override
     public void init() throws DatabaseException {
         boolean createdTable = false;
@@ -230,7 +273,18 @@ public class StandardLockService implements LockService {
 
     @Override
     public boolean hasChangeLogLock() {
-        return hasChangeLogLock;
+        return hasChangeLogLock && ((lease == null) || !lease.isLost());
+    }
+
+    /**
+     * Throws a {@link LockException} if the lock is held as a lease that was taken over by another process or was not renewed for the
+     * lease time, since another process may be running changesets by now.
+     */
+    public void checkLease() throws LockException {
+        ChangeLogLockLease currentLease = lease;
+        if (hasChangeLogLock && (currentLease != null) && currentLease.isLost()) {
+            throw new LockException("Change log lock lease of " + currentLease.getOwner() + " was lost, so no more changesets are run");
+        }
     }
 
     /**
@@ -257,11 +311,14 @@ public class StandardLockService implements LockService {
     public void waitForLock() throws LockException {
 
         boolean locked = false;
+        long waitStarted = System.nanoTime();
         long timeToGiveUp = new Date().getTime() + (getChangeLogLockWaitTime() * 1000 * 60);
+        boolean leased = isLeaseEnabled();
+        int attempt = 0;
 
-        locked = acquireLock();
+        locked = acquireLock() || (leased && takeOverExpiredLease());
         do {
-            if (!locked) {
+            if (!locked && (!leased || attempt == 0)) {
                 try {
                     //
                     // Use the ConsoleUIService to prevent mirroring of this message to log
@@ -273,16 +330,26 @@ public class StandardLockService implements LockService {
                     // continue on
                 }
                 Scope.getCurrentScope().getLog(getClass()).info("Waiting for changelog lock....");
+            }
+            if (!locked) {
                 try {
-                    Thread.sleep(getChangeLogLockRecheckTime() * 1000);
+                    Thread.sleep(leased ? getLeaseRetryDelay(attempt) : getChangeLogLockRecheckTime() * 1000);
                 } catch (InterruptedException e) {
                     // Restore thread interrupt status
                     Thread.currentThread().interrupt();
                 }
+                attempt++;
             }
-            locked = acquireLock();
+            locked = acquireLock() || (leased && takeOverExpiredLease());
         } while (!locked && (new Date().getTime() < timeToGiveUp));
 
+        long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - waitStarted);
+        lockWaitTime += waited;
+        try (MdcObject waitTimeMdc = Scope.getCurrentScope().addMdcValue(MdcKey.CHANGELOG_LOCK_WAIT_TIME, String.valueOf(waited));
+             MdcObject takeoversMdc = Scope.getCurrentScope().addMdcValue(MdcKey.CHANGELOG_LOCK_TAKEOVERS, String.valueOf(lockTakeovers))) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Waited " + waited + " ms for change log lock, " + lockTakeovers + " expired leases taken over");
+        }
+
         if (!locked) {
             DatabaseChangeLogLock[] locks = listLocks();
             String lockedBy;
@@ -308,6 +375,7 @@ public class StandardLockService implements LockService {
 
         Executor executor = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
 
+        ChangeLogLockLease pendingLease = null;
         try {
             database.rollback();
             this.init();
@@ -317,9 +385,10 @@ public class StandardLockService implements LockService {
             if (locked) {
                 return false;
             } else {
+                pendingLease = isLeaseEnabled() ? openLease() : null;
 
                 executor.comment("Lock Database");
-                SqlStatement lockDatabaseStatement = new LockDatabaseChangeLogStatement();
+                SqlStatement lockDatabaseStatement = new LockDatabaseChangeLogStatement(pendingLease == null ? getLockedBy() : pendingLease.getOwner());
                 int rowsUpdated = ChangelogJdbcMdcListener.query(database, ex -> ex.update(lockDatabaseStatement));
                 if ((rowsUpdated == -1) && (database instanceof MSSQLDatabase)) {
                     Scope.getCurrentScope().getLog(getClass()).fine(
@@ -327,7 +396,7 @@ public class StandardLockService implements LockService {
                     );
                     database.rollback();
                     Sql[] sql = SqlGeneratorFactory.getInstance().generateSql(
-                            new LockDatabaseChangeLogStatement(), database
+                            lockDatabaseStatement, database
                     );
                     if (sql.length != 1) {
                         throw new UnexpectedLiquibaseException("Did not expect "+sql.length+" statements");
@@ -348,6 +417,11 @@ public class StandardLockService implements LockService {
                 Scope.getCurrentScope().getLog(getClass()).info(coreBundle.getString("successfully.acquired.change.log.lock"));
 
                 hasChangeLogLock = true;
+                if (pendingLease != null) {
+                    lease = pendingLease;
+                    pendingLease = null;
+                    lease.start();
+                }
 
                 Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).resetAll();
                 database.setCanCacheLiquibaseTableInfo(true);
@@ -356,6 +430,9 @@ public class StandardLockService implements LockService {
         } catch (Exception e) {
             throw new LockException(e);
         } finally {
+            if (pendingLease != null) {
+                pendingLease.close();
+            }
             try {
                 database.rollback();
             } catch (DatabaseException e) {
@@ -365,6 +442,127 @@ public class StandardLockService implements LockService {
 
     }
 
+    /**
+     * Returns true if the changelog lock is held as a lease that expires unless it is renewed.
+     */
+    protected boolean isLeaseEnabled() {
+        return getChangeLogLockLeaseTime() > 0
+                && database.getConnection() instanceof JdbcConnection
+                && !(Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database) instanceof LoggingExecutor);
+    }
+
+    /**
+     * Returns the LOCKEDBY value written when this service takes the lock. A lease appends its own marker to it.
+     */
+    protected String getLockedBy() {
+        return LockDatabaseChangeLogGenerator.getDefaultLockedBy();
+    }
+
+    /**
+     * Opens a lease with a new LOCKEDBY value that marks the lock as leased.
+     *
+     * @return null if no separate connection can be opened to renew the lease, in which case the lock is taken without a lease
+     */
+    private ChangeLogLockLease openLease() throws DatabaseException {
+        JdbcConnection leaseConnection = ((JdbcConnection) database.getConnection()).openNewConnection();
+        if (leaseConnection == null) {
+            if (!warnedLeaseUnavailable) {
+                Scope.getCurrentScope().getLog(getClass()).warning("The change log lock is taken without a lease because the database connection " +
+                        "has no connection factory, so no connection can be opened to renew the lease");
+                warnedLeaseUnavailable = true;
+            }
+            return null;
+        }
+
+        String suffix = LEASE_MARKER + Long.toHexString(random.nextLong());
+        String host = getLockedBy();
+        if (host.length() + suffix.length() > MAX_LOCKED_BY_LENGTH) {
+            host = host.substring(0, MAX_LOCKED_BY_LENGTH - suffix.length());
+        }
+        long renewMillis = Math.max(MIN_LEASE_RENEW_MILLIS, getChangeLogLockLeaseTime() * 1000 / 3);
+        try {
+            return new ChangeLogLockLease(database, leaseConnection, host + suffix, renewMillis, getChangeLogLockLeaseTime() * 1000);
+        } catch (DatabaseException e) {
+            try {
+                leaseConnection.getWrappedConnection().close();
+            } catch (SQLException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Takes over the lock if it is held as a lease that has not been renewed for the lease time.
+     * The lease time is measured from when this service first saw the current LOCKGRANTED value, so the clocks of the
+     * lock holder and the database do not matter.
+     */
+    boolean takeOverExpiredLease() throws LockException {
+        ChangeLogLockLease pendingLease = null;
+        try {
+            SqlStatement lockStatement = new SelectFromDatabaseChangeLogLockStatement("LOCKGRANTED", "LOCKEDBY");
+            List<Map<String, ?>> rows = ChangelogJdbcMdcListener.query(database, ex -> ex.queryForList(lockStatement));
+            database.rollback();
+            String lockedBy = rows.isEmpty() ? null : (String) rows.get(0).get("LOCKEDBY");
+            Object lockGranted = rows.isEmpty() ? null : rows.get(0).get("LOCKGRANTED");
+            if ((lockedBy == null) || !lockedBy.contains(LEASE_MARKER) || (lockGranted == null)) {
+                observedLeaseOwner = null;
+                return false;
+            }
+            if (!lockedBy.equals(observedLeaseOwner) || !lockGranted.equals(observedLeaseGranted)) {
+                observedLeaseOwner = lockedBy;
+                observedLeaseGranted = lockGranted;
+                observedLeaseSince = System.nanoTime();
+                return false;
+            }
+            if (System.nanoTime() - observedLeaseSince < TimeUnit.SECONDS.toNanos(getChangeLogLockLeaseTime())) {
+                return false;
+            }
+
+            pendingLease = openLease();
+            if ((pendingLease == null) || !pendingLease.takeOver(lockedBy, lockGranted)) {
+                return false;
+            }
+            Scope.getCurrentScope().getLog(getClass()).warning("Took over change log lock from " + lockedBy + ", whose lease was not renewed for "
+                    + getChangeLogLockLeaseTime() + " seconds");
+
+            quotingStrategy = database.getObjectQuotingStrategy();
+            hasChangeLogLock = true;
+            lockTakeovers++;
+            observedLeaseOwner = null;
+            lease = pendingLease;
+            pendingLease = null;
+            lease.start();
+
+            Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).resetAll();
+            database.setCanCacheLiquibaseTableInfo(true);
+            return true;
+        } catch (Exception e) {
+            throw new LockException(e);
+        } finally {
+            if (pendingLease != null) {
+                pendingLease.close();
+            }
+        }
+    }
+
+    /**
+     * Returns how long to wait before the given retry of a leased lock: exponential backoff from {@link #MIN_LEASE_RETRY_MILLIS}
+     * up to the changelog lock poll rate, with random jitter so waiting processes do not retry in step.
+     */
+    private long getLeaseRetryDelay(int attempt) {
+        long maxDelay = Math.max(MIN_LEASE_RETRY_MILLIS, getChangeLogLockRecheckTime() * 1000);
+        long delay = Math.min(maxDelay, MIN_LEASE_RETRY_MILLIS << Math.min(attempt, 20));
+        return (delay / 2) + (long) (random.nextDouble() * (delay / 2));
+    }
+
+    private void closeLease() {
+        if (lease != null) {
+            lease.close();
+            lease = null;
+        }
+    }
+
     @Override
     public void releaseLock() throws LockException {
 
@@ -376,12 +574,20 @@ public class StandardLockService implements LockService {
 
         boolean success = false;
         Executor executor = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
+        String leaseOwner = null;
+        if (lease != null) {
+            leaseOwner = lease.getOwner();
+            closeLease();
+        }
         try {
             if (this.isDatabaseChangeLogLockTableCreated()) {
                 executor.comment("Release Database Lock");
                 database.rollback();
-                SqlStatement unlockStatement = new UnlockDatabaseChangeLogStatement();
+                SqlStatement unlockStatement = new UnlockDatabaseChangeLogStatement(leaseOwner);
                 int updatedRows = ChangelogJdbcMdcListener.query(database, ex -> ex.update(unlockStatement));
+                if ((updatedRows == 0) && (leaseOwner != null)) {
+                    throw new LockException("Change log lock lease of " + leaseOwner + " was taken over by another process before it was released");
+                }
                 if ((updatedRows == 0) && (database instanceof MySQLDatabase)) {
                     Scope.getCurrentScope().getLog(getClass()).fine(
                             "Database did not return a proper row count (Might have useAffectedRows enabled.)"
@@ -398,7 +604,7 @@ public class StandardLockService implements LockService {
                     );
                     database.rollback();
                     Sql[] sql = SqlGeneratorFactory.getInstance().generateSql(
-                            new UnlockDatabaseChangeLogStatement(), database
+                            unlockStatement, database
                     );
                     if (sql.length != 1) {
                         throw new UnexpectedLiquibaseException("Did not expect "+sql.length+" statements");
@@ -498,6 +704,7 @@ public class StandardLockService implements LockService {
 
     @Override
     public void reset() {
+        closeLease();
         hasChangeLogLock = false;
         hasDatabaseChangeLogLockTable = null;
         isDatabaseChangeLogLockTableInitialized = false;
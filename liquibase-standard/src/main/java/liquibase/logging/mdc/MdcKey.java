@@ -110,6 +110,8 @@ public class MdcKey {
     public static final String FAIL_ON_ERROR = "failOnError";
     public static final String HISTORY = "history";
     public static final String RELEASE_LOCKS_OUTCOME = "releaseLocksOutcome";
+    public static final String CHANGELOG_LOCK_WAIT_TIME = "changelogLockWaitTime";
+    public static final String CHANGELOG_LOCK_TAKEOVERS = "changelogLockTakeovers";
     public static final String STATUS = "status";
     public static final String ROWS_AFFECTED = "rowsAffected";
     public static final String USER_METADATA = "userMetadata";
@@ -15,6 +15,9 @@ public class ChangeLogParserConfiguration implements AutoloadedConfigurations {
     public static final ConfigurationDefinition<MissingIncludeConfiguration> ON_MISSING_INCLUDE_CHANGELOG;
     public static final ConfigurationDefinition<Boolean> ERROR_ON_CIRCULAR_INCLUDE_ALL;
     public static final ConfigurationDefinition<MissingIncludeConfiguration> ON_MISSING_SQL_FILE;
+    public static final ConfigurationDefinition<String> PARSED_CHANGELOG_CACHE_DIRECTORY;
+    public static final ConfigurationDefinition<Integer> INCLUDE_ALL_PARSE_PARALLELISM;
+    public static final ConfigurationDefinition<Boolean> LAZY_CHANGE_LOADING;
 
     static {
         ConfigurationDefinition.Builder builder = new ConfigurationDefinition.Builder("liquibase");
@@ -56,6 +59,26 @@ public class ChangeLogParserConfiguration implements AutoloadedConfigurations {
                 .setDefaultValue(MissingIncludeConfiguration.FAIL)
                 .setHidden(true)
                 .build();
+
+        PARSED_CHANGELOG_CACHE_DIRECTORY = builder.define("parsedChangelogCacheDirectory", String.class)
+                .setDescription("Directory to keep parsed XML changelog files in, so unchanged files are not parsed and validated again on the next run. Disabled if not set.")
+                .setHidden(true)
+                .build();
+
+        INCLUDE_ALL_PARSE_PARALLELISM = builder.define("includeAllParseParallelism", Integer.class)
+                .setDescription("Number of threads used to read the files found by an includeAll before they are loaded in order. " +
+                        "With 1, each file is read when it is included.")
+                .setDefaultValue(1)
+                .setHidden(true)
+                .build();
+
+        LAZY_CHANGE_LOADING = builder.define("lazyChangeLoading", Boolean.class)
+                .setDescription("If true, the changes of a changeset are only created from the changelog file when they are first used. " +
+                        "Changesets that already ran are then validated without creating their changes when their checksum is found in the checksum cache, " +
+                        "so errors in those changes are only reported when the changes are first used, for example by a rollback.")
+                .setDefaultValue(false)
+                .setHidden(true)
+                .build();
     }
 
     public enum MissingPropertyMode {
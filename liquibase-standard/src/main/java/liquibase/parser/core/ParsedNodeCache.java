@@ -0,0 +1,141 @@
+package liquibase.parser.core;
+
+import liquibase.Scope;
+import liquibase.util.CacheFileUtil;
+import liquibase.util.MD5Util;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.List;
+
+import static liquibase.util.CacheFileUtil.readString;
+import static liquibase.util.CacheFileUtil.writeString;
+
+/**
+ * Local file copy of the {@link ParsedNode} tree a parser built from a changelog file, used when
+ * {@link liquibase.parser.ChangeLogParserConfiguration#PARSED_CHANGELOG_CACHE_DIRECTORY} is set.
+ * <p>
+ * The tree is stored before changelog parameters are expanded and includes are followed, so it only depends on the content of the
+ * changelog file and the parser settings. Callers pass both in as the cache key, and a cached tree is only returned for the same key.
+ * Only trees whose values are all strings can be cached.
+ */
+public class ParsedNodeCache {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_EXTENSION = ".lbnode";
+
+    private static final byte NULL_VALUE = 0;
+    private static final byte STRING_VALUE = 1;
+
+    private final File file;
+
+    public ParsedNodeCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the cache for the changelog at the given path, stored in the given directory.
+     */
+    public static ParsedNodeCache forChangeLog(String physicalChangeLogLocation, File directory) {
+        return new ParsedNodeCache(new File(directory, MD5Util.computeMD5(physicalChangeLogLocation) + FILE_EXTENSION));
+    }
+
+    /**
+     * Returns the cache key for the given changelog content and the settings the parser used for it.
+     */
+    public static String toKey(byte[] content, String... settings) {
+        StringBuilder key = new StringBuilder(MD5Util.computeMD5(new ByteArrayInputStream(content)));
+        for (String setting : settings) {
+            key.append("|").append(setting);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Reads the cached tree.
+     *
+     * @return the cached tree, or null if there is no usable cache file for the given key
+     */
+    public ParsedNode read(String key) {
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != FORMAT_VERSION || !in.readUTF().equals(key)) {
+                return null;
+            }
+            return readNode(in);
+        } catch (IOException | ParsedNodeException | RuntimeException e) {
+            Scope.getCurrentScope().getLog(getClass()).warning("Ignoring unreadable parsed changelog cache " + file.getAbsolutePath() + ": " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the cache contents with the given tree. Trees that cannot be cached and write failures are logged and otherwise ignored.
+     */
+    public void write(String key, ParsedNode node) {
+        try {
+            CacheFileUtil.writeAtomically(file, out -> {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(key);
+                writeNode(out, node);
+            });
+        } catch (IOException e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Not caching parsed changelog in " + file.getAbsolutePath() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void writeNode(DataOutputStream out, ParsedNode node) throws IOException {
+        writeString(out, node.getNamespace());
+        writeString(out, node.getName());
+        writeString(out, node.getParsedNamespace());
+        Object value = node.getValue();
+        if (value == null) {
+            out.writeByte(NULL_VALUE);
+        } else if (value instanceof String) {
+            out.writeByte(STRING_VALUE);
+            writeLongString(out, (String) value);
+        } else {
+            throw new IOException("Unsupported value type " + value.getClass().getName() + " in node " + node.getName());
+        }
+        List<ParsedNode> children = node.getChildren();
+        out.writeInt(children.size());
+        for (ParsedNode child : children) {
+            writeNode(out, child);
+        }
+    }
+
+    private static ParsedNode readNode(DataInputStream in) throws IOException, ParsedNodeException {
+        ParsedNode node = new ParsedNode(readString(in), readString(in));
+        node.setParsedNamespace(readString(in));
+        byte valueType = in.readByte();
+        if (valueType == STRING_VALUE) {
+            node.setValue(readLongString(in));
+        } else if (valueType != NULL_VALUE) {
+            throw new IOException("Unknown value type " + valueType);
+        }
+        int childCount = in.readInt();
+        for (int i = 0; i < childCount; i++) {
+            node.addChild(readNode(in));
+        }
+        return node;
+    }
+
+    /**
+     * Node values such as inline SQL can be longer than {@link DataOutputStream#writeUTF(String)} allows.
+     */
+    private static void writeLongString(DataOutputStream out, String value) throws IOException {
+        out.writeInt(value.length());
+        out.writeChars(value);
+    }
+
+    private static String readLongString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = in.readChar();
+        }
+        return new String(chars);
+    }
+}
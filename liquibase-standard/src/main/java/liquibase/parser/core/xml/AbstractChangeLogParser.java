@@ -1,5 +1,6 @@
 package liquibase.parser.core.xml;
 
+import liquibase.Scope;
 import liquibase.changelog.ChangeLogParameters;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.exception.ChangeLogParseException;
@@ -7,12 +8,27 @@ import liquibase.parser.ChangeLogParser;
 import liquibase.parser.core.ParsedNode;
 import liquibase.resource.ResourceAccessor;
 
+import java.util.Map;
+
 public abstract class AbstractChangeLogParser implements ChangeLogParser {
 
+    /**
+     * Scope key for a map of physical changelog paths to trees returned by {@link #readNode(String, ResourceAccessor)}.
+     * {@link #parse(String, ChangeLogParameters, ResourceAccessor)} takes the tree for its file out of the map instead of reading the file again.
+     */
+    public static final String PARSED_NODES_SCOPE_KEY = "liquibase.parser.parsedNodes";
+
     @Override
     public DatabaseChangeLog parse(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters,
                                    ResourceAccessor resourceAccessor) throws ChangeLogParseException {
-        ParsedNode parsedNode = parseToNode(physicalChangeLogLocation, changeLogParameters, resourceAccessor);
+        ParsedNode parsedNode = null;
+        Map<String, ParsedNode> parsedNodes = Scope.getCurrentScope().get(PARSED_NODES_SCOPE_KEY, Map.class);
+        if (parsedNodes != null) {
+            parsedNode = parsedNodes.remove(physicalChangeLogLocation);
+        }
+        if (parsedNode == null) {
+            parsedNode = parseToNode(physicalChangeLogLocation, changeLogParameters, resourceAccessor);
+        }
         if (parsedNode == null) {
             return null;
         }
@@ -28,6 +44,14 @@ public abstract class AbstractChangeLogParser implements ChangeLogParser {
         return changeLog;
     }
 
+    /**
+     * Reads the given file into its {@link ParsedNode} tree without loading it, so it can be done ahead of time and on other threads.
+     * The tree does not depend on any changelog parameters, those are only applied when the tree is loaded.
+     */
+    public ParsedNode readNode(String physicalChangeLogLocation, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
+        return parseToNode(physicalChangeLogLocation, null, resourceAccessor);
+    }
+
     protected abstract ParsedNode parseToNode(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters,
                                               ResourceAccessor resourceAccessor) throws ChangeLogParseException;
 }
@@ -4,7 +4,9 @@ import liquibase.GlobalConfiguration;
 import liquibase.Scope;
 import liquibase.changelog.ChangeLogParameters;
 import liquibase.exception.ChangeLogParseException;
+import liquibase.parser.ChangeLogParserConfiguration;
 import liquibase.parser.core.ParsedNode;
+import liquibase.parser.core.ParsedNodeCache;
 import liquibase.parser.core.ParserSupportedFileExtension;
 import liquibase.resource.Resource;
 import liquibase.resource.ResourceAccessor;
@@ -18,8 +20,11 @@ import javax.xml.XMLConstants;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.regex.Pattern;
 
 public class XMLChangeLogSAXParser extends AbstractChangeLogParser {
@@ -124,13 +129,36 @@ public class XMLChangeLogSAXParser extends AbstractChangeLogParser {
                 }
             }
 
+            ParsedNodeCache nodeCache = null;
+            String nodeCacheKey = null;
+            byte[] content = null;
+            String cacheDirectory = ChangeLogParserConfiguration.PARSED_CHANGELOG_CACHE_DIRECTORY.getCurrentValue();
+            if (cacheDirectory != null) {
+                try (InputStream stream = resource.openInputStream()) {
+                    content = StreamUtil.readStream(stream);
+                }
+                if (isCacheable(content)) {
+                    nodeCache = ParsedNodeCache.forChangeLog(physicalChangeLogLocation, new File(cacheDirectory));
+                    nodeCacheKey = ParsedNodeCache.toKey(content, getClass().getName(), LiquibaseUtil.getBuildVersion(),
+                            String.valueOf(saxParserFactory.isValidating()), String.valueOf(GlobalConfiguration.SECURE_PARSING.getCurrentValue()));
+                    ParsedNode cached = nodeCache.read(nodeCacheKey);
+                    if (cached != null) {
+                        return cached;
+                    }
+                }
+            }
+
             XMLChangeLogSAXHandler contentHandler = new XMLChangeLogSAXHandler(physicalChangeLogLocation, resourceAccessor, changeLogParameters);
             xmlReader.setContentHandler(contentHandler);
-            try (InputStream stream = resource.openInputStream()) {
+            try (InputStream stream = (content == null) ? resource.openInputStream() : new ByteArrayInputStream(content)) {
                 xmlReader.parse(new InputSource(new BomAwareInputStream(stream)));
             }
 
-            return contentHandler.getDatabaseChangeLogTree();
+            ParsedNode tree = contentHandler.getDatabaseChangeLogTree();
+            if (nodeCache != null && tree != null) {
+                nodeCache.write(nodeCacheKey, tree);
+            }
+            return tree;
         } catch (ChangeLogParseException e) {
             throw e;
         } catch (IOException e) {
@@ -252,4 +280,12 @@ public class XMLChangeLogSAXParser extends AbstractChangeLogParser {
     protected InputStream openChangeLogFile(String physicalChangeLogLocation, ResourceAccessor resourceAccessor) throws IOException {
         return resourceAccessor.getExisting(physicalChangeLogLocation).openInputStream();
     }
+
+    /**
+     * Documents declaring a DTD or entities can pull in other files while being parsed, so their parsed form cannot be cached by content alone.
+     */
+    private static boolean isCacheable(byte[] content) {
+        String text = new String(content, StandardCharsets.ISO_8859_1).replace("\0", "");
+        return !text.contains("<!DOCTYPE") && !text.contains("<!ENTITY");
+    }
 }
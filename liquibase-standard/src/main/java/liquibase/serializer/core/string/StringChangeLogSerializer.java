@@ -10,6 +10,7 @@ import liquibase.util.StringUtil;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.Writer;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -40,11 +41,43 @@ public class StringChangeLogSerializer implements ChangeLogSerializer {
         return object.getSerializedObjectName() + ":" + serializeObject(object, 1);
     }
 
+    /**
+     * Writes the same text as {@link #serialize(LiquibaseSerializable, boolean)} to the given writer without first building it as one String.
+     * Only the outer layer is streamed: the value of each top-level field is still built as a String, and all of them are held and
+     * sorted before the first one is written.
+     * Line endings within the top-level values are written as-is, so the output only matches for writers that standardize
+     * line endings themselves, such as {@link liquibase.change.CheckSumWriter}.
+     */
+    public void serialize(LiquibaseSerializable object, Writer out) throws IOException {
+        out.write(object.getSerializedObjectName());
+        out.write(":[");
+        SortedSet<String> values = serializeFields(object, 1);
+        if (!values.isEmpty()) {
+            for (String value : values) {
+                out.write("\n");
+                out.write(value);
+            }
+            out.write("\n");
+        }
+        out.write("]");
+    }
+
     private String serializeObject(LiquibaseSerializable objectToSerialize, int indent) {
-        try {
-            StringBuilder buffer = new StringBuilder();
-            buffer.append("[");
+        StringBuilder buffer = new StringBuilder();
+        buffer.append("[");
+
+        SortedSet<String> values = serializeFields(objectToSerialize, indent);
+        if (!values.isEmpty()) {
+            buffer.append("\n");
+            buffer.append(StringUtil.join(values, "\n"));
+            buffer.append("\n");
+        }
+        buffer.append(indent(indent - 1)).append("]");
+        return buffer.toString().replace("\r\n", "\n").replace("\r", "\n"); //standardize all newline chars
+    }
 
+    private SortedSet<String> serializeFields(LiquibaseSerializable objectToSerialize, int indent) {
+        try {
             SortedSet<String> values = new TreeSet<>();
             for (String field : objectToSerialize.getSerializableFields()) {
                 Object value = objectToSerialize.getSerializableFieldValue(field);
@@ -75,19 +108,10 @@ public class StringChangeLogSerializer implements ChangeLogSerializer {
                         }
                 }
             }
-
-            if (!values.isEmpty()) {
-                buffer.append("\n");
-                buffer.append(StringUtil.join(values, "\n"));
-                buffer.append("\n");
-            }
-            buffer.append(indent(indent - 1)).append("]");
-            return buffer.toString().replace("\r\n", "\n").replace("\r", "\n"); //standardize all newline chars
-
+            return values;
         } catch (Exception e) {
             throw new UnexpectedLiquibaseException(e);
         }
-
     }
 
     private String indent(int indent) {
@@ -90,7 +90,7 @@ public abstract class AbstractSqlVisitor implements SqlVisitor {
                 }
                 return super.include(obj, field, value);
             }
-        }).serialize(this, false));
+        }), this);
     }
 
     public String[] getExcludedFieldFilters(ChecksumVersion version) {
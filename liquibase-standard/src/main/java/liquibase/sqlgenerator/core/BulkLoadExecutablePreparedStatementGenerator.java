@@ -0,0 +1,22 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.BulkLoadExecutablePreparedStatement;
+
+/**
+ * Dummy SQL generator for ${@link liquibase.statement.BulkLoadExecutablePreparedStatement}
+ */
+public class BulkLoadExecutablePreparedStatementGenerator extends AbstractSqlGenerator<BulkLoadExecutablePreparedStatement>  {
+    @Override
+    public ValidationErrors validate(BulkLoadExecutablePreparedStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new ValidationErrors();
+    }
+
+    @Override
+    public Sql[] generateSql(BulkLoadExecutablePreparedStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return EMPTY_SQL;
+    }
+}
@@ -0,0 +1,62 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.CreateStagingTableStatement;
+import liquibase.structure.core.Relation;
+import liquibase.structure.core.Table;
+
+/**
+ * Creates the staging table with CREATE TABLE ... AS SELECT, selecting no rows from the source table.
+ */
+public class CreateStagingTableGenerator extends AbstractSqlGenerator<CreateStagingTableStatement> {
+
+    @Override
+    public ValidationErrors validate(CreateStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("tableName", statement.getTableName());
+        validationErrors.checkRequiredField("sourceTableName", statement.getSourceTableName());
+        validationErrors.checkRequiredField("columnNames", statement.getColumnNames());
+        return validationErrors;
+    }
+
+    @Override
+    public Sql[] generateSql(CreateStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new Sql[]{
+                new UnparsedSql("CREATE TABLE " + escapeTableName(statement, database) + " AS " + getSelect(statement, database),
+                        getAffectedTable(statement))
+        };
+    }
+
+    protected String escapeTableName(CreateStagingTableStatement statement, Database database) {
+        return database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName());
+    }
+
+    /**
+     * Returns the query for the columns of the source table, without rows.
+     */
+    protected String getSelect(CreateStagingTableStatement statement, Database database) {
+        return "SELECT " + getColumns(statement, database) + " FROM "
+                + database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getSourceTableName())
+                + " WHERE 1 = 0";
+    }
+
+    protected String getColumns(CreateStagingTableStatement statement, Database database) {
+        StringBuilder columns = new StringBuilder();
+        for (String columnName : statement.getColumnNames()) {
+            if (columns.length() > 0) {
+                columns.append(", ");
+            }
+            columns.append(database.escapeColumnName(statement.getCatalogName(), statement.getSchemaName(),
+                    statement.getSourceTableName(), columnName));
+        }
+        return columns.toString();
+    }
+
+    protected Relation getAffectedTable(CreateStagingTableStatement statement) {
+        return new Table().setName(statement.getTableName()).setSchema(statement.getCatalogName(), statement.getSchemaName());
+    }
+}
@@ -0,0 +1,33 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.AbstractDb2Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.CreateStagingTableStatement;
+
+/**
+ * DB2 and HSQLDB require the query of CREATE TABLE ... AS in parentheses, followed by WITH NO DATA.
+ */
+public class CreateStagingTableGeneratorDB2 extends CreateStagingTableGenerator {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(CreateStagingTableStatement statement, Database database) {
+        return (database instanceof AbstractDb2Database) || (database instanceof HsqlDatabase);
+    }
+
+    @Override
+    public Sql[] generateSql(CreateStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new Sql[]{
+                new UnparsedSql("CREATE TABLE " + escapeTableName(statement, database) + " AS (" + getSelect(statement, database)
+                        + ") WITH NO DATA", getAffectedTable(statement))
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.CreateStagingTableStatement;
+
+/**
+ * SQL Server has no CREATE TABLE ... AS SELECT, the staging table is created with SELECT ... INTO instead.
+ * SELECT ... INTO copies the IDENTITY property of a column, unless the query is a UNION. The empty UNION ALL drops it,
+ * so the staging table accepts the values of the file for identity columns.
+ */
+public class CreateStagingTableGeneratorMSSQL extends CreateStagingTableGenerator {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(CreateStagingTableStatement statement, Database database) {
+        return database instanceof MSSQLDatabase;
+    }
+
+    @Override
+    public Sql[] generateSql(CreateStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        String sourceTable = database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getSourceTableName());
+        return new Sql[]{
+                new UnparsedSql("SELECT " + getColumns(statement, database) + " INTO " + escapeTableName(statement, database)
+                        + " FROM " + sourceTable + " WHERE 1 = 0"
+                        + " UNION ALL SELECT " + getColumns(statement, database) + " FROM " + sourceTable + " WHERE 1 = 0",
+                        getAffectedTable(statement))
+        };
+    }
+}
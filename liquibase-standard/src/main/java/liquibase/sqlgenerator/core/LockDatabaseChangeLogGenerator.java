@@ -34,6 +34,13 @@ public class LockDatabaseChangeLogGenerator extends AbstractSqlGenerator<LockDat
         }
     }
 
+    /**
+     * Returns the LOCKEDBY value describing this host.
+     */
+    public static String getDefaultLockedBy() {
+        return hostname + hostDescription + " (" + hostaddress + ")";
+    }
+
     @Override
     public Sql[] generateSql(LockDatabaseChangeLogStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
     	String liquibaseSchema = database.getLiquibaseSchemaName();
@@ -47,7 +54,7 @@ public class LockDatabaseChangeLogGenerator extends AbstractSqlGenerator<LockDat
             UpdateStatement updateStatement = new UpdateStatement(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogLockTableName());
             updateStatement.addNewColumnValue("LOCKED", true);
             updateStatement.addNewColumnValue("LOCKGRANTED", new DatabaseFunction(dateValue));
-            updateStatement.addNewColumnValue("LOCKEDBY", hostname + hostDescription + " (" + hostaddress + ")");
+            updateStatement.addNewColumnValue("LOCKEDBY", statement.getLockedBy() == null ? getDefaultLockedBy() : statement.getLockedBy());
             updateStatement.setWhereClause(database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogTableName(), "ID") + " = 1 AND " + database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogTableName(), "LOCKED") + " = "+ DataTypeFactory.getInstance().fromDescription("boolean", database).objectToSql(false, database));
 
             return SqlGeneratorFactory.getInstance().generateSql(updateStatement, database);
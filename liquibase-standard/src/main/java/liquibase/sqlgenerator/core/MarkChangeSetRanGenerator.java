@@ -19,10 +19,16 @@ import liquibase.statement.DatabaseFunction;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.InsertStatement;
 import liquibase.statement.core.MarkChangeSetRanStatement;
+import liquibase.statement.core.RawParameterizedSqlStatement;
 import liquibase.statement.core.UpdateStatement;
 import liquibase.util.LiquibaseUtil;
 import liquibase.util.StringUtil;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
 public class MarkChangeSetRanGenerator extends AbstractSqlGenerator<MarkChangeSetRanStatement> {
 
     private static final String COMMENTS = "COMMENTS";
@@ -39,79 +45,149 @@ public class MarkChangeSetRanGenerator extends AbstractSqlGenerator<MarkChangeSe
 
     @Override
     public Sql[] generateSql(MarkChangeSetRanStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
-        String dateValue = database.getCurrentDateTimeFunction();
-
-        ChangeSet changeSet = statement.getChangeSet();
-
-        SqlStatement runStatement;
         // use LEGACY quoting since we're dealing with system objects
         ObjectQuotingStrategy currentStrategy = database.getObjectQuotingStrategy();
         database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
         try {
-            try {
-                if (statement.getExecType().equals(ChangeSet.ExecType.FAILED) || statement.getExecType().equals(ChangeSet.ExecType.SKIPPED)) {
-                    return EMPTY_SQL; //don't mark
-                }
+            SqlStatement runStatement = createRunStatement(statement, database);
+            if (runStatement == null) {
+                return EMPTY_SQL; //don't mark
+            }
+            return SqlGeneratorFactory.getInstance().generateSql(runStatement, database);
+        } finally {
+            database.setObjectQuotingStrategy(currentStrategy);
+        }
+    }
 
-                final String tag = getTagFromChangeset(changeSet);
-                final int orderExecuted = Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(database).getNextSequenceValue();
-	            final DatabaseFunction dateExecuted = new DatabaseFunction(dateValue);
-                final String liquibaseVersion = getLiquibaseBuildVersion();
-                final String description = StringUtil.limitSize(changeSet.getDescription(), 250);
-                final String md5Sum = changeSet.generateCheckSum(ChecksumVersion.latest()).toString();
-				final String execType = statement.getExecType().value;
-				final String deploymentId = Scope.getCurrentScope().getDeploymentId();
-
-				if (statement.getExecType().ranBefore) {
-	                runStatement = new UpdateStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName())
-	                        .addNewColumnValue("DATEEXECUTED", dateExecuted)
-	                        .addNewColumnValue("ORDEREXECUTED", orderExecuted)
-	                        .addNewColumnValue("MD5SUM", md5Sum)
-	                        .addNewColumnValue("EXECTYPE", execType)
-	                        .addNewColumnValue("DEPLOYMENT_ID", deploymentId)
-	                        .addNewColumnValue(COMMENTS, getCommentsColumn(changeSet))
-	                        .addNewColumnValue(CONTEXTS, getContextsColumn(changeSet))
-	                        .addNewColumnValue(LABELS, getLabelsColumn(changeSet))
-                            .addNewColumnValue("LIQUIBASE", liquibaseVersion)
-                            .addNewColumnValue("DESCRIPTION", description)
-	                        .setWhereClause(database.escapeObjectName("ID", LiquibaseColumn.class) + " = ? " +
-	                                "AND " + database.escapeObjectName("AUTHOR", LiquibaseColumn.class) + " = ? " +
-	                                "AND " + database.escapeObjectName("FILENAME", LiquibaseColumn.class) + " = ?")
-	                        .addWhereParameters(changeSet.getId(), changeSet.getAuthor(), changeSet.getFilePath());
-
-                    if (tag != null) {
-                        ((UpdateStatement) runStatement).addNewColumnValue("TAG", tag);
-                    }
-                } else {
-					runStatement = new InsertStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName())
-                            .addColumnValue("ID", changeSet.getId())
-                            .addColumnValue("AUTHOR", changeSet.getAuthor())
-                            .addColumnValue("FILENAME", changeSet.getFilePath())
-                            .addColumnValue("DATEEXECUTED", dateExecuted)
-                            .addColumnValue("ORDEREXECUTED", orderExecuted)
-                            .addColumnValue("MD5SUM", md5Sum)
-                            .addColumnValue("DESCRIPTION", description)
-                            .addColumnValue(COMMENTS, getCommentsColumn(changeSet))
-                            .addColumnValue("EXECTYPE", execType)
-                            .addColumnValue(CONTEXTS, getContextsColumn(changeSet))
-                            .addColumnValue(LABELS, getLabelsColumn(changeSet))
-                            .addColumnValue("LIQUIBASE", liquibaseVersion)
-                            .addColumnValue("DEPLOYMENT_ID", deploymentId);
-
-                    if (tag != null) {
-                        ((InsertStatement) runStatement).addColumnValue("TAG", tag);
-                    }
+    /**
+     * Returns the statement {@link #generateSql(MarkChangeSetRanStatement, Database, SqlGeneratorChain)} runs, with the values
+     * as parameters instead of literals. The SQL is then the same for every changeset, so its prepared statement can be cached.
+     *
+     * @return null if the changeset is not marked
+     */
+    public RawParameterizedSqlStatement generateParameterizedStatement(MarkChangeSetRanStatement statement, Database database) {
+        ObjectQuotingStrategy currentStrategy = database.getObjectQuotingStrategy();
+        database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
+        try {
+            SqlStatement runStatement = createRunStatement(statement, database);
+            if (runStatement == null) {
+                return null;
+            }
+            String tableName = database.escapeTableName(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(),
+                    database.getDatabaseChangeLogTableName());
+            List<Object> parameters = new ArrayList<>();
+            StringBuilder sql = new StringBuilder();
+            if (runStatement instanceof InsertStatement) {
+                StringJoiner columns = new StringJoiner(", ");
+                StringJoiner values = new StringJoiner(", ");
+                for (Map.Entry<String, Object> column : ((InsertStatement) runStatement).getColumnValues().entrySet()) {
+                    columns.add(escapeColumnName(database, column.getKey()));
+                    values.add(toParameter(database, column.getValue(), parameters));
                 }
-            } catch (LiquibaseException e) {
-                throw new UnexpectedLiquibaseException(e);
+                sql.append("INSERT INTO ").append(tableName).append(" (").append(columns).append(") VALUES (").append(values).append(")");
+            } else {
+                UpdateStatement update = (UpdateStatement) runStatement;
+                StringJoiner columns = new StringJoiner(", ");
+                for (Map.Entry<String, Object> column : update.getNewColumnValues().entrySet()) {
+                    columns.add(escapeColumnName(database, column.getKey()) + " = " + toParameter(database, column.getValue(), parameters));
+                }
+                sql.append("UPDATE ").append(tableName).append(" SET ").append(columns).append(" WHERE ").append(update.getWhereClause());
+                parameters.addAll(update.getWhereParameters());
             }
-
-            return SqlGeneratorFactory.getInstance().generateSql(runStatement, database);
+            return new RawParameterizedSqlStatement(sql.toString(), parameters.toArray());
         } finally {
             database.setObjectQuotingStrategy(currentStrategy);
         }
     }
 
+    private String escapeColumnName(Database database, String columnName) {
+        return database.escapeColumnName(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(),
+                database.getDatabaseChangeLogTableName(), columnName);
+    }
+
+    /**
+     * Returns the placeholder for the value and adds it to the parameters. NULL and database functions are written into the SQL,
+     * since they cannot be bound.
+     */
+    private String toParameter(Database database, Object value, List<Object> parameters) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof DatabaseFunction) {
+            return database.generateDatabaseFunctionValue((DatabaseFunction) value);
+        }
+        parameters.add(value);
+        return "?";
+    }
+
+    /**
+     * Creates the insert or update that marks the changeset, or returns null if the changeset is not marked.
+     */
+    private SqlStatement createRunStatement(MarkChangeSetRanStatement statement, Database database) {
+        if (statement.getExecType().equals(ChangeSet.ExecType.FAILED) || statement.getExecType().equals(ChangeSet.ExecType.SKIPPED)) {
+            return null;
+        }
+        String dateValue = database.getCurrentDateTimeFunction();
+        ChangeSet changeSet = statement.getChangeSet();
+
+        SqlStatement runStatement;
+        try {
+            final String tag = getTagFromChangeset(changeSet);
+            final int orderExecuted = (statement.getOrderExecuted() != null) ? statement.getOrderExecuted() :
+                    Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(database).getNextSequenceValue();
+            final DatabaseFunction dateExecuted = new DatabaseFunction(dateValue);
+            final String liquibaseVersion = getLiquibaseBuildVersion();
+            final String description = StringUtil.limitSize(changeSet.getDescription(), 250);
+            final String md5Sum = changeSet.generateCheckSum(ChecksumVersion.latest()).toString();
+            final String execType = statement.getExecType().value;
+            final String deploymentId = Scope.getCurrentScope().getDeploymentId();
+
+            if (statement.getExecType().ranBefore) {
+                runStatement = new UpdateStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName())
+                        .addNewColumnValue("DATEEXECUTED", dateExecuted)
+                        .addNewColumnValue("ORDEREXECUTED", orderExecuted)
+                        .addNewColumnValue("MD5SUM", md5Sum)
+                        .addNewColumnValue("EXECTYPE", execType)
+                        .addNewColumnValue("DEPLOYMENT_ID", deploymentId)
+                        .addNewColumnValue(COMMENTS, getCommentsColumn(changeSet))
+                        .addNewColumnValue(CONTEXTS, getContextsColumn(changeSet))
+                        .addNewColumnValue(LABELS, getLabelsColumn(changeSet))
+                        .addNewColumnValue("LIQUIBASE", liquibaseVersion)
+                        .addNewColumnValue("DESCRIPTION", description)
+                        .setWhereClause(database.escapeObjectName("ID", LiquibaseColumn.class) + " = ? " +
+                                "AND " + database.escapeObjectName("AUTHOR", LiquibaseColumn.class) + " = ? " +
+                                "AND " + database.escapeObjectName("FILENAME", LiquibaseColumn.class) + " = ?")
+                        .addWhereParameters(changeSet.getId(), changeSet.getAuthor(), changeSet.getFilePath());
+
+                if (tag != null) {
+                    ((UpdateStatement) runStatement).addNewColumnValue("TAG", tag);
+                }
+            } else {
+                runStatement = new InsertStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName())
+                        .addColumnValue("ID", changeSet.getId())
+                        .addColumnValue("AUTHOR", changeSet.getAuthor())
+                        .addColumnValue("FILENAME", changeSet.getFilePath())
+                        .addColumnValue("DATEEXECUTED", dateExecuted)
+                        .addColumnValue("ORDEREXECUTED", orderExecuted)
+                        .addColumnValue("MD5SUM", md5Sum)
+                        .addColumnValue("DESCRIPTION", description)
+                        .addColumnValue(COMMENTS, getCommentsColumn(changeSet))
+                        .addColumnValue("EXECTYPE", execType)
+                        .addColumnValue(CONTEXTS, getContextsColumn(changeSet))
+                        .addColumnValue(LABELS, getLabelsColumn(changeSet))
+                        .addColumnValue("LIQUIBASE", liquibaseVersion)
+                        .addColumnValue("DEPLOYMENT_ID", deploymentId);
+
+                if (tag != null) {
+                    ((InsertStatement) runStatement).addColumnValue("TAG", tag);
+                }
+            }
+        } catch (LiquibaseException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+        return runStatement;
+    }
+
     public static String getTagFromChangeset(ChangeSet changeSet) {
         if (changeSet != null) {
             for (Change change : changeSet.getChanges()) {
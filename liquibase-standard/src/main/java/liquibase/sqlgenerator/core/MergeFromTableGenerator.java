@@ -0,0 +1,156 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.AbstractDb2Database;
+import liquibase.database.core.H2Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.OracleDatabase;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.MergeFromTableStatement;
+import liquibase.structure.core.Relation;
+import liquibase.structure.core.Table;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Merges the rows of the source table with a single MERGE statement on databases that support MERGE ... USING.
+ */
+public class MergeFromTableGenerator extends AbstractSqlGenerator<MergeFromTableStatement> {
+
+    protected static final String TARGET_ALIAS = "a";
+    protected static final String SOURCE_ALIAS = "b";
+
+    @Override
+    public boolean supports(MergeFromTableStatement statement, Database database) {
+        return (database instanceof H2Database)
+                || (database instanceof HsqlDatabase)
+                || (database instanceof OracleDatabase)
+                || (database instanceof MSSQLDatabase)
+                || (database instanceof AbstractDb2Database);
+    }
+
+    @Override
+    public ValidationErrors validate(MergeFromTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("tableName", statement.getTableName());
+        validationErrors.checkRequiredField("sourceTableName", statement.getSourceTableName());
+        validationErrors.checkRequiredField("columnNames", statement.getColumnNames());
+        validationErrors.checkRequiredField("primaryKey", statement.getPrimaryKey());
+        return validationErrors;
+    }
+
+    @Override
+    public Sql[] generateSql(MergeFromTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        List<String> updateColumns = getUpdateColumns(statement);
+        if (statement.getOnlyUpdate() && updateColumns.isEmpty()) {
+            return EMPTY_SQL;
+        }
+
+        StringBuilder sql = new StringBuilder();
+        sql.append("MERGE INTO ").append(escapeTableName(statement, database, statement.getTableName())).append(" ").append(TARGET_ALIAS)
+                .append(" USING ").append(escapeTableName(statement, database, statement.getSourceTableName())).append(" ").append(SOURCE_ALIAS)
+                .append(" ON (").append(getJoinCondition(statement, database)).append(")");
+
+        if (!updateColumns.isEmpty()) {
+            sql.append(" WHEN MATCHED THEN UPDATE SET ");
+            for (int i = 0; i < updateColumns.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                String column = escapeColumnName(statement, database, updateColumns.get(i));
+                sql.append(column).append(" = ").append(SOURCE_ALIAS).append(".").append(column);
+            }
+        }
+
+        if (!statement.getOnlyUpdate()) {
+            sql.append(" WHEN NOT MATCHED THEN INSERT (").append(getColumns(statement, database, null))
+                    .append(") VALUES (").append(getColumns(statement, database, SOURCE_ALIAS)).append(")");
+        }
+
+        if (database instanceof MSSQLDatabase) {
+            // SQL Server requires MERGE to be terminated by a semicolon
+            sql.append(";");
+        }
+
+        return new Sql[]{
+                new UnparsedSql(sql.toString(), getAffectedTable(statement))
+        };
+    }
+
+    protected String escapeTableName(MergeFromTableStatement statement, Database database, String tableName) {
+        return database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), tableName);
+    }
+
+    protected String escapeColumnName(MergeFromTableStatement statement, Database database, String columnName) {
+        return database.escapeColumnName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName(), columnName);
+    }
+
+    /**
+     * Returns the columns of the primary key.
+     */
+    protected List<String> getPrimaryKeyColumns(MergeFromTableStatement statement) {
+        List<String> primaryKeyColumns = new ArrayList<>();
+        for (String column : statement.getPrimaryKey().split(",")) {
+            primaryKeyColumns.add(column.trim());
+        }
+        return primaryKeyColumns;
+    }
+
+    /**
+     * Returns the columns that are set when a row is updated: all columns except the primary key and the columns that must not be updated.
+     */
+    protected List<String> getUpdateColumns(MergeFromTableStatement statement) {
+        List<String> primaryKeyColumns = getPrimaryKeyColumns(statement);
+        List<String> updateColumns = new ArrayList<>();
+        for (String column : statement.getColumnNames()) {
+            if (!primaryKeyColumns.contains(column) && statement.getAllowColumnUpdate(column)) {
+                updateColumns.add(column);
+            }
+        }
+        return updateColumns;
+    }
+
+    /**
+     * Returns the condition that matches the rows of the table and the source table with the same primary key.
+     * NULL key values match each other, like the IS NULL condition of the row by row update.
+     */
+    protected String getJoinCondition(MergeFromTableStatement statement, Database database) {
+        StringBuilder condition = new StringBuilder();
+        for (String column : getPrimaryKeyColumns(statement)) {
+            if (condition.length() > 0) {
+                condition.append(" AND ");
+            }
+            String target = TARGET_ALIAS + "." + escapeColumnName(statement, database, column);
+            String source = SOURCE_ALIAS + "." + escapeColumnName(statement, database, column);
+            condition.append("(").append(target).append(" = ").append(source)
+                    .append(" OR (").append(target).append(" IS NULL AND ").append(source).append(" IS NULL))");
+        }
+        return condition.toString();
+    }
+
+    /**
+     * Returns the comma-separated columns, each prefixed with the given alias unless it is null.
+     */
+    protected String getColumns(MergeFromTableStatement statement, Database database, String alias) {
+        StringBuilder columns = new StringBuilder();
+        for (String column : statement.getColumnNames()) {
+            if (columns.length() > 0) {
+                columns.append(", ");
+            }
+            if (alias != null) {
+                columns.append(alias).append(".");
+            }
+            columns.append(escapeColumnName(statement, database, column));
+        }
+        return columns.toString();
+    }
+
+    protected Relation getAffectedTable(MergeFromTableStatement statement) {
+        return new Table().setName(statement.getTableName()).setSchema(statement.getCatalogName(), statement.getSchemaName());
+    }
+}
@@ -0,0 +1,61 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.CockroachDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.MergeFromTableStatement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Merges the rows of the source table with UPDATE ... FROM followed by INSERT ... SELECT of the rows that have no match.
+ * Unlike INSERT ... ON CONFLICT, this does not need a unique constraint on the primary key columns.
+ */
+public class MergeFromTableGeneratorPostgres extends MergeFromTableGenerator {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(MergeFromTableStatement statement, Database database) {
+        return (database instanceof PostgresDatabase) && !(database instanceof CockroachDatabase);
+    }
+
+    @Override
+    public Sql[] generateSql(MergeFromTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        String table = escapeTableName(statement, database, statement.getTableName());
+        String sourceTable = escapeTableName(statement, database, statement.getSourceTableName());
+        List<Sql> sql = new ArrayList<>();
+
+        List<String> updateColumns = getUpdateColumns(statement);
+        if (!updateColumns.isEmpty()) {
+            StringBuilder update = new StringBuilder();
+            update.append("UPDATE ").append(table).append(" ").append(TARGET_ALIAS).append(" SET ");
+            for (int i = 0; i < updateColumns.size(); i++) {
+                if (i > 0) {
+                    update.append(", ");
+                }
+                String column = escapeColumnName(statement, database, updateColumns.get(i));
+                update.append(column).append(" = ").append(SOURCE_ALIAS).append(".").append(column);
+            }
+            update.append(" FROM ").append(sourceTable).append(" ").append(SOURCE_ALIAS)
+                    .append(" WHERE ").append(getJoinCondition(statement, database));
+            sql.add(new UnparsedSql(update.toString(), getAffectedTable(statement)));
+        }
+
+        if (!statement.getOnlyUpdate()) {
+            sql.add(new UnparsedSql("INSERT INTO " + table + " (" + getColumns(statement, database, null) + ")"
+                    + " SELECT " + getColumns(statement, database, SOURCE_ALIAS) + " FROM " + sourceTable + " " + SOURCE_ALIAS
+                    + " WHERE NOT EXISTS (SELECT 1 FROM " + table + " " + TARGET_ALIAS
+                    + " WHERE " + getJoinCondition(statement, database) + ")", getAffectedTable(statement)));
+        }
+
+        return sql.toArray(EMPTY_SQL);
+    }
+}
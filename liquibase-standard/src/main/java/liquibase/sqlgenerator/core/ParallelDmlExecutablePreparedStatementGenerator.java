@@ -0,0 +1,22 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.ParallelDmlExecutablePreparedStatement;
+
+/**
+ * Dummy SQL generator for ${@link liquibase.statement.ParallelDmlExecutablePreparedStatement}
+ */
+public class ParallelDmlExecutablePreparedStatementGenerator extends AbstractSqlGenerator<ParallelDmlExecutablePreparedStatement>  {
+    @Override
+    public ValidationErrors validate(ParallelDmlExecutablePreparedStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new ValidationErrors();
+    }
+
+    @Override
+    public Sql[] generateSql(ParallelDmlExecutablePreparedStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return EMPTY_SQL;
+    }
+}
@@ -0,0 +1,63 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.ObjectQuotingStrategy;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.SelectDatabaseChangeLogFingerprintStatement;
+
+public class SelectDatabaseChangeLogFingerprintGenerator extends AbstractSqlGenerator<SelectDatabaseChangeLogFingerprintStatement> {
+
+    @Override
+    public ValidationErrors validate(SelectDatabaseChangeLogFingerprintStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new ValidationErrors();
+    }
+
+    @Override
+    public Sql[] generateSql(SelectDatabaseChangeLogFingerprintStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        // use LEGACY quoting since we're dealing with system objects
+        ObjectQuotingStrategy currentStrategy = database.getObjectQuotingStrategy();
+        database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
+        try {
+            String sql = "SELECT COUNT(*) AS " + SelectDatabaseChangeLogFingerprintStatement.ROW_COUNT
+                    + ", MAX(" + escape(database, "ORDEREXECUTED") + ") AS " + SelectDatabaseChangeLogFingerprintStatement.MAX_ORDER_EXECUTED
+                    + ", MAX(" + escape(database, "DEPLOYMENT_ID") + ") AS " + SelectDatabaseChangeLogFingerprintStatement.MAX_DEPLOYMENT_ID
+                    + ", COUNT(" + escape(database, "MD5SUM") + ") AS " + SelectDatabaseChangeLogFingerprintStatement.CHECKSUM_COUNT
+                    + ", COUNT(" + escape(database, "TAG") + ") AS " + SelectDatabaseChangeLogFingerprintStatement.TAG_COUNT;
+            String rowHash = getRowHashExpression(database);
+            String rowStateHash = getRowStateHashExpression(database);
+            if (rowHash != null && rowStateHash != null) {
+                sql += ", SUM(" + rowHash + ") AS " + SelectDatabaseChangeLogFingerprintStatement.ROW_HASH
+                        + ", SUM(" + rowStateHash + ") AS " + SelectDatabaseChangeLogFingerprintStatement.ROW_STATE_HASH;
+            }
+            sql += " FROM " + database.escapeTableName(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName());
+            return new Sql[]{
+                    new UnparsedSql(sql)
+            };
+        } finally {
+            database.setObjectQuotingStrategy(currentStrategy);
+        }
+    }
+
+    /**
+     * Returns an expression computing {@link liquibase.changelog.DatabaseChangeLogFingerprint#computeRowHash(String, String, String, String)}
+     * for a single row, or null if the database cannot compute it.
+     */
+    protected String getRowHashExpression(Database database) {
+        return null;
+    }
+
+    /**
+     * Returns an expression computing {@link liquibase.changelog.DatabaseChangeLogFingerprint#computeRowStateHash(String, String, String, String, String, String)}
+     * for a single row, or null if the database cannot compute it.
+     */
+    protected String getRowStateHashExpression(Database database) {
+        return null;
+    }
+
+    protected String escape(Database database, String columnName) {
+        return database.escapeColumnName(null, null, null, columnName);
+    }
+}
@@ -0,0 +1,37 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.changelog.DatabaseChangeLogFingerprint;
+import liquibase.database.Database;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.statement.core.SelectDatabaseChangeLogFingerprintStatement;
+
+public class SelectDatabaseChangeLogFingerprintGeneratorMySQL extends SelectDatabaseChangeLogFingerprintGenerator {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(SelectDatabaseChangeLogFingerprintStatement statement, Database database) {
+        return database instanceof MySQLDatabase;
+    }
+
+    @Override
+    protected String getRowHashExpression(Database database) {
+        return hash(escape(database, "ID") + ", ':', " + escape(database, "AUTHOR") + ", ':', "
+                + escape(database, "FILENAME") + ", ':', COALESCE(" + escape(database, "MD5SUM") + ", '')");
+    }
+
+    @Override
+    protected String getRowStateHashExpression(Database database) {
+        return hash(escape(database, "ID") + ", ':', " + escape(database, "AUTHOR") + ", ':', "
+                + escape(database, "FILENAME") + ", ':', COALESCE(" + escape(database, "MD5SUM") + ", ''), ':', COALESCE("
+                + escape(database, "TAG") + ", ''), ':', COALESCE(" + escape(database, "EXECTYPE") + ", '')");
+    }
+
+    private String hash(String concatArguments) {
+        return "CAST(CONV(SUBSTRING(MD5(CONCAT(" + concatArguments + ")), 1, "
+                + DatabaseChangeLogFingerprint.ROW_HASH_HEX_DIGITS + "), 16, 10) AS UNSIGNED)";
+    }
+}
@@ -0,0 +1,37 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.changelog.DatabaseChangeLogFingerprint;
+import liquibase.database.Database;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.statement.core.SelectDatabaseChangeLogFingerprintStatement;
+
+public class SelectDatabaseChangeLogFingerprintGeneratorPostgres extends SelectDatabaseChangeLogFingerprintGenerator {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(SelectDatabaseChangeLogFingerprintStatement statement, Database database) {
+        return database instanceof PostgresDatabase;
+    }
+
+    @Override
+    protected String getRowHashExpression(Database database) {
+        return hash(escape(database, "ID") + " || ':' || " + escape(database, "AUTHOR") + " || ':' || "
+                + escape(database, "FILENAME") + " || ':' || COALESCE(" + escape(database, "MD5SUM") + ", '')");
+    }
+
+    @Override
+    protected String getRowStateHashExpression(Database database) {
+        return hash(escape(database, "ID") + " || ':' || " + escape(database, "AUTHOR") + " || ':' || "
+                + escape(database, "FILENAME") + " || ':' || COALESCE(" + escape(database, "MD5SUM") + ", '') || ':' || COALESCE("
+                + escape(database, "TAG") + ", '') || ':' || COALESCE(" + escape(database, "EXECTYPE") + ", '')");
+    }
+
+    private String hash(String rowText) {
+        int digits = DatabaseChangeLogFingerprint.ROW_HASH_HEX_DIGITS;
+        return "('x' || SUBSTR(MD5(" + rowText + "), 1, " + digits + "))::BIT(" + (digits * 4) + ")::BIGINT";
+    }
+}
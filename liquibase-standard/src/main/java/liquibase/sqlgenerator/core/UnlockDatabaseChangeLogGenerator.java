@@ -26,7 +26,12 @@ public class UnlockDatabaseChangeLogGenerator extends AbstractSqlGenerator<Unloc
             releaseStatement.addNewColumnValue("LOCKED", false);
             releaseStatement.addNewColumnValue("LOCKGRANTED", null);
             releaseStatement.addNewColumnValue("LOCKEDBY", null);
-            releaseStatement.setWhereClause(database.escapeColumnName(database.getLiquibaseCatalogName(), liquibaseSchema, database.getDatabaseChangeLogTableName(), "ID")+" = 1");
+            String whereClause = database.escapeColumnName(database.getLiquibaseCatalogName(), liquibaseSchema, database.getDatabaseChangeLogTableName(), "ID")+" = 1";
+            if (statement.getLockedBy() != null) {
+                whereClause += " AND " + database.escapeColumnName(database.getLiquibaseCatalogName(), liquibaseSchema, database.getDatabaseChangeLogTableName(), "LOCKEDBY") + " = :value";
+                releaseStatement.addWhereParameter(statement.getLockedBy());
+            }
+            releaseStatement.setWhereClause(whereClause);
 
             return SqlGeneratorFactory.getInstance().generateSql(releaseStatement, database);
         } finally {
@@ -1,5 +1,6 @@
 package liquibase.statement;
 
+import liquibase.GlobalConfiguration;
 import liquibase.Scope;
 import liquibase.change.ColumnConfig;
 import liquibase.change.core.LoadDataColumnConfig;
@@ -19,12 +20,21 @@ import java.util.List;
  * executions of DML statements and waits until a certain number of commands has been collected. Then, it sends all
  * of them to the RDBMS in a single call. {@link java.sql.Statement#executeBatch()} saves many round-trips between
  * client and database, often speeding up bulk inserts/updates dramatically if the JDBC driver supports it.
+ * <p>
+ * If {@link GlobalConfiguration#LOAD_DATA_BATCH_SIZE} is set, rows are sent in batches of at most that many statements, so the
+ * driver does not buffer a whole data file at once. With {@link GlobalConfiguration#LOAD_DATA_COMMIT_BATCHES}, each batch is committed
+ * when the changeset does not run in a transaction.
  * @see <a href="https://blog.jooq.org/2014/01/16/what-you-didnt-know-about-jdbc-batch/">
  *     Blog entry on "Java Persistence Performance" about batching</a>
  */
 public class BatchDmlExecutablePreparedStatement extends ExecutablePreparedStatementBase {
     private final List<ExecutablePreparedStatementBase> collectedStatements;
     private final Logger LOG = Scope.getCurrentScope().getLog(getClass());
+    private final int batchSize;
+    private final boolean commitBatches;
+    private int executedBatches;
+    private long executedOperations;
+    private long confirmedUpdates;
 
     public BatchDmlExecutablePreparedStatement(
             Database database, String catalogName, String schemaName, String tableName,
@@ -33,6 +43,16 @@ public class BatchDmlExecutablePreparedStatement extends ExecutablePreparedState
         super(database, catalogName, schemaName, tableName, new ArrayList<ColumnConfig>(columns), changeSet,
             resourceAccessor);
         this.collectedStatements = new ArrayList<>(statements);
+        this.batchSize = GlobalConfiguration.LOAD_DATA_BATCH_SIZE.getCurrentValue();
+        this.commitBatches = GlobalConfiguration.LOAD_DATA_COMMIT_BATCHES.getCurrentValue()
+                && (changeSet != null) && !changeSet.isRunInTransaction();
+    }
+
+    /**
+     * Returns the maximum number of statements sent in one JDBC batch, or 0 if all statements are sent in one batch.
+     */
+    public int getBatchSize() {
+        return batchSize;
     }
 
     /**
@@ -46,9 +66,19 @@ public class BatchDmlExecutablePreparedStatement extends ExecutablePreparedState
     @Override
     protected void attachParams(List<? extends ColumnConfig> ignored, PreparedStatement stmt)
             throws SQLException, DatabaseException {
-        for (ExecutablePreparedStatementBase insertStatement : collectedStatements) {
-            super.attachParams(insertStatement.getColumns(), stmt);
+        executedBatches = 0;
+        executedOperations = 0;
+        confirmedUpdates = 0;
+        for (int i = 0; i < collectedStatements.size(); i++) {
+            super.attachParams(collectedStatements.get(i).getColumns(), stmt);
             stmt.addBatch();
+            // the last batch is left for executePreparedStatement
+            if ((batchSize > 0) && (((i + 1) % batchSize) == 0) && ((i + 1) < collectedStatements.size())) {
+                executeBatch(stmt);
+                if (commitBatches) {
+                    database.commit();
+                }
+            }
         }
     }
 
@@ -61,13 +91,24 @@ public class BatchDmlExecutablePreparedStatement extends ExecutablePreparedState
 
     @Override
     protected void executePreparedStatement(PreparedStatement stmt) throws SQLException {
+        executeBatch(stmt);
+        LOG.info(String.format("Executing JDBC DML batch was successful. %d operations were executed in %d batches, %d individual UPDATE events were confirmed by the database.",
+                executedOperations, executedBatches, confirmedUpdates));
+    }
+
+    private void executeBatch(PreparedStatement stmt) throws SQLException {
         int[] updateCounts = stmt.executeBatch();
-        long sumUpdateCounts = 0;
+        stmt.clearBatch();
+        executedBatches++;
+        executedOperations += updateCounts.length;
         for (int updateCount : updateCounts) {
-            sumUpdateCounts = updateCount;
+            // drivers report Statement.SUCCESS_NO_INFO when they do not know the number of affected rows
+            if (updateCount > 0) {
+                confirmedUpdates += updateCount;
+            }
         }
-        LOG.info(String.format("Executing JDBC DML batch was successful. %d operations were executed, %d individual UPDATE events were confirmed by the database.",
-                updateCounts.length, sumUpdateCounts));
+        LOG.fine(String.format("Executed JDBC DML batch %d, %d of %d operations executed so far",
+                executedBatches, executedOperations, collectedStatements.size()));
     }
 
     @Override
@@ -0,0 +1,113 @@
+package liquibase.statement;
+
+import liquibase.Scope;
+import liquibase.bulkload.BulkLoadData;
+import liquibase.bulkload.BulkLoader;
+import liquibase.change.ColumnConfig;
+import liquibase.change.core.LoadDataColumnConfig;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.Logger;
+import liquibase.resource.ResourceAccessor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads rows with a {@link BulkLoader} when executed. Rows the bulk loader cannot handle, because they need a database function,
+ * a sequence or a LOB file, are inserted individually by the statements of the given {@link RowStatementFactory}. The rows before
+ * each of them are bulk loaded first, so the rows are inserted in the order of their source.
+ */
+public class BulkLoadExecutablePreparedStatement extends ExecutablePreparedStatementBase {
+
+    /**
+     * Opens a new {@link BulkLoadData.RowSource} each time the statement is executed.
+     */
+    public interface RowSourceFactory {
+
+        BulkLoadData.RowSource open() throws DatabaseException;
+    }
+
+    /**
+     * Creates the statement that inserts a row the bulk loader cannot load.
+     */
+    public interface RowStatementFactory {
+
+        ExecutablePreparedStatement create(List<? extends ColumnConfig> row);
+    }
+
+    private final Logger LOG = Scope.getCurrentScope().getLog(getClass());
+    private final BulkLoader bulkLoader;
+    private final RowSourceFactory rowSourceFactory;
+    private final RowStatementFactory rowStatementFactory;
+    private long loadedRows;
+    private long skippedRows;
+
+    public BulkLoadExecutablePreparedStatement(
+            Database database, String catalogName, String schemaName, String tableName,
+            List<LoadDataColumnConfig> columns, ChangeSet changeSet, ResourceAccessor resourceAccessor,
+            BulkLoader bulkLoader, RowSourceFactory rowSourceFactory, RowStatementFactory rowStatementFactory) {
+        super(database, catalogName, schemaName, tableName, new ArrayList<ColumnConfig>(columns), changeSet,
+                resourceAccessor);
+        this.bulkLoader = bulkLoader;
+        this.rowSourceFactory = rowSourceFactory;
+        this.rowStatementFactory = rowStatementFactory;
+    }
+
+    public BulkLoader getBulkLoader() {
+        return bulkLoader;
+    }
+
+    /**
+     * Returns the number of rows loaded by the bulk loader in the last {@link #execute(PreparedStatementFactory)} call.
+     */
+    public long getLoadedRows() {
+        return loadedRows;
+    }
+
+    /**
+     * Returns the number of rows inserted individually in the last {@link #execute(PreparedStatementFactory)} call.
+     */
+    public long getSkippedRows() {
+        return skippedRows;
+    }
+
+    @Override
+    public void execute(PreparedStatementFactory factory) throws DatabaseException {
+        loadedRows = 0;
+        skippedRows = 0;
+        try (BulkLoadData first = new BulkLoadData(getCatalogName(), getSchemaName(), getTableName(), rowSourceFactory.open())) {
+            BulkLoadData data = first;
+            while (true) {
+                if (!data.isEmpty()) {
+                    loadedRows += bulkLoader.load(database, data);
+                }
+                List<? extends ColumnConfig> rejectedRow = data.getRejectedRow();
+                if (rejectedRow == null) {
+                    break;
+                }
+                rowStatementFactory.create(rejectedRow).execute(factory);
+                skippedRows++;
+                data = data.nextData();
+            }
+        } catch (IOException e) {
+            throw new DatabaseException(e);
+        }
+        LOG.info(String.format("Bulk loaded %d rows into %s with %s, inserted %d rows individually",
+                loadedRows, getTableName(), bulkLoader.getClass().getSimpleName(), skippedRows));
+    }
+
+    @Override
+    protected String generateSql(List<ColumnConfig> cols) {
+        throw new UnexpectedLiquibaseException("Bulk loaded statements have no SQL");
+    }
+
+    @Override
+    public boolean continueOnError() {
+        return false;
+    }
+}
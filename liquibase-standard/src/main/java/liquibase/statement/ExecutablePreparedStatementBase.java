@@ -34,7 +34,10 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.net.URI;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.sql.*;
 import java.util.*;
 import java.util.logging.Level;
@@ -69,6 +72,9 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
 
     private final Map<String, Object> snapshotScratchPad = new HashMap<>();
 
+    //LOB files up to this size are measured in the stream buffer when their length is not known from the file metadata
+    private static final int LOB_IN_MEMORY_THRESHOLD = 100_000;
+
     protected ExecutablePreparedStatementBase(Database database, String catalogName, String schemaName, String
             tableName, List<? extends ColumnConfig> columns, ChangeSet changeSet, ResourceAccessor resourceAccessor) {
         this.database = database;
@@ -134,6 +140,19 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
         }
     }
 
+    /**
+     * Closes and forgets the LOB streams opened while attaching parameters, for statements that attach parameters many times.
+     */
+    protected void closeCloseables() {
+        for (Closeable closeable : closeables) {
+            try {
+                closeable.close();
+            } catch (IOException ignore) {
+            }
+        }
+        closeables.clear();
+    }
+
     protected String applyVisitors(String sql, List<SqlVisitor> sqlVisitors) {
         String finalSql = sql;
         if (sqlVisitors != null) {
@@ -326,6 +345,14 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
                     }
 
                     if (snapshot.getType().getTypeName().equalsIgnoreCase("bytea")) {
+                        if (lob.length < 0) {
+                            try {
+                                stmt.setBinaryStream(i, lob.content);
+                                return;
+                            } catch (SQLFeatureNotSupportedException e) {
+                                lob = toBinaryStreamWithLength(col.getValueBlobFile(), lob);
+                            }
+                        }
                         if (lob.length <= Integer.MAX_VALUE) {
                             stmt.setBinaryStream(i, lob.content, (int) lob.length);
                         } else {
@@ -334,6 +361,14 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
                         return;
                     }
                 }
+                if (lob.length < 0) {
+                    try {
+                        stmt.setBlob(i, lob.content);
+                        return;
+                    } catch (SQLFeatureNotSupportedException e) {
+                        lob = toBinaryStreamWithLength(col.getValueBlobFile(), lob);
+                    }
+                }
                 if (lob.length <= Integer.MAX_VALUE) {
                     stmt.setBlob(i, lob.content, (int) lob.length);
                 } else {
@@ -347,6 +382,14 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
             try {
                 LOG.fine(String.format("Loading clob file: %s", col.getValueClobFile()));
                 LOBContent<Reader> lob = toCharacterStream(col.getValueClobFile(), col.getEncoding());
+                if (lob.length < 0) {
+                    try {
+                        stmt.setCharacterStream(i, lob.content);
+                        return;
+                    } catch (SQLFeatureNotSupportedException e) {
+                        lob = toCharacterStreamWithLength(col.getValueClobFile(), col.getEncoding(), lob);
+                    }
+                }
                 if (lob.length <= Integer.MAX_VALUE) {
                     stmt.setCharacterStream(i, lob.content, (int) lob.length);
                 } else {
@@ -397,6 +440,11 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
         }
     }
 
+    /**
+     * Opens the given BLOB file. The length is taken from the file metadata when the resource is a file, or found by
+     * reading ahead into the stream buffer for small resources. Otherwise, the returned length is -1 and the content
+     * should be bound without a length, so each file is only read once.
+     */
     @SuppressWarnings("java:S2583")
     protected LOBContent<InputStream> toBinaryStream(String valueLobFile) throws LiquibaseException, IOException {
         InputStream in = getResourceAsStream(valueLobFile);
@@ -413,24 +461,9 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
 
             in = createStream(in);
 
-            final int IN_MEMORY_THRESHOLD = 100_000;
-
-            if (in.markSupported()) {
-                in.mark(IN_MEMORY_THRESHOLD);
-            }
-
-            long length = getContentLength(in);
-
-            if (in.markSupported() && (length <= IN_MEMORY_THRESHOLD)) {
-                in.reset();
-            } else {
-                try {
-                    in.close();
-                } catch (IOException ignored) {
-
-                }
-                in = getResourceAsStream(valueLobFile);
-                in = createStream(in);
+            long length = getResourceLength(valueLobFile);
+            if (length < 0) {
+                length = getBufferedLength(in);
             }
 
             return new LOBContent<>(in, length);
@@ -441,6 +474,11 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
         }
     }
 
+    /**
+     * Opens the given CLOB file. The length in characters is found by reading ahead into the reader buffer for small
+     * resources. Otherwise, the returned length is -1 and the content should be bound without a length, so each file
+     * is only read once.
+     */
     @SuppressWarnings("java:S2583")
     protected LOBContent<Reader> toCharacterStream(String valueLobFile, String encoding)
             throws IOException, LiquibaseException {
@@ -450,39 +488,103 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
             throw new DatabaseException("CLOB resource not found: " + valueLobFile);
         }
 
-        final int IN_MEMORY_THRESHOLD = 100_000;
-
         Reader reader = null;
 
         try {
             reader = StreamUtil.readStreamWithReader(in, encoding);
-
-            if (reader.markSupported()) {
-                reader.mark(IN_MEMORY_THRESHOLD);
+            if (!reader.markSupported()) {
+                reader = new BufferedReader(reader);
             }
 
-            long length = getContentLength(reader);
-
-            if (reader.markSupported() && (length <= IN_MEMORY_THRESHOLD)) {
-                reader.reset();
-            } else {
-                try {
-                    reader.close();
-                } catch (IOException ignored) {
-                }
-                in = getResourceAsStream(valueLobFile);
-                reader = StreamUtil.readStreamWithReader(in, encoding);
-            }
-
-            return new LOBContent<>(reader, length);
+            return new LOBContent<>(reader, getBufferedLength(reader));
         } finally {
             if (reader != null) {
                 closeables.add(reader);
             }
-            if (in != null) {
-                closeables.add(in);
+            closeables.add(in);
+        }
+    }
+
+    /**
+     * Counts the length of a BLOB file for drivers that cannot bind a stream without a length.
+     */
+    private LOBContent<InputStream> toBinaryStreamWithLength(String valueLobFile, LOBContent<InputStream> lob) throws IOException {
+        Scope.getCurrentScope().getLog(getClass()).fine("Driver does not support streams without a length, counting the length of " + valueLobFile);
+        long length;
+        try (InputStream in = getResourceAsStream(valueLobFile)) {
+            length = getContentLength(in);
+        }
+        return new LOBContent<>(lob.content, length);
+    }
+
+    /**
+     * Counts the length of a CLOB file for drivers that cannot bind a reader without a length.
+     */
+    private LOBContent<Reader> toCharacterStreamWithLength(String valueLobFile, String encoding, LOBContent<Reader> lob) throws IOException {
+        Scope.getCurrentScope().getLog(getClass()).fine("Driver does not support readers without a length, counting the length of " + valueLobFile);
+        long length;
+        try (InputStream in = getResourceAsStream(valueLobFile);
+             Reader reader = StreamUtil.readStreamWithReader(in, encoding)) {
+            length = getContentLength(reader);
+        }
+        return new LOBContent<>(lob.content, length);
+    }
+
+    /**
+     * Returns the size of the given LOB file from the file system metadata, or -1 if the resource is not a file.
+     */
+    protected long getResourceLength(String valueLobFile) {
+        try {
+            URI uri = this.resourceAccessor.getExisting(getFileName(valueLobFile)).getUri();
+            if ((uri != null) && "file".equalsIgnoreCase(uri.getScheme())) {
+                return Files.size(Paths.get(uri));
             }
+        } catch (IOException | RuntimeException e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot read the size of " + valueLobFile + ": " + e.getMessage());
         }
+        return -1;
+    }
+
+    /**
+     * Reads up to {@link #LOB_IN_MEMORY_THRESHOLD} bytes ahead into the stream buffer and resets it.
+     *
+     * @return the length of the stream, or -1 if it is longer than the threshold or cannot be reset
+     */
+    private static long getBufferedLength(InputStream in) throws IOException {
+        if (!in.markSupported()) {
+            return -1;
+        }
+        in.mark(LOB_IN_MEMORY_THRESHOLD + 1);
+        long length = 0;
+        byte[] buf = new byte[4096];
+        int bytesRead = 0;
+        while ((length <= LOB_IN_MEMORY_THRESHOLD) && (bytesRead >= 0)) {
+            bytesRead = in.read(buf, 0, (int) Math.min(buf.length, LOB_IN_MEMORY_THRESHOLD + 1 - length));
+            length += Math.max(bytesRead, 0);
+        }
+        in.reset();
+        return (length <= LOB_IN_MEMORY_THRESHOLD) ? length : -1;
+    }
+
+    /**
+     * Reads up to {@link #LOB_IN_MEMORY_THRESHOLD} characters ahead into the reader buffer and resets it.
+     *
+     * @return the length of the reader, or -1 if it is longer than the threshold or cannot be reset
+     */
+    private static long getBufferedLength(Reader reader) throws IOException {
+        if (!reader.markSupported()) {
+            return -1;
+        }
+        reader.mark(LOB_IN_MEMORY_THRESHOLD + 1);
+        long length = 0;
+        char[] buf = new char[2048];
+        int charsRead = 0;
+        while ((length <= LOB_IN_MEMORY_THRESHOLD) && (charsRead >= 0)) {
+            charsRead = reader.read(buf, 0, (int) Math.min(buf.length, LOB_IN_MEMORY_THRESHOLD + 1 - length));
+            length += Math.max(charsRead, 0);
+        }
+        reader.reset();
+        return (length <= LOB_IN_MEMORY_THRESHOLD) ? length : -1;
     }
 
     @SuppressWarnings("squid:S2095")
@@ -556,6 +658,9 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
         return length;
     }
 
+    /**
+     * Content of a LOB file with its length, or a length of -1 if it is not known without reading the content.
+     */
     protected static class LOBContent<T> {
         private final T content;
         private final long length;
@@ -0,0 +1,436 @@
+package liquibase.statement;
+
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.change.ColumnConfig;
+import liquibase.change.core.LoadDataColumnConfig;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.Logger;
+import liquibase.resource.ResourceAccessor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes the DML statements for the lines of a data file on several connections at the same time.
+ * Used by {@link liquibase.change.core.LoadDataChange} when {@link GlobalConfiguration#LOAD_DATA_PARALLEL_THREADS} is greater than 1.
+ * <p>
+ * The executing thread reads the lines of the file and hands them in partitions of consecutive lines to the workers, so a partition
+ * always ends at a record boundary, even for quoted values that span several lines. Each worker converts and inserts its partitions
+ * on its own connection like {@link StreamingDmlExecutablePreparedStatement} does.
+ * <p>
+ * All workers commit only after every worker inserted its rows without error, otherwise all of them roll back. Rows inserted by the
+ * workers are not part of the transaction of the changeset, so this statement is only used for changesets with runInTransaction=false.
+ */
+public class ParallelDmlExecutablePreparedStatement extends ExecutablePreparedStatementBase {
+
+    /**
+     * Source of the lines of the data file after the header, read one at a time.
+     */
+    public interface LineSource extends Closeable {
+
+        /**
+         * Returns the next line, or null once all lines were read.
+         */
+        String[] next() throws DatabaseException;
+    }
+
+    /**
+     * Opens a new {@link LineSource} each time the statement is executed.
+     */
+    public interface LineSourceFactory {
+
+        LineSource open() throws DatabaseException;
+    }
+
+    /**
+     * Converts lines to the statements to execute. Each worker uses its own converter.
+     */
+    public interface LineConverter {
+
+        /**
+         * @param lineNumber the line number in the data file, starting with 1 for the header
+         * @return the statement for the line, or null if the line has nothing to insert
+         */
+        ExecutablePreparedStatementBase convert(String[] line, int lineNumber) throws DatabaseException;
+    }
+
+    /**
+     * Creates a new {@link LineConverter} for each worker.
+     */
+    public interface LineConverterFactory {
+
+        LineConverter create() throws DatabaseException;
+    }
+
+    private static final Partition END = new Partition(0, Collections.emptyList());
+    private static final int DEFAULT_PARTITION_SIZE = 10000;
+
+    private final Logger LOG = Scope.getCurrentScope().getLog(getClass());
+    private final List<LoadDataColumnConfig> loadDataColumns;
+    private final LineSourceFactory lineSourceFactory;
+    private final LineConverterFactory lineConverterFactory;
+    private final boolean batch;
+    private final int threads;
+    private final int partitionSize;
+    private long executedOperations;
+
+    public ParallelDmlExecutablePreparedStatement(
+            Database database, String catalogName, String schemaName, String tableName,
+            List<LoadDataColumnConfig> columns, ChangeSet changeSet, ResourceAccessor resourceAccessor,
+            LineSourceFactory lineSourceFactory, LineConverterFactory lineConverterFactory, boolean batch, int threads) {
+        super(database, catalogName, schemaName, tableName, new ArrayList<ColumnConfig>(columns), changeSet,
+                resourceAccessor);
+        this.loadDataColumns = columns;
+        this.lineSourceFactory = lineSourceFactory;
+        this.lineConverterFactory = lineConverterFactory;
+        this.batch = batch;
+        this.threads = threads;
+        int batchSize = GlobalConfiguration.LOAD_DATA_BATCH_SIZE.getCurrentValue();
+        this.partitionSize = batchSize > 0 ? batchSize : DEFAULT_PARTITION_SIZE;
+    }
+
+    /**
+     * Returns the number of connections the rows are inserted on.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Returns the number of rows executed by the last {@link #execute(PreparedStatementFactory)} call.
+     */
+    public long getExecutedOperations() {
+        return executedOperations;
+    }
+
+    @Override
+    public void execute(PreparedStatementFactory factory) throws DatabaseException {
+        executedOperations = 0;
+
+        List<JdbcConnection> connections = openConnections();
+        if (connections.isEmpty()) {
+            LOG.info("Cannot open more connections to " + database.getConnection().getURL() + ", inserting the rows of "
+                    + getTableName() + " on the changeset connection");
+            executeOnChangeSetConnection(factory);
+            return;
+        }
+
+        try {
+            // the workers can only see the table and the changes before this statement once they are committed
+            database.commit();
+
+            BlockingQueue<Partition> queue = new ArrayBlockingQueue<>(connections.size() * 2);
+            AtomicBoolean failed = new AtomicBoolean();
+            Scope scope = Scope.getCurrentScope();
+            AtomicInteger threadNumber = new AtomicInteger();
+            ExecutorService pool = Executors.newFixedThreadPool(connections.size(), runnable -> {
+                Thread thread = new Thread(runnable, "liquibase-load-data-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            List<Throwable> failures = new ArrayList<>();
+            try {
+                List<Future<Long>> workers = new ArrayList<>();
+                for (JdbcConnection connection : connections) {
+                    workers.add(pool.submit(() -> {
+                        try {
+                            return Scope.runInScope(scope, () -> insertPartitions(connection, queue));
+                        } catch (Exception e) {
+                            failed.set(true);
+                            throw e;
+                        }
+                    }));
+                }
+
+                try {
+                    readPartitions(queue, failed);
+                } catch (DatabaseException | RuntimeException e) {
+                    failed.set(true);
+                    failures.add(e);
+                } finally {
+                    endPartitions(queue, failed, connections.size());
+                }
+
+                for (Future<Long> worker : workers) {
+                    try {
+                        executedOperations += worker.get();
+                    } catch (ExecutionException e) {
+                        failures.add(e.getCause());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        failures.add(e);
+                    }
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+
+            if (!failures.isEmpty()) {
+                rollback(connections);
+                Throwable failure = failures.get(0);
+                if (failure instanceof DatabaseException) {
+                    throw (DatabaseException) failure;
+                }
+                throw new DatabaseException(failure.getMessage(), failure);
+            }
+            commit(connections);
+        } finally {
+            close(connections);
+        }
+
+        LOG.info(String.format("Executing DML statements on %d connections was successful. %d operations were executed.",
+                connections.size(), executedOperations));
+    }
+
+    /**
+     * Opens a connection for each worker, or none if the changeset connection cannot open more connections.
+     */
+    private List<JdbcConnection> openConnections() throws DatabaseException {
+        List<JdbcConnection> connections = new ArrayList<>();
+        if (!(database.getConnection() instanceof JdbcConnection)) {
+            return connections;
+        }
+        JdbcConnection changeSetConnection = (JdbcConnection) database.getConnection();
+        try {
+            for (int i = 0; i < threads; i++) {
+                JdbcConnection connection = changeSetConnection.openNewConnection();
+                if (connection == null) {
+                    return connections;
+                }
+                connections.add(connection);
+                connection.setAutoCommit(false);
+            }
+        } catch (DatabaseException | RuntimeException e) {
+            close(connections);
+            throw e;
+        }
+        return connections;
+    }
+
+    private void readPartitions(BlockingQueue<Partition> queue, AtomicBoolean failed) throws DatabaseException {
+        try (LineSource lines = lineSourceFactory.open()) {
+            // Start at '2' to take into account the header (already processed):
+            int lineNumber = 2;
+            List<String[]> partition = new ArrayList<>(partitionSize);
+            String[] line;
+            while ((line = lines.next()) != null) {
+                partition.add(line);
+                if (partition.size() >= partitionSize) {
+                    if (!offer(queue, new Partition(lineNumber, partition), failed)) {
+                        return;
+                    }
+                    lineNumber += partition.size();
+                    partition = new ArrayList<>(partitionSize);
+                }
+            }
+            if (!partition.isEmpty()) {
+                offer(queue, new Partition(lineNumber, partition), failed);
+            }
+        } catch (IOException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    /**
+     * Waits until the queue takes the partition.
+     *
+     * @return false if a worker failed, so the partition was not queued and the remaining lines do not need to be read
+     */
+    private boolean offer(BlockingQueue<Partition> queue, Partition partition, AtomicBoolean failed) throws DatabaseException {
+        try {
+            while (!failed.get()) {
+                if (queue.offer(partition, 100, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException(e);
+        }
+    }
+
+    /**
+     * Tells each worker that there are no more partitions. Once a worker failed, the queued partitions are dropped,
+     * so the other workers end right away.
+     */
+    private void endPartitions(BlockingQueue<Partition> queue, AtomicBoolean failed, int workers) {
+        try {
+            int ended = 0;
+            while (ended < workers) {
+                if (failed.get()) {
+                    // only this thread adds to the queue, so all end markers fit once it is cleared
+                    queue.clear();
+                    for (int i = 0; i < workers; i++) {
+                        queue.offer(END);
+                    }
+                    return;
+                }
+                if (queue.offer(END, 100, TimeUnit.MILLISECONDS)) {
+                    ended++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long insertPartitions(JdbcConnection connection, BlockingQueue<Partition> queue) throws Exception {
+        LineConverter converter = lineConverterFactory.create();
+        StreamingDmlExecutablePreparedStatement.StatementSource source = new StreamingDmlExecutablePreparedStatement.StatementSource() {
+            private Partition partition;
+            private int index;
+
+            @Override
+            public ExecutablePreparedStatementBase next() throws DatabaseException {
+                while (true) {
+                    if ((partition == null) || (index >= partition.lines.size())) {
+                        try {
+                            partition = queue.take();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new DatabaseException(e);
+                        }
+                        index = 0;
+                        if (partition == END) {
+                            return null;
+                        }
+                    }
+                    String[] line = partition.lines.get(index);
+                    int lineNumber = partition.firstLineNumber + index;
+                    index++;
+                    ExecutablePreparedStatementBase row = converter.convert(line, lineNumber);
+                    if (row != null) {
+                        return row;
+                    }
+                }
+            }
+
+            @Override
+            public void close() {
+                // the queue is owned by the executing thread
+            }
+        };
+
+        // the rows of all workers are committed together once all of them succeeded
+        return Scope.child(Collections.<String, Object>singletonMap(GlobalConfiguration.LOAD_DATA_COMMIT_BATCHES.getKey(), false), () -> {
+            StreamingDmlExecutablePreparedStatement statement = createWorkerStatement(() -> source);
+            statement.execute(new PreparedStatementFactory(connection));
+            return statement.getExecutedOperations();
+        });
+    }
+
+    private void executeOnChangeSetConnection(PreparedStatementFactory factory) throws DatabaseException {
+        LineConverter converter = lineConverterFactory.create();
+        StreamingDmlExecutablePreparedStatement statement = createWorkerStatement(() -> {
+            LineSource lines = lineSourceFactory.open();
+            return new StreamingDmlExecutablePreparedStatement.StatementSource() {
+                // Start at '1' to take into account the header (already processed):
+                private int lineNumber = 1;
+
+                @Override
+                public ExecutablePreparedStatementBase next() throws DatabaseException {
+                    String[] line;
+                    while ((line = lines.next()) != null) {
+                        lineNumber++;
+                        ExecutablePreparedStatementBase row = converter.convert(line, lineNumber);
+                        if (row != null) {
+                            return row;
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    lines.close();
+                }
+            };
+        });
+        statement.execute(factory);
+        executedOperations = statement.getExecutedOperations();
+    }
+
+    private StreamingDmlExecutablePreparedStatement createWorkerStatement(StreamingDmlExecutablePreparedStatement.StatementSourceFactory sourceFactory) {
+        return new StreamingDmlExecutablePreparedStatement(database, getCatalogName(), getSchemaName(), getTableName(),
+                loadDataColumns, getChangeSet(), getResourceAccessor(), sourceFactory, batch);
+    }
+
+    private void commit(List<JdbcConnection> connections) throws DatabaseException {
+        for (int i = 0; i < connections.size(); i++) {
+            try {
+                connections.get(i).commit();
+            } catch (DatabaseException e) {
+                if (i > 0) {
+                    // the rows of the connections committed before cannot be rolled back anymore
+                    LOG.severe(String.format("Committed the rows of %d of %d connections into %s before the commit failed, "
+                            + "the table contains part of the loaded rows", i, connections.size(), getTableName()));
+                }
+                rollback(connections.subList(i, connections.size()));
+                throw e;
+            }
+        }
+    }
+
+    private void rollback(List<JdbcConnection> connections) {
+        for (JdbcConnection connection : connections) {
+            try {
+                connection.rollback();
+            } catch (DatabaseException e) {
+                LOG.warning("Cannot roll back loadData connection: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private void close(List<JdbcConnection> connections) {
+        for (JdbcConnection connection : connections) {
+            try {
+                connection.close();
+            } catch (DatabaseException e) {
+                LOG.fine("Cannot close loadData connection: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    protected String generateSql(List<ColumnConfig> cols) {
+        throw new UnexpectedLiquibaseException("The SQL of parallel statements is generated for each row");
+    }
+
+    @Override
+    public boolean continueOnError() {
+        return false;
+    }
+
+    /**
+     * Consecutive lines of the data file.
+     */
+    private static class Partition {
+
+        private final int firstLineNumber;
+        private final List<String[]> lines;
+
+        private Partition(int firstLineNumber, List<String[]> lines) {
+            this.firstLineNumber = firstLineNumber;
+            this.lines = lines;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package liquibase.statement;
+
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.change.ColumnConfig;
+import liquibase.change.core.LoadDataColumnConfig;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.listener.SqlListener;
+import liquibase.logging.Logger;
+import liquibase.resource.ResourceAccessor;
+import liquibase.sql.SqlConfiguration;
+import liquibase.sql.visitor.SqlVisitor;
+import liquibase.util.JdbcUtil;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Executes DML statements for rows that are read while executing, so the rows of a data file never have to be held in memory
+ * at the same time. Used by {@link liquibase.change.core.LoadDataChange} when {@link GlobalConfiguration#LOAD_DATA_STREAMING} is enabled.
+ * <p>
+ * Each row is bound to a prepared statement that is re-used as long as the generated SQL does not change. With batching, rows are
+ * sent in JDBC batches of {@link GlobalConfiguration#LOAD_DATA_BATCH_SIZE} rows, or of 10000 rows if that is 0, otherwise each row is
+ * executed on its own.
+ */
+public class StreamingDmlExecutablePreparedStatement extends ExecutablePreparedStatementBase {
+
+    /**
+     * Source of the statements to execute, read one at a time.
+     */
+    public interface StatementSource extends Closeable {
+
+        /**
+         * Returns the next statement, or null once all statements were read.
+         */
+        ExecutablePreparedStatementBase next() throws DatabaseException;
+    }
+
+    /**
+     * Opens a new {@link StatementSource} each time the statement is executed.
+     */
+    public interface StatementSourceFactory {
+
+        StatementSource open() throws DatabaseException;
+    }
+
+    /**
+     * Rows per batch when {@link GlobalConfiguration#LOAD_DATA_BATCH_SIZE} does not limit batches, so a streamed file is still not
+     * buffered by the driver all at once.
+     */
+    private static final int DEFAULT_BATCH_SIZE = 10000;
+
+    private final Logger LOG = Scope.getCurrentScope().getLog(getClass());
+    private final StatementSourceFactory sourceFactory;
+    private final boolean batch;
+    private final int batchSize;
+    private final boolean commitBatches;
+    private int pendingOperations;
+    private int executedBatches;
+    private long executedOperations;
+    private long confirmedUpdates;
+
+    public StreamingDmlExecutablePreparedStatement(
+            Database database, String catalogName, String schemaName, String tableName,
+            List<LoadDataColumnConfig> columns, ChangeSet changeSet, ResourceAccessor resourceAccessor,
+            StatementSourceFactory sourceFactory, boolean batch) {
+        super(database, catalogName, schemaName, tableName, new ArrayList<ColumnConfig>(columns), changeSet,
+                resourceAccessor);
+        this.sourceFactory = sourceFactory;
+        this.batch = batch;
+        int configuredBatchSize = GlobalConfiguration.LOAD_DATA_BATCH_SIZE.getCurrentValue();
+        this.batchSize = configuredBatchSize > 0 ? configuredBatchSize : DEFAULT_BATCH_SIZE;
+        this.commitBatches = GlobalConfiguration.LOAD_DATA_COMMIT_BATCHES.getCurrentValue()
+                && (changeSet != null) && !changeSet.isRunInTransaction();
+    }
+
+    /**
+     * Returns true if rows are sent in JDBC batches, false if each row is executed on its own.
+     */
+    public boolean isBatch() {
+        return batch;
+    }
+
+    /**
+     * Returns the number of rows executed by the last {@link #execute(PreparedStatementFactory)} call.
+     */
+    public long getExecutedOperations() {
+        return executedOperations;
+    }
+
+    @Override
+    public void execute(PreparedStatementFactory factory) throws DatabaseException {
+        pendingOperations = 0;
+        executedBatches = 0;
+        executedOperations = 0;
+        confirmedUpdates = 0;
+
+        List<SqlVisitor> sqlVisitors = getChangeSet() == null ? new ArrayList<>() : getChangeSet().getSqlVisitors();
+        PreparedStatement stmt = null;
+        String generatedSql = null;
+        try (StatementSource source = sourceFactory.open()) {
+            ExecutablePreparedStatementBase row;
+            while ((row = source.next()) != null) {
+                List<ColumnConfig> cols = new ArrayList<>(row.getColumns().size());
+                String rowSql = row.generateSql(cols);
+                if (!rowSql.equals(generatedSql)) {
+                    if (stmt != null) {
+                        flush(stmt, false);
+                        JdbcUtil.closeStatement(stmt);
+                        stmt = null;
+                    }
+                    String sql = applyVisitors(rowSql, sqlVisitors);
+                    for (SqlListener listener : Scope.getCurrentScope().getListeners(SqlListener.class)) {
+                        listener.writeSqlWillRun(sql);
+                    }
+                    LOG.log(SqlConfiguration.SHOW_AT_LOG_LEVEL.getCurrentValue(), sql, null);
+                    stmt = factory.create(sql);
+                    generatedSql = rowSql;
+                }
+
+                attachParams(cols, stmt);
+                if (batch) {
+                    stmt.addBatch();
+                    pendingOperations++;
+                    if (pendingOperations >= batchSize) {
+                        flush(stmt, commitBatches);
+                    }
+                } else {
+                    executePreparedStatement(stmt);
+                    closeCloseables();
+                    executedOperations++;
+                }
+            }
+            if (stmt != null) {
+                // the last batch is committed with the changeset
+                flush(stmt, false);
+            }
+        } catch (SQLException | IOException e) {
+            throw new DatabaseException(e);
+        } finally {
+            closeCloseables();
+            JdbcUtil.closeStatement(stmt);
+        }
+
+        if (batch) {
+            LOG.info(String.format("Executing streamed JDBC DML batches was successful. %d operations were executed in %d batches, %d individual UPDATE events were confirmed by the database.",
+                    executedOperations, executedBatches, confirmedUpdates));
+        } else {
+            LOG.info(String.format("Executing streamed DML statements was successful. %d operations were executed.", executedOperations));
+        }
+    }
+
+    private void flush(PreparedStatement stmt, boolean commit) throws SQLException, DatabaseException {
+        if (!batch || (pendingOperations == 0)) {
+            return;
+        }
+        int[] updateCounts = stmt.executeBatch();
+        stmt.clearBatch();
+        closeCloseables();
+        pendingOperations = 0;
+        executedBatches++;
+        executedOperations += updateCounts.length;
+        for (int updateCount : updateCounts) {
+            // drivers report Statement.SUCCESS_NO_INFO when they do not know the number of affected rows
+            if (updateCount > 0) {
+                confirmedUpdates += updateCount;
+            }
+        }
+        LOG.fine(String.format("Executed streamed JDBC DML batch %d, %d operations executed so far", executedBatches, executedOperations));
+        if (commit) {
+            database.commit();
+        }
+    }
+
+    @Override
+    protected String generateSql(List<ColumnConfig> cols) {
+        throw new UnexpectedLiquibaseException("The SQL of streamed statements is generated for each row");
+    }
+
+    @Override
+    public boolean continueOnError() {
+        return false;
+    }
+}
@@ -0,0 +1,46 @@
+package liquibase.statement.core;
+
+import liquibase.statement.AbstractSqlStatement;
+
+import java.util.List;
+
+/**
+ * Creates an empty table with the given columns of a source table, to stage rows before they are copied into the source table.
+ */
+public class CreateStagingTableStatement extends AbstractSqlStatement {
+
+    private final String catalogName;
+    private final String schemaName;
+    private final String tableName;
+    private final String sourceTableName;
+    private final List<String> columnNames;
+
+    public CreateStagingTableStatement(String catalogName, String schemaName, String tableName, String sourceTableName,
+                                       List<String> columnNames) {
+        this.catalogName = catalogName;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.sourceTableName = sourceTableName;
+        this.columnNames = columnNames;
+    }
+
+    public String getCatalogName() {
+        return catalogName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getSourceTableName() {
+        return sourceTableName;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+}
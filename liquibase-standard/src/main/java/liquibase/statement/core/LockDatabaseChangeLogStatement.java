@@ -3,5 +3,21 @@ package liquibase.statement.core;
 import liquibase.statement.AbstractSqlStatement;
 
 public class LockDatabaseChangeLogStatement extends AbstractSqlStatement {
-    
+
+    private final String lockedBy;
+
+    public LockDatabaseChangeLogStatement() {
+        this(null);
+    }
+
+    /**
+     * @param lockedBy value to store in the LOCKEDBY column, or null to describe this host
+     */
+    public LockDatabaseChangeLogStatement(String lockedBy) {
+        this.lockedBy = lockedBy;
+    }
+
+    public String getLockedBy() {
+        return lockedBy;
+    }
 }
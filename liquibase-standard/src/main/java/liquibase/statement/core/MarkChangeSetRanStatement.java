@@ -9,9 +9,20 @@ public class MarkChangeSetRanStatement extends AbstractSqlStatement {
 
     private final ChangeSet.ExecType execType;
 
+    private final Integer orderExecuted;
+
     public MarkChangeSetRanStatement(ChangeSet changeSet, ChangeSet.ExecType execType) {
+        this(changeSet, execType, null);
+    }
+
+    /**
+     * @param orderExecuted the order executed reserved for the changeset beforehand, or null to take the next one when the
+     *                      statement is generated
+     */
+    public MarkChangeSetRanStatement(ChangeSet changeSet, ChangeSet.ExecType execType, Integer orderExecuted) {
         this.changeSet = changeSet;
         this.execType = execType;
+        this.orderExecuted = orderExecuted;
     }
 
     public ChangeSet getChangeSet() {
@@ -21,4 +32,8 @@ public class MarkChangeSetRanStatement extends AbstractSqlStatement {
     public ChangeSet.ExecType getExecType() {
         return execType;
     }
+
+    public Integer getOrderExecuted() {
+        return orderExecuted;
+    }
 }
@@ -0,0 +1,84 @@
+package liquibase.statement.core;
+
+import liquibase.statement.AbstractSqlStatement;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Updates the rows of a table with the rows of a source table that have the same primary key, and inserts the source rows
+ * that have no matching row, with a single statement instead of one {@link InsertOrUpdateStatement} per row.
+ * The source table must not contain more than one row with the same primary key.
+ */
+public class MergeFromTableStatement extends AbstractSqlStatement {
+
+    private final String catalogName;
+    private final String schemaName;
+    private final String tableName;
+    private final String sourceTableName;
+    private final List<String> columnNames;
+    private final String primaryKey;
+    private final boolean onlyUpdate;
+    private final Map<String, Boolean> allowUpdates = new HashMap<>();
+
+    public MergeFromTableStatement(String catalogName, String schemaName, String tableName, String sourceTableName,
+                                   List<String> columnNames, String primaryKey, boolean onlyUpdate) {
+        this.catalogName = catalogName;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.sourceTableName = sourceTableName;
+        this.columnNames = columnNames;
+        this.primaryKey = primaryKey;
+        this.onlyUpdate = onlyUpdate;
+    }
+
+    public String getCatalogName() {
+        return catalogName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Returns the table with the rows to merge, in the same catalog and schema as the table.
+     */
+    public String getSourceTableName() {
+        return sourceTableName;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * Returns the comma-separated columns that identify a row.
+     */
+    public String getPrimaryKey() {
+        return primaryKey;
+    }
+
+    /**
+     * Returns true if source rows without a matching row are ignored instead of inserted.
+     */
+    public boolean getOnlyUpdate() {
+        return onlyUpdate;
+    }
+
+    public boolean getAllowColumnUpdate(String columnName) {
+        final Boolean allow = this.allowUpdates.get(columnName);
+        if (allow == null) {
+            return true;
+        }
+        return allow;
+    }
+
+    public void setAllowColumnUpdate(String columnName, boolean allowUpdate) {
+        this.allowUpdates.put(columnName, allowUpdate);
+    }
+}
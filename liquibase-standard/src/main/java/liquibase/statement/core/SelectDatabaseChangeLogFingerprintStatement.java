@@ -0,0 +1,20 @@
+package liquibase.statement.core;
+
+import liquibase.statement.AbstractSqlStatement;
+
+/**
+ * Selects a single row summarizing the database changelog table, see {@link liquibase.changelog.DatabaseChangeLogFingerprint}.
+ * The columns are {@link #ROW_COUNT}, {@link #MAX_ORDER_EXECUTED}, {@link #MAX_DEPLOYMENT_ID}, {@link #CHECKSUM_COUNT}, {@link #TAG_COUNT} and,
+ * where the database supports it, {@link #ROW_HASH} and {@link #ROW_STATE_HASH}.
+ */
+public class SelectDatabaseChangeLogFingerprintStatement extends AbstractSqlStatement {
+
+    public static final String ROW_COUNT = "LB_ROW_COUNT";
+    public static final String MAX_ORDER_EXECUTED = "LB_MAX_ORDER";
+    public static final String MAX_DEPLOYMENT_ID = "LB_MAX_DEPLOYMENT";
+    public static final String CHECKSUM_COUNT = "LB_CHECKSUM_COUNT";
+    public static final String TAG_COUNT = "LB_TAG_COUNT";
+    public static final String ROW_HASH = "LB_ROW_HASH";
+    public static final String ROW_STATE_HASH = "LB_ROW_STATE_HASH";
+
+}
@@ -87,6 +87,16 @@ public class SelectFromDatabaseChangeLogStatement extends AbstractSqlStatement {
         }
     }
 
+    @Data
+    public static class ByOrderExecutedGreaterThan implements WhereClause {
+        private final int orderExecuted;
+
+        @Override
+        public String generateSql(Database database) {
+            return String.format(" WHERE %s > %d", database.escapeColumnName(null, null, null, "ORDEREXECUTED"), orderExecuted);
+        }
+    }
+
     @Data
     public static class ByCheckSumNotNullAndNotLike implements WhereClause {
         private final int notLikeCheckSumVersion;
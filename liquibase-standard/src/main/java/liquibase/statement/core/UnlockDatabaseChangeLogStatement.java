@@ -3,5 +3,21 @@ package liquibase.statement.core;
 import liquibase.statement.AbstractSqlStatement;
 
 public class UnlockDatabaseChangeLogStatement extends AbstractSqlStatement {
-}
 
+    private final String lockedBy;
+
+    public UnlockDatabaseChangeLogStatement() {
+        this(null);
+    }
+
+    /**
+     * @param lockedBy only release the lock if its LOCKEDBY column has this value, or null to release it regardless of the holder
+     */
+    public UnlockDatabaseChangeLogStatement(String lockedBy) {
+        this.lockedBy = lockedBy;
+    }
+
+    public String getLockedBy() {
+        return lockedBy;
+    }
+}
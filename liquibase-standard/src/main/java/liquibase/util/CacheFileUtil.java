@@ -0,0 +1,130 @@
+package liquibase.util;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reads and writes the local cache files kept by {@link liquibase.changelog.RanChangeSetCache},
+ * {@link liquibase.changelog.CheckSumCache} and {@link liquibase.parser.core.ParsedNodeCache}, which several processes may share.
+ * <p>
+ * Whole files are replaced by moving a complete temporary file over them, so readers never see a partly written file.
+ * Appends and reads of files that are appended to hold a file lock, so entries written by different processes do not interleave
+ * and are not read half written.
+ */
+public class CacheFileUtil {
+
+    /**
+     * File locks are held by the whole process, so threads of this process wait on these instead.
+     */
+    private static final Map<String, ReentrantLock> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    /**
+     * Writes content to a cache file.
+     */
+    public interface ContentWriter {
+
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Reads content from a cache file.
+     */
+    public interface ContentReader<T> {
+
+        T read(DataInputStream in) throws IOException;
+    }
+
+    private CacheFileUtil() {
+        throw new IllegalStateException("This utility class must not be instantiated. Sorry.");
+    }
+
+    /**
+     * Replaces the file with the given content, creating its directory if needed.
+     */
+    public static void writeAtomically(File file, ContentWriter content) throws IOException {
+        File directory = createDirectory(file);
+        File tempFile = File.createTempFile(file.getName(), ".tmp", directory);
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+                content.write(out);
+            }
+            try {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    /**
+     * Appends the given content to the file in a single write while holding an exclusive lock on it.
+     */
+    public static void appendLocked(File file, ContentWriter content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            content.write(out);
+        }
+        createDirectory(file);
+        ReentrantLock processLock = processLock(file);
+        processLock.lock();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+             FileLock ignored = channel.lock()) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } finally {
+            processLock.unlock();
+        }
+    }
+
+    /**
+     * Reads the file while holding a shared lock on it, so no append is in progress.
+     */
+    public static <T> T readLocked(File file, ContentReader<T> content) throws IOException {
+        ReentrantLock processLock = processLock(file);
+        processLock.lock();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+             FileLock ignored = channel.lock(0, Long.MAX_VALUE, true)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            return content.read(in);
+        } finally {
+            processLock.unlock();
+        }
+    }
+
+    public static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    public static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static File createDirectory(File file) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory " + directory.getAbsolutePath());
+        }
+        return directory;
+    }
+
+    private static ReentrantLock processLock(File file) {
+        return PROCESS_LOCKS.computeIfAbsent(file.getAbsolutePath(), path -> new ReentrantLock());
+    }
+}
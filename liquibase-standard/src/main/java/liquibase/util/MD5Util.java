@@ -70,6 +70,13 @@ public class MD5Util {
         return returnString;
     }
 
+    /**
+     * Returns the lower-case hexadecimal representation of the given bytes, as used for computed md5-sums.
+     */
+    public static String encodeHexString(byte[] data) {
+        return new String(encodeHex(data));
+    }
+
     /**
      * Converts an array of bytes into an array of characters representing the hexadecimal values of each byte in order.
      * The returned array will be double the length of the passed array, as it takes two characters to represent any
@@ -0,0 +1,119 @@
+package liquibase.change
+
+import liquibase.ChecksumVersion
+import liquibase.Scope
+import liquibase.change.core.CreateTableChange
+import liquibase.change.core.InsertDataChange
+import liquibase.change.core.RawSQLChange
+import liquibase.serializer.core.string.StringChangeLogSerializer
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class CheckSumWriterTest extends Specification {
+
+    private static final List<String> CORPUS = [
+            "",
+            "a",
+            "simple ascii text",
+            "line1\r\nline2\rline3\nline4",
+            "\r\n\r\n\r\r\n\n\r",
+            "ends with carriage return\r",
+            "\r�\nunknown char between CR and LF",
+            "unknown � char �� removed",
+            "é composed after ascii",
+            "́ combining mark first",
+            "Ạ̊ reordered marks",
+            "각 decomposed hangul",
+            "café déjà vu üñîçødé",
+            "中文字符串没有空格",
+            "emoji 😀 and 🇺🇸 flags",
+            "lone \uD83D surrogate \uDE00 halves",
+            "ﬁ compatibility ligature and Å angstrom sign",
+            "x" * 20000,
+            ("café\r\n" * 3000) + "é" * 3000,
+            "é" * 9000 + "😀" * 5000,
+            "中文字符串" * 2000,
+            "\u1100\u1161\u11A8" * 2000,
+            "\u0915\u094D\u0937" * 2000 + "\uD834\uDD65" * 700,
+            "a" + "\u0301\u0323" * 1500,
+    ]
+
+    @Unroll
+    def "matches CheckSum.compute for corpus entry #index with checksum version #version"() {
+        expect:
+        Scope.child([(Scope.Attr.checksumVersion.name()): version], {
+            def expected = CheckSum.compute(value)
+            assert computeInChunks(value, value.length() + 1) == expected
+            assert computeInChunks(value, 1) == expected
+            assert computeInChunks(value, 7) == expected
+            assert computeInChunks(value, 8192) == expected
+        } as Scope.ScopedRunner)
+
+        where:
+        [index, value, version] << [CORPUS.indices, ChecksumVersion.values()].combinations().collect { [it[0], CORPUS[it[0]], it[1]] }
+    }
+
+    @Unroll
+    def "serialized checksum of #change.serializedObjectName matches checksum of serialized string"() {
+        expect:
+        def serializer = new StringChangeLogSerializer()
+        CheckSum.compute(serializer, change) == CheckSum.compute(serializer.serialize(change, false))
+
+        where:
+        change << [
+                new RawSQLChange("select *\r\nfrom t\rwhere x = 'café' -- é\r"),
+                insertData(),
+                createTable(),
+        ]
+    }
+
+    def "keeps the text held for normalization bounded for long non-ASCII text"() {
+        when:
+        def writer = new CheckSumWriter()
+        int maxPending = 0
+        for (int i = 0; i < 20000; i++) {
+            writer.append("中文é\u0301")
+            maxPending = Math.max(maxPending, writer.pending.length())
+        }
+
+        then:
+        maxPending <= CheckSumWriter.PENDING_LIMIT
+        writer.getCheckSum() == CheckSum.compute("中文é\u0301" * 20000)
+    }
+
+    def "cannot write after the checksum was computed"() {
+        when:
+        def writer = new CheckSumWriter()
+        writer.append("a")
+        writer.getCheckSum()
+        writer.append("b")
+
+        then:
+        thrown(IllegalStateException)
+    }
+
+    private static CheckSum computeInChunks(String value, int chunkSize) {
+        def writer = new CheckSumWriter()
+        for (int i = 0; i < value.length(); i += chunkSize) {
+            writer.write(value, i, Math.min(chunkSize, value.length() - i))
+        }
+        return writer.getCheckSum()
+    }
+
+    private static InsertDataChange insertData() {
+        def change = new InsertDataChange()
+        change.setTableName("person")
+        change.addColumn(new ColumnConfig().setName("name").setValue("Renée\r\nline two"))
+        change.addColumn(new ColumnConfig().setName("comment").setValue("é �"))
+        return change
+    }
+
+    private static CreateTableChange createTable() {
+        def change = new CreateTableChange()
+        change.setTableName("person")
+        change.setRemarks("multi\r\nline")
+        change.addColumn(new ColumnConfig().setName("id").setType("int"))
+        change.addColumn(new ColumnConfig().setName("name").setType("varchar(255)").setDefaultValueNumeric(1.50d))
+        return change
+    }
+}
@@ -7,6 +7,7 @@ import liquibase.serializer.LiquibaseSerializable
 import liquibase.statement.DatabaseFunction
 import liquibase.statement.SequenceNextValueFunction
 import liquibase.structure.core.*
+import liquibase.util.ISODateFormat
 import spock.lang.Shared
 import spock.lang.Specification
 import spock.lang.Unroll
@@ -225,6 +226,17 @@ class ColumnConfigTest extends Specification {
         new ColumnConfig().setValueDate("date_func").getValueComputed().toString() == "date_func"
     }
 
+    def "setValueDate with shared format"() {
+        when:
+        def format = new ISODateFormat()
+
+        then:
+        new ColumnConfig().setValueDate("1992-02-11T13:22:44.006", format).getValueDate().toString() == "1992-02-11 13:22:44.006"
+        new ColumnConfig().setValueDate("1992-02-12", format).getValueDate().toString() == "1992-02-12"
+        new ColumnConfig().setValueDate("date_func", format).getValueComputed().toString() == "date_func"
+        new ColumnConfig().setValueDate("NULL", format).getValueDate() == null
+    }
+
     def getValueObject() {
         expect:
         new ColumnConfig().setValueBoolean(true).getValueObject() == true
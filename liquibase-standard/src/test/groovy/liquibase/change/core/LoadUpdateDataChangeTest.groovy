@@ -1,9 +1,20 @@
 package liquibase.change.core
 
 import liquibase.ChecksumVersion
+import liquibase.GlobalConfiguration
 import liquibase.Scope
 import liquibase.change.ChangeStatus
+import liquibase.changelog.ChangeSet
+import liquibase.database.DatabaseFactory
+import liquibase.database.core.H2Database
 import liquibase.database.core.PostgresDatabase
+import liquibase.executor.ExecutorService
+import liquibase.statement.BatchDmlExecutablePreparedStatement
+import liquibase.statement.core.CreateStagingTableStatement
+import liquibase.statement.core.DeleteStatement
+import liquibase.statement.core.DropTableStatement
+import liquibase.statement.core.MergeFromTableStatement
+import liquibase.statement.core.RawSqlStatement
 import liquibase.database.DatabaseConnection
 import liquibase.integration.commandline.LiquibaseCommandLineConfiguration
 import liquibase.snapshot.MockSnapshotGeneratorFactory
@@ -249,4 +260,75 @@ public class LoadUpdateDataChangeTest extends StandardChangeTest {
         ChecksumVersion.V8 | "8:e51a6408e921cfa151c50c7d90cf5baa" | "8:e51a6408e921cfa151c50c7d90cf5baa"
         ChecksumVersion.latest() | "9:91298c1042fcb57394a242e8c838ce51" | "9:91298c1042fcb57394a242e8c838ce51"
     }
+
+    def "loadUpdate merges rows from a staging table"() throws Exception {
+        when:
+        def database = DatabaseFactory.getInstance().openDatabase("jdbc:h2:mem:LoadUpdateDataMergeTest", "sa", "", null, new ClassLoaderResourceAccessor())
+        def executor = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database)
+        executor.execute(new RawSqlStatement("CREATE TABLE MERGE_DATA (NAME VARCHAR(50) PRIMARY KEY, USERNAME VARCHAR(50))"))
+        executor.execute(new RawSqlStatement("INSERT INTO MERGE_DATA VALUES ('John Doe', 'old'), ('Jane Roe', 'jroe')"))
+
+        LoadUpdateDataChange change = new LoadUpdateDataChange()
+        change.setTableName("MERGE_DATA")
+        change.setPrimaryKey("name")
+        change.setFile("liquibase/change/core/sample.data1.csv")
+        change.setChangeSet(new ChangeSet("1", "test", false, false, "changelog.xml", null, null, false, null))
+
+        def statements = Scope.child([(GlobalConfiguration.LOAD_UPDATE_DATA_MERGE.key): true], {
+            def statements = change.generateStatements(database)
+            statements.each { executor.execute(it) }
+            return statements
+        } as Scope.ScopedRunnerWithReturn<SqlStatement[]>)
+        def rows = executor.queryForList(new RawSqlStatement("SELECT NAME, USERNAME FROM MERGE_DATA ORDER BY NAME"))
+        def stagingTables = executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME LIKE 'LB_STAGE_%'"))
+        def rollback = Scope.child([(GlobalConfiguration.LOAD_UPDATE_DATA_MERGE.key): true], {
+            return change.generateRollbackStatements(database)
+        } as Scope.ScopedRunnerWithReturn<SqlStatement[]>)
+        database.close()
+
+        then:
+        statements*.class == [CreateStagingTableStatement, BatchDmlExecutablePreparedStatement, MergeFromTableStatement, DropTableStatement]
+        rows*.get("USERNAME") == ["bjohnson", "jroe", "jdoe"]
+        stagingTables == 0
+        rollback.length == 2
+        rollback.every { it instanceof DeleteStatement }
+    }
+
+    def "loadUpdate does not use a staging table if its DDL would commit the changeset"() throws Exception {
+        when:
+        LoadUpdateDataChange change = new LoadUpdateDataChange()
+        change.setTableName("TABLE_NAME")
+        change.setPrimaryKey("name")
+        change.setFile("liquibase/change/core/sample.data1.csv")
+        change.setChangeSet(new ChangeSet("1", "test", false, false, "changelog.xml", null, null, runInTransaction, null))
+
+        def statements = Scope.child([(GlobalConfiguration.LOAD_UPDATE_DATA_MERGE.key): true], {
+            return change.generateStatements(database)
+        } as Scope.ScopedRunnerWithReturn<SqlStatement[]>)
+
+        then:
+        statements[0].class == expected
+
+        where:
+        database               | runInTransaction | expected
+        new H2Database()       | true             | InsertOrUpdateStatement
+        new H2Database()       | false            | CreateStagingTableStatement
+        new PostgresDatabase() | true             | CreateStagingTableStatement
+    }
+
+    def "loadUpdate inserts or updates row by row if the file has duplicate keys"() throws Exception {
+        when:
+        LoadUpdateDataChange change = new LoadUpdateDataChange()
+        change.setTableName("TABLE_NAME")
+        change.setPrimaryKey("name")
+        change.setFile("liquibase/change/core/sample.data1-duplicateKeys.csv")
+
+        def statements = Scope.child([(GlobalConfiguration.LOAD_UPDATE_DATA_MERGE.key): true], {
+            return change.generateStatements(new H2Database())
+        } as Scope.ScopedRunnerWithReturn<SqlStatement[]>)
+
+        then:
+        statements.length == 3
+        statements.every { it instanceof InsertOrUpdateStatement }
+    }
 }
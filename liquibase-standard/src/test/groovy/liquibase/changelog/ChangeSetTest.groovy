@@ -1,6 +1,7 @@
 package liquibase.changelog
 
 
+import liquibase.ChecksumVersion
 import liquibase.Scope
 import liquibase.change.CheckSum
 import liquibase.change.ColumnConfig
@@ -9,6 +10,7 @@ import liquibase.changelog.visitor.ChangeExecListener
 import liquibase.changelog.visitor.DefaultChangeExecListener
 import liquibase.database.core.H2Database
 import liquibase.database.core.MockDatabase
+import liquibase.exception.UnexpectedLiquibaseException
 import liquibase.parser.ChangeLogParserConfiguration
 import liquibase.parser.core.ParsedNode
 import liquibase.parser.core.ParsedNodeException
@@ -199,6 +201,84 @@ class ChangeSetTest extends Specification {
         changeSet.changes[1].tableName == "table_2"
     }
 
+    def "load node with lazy change loading creates changes on first use"() {
+        when:
+        def node = new ParsedNode(null, "changeSet")
+                .addChildren([id: "1", author: "nvoxland", context: "test"])
+                .addChild(new ParsedNode(null, "createTable").addChild(null, "tableName", "table_1"))
+                .addChild(new ParsedNode(null, "comment").setValue("my comment"))
+                .addChild(new ParsedNode(null, "sql").setValue("select 1"))
+        def eager = new ChangeSet(new DatabaseChangeLog("com/example/test.xml"))
+        eager.load(node, resourceSupplier.simpleResourceAccessor)
+        def lazy = new ChangeSet(new DatabaseChangeLog("com/example/test.xml"))
+        Scope.child([(ChangeLogParserConfiguration.LAZY_CHANGE_LOADING.key): true], {
+            lazy.load(node, resourceSupplier.simpleResourceAccessor)
+        } as Scope.ScopedRunner)
+
+        then:
+        !lazy.isChangesLoaded()
+        lazy.toString(false) == "com/example/test.xml::1::nvoxland"
+        lazy.contextFilter.toString() == "test"
+        lazy.comments == "my comment"
+
+        lazy.changes*.class == [CreateTableChange, RawSQLChange]
+        lazy.isChangesLoaded()
+        lazy.changes[0].tableName == "table_1"
+        lazy.changes[0].changeSet == lazy
+        lazy.generateCheckSum(ChecksumVersion.latest()) == eager.generateCheckSum(ChecksumVersion.latest())
+    }
+
+    def "load node with lazy change loading keeps changes added later after the loaded ones"() {
+        when:
+        def changeSet = new ChangeSet(new DatabaseChangeLog("com/example/test.xml"))
+        Scope.child([(ChangeLogParserConfiguration.LAZY_CHANGE_LOADING.key): true], {
+            changeSet.load(new ParsedNode(null, "changeSet")
+                    .addChildren([id: "1", author: "nvoxland"])
+                    .addChild(new ParsedNode(null, "createTable").addChild(null, "tableName", "table_1")), resourceSupplier.simpleResourceAccessor)
+        } as Scope.ScopedRunner)
+        changeSet.addChange(new DropTableChange(tableName: "table_2"))
+
+        then:
+        changeSet.changes*.class == [CreateTableChange, DropTableChange]
+    }
+
+    def "load node with lazy change loading still fails on unknown change types"() {
+        when:
+        def changeSet = new ChangeSet(new DatabaseChangeLog("com/example/test.xml"))
+        Scope.child([(ChangeLogParserConfiguration.LAZY_CHANGE_LOADING.key): true], {
+            changeSet.load(new ParsedNode(null, "changeSet")
+                    .addChildren([id: "1", author: "nvoxland"])
+                    .addChild(new ParsedNode(null, "invalid").addChild(null, "tableName", "table_2")), resourceSupplier.simpleResourceAccessor)
+        } as Scope.ScopedRunner)
+
+        then:
+        def e = thrown(ParsedNodeException)
+        e.message.contains("Unknown change type 'invalid'")
+    }
+
+    def "load node with lazy change loading reports errors in changes on first use"() {
+        when:
+        def changeSet = new ChangeSet(new DatabaseChangeLog("com/example/test.xml"))
+        Scope.child([(ChangeLogParserConfiguration.LAZY_CHANGE_LOADING.key): true], {
+            changeSet.load(new ParsedNode(null, "changeSet")
+                    .addChildren([id: "1", author: "nvoxland"])
+                    .addChild(new ParsedNode(null, "createTable").addChild(null, "tableName", "table_1")
+                            .addChild(new ParsedNode(null, "column").addChild(null, "invalid", "value"))), resourceSupplier.simpleResourceAccessor)
+        } as Scope.ScopedRunner)
+
+        then:
+        !changeSet.isChangesLoaded()
+
+        when:
+        changeSet.getChanges()
+
+        then:
+        def e = thrown(UnexpectedLiquibaseException)
+        e.message.contains("Error loading changes of com/example/test.xml::1::nvoxland")
+        e.message.contains("Unexpected node: invalid")
+        !changeSet.isChangesLoaded()
+    }
+
     def "load node with unknown change types and strict parsing"() {
         when:
         def changeSet = new ChangeSet(new DatabaseChangeLog("com/example/test.xml"))
@@ -0,0 +1,147 @@
+package liquibase.changelog
+
+import liquibase.ChecksumVersion
+import liquibase.change.CheckSum
+import liquibase.GlobalConfiguration
+import liquibase.Scope
+import liquibase.change.core.LoadDataChange
+import liquibase.parser.ChangeLogParserConfiguration
+import liquibase.parser.core.ParsedNode
+import liquibase.resource.DirectoryResourceAccessor
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.attribute.FileTime
+
+class CheckSumCacheTest extends Specification {
+
+    @TempDir
+    File changeLogDir
+
+    @TempDir
+    File cacheDir
+
+    def setup() {
+        Scope.currentScope.getSingleton(CheckSumCache).clearCache()
+    }
+
+    def cleanup() {
+        Scope.currentScope.getSingleton(CheckSumCache).clearCache()
+    }
+
+    def "checksums are reused while the changelog and data files are unchanged"() {
+        when:
+        def changeLogFile = writeFile("changelog.xml", "<databaseChangeLog/>")
+        def dataFile = writeFile("data.csv", "id,name\n1,a\n")
+        def original = computeCheckSum(true)
+
+        then:
+        cacheDir.listFiles().length == 1
+        original == computeCheckSum(false)
+
+        when: "data file content changes but size and last-modified time do not"
+        def lastModified = Files.getLastModifiedTime(dataFile.toPath())
+        dataFile.text = "id,name\n2,b\n"
+        Files.setLastModifiedTime(dataFile.toPath(), lastModified)
+        Scope.currentScope.getSingleton(CheckSumCache).clearCache()
+
+        then: "the cached value is used"
+        computeCheckSum(true) == original
+
+        when: "data file last-modified time changes"
+        Files.setLastModifiedTime(dataFile.toPath(), FileTime.fromMillis(lastModified.toMillis() + 5000))
+
+        then:
+        computeCheckSum(true) != original
+        computeCheckSum(true) == computeCheckSum(false)
+
+        when: "changelog file changes"
+        def changedChecksum = computeCheckSum(false)
+        changeLogFile.text = "<databaseChangeLog></databaseChangeLog>"
+        dataFile.text = "id,name\n3,c\n"
+        Files.setLastModifiedTime(dataFile.toPath(), FileTime.fromMillis(lastModified.toMillis() + 5000))
+
+        then: "the whole cache file is dropped"
+        computeCheckSum(true) != changedChecksum
+        computeCheckSum(true) == computeCheckSum(false)
+    }
+
+    def "changelogs referencing parameters are not cached"() {
+        when:
+        writeFile("changelog.xml", "<databaseChangeLog><property name=\"x\" value=\"y\"/>\${x}</databaseChangeLog>")
+        writeFile("data.csv", "id,name\n1,a\n")
+        computeCheckSum(true)
+
+        then:
+        cacheDir.listFiles().length == 0
+    }
+
+    def "changesets reading files that reference parameters are not cached"() {
+        when:
+        writeFile("changelog.xml", "<databaseChangeLog/>")
+        writeFile("data.csv", "id,name\n1,\${x}\n")
+        computeCheckSum(true)
+
+        then:
+        Scope.currentScope.getSingleton(CheckSumCache).clearCache()
+        def cacheFile = cacheDir.listFiles()[0]
+        cacheFile.length() < 100 //only the header was written
+    }
+
+    def "cached checksums of lazily loaded changesets do not create their changes"() {
+        when:
+        writeFile("changelog.xml", "<databaseChangeLog/>")
+        writeFile("data.csv", "id,name\n1,a\n")
+        def first = loadLazyChangeSet()
+        def original = computeCheckSum(first)
+        def second = loadLazyChangeSet()
+
+        then:
+        first.isChangesLoaded()
+        !second.isChangesLoaded()
+        computeCheckSum(second) == original
+        !second.isChangesLoaded()
+        second.changes*.class == [LoadDataChange]
+    }
+
+    private ChangeSet loadLazyChangeSet() {
+        def changeLog = new DatabaseChangeLog("changelog.xml")
+        def changeSet = new ChangeSet(changeLog)
+        Scope.child([(ChangeLogParserConfiguration.LAZY_CHANGE_LOADING.key): true], {
+            changeSet.load(new ParsedNode(null, "changeSet")
+                    .addChildren([id: "1", author: "test"])
+                    .addChild(new ParsedNode(null, "loadData").addChildren([file: "data.csv", tableName: "person"])), new DirectoryResourceAccessor(changeLogDir))
+        } as Scope.ScopedRunner)
+        changeLog.addChangeSet(changeSet)
+        return changeSet
+    }
+
+    private CheckSum computeCheckSum(ChangeSet changeSet) {
+        def scopeValues = [(Scope.Attr.resourceAccessor.name()): new DirectoryResourceAccessor(changeLogDir),
+                           (GlobalConfiguration.CHECKSUM_CACHE_DIRECTORY.key): cacheDir.absolutePath]
+        return Scope.child(scopeValues, { -> changeSet.generateCheckSum(ChecksumVersion.latest()) } as Scope.ScopedRunnerWithReturn)
+    }
+
+    private File writeFile(String name, String content) {
+        def file = new File(changeLogDir, name)
+        file.text = content
+        return file
+    }
+
+    private CheckSum computeCheckSum(boolean useCache) {
+        def changeLog = new DatabaseChangeLog("changelog.xml")
+        def changeSet = new ChangeSet("1", "test", false, false, "changelog.xml", null, null, changeLog)
+        def change = new LoadDataChange()
+        change.setFile("data.csv")
+        change.setTableName("person")
+        changeSet.addChange(change)
+        changeLog.addChangeSet(changeSet)
+
+        def scopeValues = [(Scope.Attr.resourceAccessor.name()): new DirectoryResourceAccessor(changeLogDir)]
+        if (useCache) {
+            scopeValues.put(GlobalConfiguration.CHECKSUM_CACHE_DIRECTORY.key, cacheDir.absolutePath)
+        }
+        return Scope.child(scopeValues, { -> changeSet.generateCheckSum(ChecksumVersion.latest()) } as Scope.ScopedRunnerWithReturn)
+    }
+}
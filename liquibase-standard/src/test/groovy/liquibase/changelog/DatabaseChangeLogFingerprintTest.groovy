@@ -0,0 +1,53 @@
+package liquibase.changelog
+
+import liquibase.change.CheckSum
+import spock.lang.Specification
+
+class DatabaseChangeLogFingerprintTest extends Specification {
+
+    def "computeRowHash uses the leading hex digits of the MD5 of the row"() {
+        expect:
+        DatabaseChangeLogFingerprint.computeRowHash("1", "nvoxland", "db/changelog.xml", "9:abc") == new BigInteger("352606549952567056")
+        DatabaseChangeLogFingerprint.computeRowHash("1", "nvoxland", "db/changelog.xml", null) == new BigInteger("703075777494748460")
+    }
+
+    def "computeRowStateHash also covers tag and exec type"() {
+        expect:
+        DatabaseChangeLogFingerprint.computeRowStateHash("1", "nvoxland", "db/changelog.xml", "9:abc", "v1", "EXECUTED") == new BigInteger("219027742892386362")
+        DatabaseChangeLogFingerprint.computeRowStateHash("1", "nvoxland", "db/changelog.xml", "9:abc", null, "EXECUTED") == new BigInteger("89066941361736710")
+        DatabaseChangeLogFingerprint.computeRowStateHash("1", "nvoxland", "db/changelog.xml", "9:abc", null, "MARK_RAN") == new BigInteger("252085278781639642")
+    }
+
+    def "re-tagging or changing the exec type changes only the row state hash"() {
+        when:
+        def ran = new RanChangeSet("db/changelog.xml", "1", "nvoxland", CheckSum.parse("9:abc"), new Date(), null, ChangeSet.ExecType.EXECUTED, null, null, null, null, "1", "db/changelog.xml")
+        def tagged = new RanChangeSet("db/changelog.xml", "1", "nvoxland", CheckSum.parse("9:abc"), new Date(), "v1", ChangeSet.ExecType.EXECUTED, null, null, null, null, "1", "db/changelog.xml")
+        def retagged = new RanChangeSet("db/changelog.xml", "1", "nvoxland", CheckSum.parse("9:abc"), new Date(), "v2", ChangeSet.ExecType.EXECUTED, null, null, null, null, "1", "db/changelog.xml")
+        def markRan = new RanChangeSet("db/changelog.xml", "1", "nvoxland", CheckSum.parse("9:abc"), new Date(), "v1", ChangeSet.ExecType.MARK_RAN, null, null, null, null, "1", "db/changelog.xml")
+        def fingerprint = DatabaseChangeLogFingerprint.of([tagged], true)
+
+        then:
+        [ran, retagged, markRan].every { DatabaseChangeLogFingerprint.of([it], true).rowHash == fingerprint.rowHash }
+        [ran, retagged, markRan].every { DatabaseChangeLogFingerprint.of([it], true).rowStateHash != fingerprint.rowStateHash }
+        DatabaseChangeLogFingerprint.of([retagged], true) != fingerprint
+        DatabaseChangeLogFingerprint.of([markRan], true) != fingerprint
+    }
+
+    def "of summarizes ran changesets"() {
+        when:
+        def first = new RanChangeSet("db/changelog.xml", "1", "nvoxland", CheckSum.parse("9:abc"), new Date(), "v1", ChangeSet.ExecType.EXECUTED, null, null, null, null, "1000000002", "db/changelog.xml")
+        first.setOrderExecuted(3)
+        def second = new RanChangeSet("db/changelog.xml", "2", "nvoxland", null, new Date(), null, ChangeSet.ExecType.EXECUTED, null, null, null, null, "1000000001", "db/changelog.xml")
+        second.setOrderExecuted(7)
+
+        then:
+        DatabaseChangeLogFingerprint.of([first, second], false) == new DatabaseChangeLogFingerprint(2, 7, "1000000002", 1, 1, null, null)
+        DatabaseChangeLogFingerprint.of([first, second], true).rowHash ==
+                DatabaseChangeLogFingerprint.computeRowHash("1", "nvoxland", "db/changelog.xml", "9:abc") +
+                DatabaseChangeLogFingerprint.computeRowHash("2", "nvoxland", "db/changelog.xml", null)
+        DatabaseChangeLogFingerprint.of([first, second], true).rowStateHash ==
+                DatabaseChangeLogFingerprint.computeRowStateHash("1", "nvoxland", "db/changelog.xml", "9:abc", "v1", "EXECUTED") +
+                DatabaseChangeLogFingerprint.computeRowStateHash("2", "nvoxland", "db/changelog.xml", null, null, "EXECUTED")
+        DatabaseChangeLogFingerprint.of([], true) == new DatabaseChangeLogFingerprint(0, null, null, 0, 0, BigInteger.ZERO, BigInteger.ZERO)
+    }
+}
@@ -135,6 +135,27 @@ create view sql_view as select * from sql_table;'''
         changeLog.getChangeSet(path, "auth", "with-dbms-and-context") == null
     }
 
+    def "getChangeSets matches normalized paths case-insensitively and sees changesets added after a lookup"() {
+        when:
+        def changeLog = new DatabaseChangeLog("com/example/path.xml")
+        changeLog.addChangeSet(new ChangeSet("1", "auth", false, false, "com/example/path.xml", null, null, changeLog))
+
+        then:
+        changeLog.getChangeSets("classpath:/com/example/../example/PATH.xml", "AUTH", "1")*.id == ["1"]
+        changeLog.getChangeSets("com/example/path.xml", "auth", "2").isEmpty()
+        changeLog.getChangeSets("com/example/path.xml", null, "1").isEmpty()
+
+        when: "changesets are added through addChangeSet"
+        changeLog.addChangeSet(new ChangeSet("2", "auth", false, false, "com/example/path.xml", null, null, changeLog))
+        then:
+        changeLog.getChangeSets("com/example/path.xml", "auth", "2")*.id == ["2"]
+
+        when: "changesets are added directly to the list"
+        changeLog.getChangeSets().add(new ChangeSet("1", "auth", false, false, "com/example/path.xml", null, null, changeLog))
+        then:
+        changeLog.getChangeSets("com/example/path.xml", "auth", "1").size() == 2
+    }
+
     def "load handles both changes and preconditions"() {
         when:
         def children = [
@@ -427,6 +448,75 @@ create view sql_view as select * from sql_table;'''
                                                              "com/example/children/file3.sql"]
     }
 
+    def "includeAll reading files on several threads includes them like reading one at a time"() {
+        when:
+        def files = [:]
+        (1..20).each { i ->
+            def property = (i == 1) ? '<property name="tablePrefix" value="tbl_" global="true"/>' : ""
+            files[String.format("com/example/children/file%02d.xml", i)] = """<databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog"
+        xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+        xsi:schemaLocation="http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-latest.xsd">
+    ${property}
+    <changeSet id="${i}" author="nvoxland">
+        <createTable tableName="\${tablePrefix}${i}">
+            <column name="id" type="int"/>
+        </createTable>
+    </changeSet>
+</databaseChangeLog>""".toString()
+        }
+        files["com/example/children/file05.xml"] = files["com/example/children/file05.xml"].replace("</databaseChangeLog>",
+                '<changeSet id="5" author="nvoxland"><output>duplicate</output></changeSet></databaseChangeLog>')
+        files["com/example/children/file21.sql"] = "select 1"
+        def includeAll = { int parallelism ->
+            def changeLog = new DatabaseChangeLog("com/example/root.xml")
+            changeLog.setChangeLogParameters(new ChangeLogParameters())
+            Scope.child([(ChangeLogParserConfiguration.INCLUDE_ALL_PARSE_PARALLELISM.key): parallelism], {
+                changeLog.includeAll("com/example/children", false, null, true, changeLog.getStandardChangeLogComparator(), new MockResourceAccessor(files),
+                        new ContextExpression(), new Labels(), false, null, 0, Integer.MAX_VALUE)
+            } as Scope.ScopedRunner)
+            return changeLog.changeSets.collect { it.filePath + "::" + it.id + "::" + it.changes[0].description }
+        }
+        def serial = includeAll(1)
+        def parallel = includeAll(4)
+
+        then:
+        serial.size() == 22
+        serial[0] == "com/example/children/file01.xml::1::createTable tableName=tbl_1"
+        serial[5] == "com/example/children/file05.xml::5::output"
+        serial[20] == "com/example/children/file20.xml::20::createTable tableName=tbl_20"
+        parallel == serial
+    }
+
+    def "includeAll reading files on several threads fails on the same file as reading one at a time"() {
+        when:
+        def files = [:]
+        (1..10).each { i ->
+            files["com/example/children/file${i}.xml".toString()] = """<databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog"
+        xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+        xsi:schemaLocation="http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-latest.xsd">
+    <changeSet id="${i}" author="nvoxland"><output>${i}</output></changeSet>
+</databaseChangeLog>""".toString()
+        }
+        files["com/example/children/file4.xml"] = "<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\"><changeSet"
+        def includeAll = { int parallelism, Map<String, String> content ->
+            def changeLog = new DatabaseChangeLog("com/example/root.xml")
+            changeLog.setChangeLogParameters(new ChangeLogParameters())
+            try {
+                Scope.child([(ChangeLogParserConfiguration.INCLUDE_ALL_PARSE_PARALLELISM.key): parallelism], {
+                    changeLog.includeAll("com/example/children", false, null, true, changeLog.getStandardChangeLogComparator(), new MockResourceAccessor(content),
+                            new ContextExpression(), new Labels(), false, null, 0, Integer.MAX_VALUE)
+                } as Scope.ScopedRunner)
+            } catch (SetupException e) {
+                return e.message
+            }
+            return null
+        }
+
+        then:
+        includeAll(1, files).contains("com/example/children/file4.xml")
+        includeAll(4, files) == includeAll(1, files)
+    }
+
     def "includeAll empty relative path"() {
         when:
         def resourceAccessor = new MockResourceAccessor([
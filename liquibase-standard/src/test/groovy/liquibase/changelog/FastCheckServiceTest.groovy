@@ -0,0 +1,127 @@
+package liquibase.changelog
+
+import liquibase.ChecksumVersion
+import liquibase.Contexts
+import liquibase.LabelExpression
+import liquibase.RuntimeEnvironment
+import liquibase.Scope
+import liquibase.changelog.filter.ContextChangeSetFilter
+import liquibase.changelog.filter.ShouldRunChangeSetFilter
+import liquibase.changelog.visitor.StatusVisitor
+import liquibase.database.Database
+import liquibase.database.core.MockDatabase
+import liquibase.exception.DatabaseException
+import spock.lang.Specification
+
+import java.util.stream.Stream
+
+class FastCheckServiceTest extends Specification {
+
+    def setup() {
+        Scope.currentScope.getSingleton(FastCheckService).clearCache()
+        Scope.currentScope.getSingleton(ChangeLogHistoryServiceFactory).resetAll()
+    }
+
+    def cleanup() {
+        Scope.currentScope.getSingleton(FastCheckService).clearCache()
+        Scope.currentScope.getSingleton(ChangeLogHistoryServiceFactory).resetAll()
+    }
+
+    def "matching history fingerprint is up to date without reading history rows"() {
+        when:
+        def database = new MockDatabase()
+        def validated = []
+        def changeLog = createChangeLog(validated)
+        def rowHash = changeLog.changeSets.collect {
+            DatabaseChangeLogFingerprint.computeRowHash(it.id, it.author, it.filePath, it.generateCheckSum(ChecksumVersion.latest()).toString())
+        }.inject(BigInteger.ZERO) { sum, hash -> sum + hash }
+        def historyService = new FingerprintOnlyHistoryService(new DatabaseChangeLogFingerprint(2, 2, null, 2, 0, rowHash, BigInteger.ONE))
+        historyService.setDatabase(database)
+        Scope.currentScope.getSingleton(ChangeLogHistoryServiceFactory).register(historyService)
+
+        then:
+        Scope.currentScope.getSingleton(FastCheckService).isUpToDateFastCheck(null, database, changeLog, new Contexts(), new LabelExpression())
+        historyService.historyReads == 0
+        validated == [["1", "2"]]
+        Scope.currentScope.getSingleton(FastCheckService).getFingerprintRanChangeSets(database, changeLog, new Contexts(), new LabelExpression())*.id == ["1", "2"]
+    }
+
+    def "status of a fingerprint match is built from the changesets it showed ran"() {
+        when:
+        def changeLog = createChangeLog()
+        changeLog.addChangeSet(new ChangeSet("3", "nvoxland", false, false, "db/changelog.xml", "other", null, changeLog))
+        def ranChangeSets = changeLog.changeSets.take(2).collect {
+            new RanChangeSet(it.filePath, it.id, it.author, it.generateCheckSum(ChecksumVersion.latest()), null, null, null, null, null, null, null, null, it.filePath)
+        }
+        def statusVisitor = new StatusVisitor(ranChangeSets)
+        new StatusChangeLogIterator(changeLog, new ContextChangeSetFilter(new Contexts("test")), new ShouldRunChangeSetFilter(ranChangeSets, true))
+                .run(statusVisitor, new RuntimeEnvironment(new MockDatabase(), new Contexts("test"), new LabelExpression()))
+
+        then:
+        statusVisitor.changeSetsToRun.isEmpty()
+        statusVisitor.statuses.findAll { it.previouslyRan }*.changeSet*.id == ["1", "2"]
+        statusVisitor.changeSetsToSkip.find { it.changeSet.id == "3" }.filterResults*.filter == [ContextChangeSetFilter]
+    }
+
+    def "history fingerprint that does not match falls back to reading history rows"() {
+        when:
+        def database = new MockDatabase()
+        def changeLog = createChangeLog()
+        def historyService = new FingerprintOnlyHistoryService(new DatabaseChangeLogFingerprint(2, 2, null, 2, 0, BigInteger.ONE, BigInteger.ONE))
+        historyService.setDatabase(database)
+        Scope.currentScope.getSingleton(ChangeLogHistoryServiceFactory).register(historyService)
+
+        then:
+        !Scope.currentScope.getSingleton(FastCheckService).isUpToDateFastCheck(null, database, changeLog, new Contexts(), new LabelExpression())
+        historyService.historyReads > 0
+        Scope.currentScope.getSingleton(FastCheckService).getFingerprintRanChangeSets(database, changeLog, new Contexts(), new LabelExpression()) == null
+    }
+
+    private static DatabaseChangeLog createChangeLog(List<List<String>> validated = []) {
+        def changeLog = new DatabaseChangeLog("db/changelog.xml") {
+            @Override
+            void validate(Database database, Contexts contexts, LabelExpression labelExpression, List<RanChangeSet> ranChangeSets) {
+                validated.add(ranChangeSets*.id)
+                super.validate(database, contexts, labelExpression, ranChangeSets)
+            }
+        }
+        changeLog.addChangeSet(new ChangeSet("1", "nvoxland", false, false, "db/changelog.xml", null, null, changeLog))
+        changeLog.addChangeSet(new ChangeSet("2", "nvoxland", false, false, "db/changelog.xml", null, null, changeLog))
+        return changeLog
+    }
+
+    private static class FingerprintOnlyHistoryService extends StandardChangeLogHistoryService {
+        private final DatabaseChangeLogFingerprint fingerprint
+        int historyReads
+
+        FingerprintOnlyHistoryService(DatabaseChangeLogFingerprint fingerprint) {
+            this.fingerprint = fingerprint
+        }
+
+        @Override
+        int getPriority() {
+            return PRIORITY_DATABASE
+        }
+
+        @Override
+        boolean supports(Database database) {
+            return database instanceof MockDatabase
+        }
+
+        @Override
+        boolean hasDatabaseChangeLogTable() {
+            return true
+        }
+
+        @Override
+        DatabaseChangeLogFingerprint queryDatabaseChangeLogFingerprint(Database database) throws DatabaseException {
+            return fingerprint
+        }
+
+        @Override
+        protected Stream<Map<String, ?>> streamDatabaseChangeLogTable(Database database, Integer afterOrderExecuted) throws DatabaseException {
+            historyReads++
+            return Stream.empty()
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package liquibase.changelog
+
+import liquibase.database.Database
+import liquibase.database.core.MockDatabase
+import liquibase.exception.DatabaseException
+import spock.lang.Specification
+import spock.lang.TempDir
+import spock.lang.Unroll
+
+import java.util.stream.Stream
+
+class StandardChangeLogHistoryServiceTest extends Specification {
+
+    @TempDir
+    File cacheDir
+
+    @Unroll
+    def "getRanChangeSet finds #path::#id::#author using the history index"() {
+        when:
+        def service = new StaticHistoryService([
+                row("db/changelog.xml", "1", "nvoxland", 1),
+                row("db/changelog.xml", "2", "nvoxland", 2),
+                row("db/other.xml", "1", "nvoxland", 3),
+        ])
+        service.setDatabase(new MockDatabase())
+        def found = service.getRanChangeSet(new ChangeSet(id, author, false, false, path, null, null, null))
+
+        then:
+        found?.getOrderExecuted() == expectedOrder
+
+        where:
+        path                          | id  | author     | expectedOrder
+        "db/changelog.xml"            | "1" | "nvoxland" | 1
+        "db/changelog.xml"            | "2" | "nvoxland" | 2
+        "classpath:/db/changelog.xml" | "2" | "nvoxland" | 2
+        "db/../db/other.xml"          | "1" | "nvoxland" | 3
+        "DB/Changelog.XML"            | "1" | "NVOXLAND" | 1
+        "db/changelog.xml"            | "3" | "nvoxland" | null
+        "db/changelog.xml"            | "1" | "other"    | null
+    }
+
+    def "getRanChangeSet returns the first matching row like a scan of the history would"() {
+        when:
+        def service = new StaticHistoryService([
+                row("db/changelog.xml", "1", "nvoxland", 1),
+                row("DB/changelog.xml", "1", "nvoxland", 2),
+        ])
+        service.setDatabase(new MockDatabase())
+
+        then:
+        service.getRanChangeSet(new ChangeSet("1", "nvoxland", false, false, "db/changelog.xml", null, null, null)).getOrderExecuted() == 1
+    }
+
+    def "reset rebuilds the history index"() {
+        when:
+        def rows = [row("db/changelog.xml", "1", "nvoxland", 1)]
+        def service = new StaticHistoryService(rows)
+        service.setDatabase(new MockDatabase())
+        def changeSet = new ChangeSet("2", "nvoxland", false, false, "db/changelog.xml", null, null, null)
+
+        then:
+        service.getRanChangeSet(changeSet) == null
+
+        when:
+        rows.add(row("db/changelog.xml", "2", "nvoxland", 2))
+        service.reset()
+
+        then:
+        service.getRanChangeSet(changeSet).getOrderExecuted() == 2
+    }
+
+    def "history cache is used as-is when the table fingerprint matches"() {
+        when:
+        def rows = [row("db/changelog.xml", "1", "nvoxland", 1), row("db/changelog.xml", "2", "nvoxland", 2)]
+        rows[1].MD5SUM = "9:abc123"
+        rows[1].TAG = "v1"
+        def cache = new RanChangeSetCache(new File(cacheDir, "history"))
+        def first = new StaticHistoryService(rows, cache)
+        first.setDatabase(new MockDatabase())
+        def firstRead = first.getRanChangeSets()
+
+        def second = new StaticHistoryService(rows, cache)
+        second.setDatabase(new MockDatabase())
+        def secondRead = second.getRanChangeSets()
+
+        then:
+        first.fullReads == 1
+        second.fullReads == 0
+        second.incrementalReads == []
+        secondRead*.toString() == firstRead*.toString()
+        secondRead*.getOrderExecuted() == [1, 2]
+        secondRead*.getDateExecuted() == firstRead*.getDateExecuted()
+        secondRead[1].getLastCheckSum().toString() == "9:abc123"
+        secondRead[1].getTag() == "v1"
+        secondRead[1].getExecType() == ChangeSet.ExecType.EXECUTED
+    }
+
+    def "history cache reads only rows past the watermark"() {
+        when:
+        def rows = [row("db/changelog.xml", "1", "nvoxland", 1), row("db/changelog.xml", "2", "nvoxland", 2)]
+        def cache = new RanChangeSetCache(new File(cacheDir, "history"))
+        def first = new StaticHistoryService(rows, cache)
+        first.setDatabase(new MockDatabase())
+        first.getRanChangeSets()
+
+        rows.add(row("db/changelog.xml", "3", "nvoxland", 3))
+        rows.set(0, row("db/changelog.xml", "1", "nvoxland", 4)) //re-run of a runOnChange changeset
+        rows[0].EXECTYPE = "RERAN"
+        def second = new StaticHistoryService(rows, cache)
+        second.setDatabase(new MockDatabase())
+        def secondRead = second.getRanChangeSets()
+
+        then:
+        second.fullReads == 0
+        second.incrementalReads == [2]
+        secondRead*.getId() == ["2", "3", "1"]
+        secondRead[2].getExecType() == ChangeSet.ExecType.RERAN
+    }
+
+    def "history cache falls back to a full read when the table no longer matches"() {
+        when:
+        def rows = [row("db/changelog.xml", "1", "nvoxland", 1), row("db/changelog.xml", "2", "nvoxland", 2)]
+        def cache = new RanChangeSetCache(new File(cacheDir, "history"))
+        def first = new StaticHistoryService(rows, cache)
+        first.setDatabase(new MockDatabase())
+        first.getRanChangeSets()
+
+        rows.remove(0)
+        def second = new StaticHistoryService(rows, cache)
+        second.setDatabase(new MockDatabase())
+        def secondRead = second.getRanChangeSets()
+
+        then:
+        second.fullReads == 1
+        secondRead*.getId() == ["2"]
+        cache.read()*.getId() == ["2"]
+    }
+
+    def "history cache detects checksum changes through the row hash"() {
+        when:
+        def rows = [row("db/changelog.xml", "1", "nvoxland", 1)]
+        rows[0].MD5SUM = "8:abc"
+        def cache = new RanChangeSetCache(new File(cacheDir, "history"))
+        def first = new StaticHistoryService(rows, cache)
+        first.setDatabase(new MockDatabase())
+        first.getRanChangeSets()
+
+        rows[0].MD5SUM = "9:def"
+        def second = new StaticHistoryService(rows, cache)
+        second.setDatabase(new MockDatabase())
+
+        then:
+        second.getRanChangeSets()[0].getLastCheckSum().toString() == "9:def"
+        second.fullReads == 1
+    }
+
+    def "history cache detects tag and exec type changes through the row state hash"() {
+        when:
+        def rows = [row("db/changelog.xml", "1", "nvoxland", 1)]
+        rows[0].MD5SUM = "8:abc"
+        rows[0].TAG = "v1"
+        def cache = new RanChangeSetCache(new File(cacheDir, "history"))
+        def first = new StaticHistoryService(rows, cache)
+        first.setDatabase(new MockDatabase())
+        first.getRanChangeSets()
+
+        rows[0].TAG = "v2"
+        rows[0].EXECTYPE = "MARK_RAN"
+        def second = new StaticHistoryService(rows, cache)
+        second.setDatabase(new MockDatabase())
+        def secondRead = second.getRanChangeSets()
+
+        then:
+        second.fullReads == 1
+        secondRead[0].getTag() == "v2"
+        secondRead[0].getExecType() == ChangeSet.ExecType.MARK_RAN
+    }
+
+    def "history cache is not trusted without a row hash"() {
+        when:
+        def rows = [row("db/changelog.xml", "1", "nvoxland", 1)]
+        rows[0].MD5SUM = "8:abc"
+        def cache = new RanChangeSetCache(new File(cacheDir, "history"))
+        def first = new StaticHistoryService(rows, cache)
+        first.rowHash = false
+        first.setDatabase(new MockDatabase())
+        first.getRanChangeSets()
+
+        rows[0].MD5SUM = "9:def"
+        def second = new StaticHistoryService(rows, cache)
+        second.rowHash = false
+        second.setDatabase(new MockDatabase())
+
+        then:
+        second.getRanChangeSets()[0].getLastCheckSum().toString() == "9:def"
+        first.fullReads == 1
+        second.fullReads == 1
+        !cache.file.exists()
+    }
+
+    def "all reads of the history rows go through the streaming hook"() {
+        when:
+        def rows = [row("db/changelog.xml", "1", "nvoxland", 1), row("db/changelog.xml", "2", "nvoxland", 2)]
+        def service = new StaticHistoryService(rows)
+        def database = new MockDatabase()
+        service.setDatabase(database)
+
+        then:
+        service.queryDatabaseChangeLogTable(database)*.ID == ["1", "2"]
+        service.queryDatabaseChangeLogTable(database, 1)*.ID == ["2"]
+        service.streamRanChangeSets().withCloseable { stream -> stream.collect { it.id } } == ["1", "2"]
+        service.getRanChangeSets()*.id == ["1", "2"]
+        service.fullReads == 3
+        service.incrementalReads == [1]
+    }
+
+    private static Map<String, Object> row(String fileName, String id, String author, int orderExecuted) {
+        return [
+                FILENAME     : fileName,
+                ID           : id,
+                AUTHOR       : author,
+                DATEEXECUTED : new Date(),
+                ORDEREXECUTED: orderExecuted,
+                EXECTYPE     : "EXECUTED",
+        ]
+    }
+
+    private static class StaticHistoryService extends StandardChangeLogHistoryService {
+        private final List<Map<String, ?>> rows
+        private final RanChangeSetCache cache
+        int fullReads
+        boolean rowHash = true
+        List<Integer> incrementalReads = []
+
+        StaticHistoryService(List<Map<String, ?>> rows, RanChangeSetCache cache = null) {
+            this.rows = rows
+            this.cache = cache
+        }
+
+        @Override
+        boolean hasDatabaseChangeLogTable() {
+            return true
+        }
+
+        @Override
+        protected RanChangeSetCache getRanChangeSetCache() {
+            return cache
+        }
+
+        @Override
+        protected Stream<Map<String, ?>> streamDatabaseChangeLogTable(Database database, Integer afterOrderExecuted) throws DatabaseException {
+            if (afterOrderExecuted == null) {
+                fullReads++
+                return rows.stream()
+            }
+            incrementalReads.add(afterOrderExecuted)
+            return rows.findAll { it.ORDEREXECUTED > afterOrderExecuted }.sort { it.ORDEREXECUTED }.stream()
+        }
+
+        @Override
+        DatabaseChangeLogFingerprint queryDatabaseChangeLogFingerprint(Database database) throws DatabaseException {
+            def rowHash = rows.collect { DatabaseChangeLogFingerprint.computeRowHash(it.ID, it.AUTHOR, it.FILENAME, it.MD5SUM) }
+                    .inject(BigInteger.ZERO) { sum, hash -> sum + hash }
+            def rowStateHash = rows.collect { DatabaseChangeLogFingerprint.computeRowStateHash(it.ID, it.AUTHOR, it.FILENAME, it.MD5SUM, it.TAG, it.EXECTYPE) }
+                    .inject(BigInteger.ZERO) { sum, hash -> sum + hash }
+            return new DatabaseChangeLogFingerprint(rows.size(), rows.collect { it.ORDEREXECUTED }.max() as Integer,
+                    rows.findResults { it.DEPLOYMENT_ID }.max() as String, rows.count { it.MD5SUM != null } as int,
+                    rows.count { it.TAG != null } as int, this.rowHash ? rowHash : null, this.rowHash ? rowStateHash : null)
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package liquibase.changelog.visitor
 
+import liquibase.ChecksumVersion
+import liquibase.Contexts
 import liquibase.GlobalConfiguration
+import liquibase.LabelExpression
+import liquibase.RuntimeEnvironment
 import liquibase.Scope
+import liquibase.change.CheckSum
 import liquibase.change.ColumnConfig
 import liquibase.change.core.CreateTableChange
 import liquibase.change.core.OutputChange
@@ -334,4 +339,55 @@ class ValidatingVisitorTest extends Specification {
         then:
         handler.validationPassed()
     }
+    def "precomputeCheckSums computes the checksums validation uses on worker threads in the iterator's scope"() {
+        when:
+        def changeLog = new DatabaseChangeLog("path/changelog")
+        def database = new MockDatabase()
+        def seen = Collections.synchronizedList([])
+        def ranChangeSets = []
+        (1..8).each { i ->
+            def changeSet = new ChangeSet("$i", "testAuthor", false, false, "path/changelog", null, null, changeLog)
+            changeSet.addChange(new OutputChange() {
+                @Override
+                CheckSum generateCheckSum() {
+                    seen.add([Thread.currentThread(), Scope.currentScope.getDatabase(), Scope.currentScope.get(Scope.Attr.changeSet, ChangeSet), Scope.currentScope.get("testValue", String)])
+                    return CheckSum.parse("9:abc$i")
+                }
+            })
+            changeLog.addChangeSet(changeSet)
+            ranChangeSets.add(new RanChangeSet(changeSet))
+        }
+        def expected = changeLog.changeSets.collect { it.generateCheckSum(ChecksumVersion.V9).toString() }
+        ranChangeSets.each { it.setLastCheckSum(CheckSum.parse("9:stored")) }
+        changeLog.changeSets.each { it.clearCheckSum() }
+        seen.clear()
+
+        def visitor = new ValidatingVisitor(ranChangeSets)
+        Scope.child([(GlobalConfiguration.CHECKSUM_PARALLELISM.key): 4, testValue: "fromCaller"], {
+            visitor.precomputeCheckSums(changeLog, [], new RuntimeEnvironment(database, new Contexts(), new LabelExpression()))
+        } as Scope.ScopedRunner)
+
+        then:
+        changeLog.changeSets.collect { it.checkSum.toString() } == expected
+        seen.size() == 8
+        seen.every { it[0] != Thread.currentThread() && it[1].is(database) && it[3] == "fromCaller" }
+        seen.collect { it[2] } as Set == changeLog.changeSets as Set
+    }
+
+    def "precomputeCheckSums does nothing unless parallelism is configured"() {
+        when:
+        def changeLog = new DatabaseChangeLog("path/changelog")
+        def ranChangeSets = (1..3).collect {
+            def changeSet = new ChangeSet("$it", "testAuthor", false, false, "path/changelog", null, null, changeLog)
+            changeLog.addChangeSet(changeSet)
+            def ranChangeSet = new RanChangeSet(changeSet)
+            ranChangeSet.setLastCheckSum(CheckSum.parse("9:stored"))
+            changeSet.clearCheckSum()
+            return ranChangeSet
+        }
+        new ValidatingVisitor(ranChangeSets).precomputeCheckSums(changeLog, [], new RuntimeEnvironment(new MockDatabase(), new Contexts(), new LabelExpression()))
+
+        then:
+        changeLog.changeSets.every { it.checkSum == null }
+    }
 }
@@ -1,5 +1,7 @@
 package liquibase.database.jvm
 
+import liquibase.database.DatabaseFactory
+import liquibase.resource.ClassLoaderResourceAccessor
 import spock.lang.Specification
 import spock.lang.Unroll
 
@@ -114,4 +116,29 @@ class JdbcConnectionTest extends Specification {
         "jdbc:databricks://databricks.azuredatabricks.net:443/default;transportMode=http;ssl=1;AuthMech=11;Auth_Flow=1;httpPath=/sql/1.0/warehouses/warehouseId;ConnCatalog=myCatalog;ConnSchema=mySchema;OAuth2ClientId=MyClientID;OAuth2Secret=MySecret;" | "jdbc:databricks://databricks.azuredatabricks.net:443/default;transportMode=http;ssl=1;AuthMech=11;Auth_Flow=1;httpPath=/sql/1.0/warehouses/warehouseId;ConnCatalog=myCatalog;ConnSchema=mySchema;OAuth2ClientId=MyClientID;OAuth2Secret=*****;"
         null                                                                                 | null
     }
+
+    def "openNewConnection uses the connection factory until the connection is closed"() {
+        when:
+        def url = "jdbc:h2:mem:JdbcConnectionFactoryTest"
+        def connection = (JdbcConnection) DatabaseFactory.instance.openConnection(url, "sa", "", null, new ClassLoaderResourceAccessor())
+
+        then:
+        connection.openNewConnection() == null
+
+        when:
+        connection.setConnectionFactory({ DatabaseFactory.instance.openConnection(url, "sa", "", null, new ClassLoaderResourceAccessor()) })
+        def newConnection = connection.openNewConnection()
+
+        then:
+        newConnection != null
+        !newConnection.is(connection)
+        !newConnection.wrappedConnection.isClosed()
+
+        when:
+        newConnection.close()
+        connection.close()
+
+        then:
+        connection.openNewConnection() == null
+    }
 }
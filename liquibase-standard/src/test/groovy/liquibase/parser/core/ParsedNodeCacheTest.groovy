@@ -0,0 +1,67 @@
+package liquibase.parser.core
+
+import spock.lang.Specification
+import spock.lang.TempDir
+
+class ParsedNodeCacheTest extends Specification {
+
+    @TempDir
+    File cacheDir
+
+    def "write and read round trip the tree"() {
+        when:
+        def node = new ParsedNode("http://www.liquibase.org/xml/ns/dbchangelog", "databaseChangeLog")
+        node.setParsedNamespace("http://www.liquibase.org/xml/ns/dbchangelog")
+        def changeSet = new ParsedNode(null, "changeSet").addChild(null, "id", "1").addChild(null, "author", "nvoxland")
+        def sql = new ParsedNode(null, "sql")
+        sql.setValue("select 1 from dual;\n" * 10000)
+        changeSet.addChild(sql)
+        changeSet.addChild(new ParsedNode(null, "empty"))
+        node.addChild(changeSet)
+
+        def cache = ParsedNodeCache.forChangeLog("com/example/changelog.xml", cacheDir)
+        cache.write("key", node)
+        def read = cache.read("key")
+
+        then:
+        read.toString() == node.toString()
+        read.getNamespace() == node.getNamespace()
+        read.getParsedNamespace() == node.getParsedNamespace()
+        read.getChild(null, "changeSet").getChildValue(null, "id") == "1"
+        read.getChild(null, "changeSet").getChild(null, "sql").getValue() == sql.getValue()
+        read.getChild(null, "changeSet").getChild(null, "empty").getValue() == null
+    }
+
+    def "read returns null for a different key or a missing file"() {
+        when:
+        def cache = ParsedNodeCache.forChangeLog("com/example/changelog.xml", cacheDir)
+
+        then:
+        cache.read("key") == null
+
+        when:
+        cache.write("key", new ParsedNode(null, "databaseChangeLog"))
+
+        then:
+        cache.read("key") != null
+        cache.read("other") == null
+        ParsedNodeCache.forChangeLog("com/example/other.xml", cacheDir).read("key") == null
+    }
+
+    def "trees with non-string values are not cached"() {
+        when:
+        def cache = ParsedNodeCache.forChangeLog("com/example/changelog.xml", cacheDir)
+        cache.write("key", new ParsedNode(null, "databaseChangeLog").addChild(null, "count", 3))
+
+        then:
+        cache.read("key") == null
+        cacheDir.listFiles().length == 0
+    }
+
+    def "toKey depends on content and settings"() {
+        expect:
+        ParsedNodeCache.toKey("a".bytes, "x") == ParsedNodeCache.toKey("a".bytes, "x")
+        ParsedNodeCache.toKey("a".bytes, "x") != ParsedNodeCache.toKey("b".bytes, "x")
+        ParsedNodeCache.toKey("a".bytes, "x") != ParsedNodeCache.toKey("a".bytes, "y")
+    }
+}
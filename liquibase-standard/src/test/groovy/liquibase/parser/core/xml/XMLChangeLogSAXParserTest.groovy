@@ -11,14 +11,19 @@ import liquibase.database.Database
 import liquibase.database.core.MockDatabase
 import liquibase.exception.ChangeLogParseException
 import liquibase.exception.LiquibaseException
+import liquibase.parser.ChangeLogParserConfiguration
 import liquibase.sdk.resource.MockResourceAccessor
 import liquibase.test.JUnitResourceAccessor
 import liquibase.util.LiquibaseUtil
 import spock.lang.Specification
+import spock.lang.TempDir
 import spock.lang.Unroll
 
 class XMLChangeLogSAXParserTest extends Specification {
 
+    @TempDir
+    File cacheDir
+
     def INSECURE_XML = """
 <!DOCTYPE databaseChangeLog [
         <!ENTITY insecure SYSTEM "file:///invalid.txt">
@@ -163,6 +168,70 @@ class XMLChangeLogSAXParserTest extends Specification {
 
     }
 
+    def "parsed changelog cache is used for unchanged files and still resolves parameters"() {
+        given:
+        def file = "com/example/cached.xml"
+        def xml = """<databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog"
+                   xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+                   xsi:schemaLocation="http://www.liquibase.org/xml/ns/dbchangelog
+                      http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-latest.xsd">
+    <changeSet id="1" author="example">
+        <createTable tableName="\${table}">
+            <column name="id" type="int"/>
+        </createTable>
+    </changeSet>
+</databaseChangeLog>"""
+
+        when:
+        def parse = { String content, String table ->
+            def parameters = new ChangeLogParameters()
+            parameters.set("table", table)
+            return Scope.child([(ChangeLogParserConfiguration.PARSED_CHANGELOG_CACHE_DIRECTORY.key): cacheDir.absolutePath], {
+                return new XMLChangeLogSAXParser().parse(file, parameters, new MockResourceAccessor([(file): content]))
+            } as Scope.ScopedRunnerWithReturn<DatabaseChangeLog>)
+        }
+        def first = parse(xml, "first_table")
+
+        then:
+        cacheDir.listFiles()*.name.findAll { it.endsWith(".lbnode") }.size() == 1
+        first.changeSets[0].changes[0].tableName == "first_table"
+
+        when:
+        def second = parse(xml, "second_table")
+
+        then:
+        second.changeSets*.id == ["1"]
+        second.changeSets[0].changes[0].tableName == "second_table"
+        second.changeSets[0].changes[0].columns*.name == ["id"]
+
+        when:
+        def changed = parse(xml.replace('id="1"', 'id="2"'), "first_table")
+
+        then:
+        changed.changeSets*.id == ["2"]
+    }
+
+    def "parsed changelog cache skips files declaring a doctype"() {
+        when:
+        def file = "com/example/entity.xml"
+        def xml = """<!DOCTYPE databaseChangeLog [
+        <!ENTITY author "example">
+        ]>
+<databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog">
+    <changeSet id="1" author="&author;">
+        <output>hello</output>
+    </changeSet>
+</databaseChangeLog>"""
+        def changeLog = Scope.child([(ChangeLogParserConfiguration.PARSED_CHANGELOG_CACHE_DIRECTORY.key): cacheDir.absolutePath,
+                                     (GlobalConfiguration.VALIDATE_XML_CHANGELOG_FILES.key)          : false], {
+            return new XMLChangeLogSAXParser().parse(file, new ChangeLogParameters(), new MockResourceAccessor([(file): xml]))
+        } as Scope.ScopedRunnerWithReturn<DatabaseChangeLog>)
+
+        then:
+        changeLog.changeSets*.author == ["example"]
+        cacheDir.listFiles().length == 0
+    }
+
     def "getSchemaVersion"() {
         expect:
         XMLChangeLogSAXParser.getSchemaVersion() == "latest" //because test run in an environment with build.version == DEV
@@ -0,0 +1,32 @@
+package liquibase.sqlgenerator.core
+
+import liquibase.database.core.H2Database
+import liquibase.database.core.MariaDBDatabase
+import liquibase.database.core.MySQLDatabase
+import liquibase.database.core.PostgresDatabase
+import liquibase.sqlgenerator.SqlGeneratorFactory
+import liquibase.statement.core.SelectDatabaseChangeLogFingerprintStatement
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class SelectDatabaseChangeLogFingerprintGeneratorTest extends Specification {
+
+    @Unroll
+    def "generateSql for #database.shortName"() {
+        expect:
+        SqlGeneratorFactory.instance.generateSql(new SelectDatabaseChangeLogFingerprintStatement(), database)*.toSql() == [expected]
+
+        where:
+        database               | expected
+        new H2Database()       | "SELECT COUNT(*) AS LB_ROW_COUNT, MAX(ORDEREXECUTED) AS LB_MAX_ORDER, MAX(DEPLOYMENT_ID) AS LB_MAX_DEPLOYMENT, COUNT(MD5SUM) AS LB_CHECKSUM_COUNT, COUNT(TAG) AS LB_TAG_COUNT FROM DATABASECHANGELOG"
+        new PostgresDatabase() | "SELECT COUNT(*) AS LB_ROW_COUNT, MAX(ORDEREXECUTED) AS LB_MAX_ORDER, MAX(DEPLOYMENT_ID) AS LB_MAX_DEPLOYMENT, COUNT(MD5SUM) AS LB_CHECKSUM_COUNT, COUNT(TAG) AS LB_TAG_COUNT, " +
+                "SUM(('x' || SUBSTR(MD5(ID || ':' || AUTHOR || ':' || FILENAME || ':' || COALESCE(MD5SUM, '')), 1, 15))::BIT(60)::BIGINT) AS LB_ROW_HASH, " +
+                "SUM(('x' || SUBSTR(MD5(ID || ':' || AUTHOR || ':' || FILENAME || ':' || COALESCE(MD5SUM, '') || ':' || COALESCE(TAG, '') || ':' || COALESCE(EXECTYPE, '')), 1, 15))::BIT(60)::BIGINT) AS LB_ROW_STATE_HASH FROM databasechangelog"
+        new MySQLDatabase()    | "SELECT COUNT(*) AS LB_ROW_COUNT, MAX(ORDEREXECUTED) AS LB_MAX_ORDER, MAX(DEPLOYMENT_ID) AS LB_MAX_DEPLOYMENT, COUNT(MD5SUM) AS LB_CHECKSUM_COUNT, COUNT(TAG) AS LB_TAG_COUNT, " +
+                "SUM(CAST(CONV(SUBSTRING(MD5(CONCAT(ID, ':', AUTHOR, ':', FILENAME, ':', COALESCE(MD5SUM, ''))), 1, 15), 16, 10) AS UNSIGNED)) AS LB_ROW_HASH, " +
+                "SUM(CAST(CONV(SUBSTRING(MD5(CONCAT(ID, ':', AUTHOR, ':', FILENAME, ':', COALESCE(MD5SUM, ''), ':', COALESCE(TAG, ''), ':', COALESCE(EXECTYPE, ''))), 1, 15), 16, 10) AS UNSIGNED)) AS LB_ROW_STATE_HASH FROM databasechangelog"
+        new MariaDBDatabase()  | "SELECT COUNT(*) AS LB_ROW_COUNT, MAX(ORDEREXECUTED) AS LB_MAX_ORDER, MAX(DEPLOYMENT_ID) AS LB_MAX_DEPLOYMENT, COUNT(MD5SUM) AS LB_CHECKSUM_COUNT, COUNT(TAG) AS LB_TAG_COUNT, " +
+                "SUM(CAST(CONV(SUBSTRING(MD5(CONCAT(ID, ':', AUTHOR, ':', FILENAME, ':', COALESCE(MD5SUM, ''))), 1, 15), 16, 10) AS UNSIGNED)) AS LB_ROW_HASH, " +
+                "SUM(CAST(CONV(SUBSTRING(MD5(CONCAT(ID, ':', AUTHOR, ':', FILENAME, ':', COALESCE(MD5SUM, ''), ':', COALESCE(TAG, ''), ':', COALESCE(EXECTYPE, ''))), 1, 15), 16, 10) AS UNSIGNED)) AS LB_ROW_STATE_HASH FROM databasechangelog"
+    }
+}
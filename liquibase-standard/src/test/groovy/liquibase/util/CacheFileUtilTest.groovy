@@ -0,0 +1,80 @@
+package liquibase.util
+
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+class CacheFileUtilTest extends Specification {
+
+    @TempDir
+    File tempDir
+
+    def "writeAtomically replaces the file and leaves no temporary files"() {
+        given:
+        def file = new File(tempDir, "sub/cache.bin")
+
+        when:
+        CacheFileUtil.writeAtomically(file, { out -> CacheFileUtil.writeString(out, "first") } as CacheFileUtil.ContentWriter)
+        CacheFileUtil.writeAtomically(file, { out ->
+            CacheFileUtil.writeString(out, "second")
+            CacheFileUtil.writeString(out, null)
+        } as CacheFileUtil.ContentWriter)
+
+        then:
+        CacheFileUtil.readLocked(file, { input -> [CacheFileUtil.readString(input), CacheFileUtil.readString(input)] } as CacheFileUtil.ContentReader) == ["second", null]
+        file.parentFile.list() as List == ["cache.bin"]
+    }
+
+    def "writeAtomically keeps the old file if writing fails"() {
+        given:
+        def file = new File(tempDir, "cache.bin")
+        CacheFileUtil.writeAtomically(file, { out -> out.writeUTF("old") } as CacheFileUtil.ContentWriter)
+
+        when:
+        CacheFileUtil.writeAtomically(file, { out ->
+            out.writeUTF("new")
+            throw new IOException("failed")
+        } as CacheFileUtil.ContentWriter)
+
+        then:
+        thrown(IOException)
+        CacheFileUtil.readLocked(file, { input -> input.readUTF() } as CacheFileUtil.ContentReader) == "old"
+        tempDir.list() as List == ["cache.bin"]
+    }
+
+    def "concurrent appends do not interleave"() {
+        given:
+        def file = new File(tempDir, "cache.bin")
+        def executor = Executors.newFixedThreadPool(8)
+        def value = "x" * 10000
+
+        when:
+        def futures = (1..200).collect { i ->
+            executor.submit({
+                CacheFileUtil.appendLocked(file, { out ->
+                    out.writeInt(i)
+                    out.writeUTF(value)
+                } as CacheFileUtil.ContentWriter)
+            } as Callable)
+        }
+        futures*.get()
+        executor.shutdown()
+
+        def read = CacheFileUtil.readLocked(file, { input ->
+            def ids = []
+            while (true) {
+                try {
+                    ids.add(input.readInt())
+                } catch (EOFException ignored) {
+                    return ids
+                }
+                assert input.readUTF() == value
+            }
+        } as CacheFileUtil.ContentReader)
+
+        then:
+        read.sort() == (1..200).toList()
+    }
+}
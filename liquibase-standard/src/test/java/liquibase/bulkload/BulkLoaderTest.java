@@ -0,0 +1,167 @@
+package liquibase.bulkload;
+
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.change.ColumnConfig;
+import liquibase.change.core.LoadDataChange;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.statement.BulkLoadExecutablePreparedStatement;
+import liquibase.statement.DatabaseFunction;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.RawSqlStatement;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.Reader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BulkLoaderTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void writesRowsAsCsv() throws Exception {
+        Iterator<List<ColumnConfig>> rows = Arrays.asList(
+                Arrays.asList(new ColumnConfig().setName("id").setValueNumeric(new BigDecimal("1.50")),
+                        new ColumnConfig().setName("name").setValue("a \"quoted\", value")),
+                Arrays.asList(new ColumnConfig().setName("id").setValueComputed(new DatabaseFunction("NEXT_ID()")),
+                        new ColumnConfig().setName("name").setValue("skipped")),
+                Arrays.asList(new ColumnConfig().setName("id").setValueDate(Timestamp.valueOf("2020-01-02 03:04:05")),
+                        new ColumnConfig().setName("name").setValue(null))
+        ).iterator();
+
+        try (BulkLoadData data = new BulkLoadData(null, null, "test", new BulkLoadData.RowSource() {
+            @Override
+            public List<ColumnConfig> next() {
+                return rows.hasNext() ? rows.next() : null;
+            }
+
+            @Override
+            public void close() {
+            }
+        })) {
+            assertEquals(Arrays.asList("id", "name"), data.getColumnNames());
+
+            assertEquals("\"1.50\",\"a \"\"quoted\"\", value\"\n", readCsv(data));
+            assertEquals("skipped", data.getRejectedRow().get(1).getValue());
+
+            BulkLoadData nextData = data.nextData();
+            assertEquals("\"2020-01-02 03:04:05.0\",\n", readCsv(nextData));
+            assertNull(nextData.getRejectedRow());
+        }
+    }
+
+    private static String readCsv(BulkLoadData data) throws Exception {
+        StringWriter csv = new StringWriter();
+        try (Reader reader = data.openCsvReader()) {
+            reader.transferTo(csv);
+        }
+        return csv.toString();
+    }
+
+    @Test
+    public void bulkLoadsIntoH2() throws Exception {
+        Database database = DatabaseFactory.getInstance().openDatabase("jdbc:h2:mem:BulkLoaderTest;DB_CLOSE_DELAY=-1", "sa", "",
+                null, new ClassLoaderResourceAccessor());
+        try {
+            assertTrue(new H2BulkLoader().supports(database));
+            loadAndVerify(database, H2BulkLoader.class);
+        } finally {
+            database.close();
+        }
+    }
+
+    @Test
+    public void bulkLoadsIntoHsqlFileDatabase() throws Exception {
+        String url = "jdbc:hsqldb:file:" + temporaryFolder.getRoot().getAbsolutePath() + "/bulkload;shutdown=true";
+        Database database = DatabaseFactory.getInstance().openDatabase(url, "SA", "", null, new ClassLoaderResourceAccessor());
+        try {
+            assertTrue(new HsqlBulkLoader().supports(database));
+            loadAndVerify(database, HsqlBulkLoader.class);
+        } finally {
+            database.close();
+        }
+    }
+
+    @Test
+    public void notUsedInTransactionalChangeSets() throws Exception {
+        Database database = DatabaseFactory.getInstance().openDatabase("jdbc:h2:mem:BulkLoaderTransactionTest;DB_CLOSE_DELAY=-1", "sa", "",
+                null, new ClassLoaderResourceAccessor());
+        try {
+            LoadDataChange change = new LoadDataChange();
+            change.setTableName("BULK_DATA");
+            change.setFile("liquibase/bulkload/bulkload.csv");
+            change.setChangeSet(new ChangeSet("1", "test", false, false, "bulkload.xml", null, null, true, null));
+
+            Scope.child(Collections.<String, Object>singletonMap(GlobalConfiguration.LOAD_DATA_BULK_LOAD.getKey(), true), () -> {
+                assertNotNull(Scope.getCurrentScope().getSingleton(BulkLoaderFactory.class).getBulkLoader(database));
+                for (SqlStatement statement : change.generateStatements(database)) {
+                    assertFalse(statement instanceof BulkLoadExecutablePreparedStatement);
+                }
+            });
+        } finally {
+            database.close();
+        }
+    }
+
+    @Test
+    public void notUsedForInMemoryHsqlDatabase() throws Exception {
+        Database database = DatabaseFactory.getInstance().openDatabase("jdbc:hsqldb:mem:BulkLoaderTest", "SA", "",
+                null, new ClassLoaderResourceAccessor());
+        try {
+            assertFalse(new HsqlBulkLoader().supports(database));
+            assertNull(Scope.getCurrentScope().getSingleton(BulkLoaderFactory.class).getBulkLoader(database));
+        } finally {
+            database.close();
+        }
+    }
+
+    private void loadAndVerify(Database database, Class<? extends BulkLoader> expectedLoader) throws Exception {
+        Executor executor = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
+        executor.execute(new RawSqlStatement("CREATE TABLE BULK_DATA (SEQ INT GENERATED BY DEFAULT AS IDENTITY, ID INT, NAME VARCHAR(50), CREATED TIMESTAMP)"));
+
+        LoadDataChange change = new LoadDataChange();
+        change.setTableName("BULK_DATA");
+        change.setFile("liquibase/bulkload/bulkload.csv");
+        change.setChangeSet(new ChangeSet("1", "test", false, false, "bulkload.xml", null, null, false, null));
+
+        Scope.child(Collections.<String, Object>singletonMap(GlobalConfiguration.LOAD_DATA_BULK_LOAD.getKey(), true), () -> {
+            SqlStatement[] statements = change.generateStatements(database);
+            assertEquals(1, statements.length);
+            BulkLoadExecutablePreparedStatement statement = (BulkLoadExecutablePreparedStatement) statements[0];
+            assertTrue(expectedLoader.isInstance(statement.getBulkLoader()));
+
+            executor.execute(statement);
+            assertEquals(2, statement.getLoadedRows());
+            assertEquals(1, statement.getSkippedRows());
+        });
+        database.commit();
+
+        //the row inserted individually keeps its place between the bulk loaded rows
+        List<Map<String, ?>> rows = executor.queryForList(new RawSqlStatement("SELECT ID, NAME, CREATED FROM BULK_DATA ORDER BY SEQ"));
+        assertEquals(3, rows.size());
+        assertEquals(Arrays.asList(1, 2, 3), Arrays.asList(((Number) rows.get(0).get("ID")).intValue(),
+                ((Number) rows.get(1).get("ID")).intValue(), ((Number) rows.get(2).get("ID")).intValue()));
+        assertEquals("Bob, \"the\" Builder", rows.get(0).get("NAME"));
+        assertEquals(Timestamp.valueOf("2020-01-02 03:04:05"), rows.get(0).get("CREATED"));
+        assertNull(rows.get(1).get("NAME"));
+        assertNotNull(rows.get(1).get("CREATED"));
+        assertEquals(Timestamp.valueOf("2021-05-06 07:08:09"), rows.get(2).get("CREATED"));
+    }
+}
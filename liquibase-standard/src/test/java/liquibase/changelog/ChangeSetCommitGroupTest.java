@@ -0,0 +1,206 @@
+package liquibase.changelog;
+
+import liquibase.GlobalConfiguration;
+import liquibase.RuntimeEnvironment;
+import liquibase.Scope;
+import liquibase.change.Change;
+import liquibase.change.ColumnConfig;
+import liquibase.change.ConstraintsConfig;
+import liquibase.change.core.CreateTableChange;
+import liquibase.change.core.InsertDataChange;
+import liquibase.changelog.filter.ShouldRunChangeSetFilter;
+import liquibase.changelog.visitor.AbstractChangeExecListener;
+import liquibase.changelog.visitor.ChangeExecListener;
+import liquibase.changelog.visitor.DefaultChangeExecListener;
+import liquibase.changelog.visitor.UpdateVisitor;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.ObjectQuotingStrategy;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.LiquibaseException;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.statement.core.RawSqlStatement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class ChangeSetCommitGroupTest {
+
+    private Database database;
+
+    private DatabaseChangeLog changeLog;
+
+    private final AtomicInteger commits = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        database = DatabaseFactory.getInstance().openDatabase("jdbc:h2:mem:ChangeSetCommitGroupTest;DB_CLOSE_DELAY=-1", "sa", "",
+                null, new ClassLoaderResourceAccessor());
+        database.setConnection(new JdbcConnection(((JdbcConnection) database.getConnection()).getUnderlyingConnection()) {
+            @Override
+            public void commit() throws DatabaseException {
+                commits.incrementAndGet();
+                super.commit();
+            }
+        });
+        Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(database).init();
+        changeLog = new DatabaseChangeLog("com/example/commit-group.xml");
+
+        CreateTableChange createTable = new CreateTableChange();
+        createTable.setTableName("GROUPED_DATA");
+        createTable.addColumn(new ColumnConfig().setName("ID").setType("INT").setConstraints(new ConstraintsConfig().setPrimaryKey(true)));
+        createTable.addColumn(new ColumnConfig().setName("NAME").setType("VARCHAR(50)"));
+        addChangeSet("1", createTable);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor().execute(new RawSqlStatement("DROP ALL OBJECTS"));
+        database.close();
+        Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).resetAll();
+        Scope.getCurrentScope().getSingleton(ExecutorService.class).reset();
+    }
+
+    @Test
+    public void commitsGroupsOfChangeSets() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            addChangeSet(String.valueOf(i + 1), insert(i));
+        }
+
+        update(2);
+
+        // the table is created on its own, then the inserts are committed in groups of 2, 2 and 1
+        assertEquals(6, commits.get());
+        assertEquals(5, executor().queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM GROUPED_DATA")));
+        assertEquals(6, executor().queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM DATABASECHANGELOG")));
+    }
+
+    @Test
+    public void commitsEachChangeSetByDefault() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            addChangeSet(String.valueOf(i + 1), insert(i));
+        }
+
+        update(0);
+
+        assertEquals(18, commits.get());
+        assertEquals(6, executor().queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM DATABASECHANGELOG")));
+    }
+
+    @Test
+    public void rollsBackGroupOnFailure() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            addChangeSet(String.valueOf(i + 1), insert(i));
+        }
+        addChangeSet("5", insert(1));
+
+        try {
+            update(10);
+            fail("Expected the duplicate row to fail");
+        } catch (LiquibaseException e) {
+            // expected
+        }
+
+        assertEquals(0, executor().queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM GROUPED_DATA")));
+        assertEquals(1, executor().queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM DATABASECHANGELOG")));
+        assertEquals(1, Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(database)
+                .getRanChangeSets().size());
+    }
+
+    @Test
+    public void reportsChangeSetsOfFailedGroupAsNotRan() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            addChangeSet(String.valueOf(i + 1), insert(i));
+        }
+        addChangeSet("5", insert(1));
+        List<String> events = new ArrayList<>();
+        DefaultChangeExecListener listener = new DefaultChangeExecListener(new AbstractChangeExecListener() {
+            @Override
+            public void ran(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, ChangeSet.ExecType execType) {
+                events.add("ran " + changeSet.getId());
+            }
+
+            @Override
+            public void ran(Change change, ChangeSet changeSet, DatabaseChangeLog changeLog, Database database) {
+                events.add("ran change of " + changeSet.getId());
+            }
+
+            @Override
+            public void runFailed(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, Exception exception) {
+                events.add("failed " + changeSet.getId());
+            }
+        });
+
+        try {
+            update(10, listener);
+            fail("Expected the duplicate row to fail");
+        } catch (LiquibaseException e) {
+            // expected
+        }
+
+        // changesets 2 to 4 were rolled back with 5, so they are never reported as ran
+        assertEquals(Arrays.asList("ran change of 1", "ran 1", "failed 5"), events);
+        assertEquals(Collections.singletonList("1"),
+                listener.getDeployedChangeSets().stream().map(ChangeSet::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void reportsChangeSetsOfGroupAsRanOnceCommitted() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            addChangeSet(String.valueOf(i + 1), insert(i));
+        }
+        List<String> events = new ArrayList<>();
+
+        update(2, new AbstractChangeExecListener() {
+            @Override
+            public void ran(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, ChangeSet.ExecType execType) {
+                events.add("ran " + changeSet.getId() + " after " + commits.get() + " commits");
+            }
+        });
+
+        assertEquals(Arrays.asList("ran 1 after 2 commits", "ran 2 after 4 commits", "ran 3 after 4 commits", "ran 4 after 5 commits"), events);
+    }
+
+    private void update(int groupSize) throws Exception {
+        update(groupSize, null);
+    }
+
+    private void update(int groupSize, ChangeExecListener listener) throws Exception {
+        commits.set(0);
+        Scope.child(GlobalConfiguration.UPDATE_COMMIT_GROUP_SIZE.getKey(), groupSize, () -> {
+            ChangeLogIterator iterator = new ChangeLogIterator(changeLog, new ShouldRunChangeSetFilter(database));
+            iterator.run(new UpdateVisitor(database, listener), new RuntimeEnvironment(database, null, null));
+        });
+    }
+
+    private Executor executor() {
+        return Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
+    }
+
+    private static InsertDataChange insert(int id) {
+        InsertDataChange insert = new InsertDataChange();
+        insert.setTableName("GROUPED_DATA");
+        insert.addColumn(new ColumnConfig().setName("ID").setValueNumeric(id));
+        insert.addColumn(new ColumnConfig().setName("NAME").setValue("name " + id));
+        return insert;
+    }
+
+    private void addChangeSet(String id, Change change) {
+        ChangeSet changeSet = new ChangeSet(id, "test", false, false, changeLog.getFilePath(), null, null, null, null, true,
+                ObjectQuotingStrategy.LEGACY, changeLog);
+        changeSet.addChange(change);
+        changeLog.addChangeSet(changeSet);
+    }
+}
@@ -0,0 +1,261 @@
+package liquibase.changelog;
+
+import liquibase.GlobalConfiguration;
+import liquibase.RuntimeEnvironment;
+import liquibase.Scope;
+import liquibase.change.Change;
+import liquibase.change.ColumnConfig;
+import liquibase.change.ConstraintsConfig;
+import liquibase.change.core.CreateTableChange;
+import liquibase.change.core.InsertDataChange;
+import liquibase.change.core.RawSQLChange;
+import liquibase.changelog.filter.ShouldRunChangeSetFilter;
+import liquibase.changelog.visitor.AbstractChangeExecListener;
+import liquibase.changelog.visitor.UpdateVisitor;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.ObjectQuotingStrategy;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.LiquibaseException;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+import liquibase.parser.ChangeLogParserConfiguration;
+import liquibase.parser.core.ParsedNode;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.statement.core.RawSqlStatement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class ParallelUpdateTest {
+
+    private static final String WORKER_THREAD = "liquibase-parallel-update-";
+
+    private Database database;
+
+    private DatabaseChangeLog changeLog;
+
+    private ChangeLogIterator iterator;
+
+    private final Map<String, String> threads = new ConcurrentHashMap<>();
+
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+    private final CountDownLatch secondTableStarted = new CountDownLatch(1);
+
+    private volatile boolean ranTogether;
+
+    @Before
+    public void setUp() throws Exception {
+        String url = "jdbc:h2:mem:ParallelUpdateTest;DB_CLOSE_DELAY=-1";
+        database = DatabaseFactory.getInstance().openDatabase(url, "sa", "", null, new ClassLoaderResourceAccessor());
+        ((JdbcConnection) database.getConnection()).setConnectionFactory(() -> DatabaseFactory.getInstance().openConnection(url, "sa", "",
+                null, new ClassLoaderResourceAccessor()));
+        Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(database).init();
+        changeLog = new DatabaseChangeLog("com/example/parallel.xml");
+
+        addChangeSet("1", createTable("PARENT_DATA", null));
+        addChangeSet("2", createTable("OTHER_DATA", null));
+        addChangeSet("3", insert("PARENT_DATA", 1));
+        addChangeSet("4", createTable("CHILD_DATA", "PARENT_DATA(ID)"));
+        addChangeSet("5", insert("OTHER_DATA", 1));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor().execute(new RawSqlStatement("DROP ALL OBJECTS"));
+        database.close();
+        Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).resetAll();
+        Scope.getCurrentScope().getSingleton(ExecutorService.class).reset();
+    }
+
+    @Test
+    public void runsChangeSetsOfDifferentTablesInParallel() throws Exception {
+        addChangeSet("6", insert("CHILD_DATA", 1));
+        addChangeSet("7", new RawSQLChange("UPDATE CHILD_DATA SET NAME = 'updated'"));
+
+        update(2);
+
+        // the first table waits for the second one to be started, which only happens if they run at the same time
+        assertTrue(ranTogether);
+        for (String id : Arrays.asList("1", "2", "3", "4", "5", "6")) {
+            assertTrue(id + " ran on " + threads.get(id), threads.get(id).startsWith(WORKER_THREAD));
+        }
+        assertFalse(threads.get("7").startsWith(WORKER_THREAD));
+
+        // changesets of the same table, or of tables related by a foreign key, run in changelog order
+        assertBefore("ran:1", "willRun:3");
+        assertBefore("ran:3", "willRun:4");
+        assertBefore("ran:4", "willRun:6");
+        assertBefore("ran:2", "willRun:5");
+        assertBefore("ran:6", "willRun:7");
+
+        assertEquals(Arrays.asList("1", "2", "3", "4", "5", "6", "7"), orderExecuted());
+        assertEquals("updated", executor().queryForObject(new RawSqlStatement("SELECT NAME FROM CHILD_DATA WHERE ID = 1"), String.class));
+        assertEquals(1, executor().queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM OTHER_DATA")));
+    }
+
+    @Test
+    public void recordsChangeSetsFinishedBeforeFailure() throws Exception {
+        addChangeSet("6", insert("PARENT_DATA", 1));
+        addChangeSet("7", insert("PARENT_DATA", 2));
+
+        try {
+            update(2);
+            fail("Expected the duplicate row to fail");
+        } catch (LiquibaseException e) {
+            // expected
+        }
+
+        assertEquals(Arrays.asList("1", "2", "3", "4", "5"), orderExecuted());
+        assertEquals(1, iterator.getExceptionChangeSets().size());
+        assertEquals("6", iterator.getExceptionChangeSets().get(0).getId());
+        assertEquals(1, executor().queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM PARENT_DATA")));
+    }
+
+    @Test
+    public void rollsBackChangeSetWhoseRowCannotBeWritten() throws Exception {
+        // the id does not fit into the ID column of the changelog table
+        addChangeSet(String.join("", Collections.nCopies(300, "x")), insert("OTHER_DATA", 2));
+
+        try {
+            update(2);
+            fail("Expected the changelog table row to fail");
+        } catch (LiquibaseException e) {
+            // expected
+        }
+
+        assertEquals(Arrays.asList("1", "2", "3", "4", "5"), orderExecuted());
+        assertEquals(1, executor().queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM OTHER_DATA")));
+    }
+
+    @Test
+    public void runsChangeSetsWithSkippedChangesOnUpdateConnection() throws Exception {
+        InsertDataChange skipped = insert("OTHER_DATA", 2);
+        skipped.setDbms("oracle");
+        addChangeSet("6", skipped);
+
+        Scope.child(GlobalConfiguration.UPDATE_PARALLELISM.getKey(), 2, () -> {
+            try (ParallelUpdate update = ParallelUpdate.create(new UpdateVisitor(database, null), changeLog, database)) {
+                // only the update thread may add the changeset to the skipped changesets of the changelog
+                assertFalse(update.canRunInParallel(changeLog.getChangeSet(changeLog.getFilePath(), "test", "6")));
+                assertTrue(update.canRunInParallel(changeLog.getChangeSet(changeLog.getFilePath(), "test", "5")));
+            }
+        });
+
+        update(2);
+
+        assertEquals(Collections.singletonList("6"), changeLog.getSkippedBecauseOfChangeDbmsChangeSets().stream().map(ChangeSet::getId)
+                .collect(Collectors.toList()));
+        assertEquals(Arrays.asList("1", "2", "3", "4", "5"), orderExecuted());
+    }
+
+    @Test
+    public void runsChangeSetsOneAfterTheOtherByDefault() throws Exception {
+        update(0);
+
+        assertFalse(ranTogether);
+        for (String thread : threads.values()) {
+            assertFalse(thread.startsWith(WORKER_THREAD));
+        }
+        assertEquals(Arrays.asList("1", "2", "3", "4", "5"), orderExecuted());
+    }
+
+    @Test
+    public void readsTablesWithoutLoadingChanges() throws Exception {
+        ChangeSet lazy = new ChangeSet(changeLog);
+        ParsedNode node = new ParsedNode(null, "changeSet")
+                .addChild(null, "id", "6")
+                .addChild(null, "author", "test")
+                .addChild(new ParsedNode(null, "insert").addChild(null, "tableName", "OTHER_DATA"));
+        Scope.child(ChangeLogParserConfiguration.LAZY_CHANGE_LOADING.getKey(), true,
+                () -> lazy.load(node, new ClassLoaderResourceAccessor()));
+        changeLog.addChangeSet(lazy);
+
+        Scope.child(GlobalConfiguration.UPDATE_PARALLELISM.getKey(), 2, () -> {
+            try (ParallelUpdate update = ParallelUpdate.create(new UpdateVisitor(database, null), changeLog, database)) {
+                assertNotNull(update);
+            }
+        });
+
+        assertFalse(lazy.isChangesLoaded());
+    }
+
+    private void update(int parallelism) throws Exception {
+        Scope.child(GlobalConfiguration.UPDATE_PARALLELISM.getKey(), parallelism, () -> {
+            iterator = new ChangeLogIterator(changeLog, new ShouldRunChangeSetFilter(database));
+            iterator.run(new UpdateVisitor(database, new AbstractChangeExecListener() {
+                @Override
+                public void willRun(Change change, ChangeSet changeSet, DatabaseChangeLog changeLog, Database database) {
+                    threads.put(changeSet.getId(), Thread.currentThread().getName());
+                    events.add("willRun:" + changeSet.getId());
+                    if (changeSet.getId().equals("2")) {
+                        secondTableStarted.countDown();
+                    } else if (changeSet.getId().equals("1") && (parallelism > 1)) {
+                        try {
+                            ranTogether = secondTableStarted.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }
+
+                @Override
+                public void ran(Change change, ChangeSet changeSet, DatabaseChangeLog changeLog, Database database) {
+                    events.add("ran:" + changeSet.getId());
+                }
+            }), new RuntimeEnvironment(database, null, null));
+        });
+    }
+
+    private void assertBefore(String first, String second) {
+        assertTrue(first + " before " + second + " in " + events, events.indexOf(first) < events.indexOf(second));
+    }
+
+    private List<String> orderExecuted() throws Exception {
+        return executor().queryForList(new RawSqlStatement("SELECT ID FROM DATABASECHANGELOG ORDER BY ORDEREXECUTED"), String.class);
+    }
+
+    private Executor executor() {
+        return Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
+    }
+
+    private static CreateTableChange createTable(String tableName, String references) {
+        CreateTableChange createTable = new CreateTableChange();
+        createTable.setTableName(tableName);
+        ConstraintsConfig constraints = new ConstraintsConfig().setPrimaryKey(true);
+        if (references != null) {
+            constraints.setReferences(references).setForeignKeyName("FK_" + tableName);
+        }
+        createTable.addColumn(new ColumnConfig().setName("ID").setType("INT").setConstraints(constraints));
+        createTable.addColumn(new ColumnConfig().setName("NAME").setType("VARCHAR(50)"));
+        return createTable;
+    }
+
+    private static InsertDataChange insert(String tableName, int id) {
+        InsertDataChange insert = new InsertDataChange();
+        insert.setTableName(tableName);
+        insert.addColumn(new ColumnConfig().setName("ID").setValueNumeric(id));
+        insert.addColumn(new ColumnConfig().setName("NAME").setValue("name " + id));
+        return insert;
+    }
+
+    private void addChangeSet(String id, Change change) {
+        ChangeSet changeSet = new ChangeSet(id, "test", false, false, changeLog.getFilePath(), null, null, null, null, true,
+                ObjectQuotingStrategy.LEGACY, changeLog);
+        changeSet.addChange(change);
+        changeLog.addChangeSet(changeSet);
+    }
+}
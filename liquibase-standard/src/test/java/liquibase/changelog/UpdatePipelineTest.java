@@ -0,0 +1,157 @@
+package liquibase.changelog;
+
+import liquibase.GlobalConfiguration;
+import liquibase.RuntimeEnvironment;
+import liquibase.Scope;
+import liquibase.change.Change;
+import liquibase.change.ColumnConfig;
+import liquibase.change.core.CreateTableChange;
+import liquibase.change.core.DropAllForeignKeyConstraintsChange;
+import liquibase.change.core.InsertDataChange;
+import liquibase.change.core.RawSQLChange;
+import liquibase.changelog.filter.ShouldRunChangeSetFilter;
+import liquibase.changelog.visitor.AbstractChangeExecListener;
+import liquibase.changelog.visitor.UpdateVisitor;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.ObjectQuotingStrategy;
+import liquibase.database.OfflineConnection;
+import liquibase.exception.LiquibaseException;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.RawSqlStatement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class UpdatePipelineTest {
+
+    private Database database;
+
+    private DatabaseChangeLog changeLog;
+
+    private final List<String> preparedChanges = new ArrayList<>();
+
+    private final List<Database> generatingDatabases = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        String url = "jdbc:h2:mem:UpdatePipelineTest;DB_CLOSE_DELAY=-1";
+        database = DatabaseFactory.getInstance().openDatabase(url, "sa", "", null, new ClassLoaderResourceAccessor());
+        Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(database).init();
+        changeLog = new DatabaseChangeLog("com/example/pipeline.xml");
+
+        CreateTableChange createTable = new CreateTableChange();
+        createTable.setTableName("PIPELINE_DATA");
+        createTable.addColumn(new ColumnConfig().setName("ID").setType("INT"));
+        createTable.addColumn(new ColumnConfig().setName("NAME").setType("VARCHAR(50)"));
+        addChangeSet("1", ObjectQuotingStrategy.LEGACY, createTable);
+
+        InsertDataChange insert = new InsertDataChange() {
+            @Override
+            public SqlStatement[] generateStatements(Database database) {
+                generatingDatabases.add(database);
+                return super.generateStatements(database);
+            }
+        };
+        insert.setTableName("PIPELINE_DATA");
+        insert.addColumn(new ColumnConfig().setName("ID").setValueNumeric(1));
+        insert.addColumn(new ColumnConfig().setName("NAME").setValue("inserted"));
+        DropAllForeignKeyConstraintsChange dropForeignKeys = new DropAllForeignKeyConstraintsChange();
+        dropForeignKeys.setBaseTableName("PIPELINE_DATA");
+        addChangeSet("2", ObjectQuotingStrategy.LEGACY, insert, dropForeignKeys);
+
+        addChangeSet("3", ObjectQuotingStrategy.LEGACY, new RawSQLChange("UPDATE PIPELINE_DATA SET NAME = 'updated'"));
+        addChangeSet("4", ObjectQuotingStrategy.QUOTE_ALL_OBJECTS, new RawSQLChange("UPDATE PIPELINE_DATA SET ID = 2"));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Executor executor = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
+        executor.execute(new RawSqlStatement("DROP ALL OBJECTS"));
+        database.close();
+        Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).resetAll();
+        Scope.getCurrentScope().getSingleton(ExecutorService.class).reset();
+    }
+
+    @Test
+    public void preparesNextChangeSetWhileCurrentOneRuns() throws Exception {
+        Scope.child(GlobalConfiguration.UPDATE_PIPELINE.getKey(), true, this::update);
+
+        // the first changeset has nothing before it, volatile changes and a changed quoting strategy are not prepared
+        assertEquals(Arrays.asList("2:insert", "3:sql"), preparedChanges);
+        // the insert is prepared on the pipeline's own offline database, never on the one executing changeset 1, and no connection is opened
+        Set<Database> pipelineDatabases = Collections.newSetFromMap(new IdentityHashMap<>());
+        generatingDatabases.stream().filter(generating -> generating != database).forEach(pipelineDatabases::add);
+        assertEquals(1, pipelineDatabases.size());
+        Database pipelineDatabase = pipelineDatabases.iterator().next();
+        assertTrue(pipelineDatabase.getConnection() instanceof OfflineConnection);
+        assertEquals(database.getClass(), pipelineDatabase.getClass());
+        assertEquals(database.getDefaultSchemaName(), pipelineDatabase.getDefaultSchemaName());
+        assertEquals(database.getDatabaseMajorVersion(), pipelineDatabase.getDatabaseMajorVersion());
+        assertTrue(pipelineDatabase.isReservedWord("LIMIT"));
+        assertUpdated();
+        for (ChangeSet changeSet : changeLog.getChangeSets()) {
+            for (Change change : changeSet.getChanges()) {
+                assertNull(changeSet.getPreparedStatements(change, database));
+            }
+        }
+    }
+
+    @Test
+    public void sqlWithJdbcEscapesNotPrepared() throws Exception {
+        ((RawSQLChange) changeLog.getChangeSets().get(2).getChanges().get(0)).setSql("UPDATE PIPELINE_DATA SET NAME = {fn LCASE('UPDATED')}");
+
+        Scope.child(GlobalConfiguration.UPDATE_PIPELINE.getKey(), true, this::update);
+
+        // escapes are processed by the driver of the update connection when changeset 3 executes
+        assertEquals(Collections.singletonList("2:insert"), preparedChanges);
+        assertUpdated();
+    }
+
+    @Test
+    public void disabledByDefault() throws Exception {
+        update();
+
+        assertEquals(0, preparedChanges.size());
+        assertUpdated();
+    }
+
+    private void update() throws LiquibaseException {
+        ChangeLogIterator iterator = new ChangeLogIterator(changeLog, new ShouldRunChangeSetFilter(database));
+        iterator.run(new UpdateVisitor(database, new AbstractChangeExecListener() {
+            @Override
+            public void willRun(Change change, ChangeSet changeSet, DatabaseChangeLog changeLog, Database database) {
+                if (changeSet.getPreparedStatements(change, database) != null) {
+                    preparedChanges.add(changeSet.getId() + ":" + change.getSerializedObjectName());
+                }
+            }
+        }), new RuntimeEnvironment(database, null, null));
+    }
+
+    private void assertUpdated() throws Exception {
+        Executor executor = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
+        assertEquals("updated", executor.queryForObject(new RawSqlStatement("SELECT NAME FROM PIPELINE_DATA WHERE ID = 2"), String.class));
+        assertEquals(4, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM DATABASECHANGELOG")));
+    }
+
+    private void addChangeSet(String id, ObjectQuotingStrategy quotingStrategy, Change... changes) {
+        ChangeSet changeSet = new ChangeSet(id, "test", false, false, changeLog.getFilePath(), null, null, null, null, true,
+                quotingStrategy, changeLog);
+        for (Change change : changes) {
+            changeSet.addChange(change);
+        }
+        changeLog.addChangeSet(changeSet);
+    }
+}
@@ -0,0 +1,241 @@
+package liquibase.database.jvm;
+
+import liquibase.GlobalConfiguration;
+import liquibase.RuntimeEnvironment;
+import liquibase.Scope;
+import liquibase.change.ColumnConfig;
+import liquibase.change.core.InsertDataChange;
+import liquibase.changelog.ChangeLogIterator;
+import liquibase.changelog.ChangeLogHistoryService;
+import liquibase.changelog.ChangeLogHistoryServiceFactory;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.filter.ShouldRunChangeSetFilter;
+import liquibase.changelog.visitor.UpdateVisitor;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.statement.core.RawParameterizedSqlStatement;
+import liquibase.statement.core.RawSqlStatement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.PreparedStatement;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class PreparedStatementCacheTest {
+
+    private Database database;
+
+    private JdbcConnection connection;
+
+    private Executor executor;
+
+    @Before
+    public void setUp() throws Exception {
+        database = DatabaseFactory.getInstance().openDatabase("jdbc:h2:mem:PreparedStatementCacheTest;DB_CLOSE_DELAY=-1", "sa", "",
+                null, new ClassLoaderResourceAccessor());
+        connection = (JdbcConnection) database.getConnection();
+        executor = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
+        executor.execute(new RawSqlStatement("CREATE TABLE CACHED_DATA (ID INT PRIMARY KEY, NAME VARCHAR(50))"));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.execute(new RawSqlStatement("DROP TABLE CACHED_DATA"));
+        database.close();
+    }
+
+    @Test
+    public void disabledByDefault() throws Exception {
+        executor.execute(new RawParameterizedSqlStatement("INSERT INTO CACHED_DATA (ID, NAME) VALUES (?, ?)", 1, "a"));
+
+        assertNull(connection.getPreparedStatementCache());
+    }
+
+    @Test
+    public void reusesStatementsForRepeatedSql() throws Exception {
+        Scope.child(GlobalConfiguration.PREPARED_STATEMENT_CACHE_SIZE.getKey(), 2, () -> {
+            for (int i = 1; i <= 5; i++) {
+                executor.execute(new RawParameterizedSqlStatement("INSERT INTO CACHED_DATA (ID, NAME) VALUES (?, ?)", i, "name " + i));
+                assertEquals(i, executor.queryForInt(new RawParameterizedSqlStatement("SELECT COUNT(*) FROM CACHED_DATA WHERE ID <= ?", i)));
+            }
+
+            PreparedStatementCache cache = connection.getPreparedStatementCache();
+            assertEquals(2, cache.getMisses());
+            assertEquals(8, cache.getHits());
+            assertEquals(0, cache.getEvictions());
+            assertEquals(2, cache.size());
+        });
+        assertEquals("name 3", executor.queryForObject(new RawSqlStatement("SELECT NAME FROM CACHED_DATA WHERE ID = 3"), String.class));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedStatements() throws Exception {
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 2);
+
+        PreparedStatement first = prepareAndRelease(cache, "SELECT 1 FROM CACHED_DATA");
+        prepareAndRelease(cache, "SELECT 2 FROM CACHED_DATA");
+        assertSame(first, prepareAndRelease(cache, "SELECT 1 FROM CACHED_DATA"));
+        PreparedStatement third = prepareAndRelease(cache, "SELECT 3 FROM CACHED_DATA");
+
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.size());
+        assertFalse(first.isClosed());
+        assertFalse(third.isClosed());
+        assertSame(first, prepareAndRelease(cache, "SELECT 1 FROM CACHED_DATA"));
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void doesNotShareStatementsInUse() throws Exception {
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 2);
+
+        PreparedStatement outer = cache.prepare("SELECT 1 FROM CACHED_DATA");
+        PreparedStatement inner = cache.prepare("SELECT 1 FROM CACHED_DATA");
+        assertNotSame(outer, inner);
+
+        cache.release(inner);
+        assertTrue(inner.isClosed());
+        cache.release(outer);
+        assertFalse(outer.isClosed());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void clearedOnRollbackAfterDdl() throws Exception {
+        Scope.child(Collections.singletonMap(GlobalConfiguration.PREPARED_STATEMENT_CACHE_SIZE.getKey(), 2), () -> {
+            // the table of the test was created since the last commit
+            connection.commit();
+            executor.execute(new RawParameterizedSqlStatement("INSERT INTO CACHED_DATA (ID, NAME) VALUES (?, ?)", 1, "a"));
+            PreparedStatementCache cache = connection.getPreparedStatementCache();
+            PreparedStatement statement = prepareAndRelease(cache, "INSERT INTO CACHED_DATA (ID, NAME) VALUES (?, ?)");
+
+            connection.rollback();
+            assertEquals(1, cache.size());
+            assertFalse(statement.isClosed());
+
+            connection.clearPreparedStatementCacheAfterDdl();
+            statement = prepareAndRelease(cache, "INSERT INTO CACHED_DATA (ID, NAME) VALUES (?, ?)");
+            connection.rollback();
+            assertEquals(0, cache.size());
+            assertTrue(statement.isClosed());
+        });
+    }
+
+    @Test
+    public void cachesGeneratedQueries() throws Exception {
+        Scope.child(Collections.singletonMap(GlobalConfiguration.PREPARED_STATEMENT_CACHE_SIZE.getKey(), 2), () -> {
+            for (int i = 0; i < 3; i++) {
+                assertEquals(0, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM CACHED_DATA")));
+            }
+
+            PreparedStatementCache cache = connection.getPreparedStatementCache();
+            assertEquals(1, cache.getMisses());
+            assertEquals(2, cache.getHits());
+        });
+    }
+
+    @Test
+    public void keptOnCommitAndDmlButClearedOnDdl() throws Exception {
+        Scope.child(Collections.singletonMap(GlobalConfiguration.PREPARED_STATEMENT_CACHE_SIZE.getKey(), 2), () -> {
+            PreparedStatementCache cache = connection.getPreparedStatementCache();
+            PreparedStatement statement = prepareAndRelease(cache, "SELECT 1 FROM CACHED_DATA");
+            connection.commit();
+            executor.execute(new RawSqlStatement("insert into CACHED_DATA (ID, NAME)\nvalues (1, 'a')"));
+            executor.execute(new RawSqlStatement("update CACHED_DATA set NAME = 'b'"));
+            assertEquals(1, cache.size());
+            assertFalse(statement.isClosed());
+
+            executor.execute(new RawSqlStatement("alter table CACHED_DATA add column ADDED INT"));
+            assertEquals(0, cache.size());
+            assertTrue(statement.isClosed());
+        });
+    }
+
+    @Test
+    public void marksChangeSetsRanWithParameters() throws Exception {
+        ChangeLogHistoryServiceFactory historyServiceFactory = Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class);
+        try {
+            Scope.child(Collections.singletonMap(GlobalConfiguration.PREPARED_STATEMENT_CACHE_SIZE.getKey(), 2), () -> {
+                ChangeLogHistoryService historyService = historyServiceFactory.getChangeLogService(database);
+                historyService.init();
+                AtomicReference<String> completeSql = new AtomicReference<>();
+                Scope.child(Collections.singletonMap(Database.COMPLETE_SQL_SCOPE_KEY, completeSql), () ->
+                        historyService.setExecType(new ChangeSet("1", "a", false, false, "c", null, null, null), ChangeSet.ExecType.EXECUTED));
+                assertTrue(completeSql.get(), completeSql.get().startsWith("INSERT INTO"));
+                historyService.setExecType(new ChangeSet("2", "a", false, false, "c", null, null, null), ChangeSet.ExecType.MARK_RAN);
+                historyService.setExecType(new ChangeSet("1", "a", false, false, "c", null, null, null), ChangeSet.ExecType.RERAN);
+
+                List<Map<String, ?>> rows = executor.queryForList(new RawSqlStatement("SELECT ID, EXECTYPE FROM DATABASECHANGELOG ORDER BY ID"));
+                assertEquals(2, rows.size());
+                assertEquals("RERAN", rows.get(0).get("EXECTYPE"));
+                assertEquals("MARK_RAN", rows.get(1).get("EXECTYPE"));
+            });
+        } finally {
+            executor.execute(new RawSqlStatement("DROP TABLE DATABASECHANGELOG"));
+            historyServiceFactory.resetAll();
+        }
+    }
+
+    @Test
+    public void reusesHistoryStatementsAcrossChangeSets() throws Exception {
+        ChangeLogHistoryServiceFactory historyServiceFactory = Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class);
+        try {
+            Scope.child(Collections.singletonMap(GlobalConfiguration.PREPARED_STATEMENT_CACHE_SIZE.getKey(), 10), () -> {
+                historyServiceFactory.getChangeLogService(database).init();
+                DatabaseChangeLog changeLog = new DatabaseChangeLog("com/example/cache.xml");
+                for (int i = 1; i <= 2; i++) {
+                    ChangeSet changeSet = new ChangeSet(String.valueOf(i), "test", false, false, changeLog.getFilePath(), null, null, changeLog);
+                    InsertDataChange insert = new InsertDataChange();
+                    insert.setTableName("CACHED_DATA");
+                    insert.addColumn(new ColumnConfig().setName("ID").setValueNumeric(i));
+                    changeSet.addChange(insert);
+                    changeLog.addChangeSet(changeSet);
+                }
+                PreparedStatementCache cache = connection.getPreparedStatementCache();
+                long hitsBefore = cache.getHits();
+
+                new ChangeLogIterator(changeLog, new ShouldRunChangeSetFilter(database))
+                        .run(new UpdateVisitor(database, null), new RuntimeEnvironment(database, null, null));
+
+                // each changeset commits, the second one still reuses the history row insert of the first
+                assertTrue(cache.getHits() > hitsBefore);
+                assertEquals(2, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM DATABASECHANGELOG")));
+            });
+        } finally {
+            executor.execute(new RawSqlStatement("DROP TABLE DATABASECHANGELOG"));
+            historyServiceFactory.resetAll();
+        }
+    }
+
+    @Test
+    public void resetsStatementSettingsOnRelease() throws Exception {
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 2);
+
+        PreparedStatement statement = cache.prepare("SELECT 1 FROM CACHED_DATA");
+        int fetchSize = statement.getFetchSize();
+        statement.setFetchSize(fetchSize + 50);
+        statement.setMaxRows(3);
+        cache.release(statement);
+
+        assertSame(statement, cache.prepare("SELECT 1 FROM CACHED_DATA"));
+        assertEquals(fetchSize, statement.getFetchSize());
+        assertEquals(0, statement.getMaxRows());
+        cache.release(statement);
+    }
+
+    private static PreparedStatement prepareAndRelease(PreparedStatementCache cache, String sql) throws Exception {
+        PreparedStatement statement = cache.prepare(sql);
+        cache.release(statement);
+        return statement;
+    }
+}
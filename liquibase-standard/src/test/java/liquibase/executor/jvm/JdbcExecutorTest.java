@@ -1,22 +1,57 @@
 package liquibase.executor.jvm;
 
+import liquibase.GlobalConfiguration;
 import liquibase.Scope;
+import liquibase.change.Change;
+import liquibase.change.ColumnConfig;
+import liquibase.change.core.InsertDataChange;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.visitor.AbstractChangeExecListener;
+import liquibase.changelog.visitor.ChangeExecListener;
 import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.core.MSSQLDatabase;
 import liquibase.database.core.MySQLDatabase;
 import liquibase.database.core.OracleDatabase;
+import liquibase.exception.DatabaseException;
 import liquibase.executor.ExecutorService;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.sql.visitor.ReplaceSqlVisitor;
+import liquibase.sql.visitor.SqlVisitor;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.DeleteStatement;
+import liquibase.statement.core.InsertSetStatement;
+import liquibase.statement.core.InsertStatement;
+import liquibase.statement.core.RawParameterizedSqlStatement;
+import liquibase.statement.core.RawSqlStatement;
+import liquibase.statement.core.UpdateStatement;
 import org.junit.Test;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class JdbcExecutorTest {
 
+    private Database database;
+
     @Test
     public void getInstance() {
         final Database oracle1 = new OracleDatabase() {
@@ -58,4 +93,232 @@ public class JdbcExecutorTest {
         assertEquals("(0) ", new JdbcExecutor().getErrorCode(new SQLException()));
     }
 
+    @Test
+    public void queryForEachPassesRowsInOrder() throws Exception {
+        withRows(10, executor -> {
+            List<Object> names = new ArrayList<>();
+            executor.queryForEach(new RawSqlStatement("SELECT ID, NAME FROM STREAMED_DATA ORDER BY ID"), row -> names.add(row.get("NAME")));
+            assertEquals(10, names.size());
+            assertEquals("name 1", names.get(0));
+            assertEquals("name 10", names.get(9));
+
+            List<Object> ids = new ArrayList<>();
+            executor.queryForEach(new RawParameterizedSqlStatement("SELECT ID FROM STREAMED_DATA WHERE ID > ? ORDER BY ID", 8), row -> ids.add(row.get("ID")));
+            assertEquals(2, ids.size());
+            assertEquals(9, ((Number) ids.get(0)).intValue());
+        });
+    }
+
+    @Test
+    public void queryForEachStopsOnHandlerException() throws Exception {
+        withRows(10, executor -> {
+            List<Object> names = new ArrayList<>();
+            try {
+                executor.queryForEach(new RawSqlStatement("SELECT NAME FROM STREAMED_DATA ORDER BY ID"), row -> {
+                    names.add(row.get("NAME"));
+                    if (names.size() == 3) {
+                        throw new DatabaseException("stop");
+                    }
+                });
+                fail("Expected the handler exception");
+            } catch (DatabaseException e) {
+                assertEquals(3, names.size());
+            }
+        });
+    }
+
+    @Test
+    public void queryWithRowCallbackHandler() throws Exception {
+        withRows(5, executor -> {
+            List<Integer> ids = new ArrayList<>();
+            executor.queryForEachRow(new RawSqlStatement("SELECT ID FROM STREAMED_DATA ORDER BY ID DESC"), rs -> ids.add(rs.getInt(1)));
+            assertEquals(5, ids.size());
+            assertEquals(5, ids.get(0).intValue());
+        });
+    }
+
+    @Test
+    public void queryForStreamReadsRowsLazily() throws Exception {
+        withRows(10, executor -> {
+            try (Stream<Map<String, ?>> rows = executor.queryForStream(new RawSqlStatement("SELECT ID, NAME FROM STREAMED_DATA ORDER BY ID"))) {
+                assertEquals("name 1,name 2", rows.limit(2).map(row -> (String) row.get("NAME")).collect(Collectors.joining(",")));
+            }
+
+            try (Stream<Map<String, ?>> rows = executor.queryForStream(new RawParameterizedSqlStatement("SELECT ID FROM STREAMED_DATA WHERE ID <= ?", 4))) {
+                Iterator<Map<String, ?>> iterator = rows.iterator();
+                int count = 0;
+                while (iterator.hasNext()) {
+                    iterator.next();
+                    count++;
+                }
+                assertEquals(4, count);
+                assertFalse(iterator.hasNext());
+            }
+        });
+    }
+
+    @Test
+    public void batchesConsecutiveDmlInOrder() throws Exception {
+        withRows(0, executor -> {
+            InsertStatement duplicate = insert(1, "duplicate");
+            duplicate.setContinueOnError(true);
+            SqlStatement[] statements = {
+                    insert(1, "a"), insert(2, "b"), insert(3, "c"), insert(4, "d"),
+                    duplicate,
+                    new UpdateStatement(null, null, "STREAMED_DATA").addNewColumnValue("NAME", "updated").setWhereClause("ID > 2"),
+                    new DeleteStatement(null, null, "STREAMED_DATA").setWhere("ID = 4"),
+                    insert(5, "e")
+            };
+            ReplaceSqlVisitor visitor = new ReplaceSqlVisitor();
+            visitor.setReplace("'e'");
+            visitor.setWith("'visited'");
+
+            AtomicInteger rowsAffected = new AtomicInteger();
+            Map<String, Object> scopeValues = new HashMap<>();
+            scopeValues.put(GlobalConfiguration.DML_BATCH_SIZE.getKey(), 3);
+            scopeValues.put(JdbcExecutor.ROWS_AFFECTED_SCOPE_KEY, rowsAffected);
+            List<SqlStatement> executedAlone = new ArrayList<>();
+            JdbcExecutor batchingExecutor = new JdbcExecutor() {
+                @Override
+                public void execute(SqlStatement sql, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+                    executedAlone.add(sql);
+                    super.execute(sql, sqlVisitors);
+                }
+            };
+            batchingExecutor.setDatabase(database);
+            Scope.child(scopeValues, () -> batchingExecutor.execute(statements, Collections.singletonList(visitor)));
+
+            // inserts 1-3 are one batch, the rest run alone because their neighbours differ
+            assertEquals(Arrays.asList(statements[3], statements[4], statements[5], statements[6], statements[7]), executedAlone);
+            assertEquals(8, rowsAffected.get());
+            List<Map<String, ?>> rows = executor.queryForList(new RawSqlStatement("SELECT ID, NAME FROM STREAMED_DATA ORDER BY ID"));
+            assertEquals("1=a,2=b,3=updated,5=visited",
+                    rows.stream().map(row -> row.get("ID") + "=" + row.get("NAME")).collect(Collectors.joining(",")));
+        });
+    }
+
+    @Test
+    public void batchesInsertDataChangesOfAChangeSet() throws Exception {
+        withRows(0, executor -> {
+            List<SqlStatement> executedAlone = new ArrayList<>();
+            JdbcExecutor batchingExecutor = new JdbcExecutor() {
+                @Override
+                public void execute(SqlStatement sql, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+                    executedAlone.add(sql);
+                    super.execute(sql, sqlVisitors);
+                }
+            };
+            batchingExecutor.setDatabase(database);
+            Scope.getCurrentScope().getSingleton(ExecutorService.class).setExecutor("jdbc", database, batchingExecutor);
+
+            DatabaseChangeLog changeLog = new DatabaseChangeLog("com/example/changelog.xml");
+            ChangeSet changeSet = new ChangeSet("1", "test", false, false, "com/example/changelog.xml", null, null, changeLog);
+            for (int i = 1; i <= 20; i++) {
+                InsertDataChange change = new InsertDataChange();
+                change.setTableName("STREAMED_DATA");
+                change.addColumn(new ColumnConfig().setName("ID").setValueNumeric(i));
+                change.addColumn(new ColumnConfig().setName("NAME").setValue("name " + i));
+                changeSet.addChange(change);
+            }
+            List<Integer> rowsWhenRan = new ArrayList<>();
+            List<Integer> rowsWhenWillRun = new ArrayList<>();
+            List<Integer> willRunOrder = new ArrayList<>();
+            List<Integer> ranOrder = new ArrayList<>();
+            ChangeExecListener listener = new AbstractChangeExecListener() {
+                @Override
+                public void willRun(Change change, ChangeSet changeSet, DatabaseChangeLog changeLog, Database database) {
+                    willRunOrder.add(changeSet.getChanges().indexOf(change));
+                    rowsWhenWillRun.add(countRows());
+                }
+
+                @Override
+                public void ran(Change change, ChangeSet changeSet, DatabaseChangeLog changeLog, Database database) {
+                    ranOrder.add(changeSet.getChanges().indexOf(change));
+                    rowsWhenRan.add(countRows());
+                }
+
+                private int countRows() {
+                    try {
+                        return executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM STREAMED_DATA"));
+                    } catch (DatabaseException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            };
+
+            assertTrue(database.supportsBatchingAcrossChanges());
+            assertFalse(new MSSQLDatabase().supportsBatchingAcrossChanges());
+            Scope.child(GlobalConfiguration.DML_BATCH_SIZE.getKey(), 50, () -> changeSet.execute(changeLog, listener, database));
+
+            assertEquals(Collections.emptyList(), executedAlone);
+            assertEquals(Collections.nCopies(20, 0), rowsWhenWillRun);
+            assertEquals(Collections.nCopies(20, 20), rowsWhenRan);
+            assertEquals(ranOrder, willRunOrder);
+            assertEquals(20, ranOrder.size());
+            assertEquals(20, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM STREAMED_DATA")));
+        });
+    }
+
+    @Test
+    public void batchesInsertSets() throws Exception {
+        withRows(0, executor -> {
+            List<SqlStatement> executedAlone = new ArrayList<>();
+            JdbcExecutor batchingExecutor = new JdbcExecutor() {
+                @Override
+                public void execute(SqlStatement sql, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+                    executedAlone.add(sql);
+                    super.execute(sql, sqlVisitors);
+                }
+            };
+            batchingExecutor.setDatabase(database);
+            InsertSetStatement insertSet = new InsertSetStatement(null, null, "STREAMED_DATA", 2);
+            insertSet.addInsertStatement(insert(2, "b")).addInsertStatement(insert(3, "c")).addInsertStatement(insert(4, "d"));
+            SqlStatement[] statements = {insert(1, "a"), insertSet, insert(5, "e")};
+
+            Scope.child(GlobalConfiguration.DML_BATCH_SIZE.getKey(), 10, () -> batchingExecutor.execute(statements, new ArrayList<>()));
+
+            assertEquals(Collections.emptyList(), executedAlone);
+            assertEquals(5, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM STREAMED_DATA")));
+        });
+    }
+
+    @Test
+    public void batchFailureReportsFailedSql() throws Exception {
+        withRows(0, executor -> {
+            SqlStatement[] statements = {insert(1, "a"), insert(2, "b"), insert(1, "c"), insert(3, "d")};
+            try {
+                Scope.child(GlobalConfiguration.DML_BATCH_SIZE.getKey(), 10, () -> executor.execute(statements, new ArrayList<>()));
+                fail("Expected the duplicate row to fail");
+            } catch (DatabaseException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("[Failed SQL: "));
+                assertTrue(e.getMessage(), e.getMessage().contains("'c'"));
+            }
+        });
+    }
+
+    private static InsertStatement insert(int id, String name) {
+        return new InsertStatement(null, null, "STREAMED_DATA").addColumnValue("ID", id).addColumnValue("NAME", name);
+    }
+
+    private void withRows(int count, ExecutorCheck check) throws Exception {
+        database = DatabaseFactory.getInstance().openDatabase("jdbc:h2:mem:JdbcExecutorTest;DB_CLOSE_DELAY=-1", "sa", "",
+                null, new ClassLoaderResourceAccessor());
+        JdbcExecutor executor = (JdbcExecutor) Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
+        try {
+            executor.execute(new RawSqlStatement("CREATE TABLE STREAMED_DATA (ID INT PRIMARY KEY, NAME VARCHAR(50))"));
+            for (int i = 1; i <= count; i++) {
+                executor.execute(new RawParameterizedSqlStatement("INSERT INTO STREAMED_DATA (ID, NAME) VALUES (?, ?)", i, "name " + i));
+            }
+            check.check(executor);
+        } finally {
+            executor.execute(new RawSqlStatement("DROP TABLE STREAMED_DATA"));
+            database.close();
+            Scope.getCurrentScope().getSingleton(ExecutorService.class).reset();
+        }
+    }
+
+    private interface ExecutorCheck {
+
+        void check(JdbcExecutor executor) throws Exception;
+    }
 }
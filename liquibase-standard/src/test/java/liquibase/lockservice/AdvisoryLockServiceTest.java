@@ -0,0 +1,149 @@
+package liquibase.lockservice;
+
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.OfflineConnection;
+import liquibase.database.core.H2Database;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class AdvisoryLockServiceTest {
+
+    private Database database1;
+    private Database database2;
+
+    @Before
+    public void before() throws Exception {
+        LockServiceFactory.getInstance().resetAll();
+        database1 = openDatabase();
+        database2 = openDatabase();
+    }
+
+    @After
+    public void after() throws Exception {
+        LockServiceFactory.getInstance().resetAll();
+        database1.close();
+        database2.close();
+    }
+
+    @Test
+    public void onlySupportedWhenEnabled() throws Exception {
+        AdvisoryLockService lockService = new AdvisoryLockService();
+        assertFalse(lockService.supports(database1));
+
+        Scope.child(Collections.singletonMap(GlobalConfiguration.ADVISORY_CHANGELOG_LOCK.getKey(), true), () -> {
+            assertTrue(lockService.supports(database1));
+            assertFalse(lockService.supports(new H2Database()));
+
+            H2Database offline = new H2Database();
+            offline.setConnection(new OfflineConnection("offline:h2", new ClassLoaderResourceAccessor()));
+            assertFalse(lockService.supports(offline));
+
+            assertTrue(LockServiceFactory.getInstance().getLockService(database1) instanceof AdvisoryLockService);
+        });
+    }
+
+    @Test
+    public void lockNameDependsOnLockTable() {
+        AdvisoryLockService lockService1 = new AdvisoryLockService();
+        lockService1.setDatabase(database1);
+        AdvisoryLockService lockService2 = new AdvisoryLockService();
+        lockService2.setDatabase(database2);
+
+        assertEquals(lockService1.getLockName(), lockService2.getLockName());
+        assertEquals(lockService1.getLockId(), lockService2.getLockId());
+        assertTrue(lockService1.getLockId() >= 0);
+
+        database2.setDatabaseChangeLogLockTableName("OTHER_LOCK");
+        assertNotEquals(lockService1.getLockName(), lockService2.getLockName());
+    }
+
+    @Test
+    public void fallsBackToLockTableWithoutAdvisoryLocks() throws Exception {
+        AdvisoryLockService lockService1 = new AdvisoryLockService();
+        lockService1.setDatabase(database1);
+        AdvisoryLockService lockService2 = new AdvisoryLockService();
+        lockService2.setDatabase(database2);
+        assertFalse(lockService1.supportsAdvisoryLock());
+
+        assertTrue(lockService1.acquireLock());
+        assertFalse(lockService2.acquireLock());
+        assertEquals(1, lockService2.listLocks().length);
+
+        lockService1.releaseLock();
+        assertTrue(lockService2.acquireLock());
+        lockService2.releaseLock();
+        assertEquals(0, lockService1.listLocks().length);
+    }
+
+    @Test
+    public void takesOverRowsLeftByAdvisoryLockHolders() throws Exception {
+        AdvisoryLockService crashed = new SimulatedAdvisoryLockService();
+        crashed.setDatabase(database2);
+        assertTrue(crashed.acquireLock());
+        assertTrue(crashed.listLocks()[0].getLockedBy().startsWith(AdvisoryLockService.LOCKED_BY_MARKER));
+
+        AdvisoryLockService lockService = new SimulatedAdvisoryLockService();
+        lockService.setDatabase(database1);
+        assertTrue(lockService.acquireLock());
+        assertTrue(lockService.hasChangeLogLock());
+        lockService.releaseLock();
+        assertEquals(0, lockService.listLocks().length);
+    }
+
+    @Test
+    public void waitsForRowsLockedThroughTheLockTable() throws Exception {
+        StandardLockService tableOnly = new StandardLockService();
+        tableOnly.setDatabase(database2);
+        assertTrue(tableOnly.acquireLock());
+
+        AdvisoryLockService lockService = new SimulatedAdvisoryLockService();
+        lockService.setDatabase(database1);
+        lockService.setChangeLogLockRecheckTime(1);
+        assertFalse(lockService.acquireLock());
+        assertEquals(1, lockService.listLocks().length);
+        assertFalse(lockService.listLocks()[0].getLockedBy().startsWith(AdvisoryLockService.LOCKED_BY_MARKER));
+
+        Thread release = new Thread(() -> {
+            try {
+                Thread.sleep(500);
+                tableOnly.releaseLock();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        release.start();
+        lockService.waitForLock();
+        release.join();
+        assertTrue(lockService.hasChangeLogLock());
+        lockService.releaseLock();
+    }
+
+    /**
+     * Treats H2 as a database with advisory locks that are always granted, like after their holder's session ended.
+     */
+    private static class SimulatedAdvisoryLockService extends AdvisoryLockService {
+        @Override
+        public boolean supportsAdvisoryLock() {
+            return true;
+        }
+
+        @Override
+        protected boolean requestAdvisoryLock(long waitSeconds) {
+            return true;
+        }
+    }
+
+    private Database openDatabase() throws Exception {
+        return DatabaseFactory.getInstance().openDatabase("jdbc:h2:mem:AdvisoryLockServiceTest;DB_CLOSE_DELAY=-1", "sa", "",
+                null, new ClassLoaderResourceAccessor());
+    }
+}
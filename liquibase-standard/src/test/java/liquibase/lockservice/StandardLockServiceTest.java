@@ -1,14 +1,26 @@
 package liquibase.lockservice;
 
+import liquibase.RuntimeEnvironment;
 import liquibase.Scope;
+import liquibase.change.core.RawSQLChange;
+import liquibase.changelog.ChangeLogHistoryServiceFactory;
+import liquibase.changelog.ChangeLogIterator;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.visitor.UpdateVisitor;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
 import liquibase.database.core.MockDatabase;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.LockException;
 import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
 import liquibase.logging.Logger;
 import liquibase.logging.mdc.MdcManager;
+import liquibase.resource.ClassLoaderResourceAccessor;
 import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.core.RawSqlStatement;
 import org.assertj.core.api.Assertions;
 import org.junit.Before;
 import org.junit.Test;
@@ -77,6 +89,119 @@ public class StandardLockServiceTest {
         }
     }
 
+    @Test
+    public void shouldTakeOverLeaseThatIsNoLongerRenewed() throws Exception {
+        Database database1 = openLeaseTestDatabase();
+        Database database2 = openLeaseTestDatabase();
+        try {
+            StandardLockService crashed = new StandardLockService();
+            crashed.setDatabase(database1);
+            crashed.setChangeLogLockLeaseTime(1);
+            Assertions.assertThat(crashed.acquireLock()).isTrue();
+            String crashedOwner = crashed.listLocks()[0].getLockedBy();
+            Assertions.assertThat(crashedOwner).contains(" lease:");
+            crashed.reset(); // stops renewing the lease but leaves the row locked
+
+            StandardLockService waiting = new StandardLockService();
+            waiting.setDatabase(database2);
+            waiting.setChangeLogLockLeaseTime(1);
+            waiting.setChangeLogLockRecheckTime(1);
+            waiting.waitForLock();
+
+            Assertions.assertThat(waiting.hasChangeLogLock()).isTrue();
+            Assertions.assertThat(waiting.getLockTakeovers()).isEqualTo(1);
+            Assertions.assertThat(waiting.getLockWaitTime()).isGreaterThanOrEqualTo(1000);
+            Assertions.assertThat(waiting.listLocks()[0].getLockedBy()).contains(" lease:").isNotEqualTo(crashedOwner);
+
+            waiting.releaseLock();
+            Assertions.assertThat(waiting.listLocks()).isEmpty();
+        } finally {
+            database1.close();
+            database2.close();
+        }
+    }
+
+    @Test
+    public void shouldNotTakeOverRenewedLease() throws Exception {
+        Database database1 = openLeaseTestDatabase();
+        Database database2 = openLeaseTestDatabase();
+        try {
+            StandardLockService holder = new StandardLockService();
+            holder.setDatabase(database1);
+            holder.setChangeLogLockLeaseTime(1);
+            Assertions.assertThat(holder.acquireLock()).isTrue();
+
+            StandardLockService waiting = new StandardLockService();
+            waiting.setDatabase(database2);
+            waiting.setChangeLogLockLeaseTime(1);
+            long giveUp = System.currentTimeMillis() + 3500;
+            while (System.currentTimeMillis() < giveUp) {
+                Assertions.assertThat(waiting.acquireLock()).isFalse();
+                Assertions.assertThat(waiting.takeOverExpiredLease()).isFalse();
+                Thread.sleep(100);
+            }
+
+            holder.releaseLock();
+            Assertions.assertThat(waiting.acquireLock()).isTrue();
+            waiting.releaseLock();
+        } finally {
+            database1.close();
+            database2.close();
+        }
+    }
+
+    @Test
+    public void shouldStopUpdateOnceLeaseIsLost() throws Exception {
+        Database database1 = openLeaseTestDatabase("StandardLockServiceLostLeaseTest");
+        Database database2 = openLeaseTestDatabase("StandardLockServiceLostLeaseTest");
+        try {
+            StandardLockService holder = (StandardLockService) LockServiceFactory.getInstance().getLockService(database1);
+            holder.setChangeLogLockLeaseTime(3);
+            Assertions.assertThat(holder.acquireLock()).isTrue();
+            Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(database1).init();
+
+            Executor executor2 = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database2);
+            executor2.execute(new RawSqlStatement("UPDATE DATABASECHANGELOGLOCK SET LOCKEDBY = 'another process' WHERE ID = 1"));
+            database2.commit();
+            long giveUp = System.currentTimeMillis() + 5000;
+            while (holder.hasChangeLogLock() && (System.currentTimeMillis() < giveUp)) {
+                Thread.sleep(100);
+            }
+            Assertions.assertThat(holder.hasChangeLogLock()).isFalse();
+
+            DatabaseChangeLog changeLog = new DatabaseChangeLog("com/example/lease.xml");
+            ChangeSet changeSet = new ChangeSet("1", "test", false, false, changeLog.getFilePath(), null, null, changeLog);
+            changeSet.addChange(new RawSQLChange("CREATE TABLE LEASE_LOST (ID INT)"));
+            changeLog.addChangeSet(changeSet);
+
+            Assertions.assertThatThrownBy(() -> new ChangeLogIterator(changeLog).run(new UpdateVisitor(database1, null),
+                            new RuntimeEnvironment(database1, null, null)))
+                    .hasRootCauseInstanceOf(LockException.class)
+                    .hasMessageContaining("was lost");
+            Assertions.assertThat(executor2.queryForInt(new RawSqlStatement(
+                    "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'LEASE_LOST'"))).isZero();
+        } finally {
+            Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database2).execute(new RawSqlStatement("DROP ALL OBJECTS"));
+            LockServiceFactory.getInstance().resetAll();
+            Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).resetAll();
+            Scope.getCurrentScope().getSingleton(ExecutorService.class).reset();
+            database1.close();
+            database2.close();
+        }
+    }
+
+    private static Database openLeaseTestDatabase() throws Exception {
+        return openLeaseTestDatabase("StandardLockServiceLeaseTest");
+    }
+
+    private static Database openLeaseTestDatabase(String name) throws Exception {
+        String url = "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1";
+        Database database = DatabaseFactory.getInstance().openDatabase(url, "sa", "", null, new ClassLoaderResourceAccessor());
+        ((JdbcConnection) database.getConnection()).setConnectionFactory(() -> DatabaseFactory.getInstance().openConnection(url, "sa", "",
+                null, new ClassLoaderResourceAccessor()));
+        return database;
+    }
+
     private static List<Map<String, ?>> sampleLockData() {
         Map<String, Object> columnMapRow0 = new TreeMap<>();
 
@@ -0,0 +1,35 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.core.H2Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.sql.Sql;
+import liquibase.statement.core.CreateStagingTableStatement;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class CreateStagingTableGeneratorTest {
+
+    @Test
+    public void testCreateTableAs() {
+        Sql[] sql = new CreateStagingTableGenerator().generateSql(createStatement(), new H2Database(), null);
+
+        assertEquals(1, sql.length);
+        assertEquals("CREATE TABLE myschema.mystage AS SELECT id, col2 FROM myschema.mytable WHERE 1 = 0", sql[0].toSql());
+    }
+
+    @Test
+    public void testMSSQLDropsIdentity() {
+        Sql[] sql = new CreateStagingTableGeneratorMSSQL().generateSql(createStatement(), new MSSQLDatabase(), null);
+
+        assertEquals(1, sql.length);
+        assertEquals("SELECT id, col2 INTO mycatalog.myschema.mystage FROM mycatalog.myschema.mytable WHERE 1 = 0 "
+                + "UNION ALL SELECT id, col2 FROM mycatalog.myschema.mytable WHERE 1 = 0", sql[0].toSql());
+    }
+
+    private CreateStagingTableStatement createStatement() {
+        return new CreateStagingTableStatement("mycatalog", "myschema", "mystage", "mytable", Arrays.asList("id", "col2"));
+    }
+}
@@ -12,12 +12,16 @@ import liquibase.sql.Sql;
 import liquibase.sqlgenerator.AbstractSqlGeneratorTest;
 import liquibase.sqlgenerator.MockSqlGeneratorChain;
 import liquibase.statement.core.MarkChangeSetRanStatement;
+import liquibase.statement.core.RawParameterizedSqlStatement;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class MarkChangeSetRanGeneratorTest extends AbstractSqlGeneratorTest<MarkChangeSetRanStatement> {
@@ -56,6 +60,28 @@ public class MarkChangeSetRanGeneratorTest extends AbstractSqlGeneratorTest<Mark
                                                                      "(changeSetContext1 AND changeSetContext2)"));
     }
 
+    @Test
+    public void generateParameterizedStatement() {
+        MarkChangeSetRanGenerator generator = new MarkChangeSetRanGenerator();
+        RawParameterizedSqlStatement first = generator.generateParameterizedStatement(new MarkChangeSetRanStatement(
+                new ChangeSet("1", "a", false, false, "c", null, null, null), ChangeSet.ExecType.EXECUTED), new MockDatabase());
+        RawParameterizedSqlStatement second = generator.generateParameterizedStatement(new MarkChangeSetRanStatement(
+                new ChangeSet("2", "b", false, false, "d", null, null, null), ChangeSet.ExecType.EXECUTED), new MockDatabase());
+        assertEquals(first.getSql(), second.getSql());
+        assertTrue(first.getSql(), first.getSql().startsWith("INSERT INTO DATABASECHANGELOG (ID, AUTHOR, FILENAME, DATEEXECUTED, "));
+        assertEquals(Arrays.asList("1", "a", "c"), first.getParameters().subList(0, 3));
+
+        RawParameterizedSqlStatement rerun = generator.generateParameterizedStatement(new MarkChangeSetRanStatement(
+                new ChangeSet("1", "a", false, false, "c", null, null, null), ChangeSet.ExecType.RERAN), new MockDatabase());
+        assertTrue(rerun.getSql(), rerun.getSql().startsWith("UPDATE DATABASECHANGELOG SET "));
+        assertTrue(rerun.getSql(), rerun.getSql().endsWith(" WHERE ID = ? AND AUTHOR = ? AND FILENAME = ?"));
+        List<Object> parameters = rerun.getParameters();
+        assertEquals(Arrays.asList("1", "a", "c"), parameters.subList(parameters.size() - 3, parameters.size()));
+
+        assertNull(generator.generateParameterizedStatement(new MarkChangeSetRanStatement(
+                new ChangeSet("1", "a", false, false, "c", null, null, null), ChangeSet.ExecType.FAILED), new MockDatabase()));
+    }
+
     /**
      * Ensure that upon running an update on a changeset that has been run before, we still update the labels,
      * contexts and comments columns in the DBCL table.
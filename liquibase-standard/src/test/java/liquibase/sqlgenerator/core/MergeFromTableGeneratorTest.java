@@ -0,0 +1,59 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.core.H2Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.sql.Sql;
+import liquibase.statement.core.MergeFromTableStatement;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class MergeFromTableGeneratorTest {
+
+    @Test
+    public void testMerge() {
+        Sql[] sql = new MergeFromTableGenerator().generateSql(createStatement(false), new H2Database(), null);
+
+        assertEquals(1, sql.length);
+        assertEquals("MERGE INTO myschema.mytable a USING myschema.mystage b ON ((a.id = b.id OR (a.id IS NULL AND b.id IS NULL))) "
+                + "WHEN MATCHED THEN UPDATE SET col2 = b.col2 "
+                + "WHEN NOT MATCHED THEN INSERT (id, col2, col3) VALUES (b.id, b.col2, b.col3)", sql[0].toSql());
+    }
+
+    @Test
+    public void testOnlyUpdateFlag() {
+        Sql[] sql = new MergeFromTableGenerator().generateSql(createStatement(true), new MSSQLDatabase(), null);
+
+        assertEquals(1, sql.length);
+        assertEquals("MERGE INTO mycatalog.myschema.mytable a USING mycatalog.myschema.mystage b ON ((a.id = b.id OR (a.id IS NULL AND b.id IS NULL))) "
+                + "WHEN MATCHED THEN UPDATE SET col2 = b.col2;", sql[0].toSql());
+    }
+
+    @Test
+    public void testPostgres() {
+        Sql[] sql = new MergeFromTableGeneratorPostgres().generateSql(createStatement(false), new PostgresDatabase(), null);
+
+        assertEquals(2, sql.length);
+        assertEquals("UPDATE myschema.mytable a SET col2 = b.col2 FROM myschema.mystage b WHERE (a.id = b.id OR (a.id IS NULL AND b.id IS NULL))", sql[0].toSql());
+        assertEquals("INSERT INTO myschema.mytable (id, col2, col3) SELECT b.id, b.col2, b.col3 FROM myschema.mystage b "
+                + "WHERE NOT EXISTS (SELECT 1 FROM myschema.mytable a WHERE (a.id = b.id OR (a.id IS NULL AND b.id IS NULL)))", sql[1].toSql());
+    }
+
+    @Test
+    public void testSupports() {
+        assertTrue(new MergeFromTableGenerator().supports(createStatement(false), new H2Database()));
+        assertFalse(new MergeFromTableGenerator().supports(createStatement(false), new MySQLDatabase()));
+        assertTrue(new MergeFromTableGeneratorPostgres().supports(createStatement(false), new PostgresDatabase()));
+    }
+
+    private MergeFromTableStatement createStatement(boolean onlyUpdate) {
+        MergeFromTableStatement statement = new MergeFromTableStatement("mycatalog", "myschema", "mytable", "mystage",
+                Arrays.asList("id", "col2", "col3"), "id", onlyUpdate);
+        statement.setAllowColumnUpdate("col3", false);
+        return statement;
+    }
+}
@@ -0,0 +1,129 @@
+package liquibase.statement;
+
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.change.ColumnConfig;
+import liquibase.change.core.LoadDataColumnConfig;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ResourceAccessor;
+import liquibase.sql.visitor.SqlVisitor;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BatchDmlExecutablePreparedStatementTest {
+
+    @Mock
+    private ChangeSet changeSet;
+
+    @Mock
+    private ResourceAccessor resourceAccessor;
+
+    @Mock
+    private JdbcConnection connection;
+
+    @Mock
+    private PreparedStatement ps;
+
+    private Database database;
+
+    private PreparedStatementFactory preparedStatementFactory;
+
+    @Before
+    public void setUp() throws Exception {
+        database = spy(new MSSQLDatabase());
+        preparedStatementFactory = new PreparedStatementFactory(connection);
+        when(changeSet.getSqlVisitors()).thenReturn(new ArrayList<SqlVisitor>());
+        when(connection.prepareStatement(any(String.class))).thenReturn(ps);
+    }
+
+    @Test
+    public void testExecuteInBatchesOfConfiguredSize() throws Exception {
+        when(ps.executeBatch()).thenReturn(new int[]{1, 1}, new int[]{1, 1}, new int[]{1});
+
+        Map<String, Object> config = new HashMap<>();
+        config.put(GlobalConfiguration.LOAD_DATA_BATCH_SIZE.getKey(), 2);
+        Scope.child(config, () -> createBatch(5).execute(preparedStatementFactory));
+
+        verify(ps, times(5)).addBatch();
+        verify(ps, times(3)).executeBatch();
+        verify(ps, times(3)).clearBatch();
+        verify(ps).setString(1, "value0");
+        verify(ps).setString(1, "value4");
+        verify(database, never()).commit();
+    }
+
+    @Test
+    public void testExecuteInSingleBatchWithoutBatchSize() throws Exception {
+        when(ps.executeBatch()).thenReturn(new int[]{1, 1, 1});
+
+        Scope.child(Collections.<String, Object>singletonMap(GlobalConfiguration.LOAD_DATA_BATCH_SIZE.getKey(), 0),
+                () -> createBatch(3).execute(preparedStatementFactory));
+
+        verify(ps, times(3)).addBatch();
+        verify(ps, times(1)).executeBatch();
+    }
+
+    @Test
+    public void testExecuteInSingleBatchByDefault() throws Exception {
+        when(ps.executeBatch()).thenReturn(new int[]{1, 1, 1});
+
+        createBatch(3).execute(preparedStatementFactory);
+
+        verify(ps, times(3)).addBatch();
+        verify(ps, times(1)).executeBatch();
+    }
+
+    @Test
+    public void testCommitBatchesOutsideTransaction() throws Exception {
+        when(changeSet.isRunInTransaction()).thenReturn(false);
+        when(ps.executeBatch()).thenReturn(new int[]{1, 1}, new int[]{Statement.SUCCESS_NO_INFO, 1}, new int[]{1});
+        doNothing().when(database).commit();
+
+        Map<String, Object> config = new HashMap<>();
+        config.put(GlobalConfiguration.LOAD_DATA_BATCH_SIZE.getKey(), 2);
+        config.put(GlobalConfiguration.LOAD_DATA_COMMIT_BATCHES.getKey(), true);
+        Scope.child(config, () -> {
+            BatchDmlExecutablePreparedStatement batch = createBatch(5);
+            assertEquals(2, batch.getBatchSize());
+            batch.execute(preparedStatementFactory);
+        });
+
+        verify(ps, times(3)).executeBatch();
+        // the last batch is committed with the changeset
+        verify(database, times(2)).commit();
+    }
+
+    private BatchDmlExecutablePreparedStatement createBatch(int rows) {
+        List<ExecutablePreparedStatementBase> statements = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            ColumnConfig column = new ColumnConfig();
+            column.setName("column1");
+            column.setValue("value" + i);
+            statements.add(new InsertExecutablePreparedStatement(database, "catalogName", "schemaName", "tableName",
+                    Collections.singletonList(column), changeSet, resourceAccessor));
+        }
+        LoadDataColumnConfig column = new LoadDataColumnConfig();
+        column.setName("column1");
+        return new BatchDmlExecutablePreparedStatement(database, "catalogName", "schemaName", "tableName",
+                Collections.singletonList(column), changeSet, resourceAccessor, statements);
+    }
+}
@@ -28,6 +28,7 @@ import java.util.Date;
 import static org.junit.Assert.*;
 import static org.junit.Assert.assertNotEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -79,6 +80,8 @@ public class ExecutablePreparedStatementBaseTest {
     private Reader reader = new InputStreamReader(new ByteArrayInputStream(new byte[]{}));
     private ExecutablePreparedStatementBase.LOBContent<Reader> clobContentLengthInteger = new ExecutablePreparedStatementBase.LOBContent(reader, Integer.MAX_VALUE - 1);
     private ExecutablePreparedStatementBase.LOBContent<Reader> clobContentLengthLong = new ExecutablePreparedStatementBase.LOBContent(reader, Long.MAX_VALUE);
+    private ExecutablePreparedStatementBase.LOBContent<InputStream> blobContentLengthUnknown = new ExecutablePreparedStatementBase.LOBContent(new ByteArrayInputStream(new byte[]{}), -1);
+    private ExecutablePreparedStatementBase.LOBContent<Reader> clobContentLengthUnknown = new ExecutablePreparedStatementBase.LOBContent(reader, -1);
     private DatabaseFunction valueComputed = new DatabaseFunction("select * from some_table");
     private Object valueComputedObject = new Object();
 
@@ -462,6 +465,105 @@ public class ExecutablePreparedStatementBaseTest {
         }
     }
 
+    @Test
+    public void testApplyColumnParameter_valueBlobFileLengthUnknown() throws LiquibaseException, SQLException, IOException {
+
+        doReturn(valueBlobFile).when(columnConfig1Mock).getValueBlobFile();
+
+        doReturn(blobContentLengthUnknown).when(executablePreparedStatementBase).toBinaryStream(any());
+
+        executablePreparedStatementBase.applyColumnParameter(preparedStatementMock, position, columnConfig1Mock);
+
+        verify(preparedStatementMock).setBlob(position, blobContentLengthUnknown.getContent());
+        verify(executablePreparedStatementBase, never()).getResourceAsStream(any());
+    }
+
+    @Test
+    public void testApplyColumnParameter_valueBlobFileLengthUnknownNotSupported() throws LiquibaseException, SQLException, IOException {
+
+        doReturn(valueBlobFile).when(columnConfig1Mock).getValueBlobFile();
+
+        doReturn(blobContentLengthUnknown).when(executablePreparedStatementBase).toBinaryStream(any());
+        doReturn(new ByteArrayInputStream(new byte[5])).when(executablePreparedStatementBase).getResourceAsStream(valueBlobFile);
+        doThrow(new SQLFeatureNotSupportedException()).when(preparedStatementMock).setBlob(position, blobContentLengthUnknown.getContent());
+
+        executablePreparedStatementBase.applyColumnParameter(preparedStatementMock, position, columnConfig1Mock);
+
+        verify(preparedStatementMock).setBlob(position, blobContentLengthUnknown.getContent(), 5);
+    }
+
+    @Test
+    public void testApplyColumnParameter_valueClobFileLengthUnknown() throws LiquibaseException, SQLException, IOException {
+
+        doReturn(valueClobFile).when(columnConfig1Mock).getValueClobFile();
+        doReturn(valueClobFile).when(columnConfig1Mock).getEncoding();
+
+        doReturn(clobContentLengthUnknown).when(executablePreparedStatementBase).toCharacterStream(any(), any());
+
+        executablePreparedStatementBase.applyColumnParameter(preparedStatementMock, position, columnConfig1Mock);
+
+        verify(preparedStatementMock).setCharacterStream(position, clobContentLengthUnknown.getContent());
+    }
+
+    @Test
+    public void testToBinaryStream_lengthFromResourceMetadata() throws LiquibaseException, IOException {
+
+        useMutableCloseables();
+        InputStream in = spy(new ByteArrayInputStream(new byte[200_000]));
+        doReturn(in).when(executablePreparedStatementBase).getResourceAsStream(valueBlobFile);
+        doReturn(200_000L).when(executablePreparedStatementBase).getResourceLength(valueBlobFile);
+
+        ExecutablePreparedStatementBase.LOBContent<InputStream> lob = executablePreparedStatementBase.toBinaryStream(valueBlobFile);
+
+        assertEquals(200_000L, lob.getLength());
+        verify(in, never()).read(any(), anyInt(), anyInt());
+        verify(executablePreparedStatementBase, times(1)).getResourceAsStream(valueBlobFile);
+    }
+
+    @Test
+    public void testToBinaryStream_smallResourceMeasuredInBuffer() throws LiquibaseException, IOException {
+
+        useMutableCloseables();
+        doReturn(new ByteArrayInputStream(new byte[1000])).when(executablePreparedStatementBase).getResourceAsStream(valueBlobFile);
+        doReturn(-1L).when(executablePreparedStatementBase).getResourceLength(valueBlobFile);
+
+        ExecutablePreparedStatementBase.LOBContent<InputStream> lob = executablePreparedStatementBase.toBinaryStream(valueBlobFile);
+
+        assertEquals(1000L, lob.getLength());
+        assertEquals(1000, lob.getContent().readAllBytes().length);
+        verify(executablePreparedStatementBase, times(1)).getResourceAsStream(valueBlobFile);
+    }
+
+    @Test
+    public void testToBinaryStream_largeResourceLengthUnknown() throws LiquibaseException, IOException {
+
+        useMutableCloseables();
+        doReturn(new ByteArrayInputStream(new byte[200_000])).when(executablePreparedStatementBase).getResourceAsStream(valueBlobFile);
+        doReturn(-1L).when(executablePreparedStatementBase).getResourceLength(valueBlobFile);
+
+        ExecutablePreparedStatementBase.LOBContent<InputStream> lob = executablePreparedStatementBase.toBinaryStream(valueBlobFile);
+
+        assertEquals(-1L, lob.getLength());
+        assertEquals(200_000, lob.getContent().readAllBytes().length);
+        verify(executablePreparedStatementBase, times(1)).getResourceAsStream(valueBlobFile);
+    }
+
+    @Test
+    public void testToCharacterStream_lengthInCharacters() throws LiquibaseException, IOException {
+
+        useMutableCloseables();
+        String value = "\u00e4\u00f6\u00fc text";
+        doReturn(new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8))).when(executablePreparedStatementBase).getResourceAsStream(valueClobFile);
+
+        ExecutablePreparedStatementBase.LOBContent<Reader> lob = executablePreparedStatementBase.toCharacterStream(valueClobFile, encoding);
+
+        assertEquals(value.length(), lob.getLength());
+        StringWriter content = new StringWriter();
+        lob.getContent().transferTo(content);
+        assertEquals(value, content.toString());
+        verify(executablePreparedStatementBase, times(1)).getResourceAsStream(valueClobFile);
+    }
+
     @Test
     public void testApplyColumnParameter_valueNull() throws LiquibaseException, SQLException, IOException {
 
@@ -515,6 +617,12 @@ public class ExecutablePreparedStatementBaseTest {
         assertEquals(java.sql.Types.NULL, stmt.getParamTypes().get(1).intValue());
     }
 
+    private void useMutableCloseables() {
+        Field closeablesField = ReflectionUtils.findField(ExecutablePreparedStatementBase.class, "closeables");
+        ReflectionUtils.makeAccessible(closeablesField);
+        ReflectionUtils.setField(closeablesField, executablePreparedStatementBase, new HashSet<>());
+    }
+
     private static class DummyPreparedStatement implements PreparedStatement {
         private Map<Integer, Integer> paramTypes = new HashMap<>();
 
@@ -0,0 +1,145 @@
+package liquibase.statement;
+
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.change.core.LoadDataChange;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.resource.DirectoryResourceAccessor;
+import liquibase.statement.core.RawSqlStatement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ParallelDmlExecutablePreparedStatementTest {
+
+    private static final int ROWS = 1000;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Database database;
+
+    private Executor executor;
+
+    @Before
+    public void setUp() throws Exception {
+        String url = "jdbc:h2:mem:ParallelDmlTest;DB_CLOSE_DELAY=-1";
+        database = DatabaseFactory.getInstance().openDatabase(url, "sa", "", null, new ClassLoaderResourceAccessor());
+        ((JdbcConnection) database.getConnection()).setConnectionFactory(() -> DatabaseFactory.getInstance().openConnection(url, "sa", "",
+                null, new ClassLoaderResourceAccessor()));
+        executor = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
+        executor.execute(new RawSqlStatement("CREATE TABLE PARALLEL_DATA (ID INT PRIMARY KEY, NAME VARCHAR(50))"));
+        database.commit();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.execute(new RawSqlStatement("DROP TABLE PARALLEL_DATA"));
+        database.commit();
+        database.close();
+    }
+
+    @Test
+    public void loadsPartitionsOnSeveralConnections() throws Exception {
+        StringBuilder csv = new StringBuilder("id,name\n");
+        for (int i = 1; i <= ROWS; i++) {
+            // quoted values spanning lines must stay in one partition
+            csv.append(i).append(i % 7 == 0 ? ",\"name\n" + i + "\"\n" : ",name " + i + "\n");
+        }
+        writeDataFile(csv.toString());
+
+        executeParallel(3, statement -> {
+            assertEquals(3, statement.getThreads());
+            executor.execute(statement);
+            assertEquals(ROWS, statement.getExecutedOperations());
+        });
+
+        assertEquals(ROWS, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM PARALLEL_DATA")));
+        assertEquals("name\n14", executor.queryForObject(new RawSqlStatement("SELECT NAME FROM PARALLEL_DATA WHERE ID = 14"), String.class));
+        assertEquals("name 999", executor.queryForObject(new RawSqlStatement("SELECT NAME FROM PARALLEL_DATA WHERE ID = 999"), String.class));
+    }
+
+    @Test
+    public void rollsBackAllPartitionsOnFailure() throws Exception {
+        StringBuilder csv = new StringBuilder("id,name\n");
+        for (int i = 1; i <= ROWS; i++) {
+            csv.append(i).append(",name ").append(i).append("\n");
+        }
+        // duplicate primary key in the last partition
+        csv.append("1,duplicate\n");
+        writeDataFile(csv.toString());
+
+        executeParallel(3, statement -> {
+            try {
+                executor.execute(statement);
+                fail("Expected the duplicate row to fail");
+            } catch (DatabaseException e) {
+                // expected
+            }
+        });
+
+        assertEquals(0, executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM PARALLEL_DATA")));
+    }
+
+    @Test
+    public void notUsedInTransactionalChangeSet() throws Exception {
+        writeDataFile("id,name\n1,name 1\n");
+
+        LoadDataChange change = createChange(true);
+        Scope.child(createConfig(3), () -> {
+            SqlStatement[] statements = change.generateStatements(database);
+            assertEquals(1, statements.length);
+            assertFalse(statements[0] instanceof ParallelDmlExecutablePreparedStatement);
+        });
+    }
+
+    private void executeParallel(int threads, StatementCheck check) throws Exception {
+        LoadDataChange change = createChange(false);
+        Scope.child(createConfig(threads), () -> {
+            SqlStatement[] statements = change.generateStatements(database);
+            assertEquals(1, statements.length);
+            check.check((ParallelDmlExecutablePreparedStatement) statements[0]);
+        });
+    }
+
+    private Map<String, Object> createConfig(int threads) throws Exception {
+        Map<String, Object> config = new HashMap<>();
+        config.put(GlobalConfiguration.LOAD_DATA_PARALLEL_THREADS.getKey(), threads);
+        config.put(GlobalConfiguration.LOAD_DATA_BATCH_SIZE.getKey(), 50);
+        config.put(Scope.Attr.resourceAccessor.name(), new DirectoryResourceAccessor(temporaryFolder.getRoot()));
+        return config;
+    }
+
+    private LoadDataChange createChange(boolean runInTransaction) {
+        LoadDataChange change = new LoadDataChange();
+        change.setTableName("PARALLEL_DATA");
+        change.setFile("data.csv");
+        change.setChangeSet(new ChangeSet("1", "test", false, false, "changelog.xml", null, null, runInTransaction, null));
+        return change;
+    }
+
+    private void writeDataFile(String content) throws Exception {
+        Files.write(temporaryFolder.getRoot().toPath().resolve("data.csv"), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private interface StatementCheck {
+
+        void check(ParallelDmlExecutablePreparedStatement statement) throws Exception;
+    }
+}
@@ -0,0 +1,106 @@
+package liquibase.statement;
+
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.change.core.LoadDataChange;
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.sql.PreparedStatement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StreamingDmlExecutablePreparedStatementTest {
+
+    @Mock
+    private JdbcConnection connection;
+
+    @Mock
+    private PreparedStatement ps;
+
+    private Database database;
+
+    private PreparedStatementFactory preparedStatementFactory;
+
+    @Before
+    public void setUp() throws Exception {
+        database = spy(new MSSQLDatabase());
+        preparedStatementFactory = new PreparedStatementFactory(connection);
+    }
+
+    @Test
+    public void testNotStreamedByDefault() throws Exception {
+        doReturn(true).when(database).supportsBatchUpdates();
+
+        SqlStatement[] statements = createChange().generateStatements(database);
+
+        assertEquals(1, statements.length);
+        assertTrue(statements[0] instanceof BatchDmlExecutablePreparedStatement);
+    }
+
+    @Test
+    public void testExecuteStreamedRowsInBatches() throws Exception {
+        doReturn(true).when(database).supportsBatchUpdates();
+        when(connection.prepareStatement(any(String.class))).thenReturn(ps);
+        when(ps.executeBatch()).thenReturn(new int[]{1});
+
+        Map<String, Object> config = new HashMap<>();
+        config.put(GlobalConfiguration.LOAD_DATA_STREAMING.getKey(), true);
+        config.put(GlobalConfiguration.LOAD_DATA_BATCH_SIZE.getKey(), 1);
+        Scope.child(config, () -> {
+            SqlStatement[] statements = createChange().generateStatements(database);
+            assertEquals(1, statements.length);
+            StreamingDmlExecutablePreparedStatement statement = (StreamingDmlExecutablePreparedStatement) statements[0];
+            assertTrue(statement.isBatch());
+
+            statement.execute(preparedStatementFactory);
+            assertEquals(2, statement.getExecutedOperations());
+        });
+
+        verify(connection, times(1)).prepareStatement(any(String.class));
+        verify(ps).setString(1, "Bob Johnson");
+        verify(ps).setString(2, "jdoe");
+        verify(ps, times(2)).addBatch();
+        verify(ps, times(2)).executeBatch();
+        verify(ps).close();
+    }
+
+    @Test
+    public void testExecuteStreamedRowsWithoutBatches() throws Exception {
+        doReturn(false).when(database).supportsBatchUpdates();
+        when(connection.prepareStatement(any(String.class))).thenReturn(ps);
+
+        Scope.child(Collections.<String, Object>singletonMap(GlobalConfiguration.LOAD_DATA_STREAMING.getKey(), true), () -> {
+            StreamingDmlExecutablePreparedStatement statement =
+                    (StreamingDmlExecutablePreparedStatement) createChange().generateStatements(database)[0];
+            assertFalse(statement.isBatch());
+
+            statement.execute(preparedStatementFactory);
+            assertEquals(2, statement.getExecutedOperations());
+        });
+
+        verify(ps, times(2)).execute();
+        verify(ps, never()).addBatch();
+    }
+
+    private LoadDataChange createChange() {
+        LoadDataChange change = new LoadDataChange();
+        change.setSchemaName("SCHEMA_NAME");
+        change.setTableName("TABLE_NAME");
+        change.setUsePreparedStatements(Boolean.TRUE);
+        change.setFile("liquibase/change/core/sample.data1.csv");
+        return change;
+    }
+}